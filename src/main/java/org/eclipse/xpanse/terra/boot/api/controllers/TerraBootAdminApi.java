@@ -9,15 +9,21 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.annotation.Resource;
 import jakarta.servlet.http.HttpServletRequest;
+import java.util.List;
 import java.util.UUID;
 import lombok.extern.slf4j.Slf4j;
+import org.eclipse.xpanse.terra.boot.async.DrainManager;
+import org.eclipse.xpanse.terra.boot.models.response.DrainStatus;
 import org.eclipse.xpanse.terra.boot.models.response.TerraBootSystemStatus;
+import org.eclipse.xpanse.terra.boot.models.response.WebhookEndpointHealth;
 import org.eclipse.xpanse.terra.boot.terraform.service.TerraformRequestService;
+import org.eclipse.xpanse.terra.boot.terraform.service.WebhookCircuitBreaker;
 import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
@@ -33,6 +39,8 @@ import org.springframework.web.context.request.ServletRequestAttributes;
 public class TerraBootAdminApi {
 
     @Resource private TerraformRequestService requestService;
+    @Resource private DrainManager drainManager;
+    @Resource private WebhookCircuitBreaker webhookCircuitBreaker;
 
     /**
      * Method to find out the current state of the system.
@@ -52,4 +60,46 @@ public class TerraBootAdminApi {
         healthStatus.setServiceUrl(request.getRequestURL().toString());
         return healthStatus;
     }
+
+    /**
+     * Method to start draining terra-boot before a restart.
+     *
+     * @return Returns the progress of the drain.
+     */
+    @Tag(name = "Admin", description = "Admin services for managing the application.")
+    @Operation(
+            description =
+                    "Stop accepting new requests and let running requests finish before a "
+                            + "restart. The drain cannot be cancelled.")
+    @PostMapping(value = "/drain", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public DrainStatus startDrain() {
+        return drainManager.startDrainInBackground(DrainManager.API_TRIGGER);
+    }
+
+    /**
+     * Method to get the progress of the drain.
+     *
+     * @return Returns the progress of the drain.
+     */
+    @Tag(name = "Admin", description = "Admin services for managing the application.")
+    @Operation(description = "Get the progress of the drain of terra-boot.")
+    @GetMapping(value = "/drain", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public DrainStatus getDrainStatus() {
+        return drainManager.getDrainStatus();
+    }
+
+    /**
+     * Method to get the health of the webhook endpoints.
+     *
+     * @return Returns the health of the endpoints which results were delivered to.
+     */
+    @Tag(name = "Admin", description = "Admin services for managing the application.")
+    @Operation(description = "Get the health and circuit state of the webhook endpoints.")
+    @GetMapping(value = "/webhook/health", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public List<WebhookEndpointHealth> getWebhookHealth() {
+        return webhookCircuitBreaker.getEndpointHealth();
+    }
 }
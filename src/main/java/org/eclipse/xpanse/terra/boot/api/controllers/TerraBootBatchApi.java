@@ -0,0 +1,98 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.terra.boot.api.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Resource;
+import java.io.IOException;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.xpanse.terra.boot.models.request.TerraformRequest;
+import org.eclipse.xpanse.terra.boot.models.response.TerraformBatchItemResult;
+import org.eclipse.xpanse.terra.boot.terraform.service.TerraformBatchRequestService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+/** REST controller to process batches of terraform requests. */
+@Slf4j
+@CrossOrigin
+@Profile("!amqp")
+@RestController
+@RequestMapping("/terra-boot")
+public class TerraBootBatchApi {
+
+    @Resource private TerraformBatchRequestService batchRequestService;
+    @Resource private ObjectMapper objectMapper;
+
+    /**
+     * Method to process a batch of requests and return all results at once.
+     *
+     * @return Returns the results of the requests in the order of the requests.
+     */
+    @Tag(name = "Batch", description = "APIs for processing batches of terraform requests.")
+    @Operation(
+            description =
+                    "Process a batch of terraform requests in parallel. Async requests are"
+                            + " accepted and send their result to their webhook.")
+    @PostMapping(value = "/batch", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public List<TerraformBatchItemResult> processBatch(
+            @RequestBody List<TerraformRequest> requests) {
+        return batchRequestService.processBatchRequest(requests, result -> {}).join();
+    }
+
+    /**
+     * Method to process a batch of requests and stream each result as soon as it is available.
+     *
+     * @return Returns one JSON line per request, in the order of completion.
+     */
+    @Tag(name = "Batch", description = "APIs for processing batches of terraform requests.")
+    @Operation(
+            description =
+                    "Process a batch of terraform requests in parallel and stream the result of"
+                            + " each request as a JSON line once it is available.")
+    @PostMapping(value = "/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public ResponseBodyEmitter streamBatch(@RequestBody List<TerraformRequest> requests) {
+        // deployments of the batch can take an hour, the stream never times out.
+        ResponseBodyEmitter emitter =
+                new ResponseBodyEmitter(-1L) {
+                    @Override
+                    protected void extendResponse(@Nonnull ServerHttpResponse outputMessage) {
+                        super.extendResponse(outputMessage);
+                        outputMessage.getHeaders().setContentType(MediaType.APPLICATION_NDJSON);
+                    }
+                };
+        batchRequestService
+                .processBatchRequest(requests, result -> sendResultLine(emitter, result))
+                .whenComplete((results, e) -> emitter.complete());
+        return emitter;
+    }
+
+    private void sendResultLine(ResponseBodyEmitter emitter, TerraformBatchItemResult result) {
+        try {
+            String line = objectMapper.writeValueAsString(result) + "\n";
+            // results are sent by the threads of the lanes, the lines must not interleave.
+            synchronized (emitter) {
+                emitter.send(line, MediaType.APPLICATION_NDJSON);
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.warn("Failed to stream result of batch request {}.", result.getRequestId(), e);
+        }
+    }
+}
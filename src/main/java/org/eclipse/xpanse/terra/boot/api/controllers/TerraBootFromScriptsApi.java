@@ -11,10 +11,13 @@ import jakarta.annotation.Resource;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.xpanse.terra.boot.models.request.scripts.TerraformAsyncRequestWithScripts;
+import org.eclipse.xpanse.terra.boot.models.request.scripts.TerraformFleetRequestWithScripts;
 import org.eclipse.xpanse.terra.boot.models.request.scripts.TerraformRequestWithScripts;
+import org.eclipse.xpanse.terra.boot.models.response.TerraformFleetResult;
 import org.eclipse.xpanse.terra.boot.models.response.TerraformPlan;
 import org.eclipse.xpanse.terra.boot.models.response.TerraformResult;
 import org.eclipse.xpanse.terra.boot.models.response.validation.TerraformValidationResult;
+import org.eclipse.xpanse.terra.boot.terraform.service.TerraformFleetRequestService;
 import org.eclipse.xpanse.terra.boot.terraform.service.TerraformRequestService;
 import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
@@ -36,6 +39,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class TerraBootFromScriptsApi {
 
     @Resource private TerraformRequestService requestService;
+    @Resource private TerraformFleetRequestService fleetRequestService;
 
     /**
      * Method to validate resources by scripts.
@@ -161,4 +165,24 @@ public class TerraBootFromScriptsApi {
     public TerraformPlan planWithScripts(@Valid @RequestBody TerraformRequestWithScripts request) {
         return requestService.handleTerraformPlanRequest(request);
     }
+
+    /**
+     * Method to run the same scripts for a fleet of members with their own variables and state.
+     *
+     * @return Returns the results of the members.
+     */
+    @Tag(
+            name = "TerraformFromScripts",
+            description =
+                    "APIs for running Terraform commands on the scripts sent via request body.")
+    @Operation(
+            description =
+                    "Plan, deploy, modify or destroy the same scripts for many members. The"
+                            + " scripts are initialized once and shared by the members.")
+    @PostMapping(value = "/fleet", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public TerraformFleetResult fleetWithScripts(
+            @Valid @RequestBody TerraformFleetRequestWithScripts request) {
+        return fleetRequestService.handleTerraformFleetRequest(request);
+    }
 }
@@ -13,7 +13,9 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import lombok.extern.slf4j.Slf4j;
+import org.eclipse.xpanse.terra.boot.async.TaskRegistry;
 import org.eclipse.xpanse.terra.boot.models.response.ReFetchResult;
+import org.eclipse.xpanse.terra.boot.models.response.TaskStatus;
 import org.eclipse.xpanse.terra.boot.terraform.service.TerraformResultPersistenceManage;
 import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
@@ -37,6 +39,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class TerraBootTaskResultApi {
 
     @Resource private TerraformResultPersistenceManage terraformResultPersistenceManage;
+    @Resource private TaskRegistry taskRegistry;
 
     /**
      * Fetch the stored terraform result.
@@ -87,4 +90,24 @@ public class TerraBootTaskResultApi {
                 });
         return reFetchResults;
     }
+
+    /**
+     * Get the status of an async request.
+     *
+     * @param requestId id of the request
+     * @return status of the task of the request
+     */
+    @Tag(name = "TaskStatus", description = "APIs to query the status of async requests.")
+    @Operation(
+            description =
+                    "Method to get the state, terraform phase, queue position and elapsed time "
+                            + "of an async request which is in-flight or completed recently.")
+    @GetMapping(value = "/{requestId}/status", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public TaskStatus getTaskStatus(
+            @Parameter(name = "requestId", description = "id of the request")
+                    @PathVariable("requestId")
+                    UUID requestId) {
+        return taskRegistry.getTaskStatus(requestId);
+    }
 }
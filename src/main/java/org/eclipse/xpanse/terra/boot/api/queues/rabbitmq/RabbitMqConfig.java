@@ -44,6 +44,9 @@ public class RabbitMqConfig {
     @Value("${spring.rabbitmq.listener.simple.retry.max-interval:30000}")
     private int retryMaxInterval;
 
+    @Value("${terraform.drain.deadline.seconds:600}")
+    private long drainDeadlineSeconds;
+
     /**
      * Create a RabbitTemplate bean with custom message converter and retry template.
      *
@@ -83,6 +86,9 @@ public class RabbitMqConfig {
         factory.setMaxConcurrentConsumers(10);
         factory.setConsecutiveActiveTrigger(5);
         factory.setConsecutiveIdleTrigger(10);
+        // listeners which are running on shutdown may finish within the drain deadline.
+        factory.setContainerCustomizer(
+                container -> container.setShutdownTimeout(drainDeadlineSeconds * 1000));
         return factory;
     }
 
@@ -12,6 +12,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.eclipse.xpanse.terra.boot.api.queues.AmqpConsumer;
 import org.eclipse.xpanse.terra.boot.api.queues.config.AmqpConstants;
 import org.eclipse.xpanse.terra.boot.models.enums.HealthStatus;
+import org.eclipse.xpanse.terra.boot.models.exceptions.TerraBootDrainingException;
 import org.eclipse.xpanse.terra.boot.models.exceptions.UnsupportedEnumValueException;
 import org.eclipse.xpanse.terra.boot.models.request.TerraformRequest;
 import org.eclipse.xpanse.terra.boot.models.request.directory.TerraformRequestWithScriptsDirectory;
@@ -19,6 +20,7 @@ import org.eclipse.xpanse.terra.boot.models.request.git.TerraformRequestWithScri
 import org.eclipse.xpanse.terra.boot.models.request.scripts.TerraformRequestWithScripts;
 import org.eclipse.xpanse.terra.boot.models.response.TerraBootSystemStatus;
 import org.eclipse.xpanse.terra.boot.terraform.service.TerraformRequestService;
+import org.springframework.amqp.ImmediateRequeueAmqpException;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -95,6 +97,9 @@ public class RabbitMqConsumer implements AmqpConsumer {
     private void handleTerraformRequestAndSendResult(TerraformRequest request) {
         try {
             processRequestByType(request);
+        } catch (TerraBootDrainingException e) {
+            // the message is requeued to be processed by another instance or after the restart.
+            throw new ImmediateRequeueAmqpException(e.getMessage(), e);
         } catch (Exception e) {
             sendErrorResultToQueue(Objects.requireNonNull(request), e);
         }
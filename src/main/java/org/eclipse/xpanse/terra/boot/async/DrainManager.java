@@ -0,0 +1,212 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.terra.boot.async;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Resource;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.Objects;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.xpanse.terra.boot.models.enums.DrainState;
+import org.eclipse.xpanse.terra.boot.models.exceptions.TerraBootDrainingException;
+import org.eclipse.xpanse.terra.boot.models.response.DrainStatus;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bean to drain terra-boot before it stops, so that rolling upgrades do not kill running
+ * terraform processes. The drain starts on shutdown or through the admin API. New REST requests
+ * are rejected, the AMQP listeners are stopped and the readiness probe refuses traffic. Running
+ * requests and tasks may finish until the deadline, and so may the deliveries of the results
+ * waiting in the webhook outbox. Queued async tasks which were not started yet stay in the task
+ * journal and are executed after the restart.
+ */
+@Slf4j
+@Component
+public class DrainManager implements ApplicationListener<ContextClosedEvent> {
+
+    public static final String SHUTDOWN_TRIGGER = "shutdown";
+    public static final String API_TRIGGER = "api";
+
+    @Value("${terraform.drain.deadline.seconds:600}")
+    private long drainDeadlineSeconds;
+
+    @Resource private ApplicationContext applicationContext;
+
+    private DrainState state = DrainState.ACTIVE;
+    private String trigger;
+    private Instant startedAt;
+    private Instant deadline;
+    private int runningWork;
+    private int deferredTasks;
+    private int pendingDeliveries;
+
+    @Override
+    public void onApplicationEvent(@Nonnull ContextClosedEvent event) {
+        if (event.getApplicationContext() != applicationContext) {
+            return;
+        }
+        // the context waits here, the web server and the executors are stopped after the drain.
+        startDrain(SHUTDOWN_TRIGGER);
+        awaitRunningWork();
+    }
+
+    /**
+     * Start the drain in the background.
+     *
+     * @param drainTrigger what started the drain.
+     * @return progress of the drain.
+     */
+    public DrainStatus startDrainInBackground(String drainTrigger) {
+        if (startDrain(drainTrigger)) {
+            Thread.ofPlatform().name("terra-boot-drain").start(this::awaitRunningWork);
+        }
+        return getDrainStatus();
+    }
+
+    /**
+     * Admit a request which runs on the calling thread. It must be completed with {@link
+     * #finishWork()}.
+     *
+     * @throws TerraBootDrainingException if terra-boot is draining.
+     */
+    public synchronized void admitWork() {
+        checkAcceptingWork();
+        runningWork++;
+    }
+
+    /**
+     * Check whether new async requests are accepted.
+     *
+     * @throws TerraBootDrainingException if terra-boot is draining.
+     */
+    public synchronized void checkAcceptingWork() {
+        if (state != DrainState.ACTIVE) {
+            throw new TerraBootDrainingException(
+                    "terra-boot is draining before a restart. Please send the request again.");
+        }
+    }
+
+    /**
+     * Start an accepted async task. It must be completed with {@link #finishWork()} if started.
+     *
+     * @param canBeDeferred whether the task is kept to be executed after the restart.
+     * @return false if the task is deferred and must not be started.
+     */
+    public synchronized boolean startAcceptedTask(boolean canBeDeferred) {
+        if (state != DrainState.ACTIVE && canBeDeferred) {
+            deferredTasks++;
+            return false;
+        }
+        runningWork++;
+        return true;
+    }
+
+    /** Complete an admitted request or a started task. */
+    public synchronized void finishWork() {
+        runningWork--;
+        notifyAll();
+    }
+
+    /**
+     * Record a result which waits in the outbox to be sent to its webhook. It must be completed
+     * with {@link #finishDelivery()}. Deliveries are also admitted while draining.
+     */
+    public synchronized void admitDelivery() {
+        pendingDeliveries++;
+    }
+
+    /** Complete a delivery of a result, whether it was sent or stored. */
+    public synchronized void finishDelivery() {
+        pendingDeliveries--;
+        notifyAll();
+    }
+
+    /**
+     * Get the progress of the drain.
+     *
+     * @return progress of the drain.
+     */
+    public synchronized DrainStatus getDrainStatus() {
+        return DrainStatus.builder()
+                .state(state)
+                .trigger(trigger)
+                .startedTime(toOffsetDateTime(startedAt))
+                .deadlineTime(toOffsetDateTime(deadline))
+                .runningWork(runningWork)
+                .deferredTasks(deferredTasks)
+                .pendingDeliveries(pendingDeliveries)
+                .build();
+    }
+
+    private boolean startDrain(String drainTrigger) {
+        synchronized (this) {
+            if (state != DrainState.ACTIVE) {
+                return false;
+            }
+            state = DrainState.DRAINING;
+            trigger = drainTrigger;
+            startedAt = Instant.now();
+            deadline = startedAt.plusSeconds(drainDeadlineSeconds);
+            log.info(
+                    "Started draining on {}, waiting for {} running requests and {} deliveries"
+                            + " until {}.",
+                    drainTrigger,
+                    runningWork,
+                    pendingDeliveries,
+                    deadline);
+        }
+        AvailabilityChangeEvent.publish(applicationContext, ReadinessState.REFUSING_TRAFFIC);
+        stopAmqpListeners();
+        return true;
+    }
+
+    private void stopAmqpListeners() {
+        RabbitListenerEndpointRegistry listenerRegistry =
+                applicationContext.getBeanProvider(RabbitListenerEndpointRegistry.class)
+                        .getIfAvailable();
+        if (Objects.nonNull(listenerRegistry)) {
+            // messages which are being processed are acknowledged, prefetched ones are requeued.
+            listenerRegistry.stop(() -> log.info("Stopped the AMQP listeners for draining."));
+        }
+    }
+
+    private synchronized void awaitRunningWork() {
+        try {
+            while (runningWork > 0 || pendingDeliveries > 0) {
+                long remainingMillis = Duration.between(Instant.now(), deadline).toMillis();
+                if (remainingMillis <= 0) {
+                    state = DrainState.DEADLINE_EXCEEDED;
+                    log.warn(
+                            "Drain deadline exceeded with {} running requests and {} deliveries.",
+                            runningWork,
+                            pendingDeliveries);
+                    return;
+                }
+                wait(remainingMillis);
+            }
+            state = DrainState.DRAINED;
+            log.info("Drained, {} queued tasks are deferred to the restart.", deferredTasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private OffsetDateTime toOffsetDateTime(Instant instant) {
+        return Objects.nonNull(instant)
+                ? OffsetDateTime.ofInstant(instant, ZoneId.systemDefault())
+                : null;
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.terra.boot.async;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.xpanse.terra.boot.models.exceptions.TaskLaneOverloadedException;
+import org.slf4j.MDC;
+
+/**
+ * Executor which runs the tasks of the same key strictly one after another in the order they were
+ * submitted, while tasks of different keys run in parallel on the delegate executor. Only the
+ * first task of each key is submitted to the delegate, the others wait in the queue of their key
+ * and do not occupy the delegate. A waiting task can be superseded by a newer task of the same key,
+ * it is then discarded without being run. A waiting task which the delegate rejects because it is
+ * full is submitted again after the retry after time, one which the delegate rejects because it
+ * is shut down is deferred.
+ */
+@Slf4j
+public class KeyedTaskExecutor {
+
+    private final Executor delegate;
+    private final boolean collapseSupersededTasks;
+    private final ScheduledExecutorService retryScheduler;
+    private final Map<String, Deque<KeyedTask>> tasksByKey = new HashMap<>();
+
+    /**
+     * Constructor of the executor.
+     *
+     * @param delegate executor which runs the tasks.
+     * @param collapseSupersededTasks whether waiting tasks can be superseded by newer ones.
+     */
+    public KeyedTaskExecutor(Executor delegate, boolean collapseSupersededTasks) {
+        this(
+                delegate,
+                collapseSupersededTasks,
+                Executors.newSingleThreadScheduledExecutor(
+                        Thread.ofPlatform().name("keyed-task-retry").daemon().factory()));
+    }
+
+    /**
+     * Constructor of the executor.
+     *
+     * @param delegate executor which runs the tasks.
+     * @param collapseSupersededTasks whether waiting tasks can be superseded by newer ones.
+     * @param retryScheduler scheduler of the waiting tasks rejected by the full delegate.
+     */
+    public KeyedTaskExecutor(
+            Executor delegate,
+            boolean collapseSupersededTasks,
+            ScheduledExecutorService retryScheduler) {
+        this.delegate = delegate;
+        this.collapseSupersededTasks = collapseSupersededTasks;
+        this.retryScheduler = retryScheduler;
+    }
+
+    /**
+     * Execute the task after all tasks submitted before with the same key have finished. If the
+     * first task of a key is rejected by the delegate, the exception is thrown to the caller. Tasks
+     * which are rejected later, when it is their turn, are retried or deferred.
+     *
+     * @param keyedTask task to execute.
+     */
+    public void execute(KeyedTask keyedTask) {
+        // waiting tasks are started by the thread of the previous task, not by the submitter.
+        KeyedTask task =
+                new KeyedTask(
+                        keyedTask.key(),
+                        keyedTask.taskId(),
+                        ThreadMdcUtil.wrap(keyedTask.task(), MDC.getCopyOfContextMap()),
+                        keyedTask.isSupersedable(),
+                        keyedTask.supersedesWaitingTasks(),
+                        keyedTask.onDiscarded(),
+                        keyedTask.onDeferred());
+        List<KeyedTask> supersededTasks = new ArrayList<>();
+        boolean isFirstTaskOfKey;
+        synchronized (tasksByKey) {
+            Deque<KeyedTask> queue =
+                    tasksByKey.computeIfAbsent(task.key(), key -> new ArrayDeque<>());
+            isFirstTaskOfKey = queue.isEmpty();
+            if (!isFirstTaskOfKey && collapseSupersededTasks && task.supersedesWaitingTasks()) {
+                // the first task of the queue is running and is never superseded.
+                Iterator<KeyedTask> waitingTasks = queue.iterator();
+                waitingTasks.next();
+                while (waitingTasks.hasNext()) {
+                    KeyedTask waitingTask = waitingTasks.next();
+                    if (waitingTask.isSupersedable()) {
+                        waitingTasks.remove();
+                        supersededTasks.add(waitingTask);
+                    }
+                }
+            }
+            queue.add(task);
+        }
+        supersededTasks.forEach(
+                supersededTask ->
+                        discard(
+                                supersededTask,
+                                String.format(
+                                        "Task %s superseded by task %s of the same key %s.",
+                                        supersededTask.taskId(), task.taskId(), task.key())));
+        if (isFirstTaskOfKey) {
+            try {
+                delegate.execute(() -> runAndStartNext(task));
+            } catch (RuntimeException e) {
+                startNextTask(task);
+                throw e;
+            }
+        } else {
+            log.info("Task {} waits for the previous tasks of key {}.", task.taskId(), task.key());
+        }
+    }
+
+    /**
+     * Get the number of keys which have running or waiting tasks.
+     *
+     * @return number of keys.
+     */
+    public int getActiveKeys() {
+        synchronized (tasksByKey) {
+            return tasksByKey.size();
+        }
+    }
+
+    private void runAndStartNext(KeyedTask task) {
+        try {
+            task.task().run();
+        } finally {
+            startNextTask(task);
+        }
+    }
+
+    private void startNextTask(KeyedTask finishedTask) {
+        KeyedTask nextTask = pollNextTask(finishedTask.key());
+        while (Objects.nonNull(nextTask) && !submitWaitingTask(nextTask)) {
+            nextTask = pollNextTask(nextTask.key());
+        }
+    }
+
+    /**
+     * Submit the waiting task at the head of its queue to the delegate.
+     *
+     * @return false if the task is deferred and the next task of the key must be started.
+     */
+    private boolean submitWaitingTask(KeyedTask task) {
+        try {
+            delegate.execute(() -> runAndStartNext(task));
+            return true;
+        } catch (TaskLaneOverloadedException e) {
+            // the task keeps the head of its queue, so the tasks of its key keep their order.
+            log.info(
+                    "Task {} of key {} is submitted again after {} seconds. {}",
+                    task.taskId(),
+                    task.key(),
+                    e.getRetryAfterSeconds(),
+                    e.getMessage());
+            try {
+                retryScheduler.schedule(
+                        () -> {
+                            if (!submitWaitingTask(task)) {
+                                startNextTask(task);
+                            }
+                        },
+                        e.getRetryAfterSeconds(),
+                        TimeUnit.SECONDS);
+                return true;
+            } catch (RejectedExecutionException rejectedException) {
+                defer(task, rejectedException.getMessage());
+                return false;
+            }
+        } catch (RuntimeException e) {
+            defer(task, e.getMessage());
+            return false;
+        }
+    }
+
+    private KeyedTask pollNextTask(String key) {
+        synchronized (tasksByKey) {
+            Deque<KeyedTask> queue = tasksByKey.get(key);
+            queue.poll();
+            if (queue.isEmpty()) {
+                tasksByKey.remove(key);
+                return null;
+            }
+            return queue.peek();
+        }
+    }
+
+    private void defer(KeyedTask task, String reason) {
+        log.warn("Deferred task {} of key {}. {}", task.taskId(), task.key(), reason);
+        try {
+            task.onDeferred().run();
+        } catch (RuntimeException e) {
+            log.error("Failed to handle the deferred task {}.", task.taskId(), e);
+        }
+    }
+
+    private void discard(KeyedTask task, String reason) {
+        log.warn("Discarded task {} of key {}. {}", task.taskId(), task.key(), reason);
+        try {
+            task.onDiscarded().accept(reason);
+        } catch (RuntimeException e) {
+            log.error("Failed to handle the discarded task {}.", task.taskId(), e);
+        }
+    }
+
+    /**
+     * Task with the key it is serialized by.
+     *
+     * @param key key of the task.
+     * @param taskId id of the task used in logs.
+     * @param task task to run.
+     * @param isSupersedable whether the task is discarded if a newer task supersedes it.
+     * @param supersedesWaitingTasks whether the task supersedes the waiting tasks of its key.
+     * @param onDiscarded called with the reason when the task is superseded without being run.
+     * @param onDeferred called when the task is not run because the delegate is shut down.
+     */
+    public record KeyedTask(
+            String key,
+            String taskId,
+            Runnable task,
+            boolean isSupersedable,
+            boolean supersedesWaitingTasks,
+            Consumer<String> onDiscarded,
+            Runnable onDeferred) {}
+}
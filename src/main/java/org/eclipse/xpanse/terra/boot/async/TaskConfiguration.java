@@ -5,10 +5,16 @@
 
 package org.eclipse.xpanse.terra.boot.async;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadPoolExecutor;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 /**
  * Customize the thread pool. Define ThreadPoolTaskExecutor named taskExecutor to replace @Async's
@@ -18,23 +24,181 @@ import org.springframework.context.annotation.Configuration;
 public class TaskConfiguration {
 
     public static final String TASK_EXECUTOR_NAME = "taskExecutor";
+    public static final String GIT_PREFETCH_EXECUTOR_NAME = "gitPrefetchExecutor";
+    public static final String TERRAFORM_WARM_UP_EXECUTOR_NAME = "terraformWarmUpExecutor";
+    public static final String SHORT_LANE_EXECUTOR_NAME = "shortLaneExecutor";
+    public static final String LONG_LANE_EXECUTOR_NAME = "longLaneExecutor";
+    public static final String KEYED_LONG_LANE_EXECUTOR_NAME = "keyedLongLaneExecutor";
     private static final int CPU_COUNT = Runtime.getRuntime().availableProcessors();
 
     /**
-     * Define ThreadPoolTaskExecutor named taskExecutor.
+     * Define ThreadPoolTaskExecutor named taskExecutor. When virtual threads are enabled, each task
+     * runs on a new virtual thread instead, and the number of terraform processes is limited only
+     * by terraform.process.max.concurrent.executions.
      *
+     * @param corePoolSize core number of threads.
+     * @param maxPoolSize max number of threads.
+     * @param queueCapacity max number of waiting tasks.
+     * @param virtualThreadsEnabled whether tasks run on virtual threads.
      * @return executor
      */
     @Bean(TASK_EXECUTOR_NAME)
-    public Executor taskExecutor() {
+    public Executor taskExecutor(
+            @Value("${terraform.task.executor.core.pool.size:0}") int corePoolSize,
+            @Value("${terraform.task.executor.max.pool.size:20}") int maxPoolSize,
+            @Value("${terraform.task.executor.queue.capacity:200}") int queueCapacity,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreadsEnabled) {
+        if (virtualThreadsEnabled) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("virtual-thread-");
+            executor.setVirtualThreads(true);
+            executor.setTaskDecorator(task -> ThreadMdcUtil.wrap(task, MDC.getCopyOfContextMap()));
+            return executor;
+        }
         ServiceThreadPoolTaskExecutor executor = new ServiceThreadPoolTaskExecutor();
-        executor.setCorePoolSize(CPU_COUNT * 2);
-        executor.setMaxPoolSize(20);
-        executor.setQueueCapacity(200);
+        // the core pool size defaults to twice the number of CPUs.
+        executor.setCorePoolSize(
+                Math.min(corePoolSize > 0 ? corePoolSize : CPU_COUNT * 2, maxPoolSize));
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
         executor.setKeepAliveSeconds(300);
         executor.setThreadNamePrefix("thread-pool-");
         executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
         executor.initialize();
         return executor;
     }
+
+    /**
+     * Define ThreadPoolTaskExecutor named gitPrefetchExecutor. The pool size limits the number of
+     * concurrent background fetches of GIT repos. Prefetches which do not fit in the queue are
+     * rejected, they are retried in the next prefetch cycle.
+     *
+     * @param maxConcurrentFetches max number of concurrent background fetches.
+     * @return executor
+     */
+    @Bean(GIT_PREFETCH_EXECUTOR_NAME)
+    public Executor gitPrefetchExecutor(
+            @Value("${terraform.scripts.git.prefetch.max.concurrent.fetches:2}")
+                    int maxConcurrentFetches) {
+        ServiceThreadPoolTaskExecutor executor = new ServiceThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrentFetches);
+        executor.setMaxPoolSize(maxConcurrentFetches);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("git-prefetch-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Define ThreadPoolTaskExecutor named terraformWarmUpExecutor. The pool size limits the number
+     * of terraform versions installed in parallel during the warm-up at startup.
+     *
+     * @param maxConcurrentInstalls max number of concurrent installations.
+     * @return executor
+     */
+    @Bean(TERRAFORM_WARM_UP_EXECUTOR_NAME)
+    public Executor terraformWarmUpExecutor(
+            @Value("${terraform.install.warm.up.max.concurrent.installs:2}")
+                    int maxConcurrentInstalls) {
+        ServiceThreadPoolTaskExecutor executor = new ServiceThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrentInstalls);
+        executor.setMaxPoolSize(maxConcurrentInstalls);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("terraform-warm-up-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Define the executor of the short lane, which runs validate and plan tasks.
+     *
+     * @param maxConcurrentTasks max number of tasks running in the lane.
+     * @param queueCapacity max number of tasks waiting in the lane.
+     * @param maxRetryAfterSeconds upper limit of the retry after time of rejected requests.
+     * @param virtualThreadsEnabled whether tasks run on virtual threads.
+     * @param meterRegistry registry of the lane metrics.
+     * @return executor
+     */
+    @Bean(SHORT_LANE_EXECUTOR_NAME)
+    public Executor shortLaneExecutor(
+            @Value("${terraform.task.lane.short.max.concurrent.tasks:8}") int maxConcurrentTasks,
+            @Value("${terraform.task.lane.short.queue.capacity:200}") int queueCapacity,
+            @Value("${terraform.task.lane.max.retry.after.seconds:600}") long maxRetryAfterSeconds,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreadsEnabled,
+            MeterRegistry meterRegistry) {
+        return buildLaneExecutor(
+                TaskLane.SHORT,
+                maxConcurrentTasks,
+                queueCapacity,
+                maxRetryAfterSeconds,
+                virtualThreadsEnabled,
+                meterRegistry);
+    }
+
+    /**
+     * Define the executor of the long lane, which runs apply, modify and destroy tasks. It should
+     * be smaller than terraform.process.max.concurrent.executions so that processes of the short
+     * lane are always admitted.
+     *
+     * @param maxConcurrentTasks max number of tasks running in the lane.
+     * @param queueCapacity max number of tasks waiting in the lane.
+     * @param maxRetryAfterSeconds upper limit of the retry after time of rejected requests.
+     * @param virtualThreadsEnabled whether tasks run on virtual threads.
+     * @param meterRegistry registry of the lane metrics.
+     * @return executor
+     */
+    @Bean(LONG_LANE_EXECUTOR_NAME)
+    public Executor longLaneExecutor(
+            @Value("${terraform.task.lane.long.max.concurrent.tasks:12}") int maxConcurrentTasks,
+            @Value("${terraform.task.lane.long.queue.capacity:200}") int queueCapacity,
+            @Value("${terraform.task.lane.max.retry.after.seconds:600}") long maxRetryAfterSeconds,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreadsEnabled,
+            MeterRegistry meterRegistry) {
+        return buildLaneExecutor(
+                TaskLane.LONG,
+                maxConcurrentTasks,
+                queueCapacity,
+                maxRetryAfterSeconds,
+                virtualThreadsEnabled,
+                meterRegistry);
+    }
+
+    /**
+     * Define the keyed executor in front of the long lane. Requests which target the same
+     * deployment wait for each other instead of running against copies of the same state.
+     *
+     * @param longLaneExecutor executor of the long lane.
+     * @param collapseSupersededTasks whether waiting tasks can be superseded by newer ones.
+     * @return keyed executor
+     */
+    @Bean(KEYED_LONG_LANE_EXECUTOR_NAME)
+    public KeyedTaskExecutor keyedLongLaneExecutor(
+            @Qualifier(LONG_LANE_EXECUTOR_NAME) Executor longLaneExecutor,
+            @Value("${terraform.task.keyed.collapse.superseded.enabled:true}")
+                    boolean collapseSupersededTasks) {
+        return new KeyedTaskExecutor(longLaneExecutor, collapseSupersededTasks);
+    }
+
+    private Executor buildLaneExecutor(
+            TaskLane lane,
+            int maxConcurrentTasks,
+            int queueCapacity,
+            long maxRetryAfterSeconds,
+            boolean virtualThreadsEnabled,
+            MeterRegistry meterRegistry) {
+        TaskLaneMetricsDecorator laneMetrics = new TaskLaneMetricsDecorator(lane, meterRegistry);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrentTasks);
+        executor.setMaxPoolSize(maxConcurrentTasks);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setKeepAliveSeconds(300);
+        executor.setVirtualThreads(virtualThreadsEnabled);
+        executor.setThreadNamePrefix(lane.getLaneName() + "-lane-");
+        executor.setTaskDecorator(laneMetrics);
+        // full lanes reject tasks, they are never run on the request threads.
+        executor.setRejectedExecutionHandler(
+                new TaskLaneOverloadPolicy(lane, laneMetrics, maxRetryAfterSeconds));
+        executor.initialize();
+        return executor;
+    }
 }
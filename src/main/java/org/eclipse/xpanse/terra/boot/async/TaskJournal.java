@@ -0,0 +1,346 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.terra.boot.async;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.xpanse.terra.boot.models.exceptions.TaskJournalException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Append-only journal of async tasks on the local disk. The accepted, started, result sent and
+ * completed states of each task are appended as JSON lines by a single writer thread, which syncs
+ * the file once for all entries appended meanwhile. Only appending an accepted task or a sent
+ * result waits until it is synced. On startup, the tasks which did not complete before the last
+ * shutdown are recovered and the journal is compacted to them. The journal directory must be on a
+ * persistent volume for the tasks to survive the replacement of the container.
+ */
+@Slf4j
+@Component
+public class TaskJournal {
+
+    private static final String JOURNAL_DIR_NAME = "terra-boot-task-journal";
+    private static final String JOURNAL_FILE_NAME = "journal.log";
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final long BYTES_PER_MB = 1024L * 1024L;
+    private static final long ACCEPTED_SYNC_TIMEOUT_SECONDS = 10;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Value("${terraform.task.journal.enabled:true}")
+    private boolean journalEnabled;
+
+    @Value("${terraform.task.journal.dir:}")
+    private String journalDirectoryPath;
+
+    @Value("${terraform.task.journal.compaction.threshold.mb:16}")
+    private long compactionThresholdMb;
+
+    private final BlockingQueue<PendingAppend> pendingAppends = new LinkedBlockingQueue<>();
+    // latest entry of each unfinished task, only accessed by the writer thread after startup.
+    private final Map<String, TaskJournalEntry> unfinishedEntries = new LinkedHashMap<>();
+    private List<TaskJournalEntry> recoveredEntries = List.of();
+    private Path journalFile;
+    private FileChannel journalChannel;
+    private Thread writerThread;
+
+    /**
+     * Recover the unfinished tasks of the last run and open the journal.
+     *
+     * @throws IOException if the journal cannot be opened.
+     */
+    @PostConstruct
+    public void openJournal() throws IOException {
+        if (!journalEnabled) {
+            return;
+        }
+        journalFile = getJournalDirectory().resolve(JOURNAL_FILE_NAME);
+        Files.createDirectories(journalFile.getParent());
+        recoveredEntries = readUnfinishedEntries();
+        recoveredEntries.forEach(entry -> unfinishedEntries.put(entry.taskId(), entry));
+        rewriteJournal();
+        writerThread =
+                Thread.ofPlatform().name("task-journal-writer").daemon().start(this::writeAppends);
+        log.info(
+                "Opened task journal {} with {} unfinished tasks.",
+                journalFile,
+                recoveredEntries.size());
+    }
+
+    /** Sync all pending entries and close the journal. */
+    @PreDestroy
+    public void closeJournal() throws InterruptedException, IOException {
+        if (Objects.isNull(writerThread)) {
+            return;
+        }
+        pendingAppends.add(PendingAppend.STOP);
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        journalChannel.close();
+    }
+
+    /**
+     * Check whether the journal is enabled.
+     *
+     * @return true if accepted tasks are recorded.
+     */
+    public boolean isEnabled() {
+        return journalEnabled;
+    }
+
+    /**
+     * Get the tasks which were accepted or started but did not complete before the last shutdown.
+     *
+     * @return unfinished tasks with the payload they were accepted with.
+     */
+    public List<TaskJournalEntry> getRecoveredEntries() {
+        return recoveredEntries;
+    }
+
+    /**
+     * Record an accepted task. Returns after the entry is synced to the disk.
+     *
+     * @param taskId id of the task.
+     * @param payload payload the task can be executed again with.
+     * @throws TaskJournalException if the entry is not synced, the task must not be accepted.
+     */
+    public void accepted(String taskId, Object payload) {
+        if (!journalEnabled) {
+            return;
+        }
+        JsonNode payloadNode = OBJECT_MAPPER.valueToTree(payload);
+        try {
+            append(new TaskJournalEntry(taskId, TaskJournalState.ACCEPTED, payloadNode))
+                    .orTimeout(ACCEPTED_SYNC_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                    .join();
+        } catch (CompletionException e) {
+            log.error("Failed to record accepted task {} in the journal.", taskId, e.getCause());
+            // an entry which timed out may still be written, it must never be recovered.
+            completed(taskId);
+            throw new TaskJournalException(
+                    String.format("Failed to record accepted task %s in the journal.", taskId));
+        }
+    }
+
+    /**
+     * Record a started task.
+     *
+     * @param taskId id of the task.
+     */
+    public void started(String taskId) {
+        if (journalEnabled) {
+            append(new TaskJournalEntry(taskId, TaskJournalState.STARTED, null));
+        }
+    }
+
+    /**
+     * Record that the result of a task is stored to be sent to its webhook. Returns after the
+     * entry is synced to the disk, so that a restart never reports the task as interrupted once
+     * its result may have been delivered.
+     *
+     * @param taskId id of the task.
+     */
+    public void resultSent(String taskId) {
+        if (!journalEnabled) {
+            return;
+        }
+        try {
+            append(new TaskJournalEntry(taskId, TaskJournalState.RESULT_SENT, null))
+                    .orTimeout(ACCEPTED_SYNC_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                    .join();
+        } catch (CompletionException e) {
+            log.error(
+                    "Failed to record sent result of task {} in the journal.",
+                    taskId,
+                    e.getCause());
+        }
+    }
+
+    /**
+     * Record a completed task. Completed tasks are never recovered.
+     *
+     * @param taskId id of the task.
+     */
+    public void completed(String taskId) {
+        if (journalEnabled) {
+            append(new TaskJournalEntry(taskId, TaskJournalState.COMPLETED, null));
+        }
+    }
+
+    private CompletableFuture<Void> append(TaskJournalEntry entry) {
+        PendingAppend pendingAppend = new PendingAppend(entry, new CompletableFuture<>());
+        pendingAppends.add(pendingAppend);
+        return pendingAppend.synced();
+    }
+
+    private void writeAppends() {
+        List<PendingAppend> batch = new ArrayList<>();
+        boolean isStopped = false;
+        while (!isStopped) {
+            batch.clear();
+            try {
+                batch.add(pendingAppends.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            pendingAppends.drainTo(batch, MAX_BATCH_SIZE);
+            isStopped = batch.removeIf(pendingAppend -> pendingAppend == PendingAppend.STOP);
+            try {
+                writeBatch(batch);
+                batch.forEach(pendingAppend -> pendingAppend.synced().complete(null));
+            } catch (IOException e) {
+                log.error("Failed to write {} entries to the task journal.", batch.size(), e);
+                batch.forEach(pendingAppend -> pendingAppend.synced().completeExceptionally(e));
+            }
+        }
+    }
+
+    private void writeBatch(List<PendingAppend> batch) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        ByteArrayOutputStream lines = new ByteArrayOutputStream();
+        for (PendingAppend pendingAppend : batch) {
+            TaskJournalEntry entry = pendingAppend.entry();
+            lines.write(OBJECT_MAPPER.writeValueAsBytes(entry));
+            lines.write('\n');
+            applyEntry(unfinishedEntries, entry);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+        while (buffer.hasRemaining()) {
+            journalChannel.write(buffer);
+        }
+        journalChannel.force(false);
+        if (journalChannel.size() > compactionThresholdMb * BYTES_PER_MB) {
+            rewriteJournal();
+        }
+    }
+
+    private List<TaskJournalEntry> readUnfinishedEntries() throws IOException {
+        Map<String, TaskJournalEntry> entries = new LinkedHashMap<>();
+        if (!Files.isRegularFile(journalFile)) {
+            return List.of();
+        }
+        try (BufferedReader reader = Files.newBufferedReader(journalFile, StandardCharsets.UTF_8)) {
+            String line;
+            while (Objects.nonNull(line = reader.readLine())) {
+                if (StringUtils.isBlank(line)) {
+                    continue;
+                }
+                try {
+                    applyEntry(entries, OBJECT_MAPPER.readValue(line, TaskJournalEntry.class));
+                } catch (IOException e) {
+                    // the last line is incomplete if the process stopped while writing it.
+                    log.warn("Skipped invalid line in the task journal {}.", journalFile);
+                }
+            }
+        }
+        return List.copyOf(entries.values());
+    }
+
+    private void applyEntry(Map<String, TaskJournalEntry> entries, TaskJournalEntry entry) {
+        if (entry.state() == TaskJournalState.COMPLETED) {
+            entries.remove(entry.taskId());
+            return;
+        }
+        TaskJournalEntry previousEntry = entries.get(entry.taskId());
+        JsonNode payload =
+                Objects.nonNull(entry.payload()) || Objects.isNull(previousEntry)
+                        ? entry.payload()
+                        : previousEntry.payload();
+        entries.put(entry.taskId(), new TaskJournalEntry(entry.taskId(), entry.state(), payload));
+    }
+
+    private void rewriteJournal() throws IOException {
+        Path tempFile = Files.createTempFile(journalFile.getParent(), JOURNAL_FILE_NAME, ".tmp");
+        try {
+            // the payloads can contain credentials, only the owner may read the journal.
+            if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+                Files.setPosixFilePermissions(
+                        tempFile, PosixFilePermissions.fromString("rw-------"));
+            }
+            try (FileChannel tempChannel =
+                    FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                for (TaskJournalEntry entry : unfinishedEntries.values()) {
+                    byte[] line = OBJECT_MAPPER.writeValueAsBytes(entry);
+                    tempChannel.write(ByteBuffer.wrap(line));
+                    tempChannel.write(ByteBuffer.wrap(new byte[] {'\n'}));
+                }
+                tempChannel.force(false);
+            }
+            Files.move(
+                    tempFile,
+                    journalFile,
+                    StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+        if (Objects.nonNull(journalChannel)) {
+            journalChannel.close();
+        }
+        journalChannel =
+                FileChannel.open(journalFile, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        log.info("Compacted task journal {} to {} tasks.", journalFile, unfinishedEntries.size());
+    }
+
+    private Path getJournalDirectory() {
+        return StringUtils.isNotBlank(journalDirectoryPath)
+                ? Paths.get(journalDirectoryPath)
+                : Paths.get(System.getProperty("java.io.tmpdir"), JOURNAL_DIR_NAME);
+    }
+
+    /** States of a task in the journal. */
+    public enum TaskJournalState {
+        ACCEPTED,
+        STARTED,
+        RESULT_SENT,
+        COMPLETED
+    }
+
+    /**
+     * Entry of the journal.
+     *
+     * @param taskId id of the task.
+     * @param state state of the task.
+     * @param payload payload of the accepted task, null for the other states.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record TaskJournalEntry(String taskId, TaskJournalState state, JsonNode payload) {}
+
+    private record PendingAppend(TaskJournalEntry entry, CompletableFuture<Void> synced) {
+
+        private static final PendingAppend STOP = new PendingAppend(null, null);
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.terra.boot.async;
+
+import lombok.Getter;
+import org.eclipse.xpanse.terra.boot.models.enums.RequestType;
+
+/**
+ * Scheduling lanes of terraform tasks. Short tasks such as validate and plan take seconds, long
+ * tasks such as apply and destroy can take an hour. Each lane has its own bounded executor so that
+ * long tasks can never starve short ones.
+ */
+@Getter
+public enum TaskLane {
+    SHORT("short", TaskConfiguration.SHORT_LANE_EXECUTOR_NAME),
+    LONG("long", TaskConfiguration.LONG_LANE_EXECUTOR_NAME);
+
+    private final String laneName;
+    private final String executorName;
+
+    TaskLane(String laneName, String executorName) {
+        this.laneName = laneName;
+        this.executorName = executorName;
+    }
+
+    /**
+     * Get the lane of a request.
+     *
+     * @param requestType type of the request.
+     * @param isPlanOnly whether the request only generates the plan.
+     * @return lane the request runs in.
+     */
+    public static TaskLane of(RequestType requestType, Boolean isPlanOnly) {
+        if (RequestType.VALIDATE == requestType || RequestType.PLAN == requestType) {
+            return SHORT;
+        }
+        // plan only requests are short tasks, they never wait behind a burst of applies.
+        return Boolean.TRUE.equals(isPlanOnly) && RequestType.DESTROY != requestType
+                ? SHORT
+                : LONG;
+    }
+}
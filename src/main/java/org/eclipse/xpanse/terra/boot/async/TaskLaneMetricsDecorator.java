@@ -0,0 +1,119 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.terra.boot.async;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Task decorator of a scheduling lane. It copies the MDC of the submitting thread and records the
+ * occupancy of the lane and the time tasks wait in the lane before they are started. The average
+ * execution time of the tasks is tracked to estimate when a full lane has room again.
+ */
+public class TaskLaneMetricsDecorator implements TaskDecorator {
+
+    private static final String QUEUE_WAIT_METRIC_NAME = "terra.boot.task.lane.queue.wait";
+    private static final String ACTIVE_TASKS_METRIC_NAME = "terra.boot.task.lane.active";
+    private static final String QUEUED_TASKS_METRIC_NAME = "terra.boot.task.lane.queued";
+    private static final String REJECTED_TASKS_METRIC_NAME = "terra.boot.task.lane.rejected";
+    private static final String LANE_TAG = "lane";
+    // weight of the latest execution in the moving average of the execution time.
+    private static final double EXECUTION_TIME_SMOOTHING_FACTOR = 0.2;
+
+    private final AtomicInteger activeTasks = new AtomicInteger();
+    private final AtomicInteger queuedTasks = new AtomicInteger();
+    private final AtomicLong averageExecutionNanos = new AtomicLong();
+    private final Timer queueWaitTimer;
+    private final Counter rejectedTasksCounter;
+
+    /**
+     * Constructor to register the metrics of the lane.
+     *
+     * @param lane scheduling lane.
+     * @param meterRegistry registry of the metrics.
+     */
+    public TaskLaneMetricsDecorator(TaskLane lane, MeterRegistry meterRegistry) {
+        this.queueWaitTimer =
+                Timer.builder(QUEUE_WAIT_METRIC_NAME)
+                        .description("Time terraform tasks wait in the lane before they start.")
+                        .tag(LANE_TAG, lane.getLaneName())
+                        .register(meterRegistry);
+        this.rejectedTasksCounter =
+                Counter.builder(REJECTED_TASKS_METRIC_NAME)
+                        .description("Number of terraform tasks rejected as the lane is full.")
+                        .tag(LANE_TAG, lane.getLaneName())
+                        .register(meterRegistry);
+        Gauge.builder(ACTIVE_TASKS_METRIC_NAME, activeTasks, AtomicInteger::get)
+                .description("Number of terraform tasks running in the lane.")
+                .tag(LANE_TAG, lane.getLaneName())
+                .register(meterRegistry);
+        Gauge.builder(QUEUED_TASKS_METRIC_NAME, queuedTasks, AtomicInteger::get)
+                .description("Number of terraform tasks waiting in the lane.")
+                .tag(LANE_TAG, lane.getLaneName())
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        Runnable task = ThreadMdcUtil.wrap(runnable, MDC.getCopyOfContextMap());
+        long submittedAt = System.nanoTime();
+        queuedTasks.incrementAndGet();
+        return () -> {
+            queuedTasks.decrementAndGet();
+            queueWaitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+            activeTasks.incrementAndGet();
+            long startedAt = System.nanoTime();
+            try {
+                task.run();
+            } finally {
+                activeTasks.decrementAndGet();
+                recordExecutionTime(System.nanoTime() - startedAt);
+            }
+        };
+    }
+
+    /** Record a decorated task which was rejected by the lane and will never run. */
+    public void taskRejected() {
+        queuedTasks.decrementAndGet();
+        rejectedTasksCounter.increment();
+    }
+
+    /**
+     * Get the number of tasks waiting in the lane.
+     *
+     * @return number of waiting tasks.
+     */
+    public int getQueuedTasks() {
+        return queuedTasks.get();
+    }
+
+    /**
+     * Get the moving average of the execution time of the tasks in the lane.
+     *
+     * @return average execution time in nanoseconds, 0 if no task has finished yet.
+     */
+    public long getAverageExecutionNanos() {
+        return averageExecutionNanos.get();
+    }
+
+    private void recordExecutionTime(long executionNanos) {
+        averageExecutionNanos.accumulateAndGet(executionNanos, this::movingAverage);
+    }
+
+    private long movingAverage(long average, long latest) {
+        if (average == 0) {
+            return latest;
+        }
+        return average + (long) (EXECUTION_TIME_SMOOTHING_FACTOR * (latest - average));
+    }
+}
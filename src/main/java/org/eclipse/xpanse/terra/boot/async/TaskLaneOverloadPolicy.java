@@ -0,0 +1,69 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.terra.boot.async;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.xpanse.terra.boot.models.exceptions.TaskLaneOverloadedException;
+
+/**
+ * Overload policy of a scheduling lane. A task which does not fit into the queue of the lane is
+ * rejected instead of being run on the submitting thread, so that async requests never block the
+ * request threads. The time after which the request should be retried is estimated from the depth
+ * of the queue and the observed throughput of the lane.
+ */
+@Slf4j
+public class TaskLaneOverloadPolicy implements RejectedExecutionHandler {
+
+    private static final long MIN_RETRY_AFTER_SECONDS = 1;
+
+    private final TaskLane lane;
+    private final TaskLaneMetricsDecorator laneMetrics;
+    private final long maxRetryAfterSeconds;
+
+    /**
+     * Constructor of the policy.
+     *
+     * @param lane scheduling lane.
+     * @param laneMetrics metrics of the lane.
+     * @param maxRetryAfterSeconds upper limit of the estimated retry after time.
+     */
+    public TaskLaneOverloadPolicy(
+            TaskLane lane, TaskLaneMetricsDecorator laneMetrics, long maxRetryAfterSeconds) {
+        this.lane = lane;
+        this.laneMetrics = laneMetrics;
+        this.maxRetryAfterSeconds = Math.max(MIN_RETRY_AFTER_SECONDS, maxRetryAfterSeconds);
+    }
+
+    @Override
+    public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+        laneMetrics.taskRejected();
+        long retryAfterSeconds =
+                estimateRetryAfterSeconds(
+                        laneMetrics.getQueuedTasks(), executor.getMaximumPoolSize());
+        log.warn(
+                "The {} lane is full with {} tasks waiting, retry after {} seconds.",
+                lane.getLaneName(),
+                laneMetrics.getQueuedTasks(),
+                retryAfterSeconds);
+        throw new TaskLaneOverloadedException(
+                String.format(
+                        "Too many terraform tasks are waiting in the %s lane. Retry after %d"
+                                + " seconds.",
+                        lane.getLaneName(), retryAfterSeconds),
+                retryAfterSeconds);
+    }
+
+    private long estimateRetryAfterSeconds(int queuedTasks, int maxConcurrentTasks) {
+        // the lane has room again when the queued tasks ahead of a new one have been started.
+        long drainNanos =
+                queuedTasks * laneMetrics.getAverageExecutionNanos() / maxConcurrentTasks;
+        long drainSeconds = TimeUnit.NANOSECONDS.toSeconds(drainNanos);
+        return Math.clamp(drainSeconds, MIN_RETRY_AFTER_SECONDS, maxRetryAfterSeconds);
+    }
+}
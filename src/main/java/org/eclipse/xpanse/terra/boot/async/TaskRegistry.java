@@ -0,0 +1,225 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.terra.boot.async;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.eclipse.xpanse.terra.boot.models.enums.RequestType;
+import org.eclipse.xpanse.terra.boot.models.enums.TaskState;
+import org.eclipse.xpanse.terra.boot.models.response.TaskStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory registry of the async tasks. In-flight tasks are looked up by their request id, and
+ * a bounded history keeps the status of the recently completed tasks. The queue position of a
+ * task is estimated from the number of tasks which entered and left its lane before it.
+ */
+@Component
+public class TaskRegistry {
+
+    @Value("${terraform.task.registry.history.size:1000}")
+    private int historySize;
+
+    private final Map<UUID, TrackedTask> inFlightTasks = new ConcurrentHashMap<>();
+    private final Map<UUID, TaskStatus> completedTasks =
+            new LinkedHashMap<>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<UUID, TaskStatus> eldest) {
+                    return size() > historySize;
+                }
+            };
+    private final Map<TaskLane, AtomicLong> enqueuedTasks = new EnumMap<>(TaskLane.class);
+    private final Map<TaskLane, AtomicLong> dequeuedTasks = new EnumMap<>(TaskLane.class);
+    private final ThreadLocal<TrackedTask> currentTask = new ThreadLocal<>();
+
+    /** Constructor to create the counters of the lanes. */
+    public TaskRegistry() {
+        for (TaskLane lane : TaskLane.values()) {
+            enqueuedTasks.put(lane, new AtomicLong());
+            dequeuedTasks.put(lane, new AtomicLong());
+        }
+    }
+
+    /**
+     * Register a task which is queued in a lane.
+     *
+     * @param requestId id of the request.
+     * @param requestType type of the request.
+     * @param lane lane the task is queued in.
+     */
+    public void queued(UUID requestId, RequestType requestType, TaskLane lane) {
+        long ticket = enqueuedTasks.get(lane).incrementAndGet();
+        inFlightTasks.put(requestId, new TrackedTask(requestId, requestType, lane, ticket));
+    }
+
+    /**
+     * Mark the task as running on the current thread.
+     *
+     * @param requestId id of the request.
+     */
+    public void started(UUID requestId) {
+        TrackedTask task = inFlightTasks.get(requestId);
+        if (Objects.isNull(task)) {
+            return;
+        }
+        leaveQueue(task, TaskState.RUNNING);
+        task.startedAt = Instant.now();
+        currentTask.set(task);
+    }
+
+    /**
+     * Mark a queued task as deferred to the restart, as terra-boot is draining. The task stays
+     * in-flight, it is executed again from the task journal after the restart.
+     *
+     * @param requestId id of the request.
+     */
+    public void deferred(UUID requestId) {
+        TrackedTask task = inFlightTasks.get(requestId);
+        if (Objects.nonNull(task)) {
+            leaveQueue(task, TaskState.DEFERRED);
+        }
+    }
+
+    /**
+     * Record the terraform command the task of the current thread is running. Does nothing if the
+     * current thread does not run an async task.
+     *
+     * @param phase terraform command, such as init, plan or apply.
+     */
+    public void enterPhase(String phase) {
+        TrackedTask task = currentTask.get();
+        if (Objects.nonNull(task)) {
+            task.phase = phase;
+        }
+    }
+
+    /**
+     * Move the task to the history of completed tasks. Does nothing if the task is not in-flight.
+     *
+     * @param requestId id of the request.
+     * @param isSuccessful whether the task completed successfully.
+     */
+    public void finished(UUID requestId, boolean isSuccessful) {
+        TrackedTask current = currentTask.get();
+        if (Objects.nonNull(current) && current.requestId.equals(requestId)) {
+            currentTask.remove();
+        }
+        TrackedTask task = inFlightTasks.remove(requestId);
+        if (Objects.isNull(task)) {
+            return;
+        }
+        TaskState state = isSuccessful ? TaskState.SUCCESSFUL : TaskState.FAILED;
+        leaveQueue(task, state);
+        TaskStatus status = toTaskStatus(task, Instant.now());
+        synchronized (completedTasks) {
+            completedTasks.put(requestId, status);
+        }
+    }
+
+    /**
+     * Check whether the task of the request is queued or running.
+     *
+     * @param requestId id of the request.
+     * @return true if the task is in-flight.
+     */
+    public boolean isInFlight(UUID requestId) {
+        return inFlightTasks.containsKey(requestId);
+    }
+
+    /**
+     * Get the status of the task of the request.
+     *
+     * @param requestId id of the request.
+     * @return status of the task, with state unknown if the task is neither in-flight nor in the
+     *     history.
+     */
+    public TaskStatus getTaskStatus(UUID requestId) {
+        TrackedTask task = inFlightTasks.get(requestId);
+        if (Objects.nonNull(task)) {
+            return toTaskStatus(task, null);
+        }
+        synchronized (completedTasks) {
+            TaskStatus status = completedTasks.get(requestId);
+            if (Objects.nonNull(status)) {
+                return status;
+            }
+        }
+        return TaskStatus.builder().requestId(requestId).state(TaskState.UNKNOWN).build();
+    }
+
+    private void leaveQueue(TrackedTask task, TaskState state) {
+        synchronized (task) {
+            if (task.state == TaskState.QUEUED) {
+                dequeuedTasks.get(task.lane).incrementAndGet();
+            }
+            task.state = state;
+        }
+    }
+
+    private TaskStatus toTaskStatus(TrackedTask task, Instant completedAt) {
+        TaskState state;
+        synchronized (task) {
+            state = task.state;
+        }
+        Instant startedAt = task.startedAt;
+        Long queuePosition = null;
+        if (state == TaskState.QUEUED) {
+            queuePosition = Math.max(1, task.ticket - dequeuedTasks.get(task.lane).get());
+        }
+        Long elapsedMillis = null;
+        if (Objects.nonNull(startedAt)) {
+            Instant endedAt = Objects.nonNull(completedAt) ? completedAt : Instant.now();
+            elapsedMillis = Duration.between(startedAt, endedAt).toMillis();
+        }
+        return TaskStatus.builder()
+                .requestId(task.requestId)
+                .state(state)
+                .requestType(task.requestType)
+                .lane(task.lane.getLaneName())
+                .phase(task.phase)
+                .queuePosition(queuePosition)
+                .acceptedTime(toOffsetDateTime(task.acceptedAt))
+                .startedTime(toOffsetDateTime(startedAt))
+                .completedTime(toOffsetDateTime(completedAt))
+                .elapsedMillis(elapsedMillis)
+                .build();
+    }
+
+    private OffsetDateTime toOffsetDateTime(Instant instant) {
+        return Objects.nonNull(instant)
+                ? OffsetDateTime.ofInstant(instant, ZoneId.systemDefault())
+                : null;
+    }
+
+    private static final class TrackedTask {
+
+        private final UUID requestId;
+        private final RequestType requestType;
+        private final TaskLane lane;
+        private final long ticket;
+        private final Instant acceptedAt = Instant.now();
+        private TaskState state = TaskState.QUEUED;
+        private volatile Instant startedAt;
+        private volatile String phase;
+
+        private TrackedTask(UUID requestId, RequestType requestType, TaskLane lane, long ticket) {
+            this.requestId = requestId;
+            this.requestType = requestType;
+            this.lane = lane;
+            this.ticket = ticket;
+        }
+    }
+}
@@ -8,7 +8,9 @@ package org.eclipse.xpanse.terra.boot.cache;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
@@ -20,6 +22,10 @@ import org.springframework.context.annotation.Configuration;
 public class CaffeineCacheConfig {
 
     public static final String TERRAFORM_VERSIONS_CACHE_NAME = "TERRAFORM_VERSIONS_CACHE";
+    public static final String GIT_REPO_COMMIT_CACHE_NAME = "GIT_REPO_COMMIT_CACHE";
+
+    @Value("${terraform.scripts.git.commit.cache.ttl.seconds:60}")
+    private long gitRepoCommitCacheTtlSeconds;
 
     /**
      * Config cache manager with caffeine.
@@ -31,10 +37,17 @@ public class CaffeineCacheConfig {
         CaffeineCacheManager cacheManager = new CaffeineCacheManager();
         cacheManager.registerCustomCache(
                 TERRAFORM_VERSIONS_CACHE_NAME, getTerraformVersionsCache());
+        cacheManager.registerCustomCache(GIT_REPO_COMMIT_CACHE_NAME, getGitRepoCommitCache());
         return cacheManager;
     }
 
     private Cache<Object, Object> getTerraformVersionsCache() {
         return Caffeine.newBuilder().build();
     }
+
+    private Cache<Object, Object> getGitRepoCommitCache() {
+        return Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(gitRepoCommitCacheTtlSeconds))
+                .build();
+    }
 }
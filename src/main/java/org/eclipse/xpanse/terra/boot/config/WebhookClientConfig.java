@@ -0,0 +1,118 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.terra.boot.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.xpanse.terra.boot.security.hmac.HmacSignatureHeaderManage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+/**
+ * Configuration class of the webhook client. The results are only sent by the streaming client of
+ * the outbox, so no RestTemplate is created: its interceptors would hold every result body in
+ * memory.
+ */
+@Configuration
+@Slf4j
+public class WebhookClientConfig {
+
+    private final boolean isHmacRequestSigningEnabled;
+
+    /** constructor for WebhookClientConfig. */
+    public WebhookClientConfig(
+            @Value("${terra.boot.webhook.hmac.request.signing.enabled}")
+                    boolean isHmacRequestSigningEnabled) {
+        this.isHmacRequestSigningEnabled = isHmacRequestSigningEnabled;
+        if (!isHmacRequestSigningEnabled) {
+            log.warn("HMAC based request signing disabled for webhook requests");
+        } else {
+            log.info("HMAC based request signing enabled for webhook requests");
+        }
+    }
+
+    /**
+     * Create the client which streams the results to the webhooks.
+     *
+     * @param factory request factory.
+     * @param webhookHostConcurrencyLimiter limiter of the concurrent requests per host.
+     * @param hmacSignatureHeaderManage signer of the requests, missing if signing is disabled.
+     * @return WebhookStreamingClient
+     */
+    @Bean
+    public WebhookStreamingClient webhookStreamingClient(
+            ClientHttpRequestFactory factory,
+            WebhookHostConcurrencyLimiter webhookHostConcurrencyLimiter,
+            @Autowired(required = false) HmacSignatureHeaderManage hmacSignatureHeaderManage) {
+        return new WebhookStreamingClient(
+                factory,
+                webhookHostConcurrencyLimiter,
+                isHmacRequestSigningEnabled ? hmacSignatureHeaderManage : null);
+    }
+
+    /**
+     * Create the limiter of the concurrent webhook requests per host.
+     *
+     * @param maxConnectionsPerHost max number of concurrent requests to a host.
+     * @param readTimeoutMillis timeout of the response of the webhook receiver.
+     * @param meterRegistry registry of the metrics of the webhook client.
+     * @return WebhookHostConcurrencyLimiter
+     */
+    @Bean
+    public WebhookHostConcurrencyLimiter webhookHostConcurrencyLimiter(
+            @Value("${terra.boot.webhook.client.max.connections.per.host:20}")
+                    int maxConnectionsPerHost,
+            @Value("${terra.boot.webhook.client.read.timeout.millis:60000}")
+                    long readTimeoutMillis,
+            MeterRegistry meterRegistry) {
+        return new WebhookHostConcurrencyLimiter(
+                maxConnectionsPerHost, Duration.ofMillis(readTimeoutMillis), meterRegistry);
+    }
+
+    /**
+     * Create the HTTP client of the webhook callbacks. It keeps the connections to the receivers
+     * alive in its pool and uses HTTP/2 if the receiver supports it. The client is closed when the
+     * context is closed.
+     *
+     * @param connectTimeoutMillis timeout of the connection to the webhook receiver.
+     * @param isHttp2Enabled whether HTTP/2 is negotiated with the receivers.
+     * @return HttpClient
+     */
+    @Bean
+    public HttpClient webhookHttpClient(
+            @Value("${terra.boot.webhook.client.connect.timeout.millis:15000}")
+                    long connectTimeoutMillis,
+            @Value("${terra.boot.webhook.client.http2.enabled:true}") boolean isHttp2Enabled) {
+        return HttpClient.newBuilder()
+                .version(isHttp2Enabled ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    /**
+     * Create ClientHttpRequestFactory to IOC.
+     *
+     * @param webhookHttpClient HTTP client of the webhook callbacks.
+     * @param readTimeoutMillis timeout of the response of the webhook receiver.
+     * @return ClientHttpRequestFactory
+     */
+    @Bean
+    public ClientHttpRequestFactory webhookClientHttpRequestFactory(
+            HttpClient webhookHttpClient,
+            @Value("${terra.boot.webhook.client.read.timeout.millis:60000}")
+                    long readTimeoutMillis) {
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(webhookHttpClient);
+        factory.setReadTimeout(Duration.ofMillis(readTimeoutMillis));
+        return factory;
+    }
+}
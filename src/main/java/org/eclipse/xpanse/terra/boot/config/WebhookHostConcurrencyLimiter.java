@@ -0,0 +1,126 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.terra.boot.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Limiter of the number of concurrent webhook requests per host, so that a burst of callbacks
+ * reuses the pooled connections to a receiver instead of opening one connection per callback. It
+ * records the usage of the connections, as the JDK HTTP client does not expose the state of its
+ * pool.
+ */
+@Slf4j
+public class WebhookHostConcurrencyLimiter {
+
+    private static final String ACTIVE_METRIC_NAME = "terra.boot.webhook.client.active";
+    private static final String PENDING_METRIC_NAME = "terra.boot.webhook.client.pending";
+    private static final String WAIT_METRIC_NAME = "terra.boot.webhook.client.wait";
+    private static final String REJECTED_METRIC_NAME = "terra.boot.webhook.client.rejected";
+    private static final String HOSTS_METRIC_NAME = "terra.boot.webhook.client.hosts";
+
+    private final int maxConnectionsPerHost;
+    private final long maxWaitNanos;
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+    private final AtomicInteger activeRequests = new AtomicInteger();
+    private final AtomicInteger pendingRequests = new AtomicInteger();
+    private final Timer waitTimer;
+    private final Counter rejectedCounter;
+
+    /**
+     * Constructor to register the metrics of the webhook client.
+     *
+     * @param maxConnectionsPerHost max number of concurrent requests to a host.
+     * @param maxWait max time a request waits for a connection to its host.
+     * @param meterRegistry registry of the metrics.
+     */
+    public WebhookHostConcurrencyLimiter(
+            int maxConnectionsPerHost, Duration maxWait, MeterRegistry meterRegistry) {
+        this.maxConnectionsPerHost = Math.max(1, maxConnectionsPerHost);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.waitTimer =
+                Timer.builder(WAIT_METRIC_NAME)
+                        .description("Time webhook requests wait for a connection to their host.")
+                        .register(meterRegistry);
+        this.rejectedCounter =
+                Counter.builder(REJECTED_METRIC_NAME)
+                        .description("Number of webhook requests which got no connection in time.")
+                        .register(meterRegistry);
+        Gauge.builder(ACTIVE_METRIC_NAME, activeRequests, AtomicInteger::get)
+                .description("Number of webhook requests using a connection.")
+                .register(meterRegistry);
+        Gauge.builder(PENDING_METRIC_NAME, pendingRequests, AtomicInteger::get)
+                .description("Number of webhook requests waiting for a connection.")
+                .register(meterRegistry);
+        Gauge.builder(HOSTS_METRIC_NAME, hostPermits, Map::size)
+                .description("Number of hosts webhook requests were sent to.")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Wait for a connection to the host of the webhook. Every acquired connection must be released.
+     *
+     * @param uri uri of the webhook.
+     * @throws IOException if no connection became free in time.
+     */
+    public void acquire(URI uri) throws IOException {
+        String host = getHostKey(uri);
+        Semaphore permits =
+                hostPermits.computeIfAbsent(host, key -> new Semaphore(maxConnectionsPerHost));
+        long startedAt = System.nanoTime();
+        pendingRequests.incrementAndGet();
+        try {
+            if (!permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                rejectedCounter.increment();
+                log.warn("No connection to webhook host {} became free in time.", host);
+                throw new IOException(
+                        String.format(
+                                "All %d connections to webhook host %s are busy.",
+                                maxConnectionsPerHost, host));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a connection.");
+        } finally {
+            pendingRequests.decrementAndGet();
+            waitTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+        activeRequests.incrementAndGet();
+    }
+
+    /**
+     * Release the connection to the host of the webhook.
+     *
+     * @param uri uri of the webhook.
+     */
+    public void release(URI uri) {
+        activeRequests.decrementAndGet();
+        hostPermits.get(getHostKey(uri)).release();
+    }
+
+    private String getHostKey(URI uri) {
+        String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+        int port = uri.getPort();
+        if (port == -1) {
+            port = "https".equals(scheme) ? 443 : 80;
+        }
+        return scheme + "://" + uri.getHost() + ":" + port;
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.terra.boot.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.xpanse.terra.boot.security.hmac.HmacSignatureHeaderManage;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseErrorHandler;
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Client which streams the JSON body of a webhook callback from its source onto the connection.
+ * It never holds the whole body in memory: the HMAC signature is computed in a pre-pass over the
+ * source and the body is sent with its known length. The concurrent connections to each host are
+ * limited.
+ */
+@Slf4j
+public class WebhookStreamingClient {
+
+    private final ClientHttpRequestFactory requestFactory;
+    private final WebhookHostConcurrencyLimiter hostConcurrencyLimiter;
+    private final HmacSignatureHeaderManage hmacSignatureHeaderManage;
+    private final ResponseErrorHandler errorHandler = new DefaultResponseErrorHandler();
+
+    /**
+     * Constructor of the streaming client.
+     *
+     * @param requestFactory factory of the requests.
+     * @param hostConcurrencyLimiter limiter of the connections per host.
+     * @param hmacSignatureHeaderManage signer of the requests, null if signing is disabled.
+     */
+    public WebhookStreamingClient(
+            ClientHttpRequestFactory requestFactory,
+            WebhookHostConcurrencyLimiter hostConcurrencyLimiter,
+            HmacSignatureHeaderManage hmacSignatureHeaderManage) {
+        this.requestFactory = requestFactory;
+        this.hostConcurrencyLimiter = hostConcurrencyLimiter;
+        this.hmacSignatureHeaderManage = hmacSignatureHeaderManage;
+    }
+
+    /**
+     * Post a JSON body to the webhook.
+     *
+     * @param url url of the webhook.
+     * @param body source of the UTF-8 encoded JSON body, it is opened once or twice.
+     * @param contentLength length of the body in bytes.
+     * @throws RestClientException if the request failed or the receiver returned an error.
+     */
+    public void postJson(String url, InputStreamSource body, long contentLength) {
+        URI uri = URI.create(url);
+        long startTime = System.currentTimeMillis();
+        try {
+            hostConcurrencyLimiter.acquire(uri);
+            try {
+                // signed after the wait for a connection, the timestamp must not be stale.
+                ClientHttpRequest request = createRequest(url, uri, body, contentLength);
+                // the signature headers are never logged.
+                log.info("Request: {} {} [{} bytes]", HttpMethod.POST, uri, contentLength);
+                try (ClientHttpResponse response = request.execute()) {
+                    log.info(
+                            "Response: {} {} Duration: {}ms",
+                            response.getStatusCode(),
+                            response.getStatusText(),
+                            System.currentTimeMillis() - startTime);
+                    if (errorHandler.hasError(response)) {
+                        errorHandler.handleError(uri, HttpMethod.POST, response);
+                    }
+                    // the connection is only reused once the response is read to its end.
+                    StreamUtils.drain(response.getBody());
+                }
+            } finally {
+                hostConcurrencyLimiter.release(uri);
+            }
+        } catch (IOException e) {
+            throw new ResourceAccessException(
+                    String.format(
+                            "I/O error on POST request for \"%s\": %s", url, e.getMessage()),
+                    e);
+        }
+    }
+
+    private ClientHttpRequest createRequest(
+            String url, URI uri, InputStreamSource body, long contentLength) throws IOException {
+        ClientHttpRequest request = requestFactory.createRequest(uri, HttpMethod.POST);
+        request.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        request.getHeaders().setContentLength(contentLength);
+        if (Objects.nonNull(hmacSignatureHeaderManage)) {
+            Map<String, String> signatureHeaders;
+            try (InputStream payload = body.getInputStream()) {
+                signatureHeaders =
+                        hmacSignatureHeaderManage.createHmacSignatureHeader(url, payload);
+            }
+            signatureHeaders.forEach(
+                    (entryKey, entryValue) ->
+                            request.getHeaders().put(entryKey, List.of(entryValue)));
+        }
+        if (request instanceof StreamingHttpOutputMessage streamingRequest) {
+            streamingRequest.setBody(outputStream -> writeBody(body, outputStream));
+        } else {
+            writeBody(body, request.getBody());
+        }
+        return request;
+    }
+
+    private void writeBody(InputStreamSource body, OutputStream outputStream) throws IOException {
+        try (InputStream inputStream = body.getInputStream()) {
+            inputStream.transferTo(outputStream);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.terra.boot.models.enums;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.xpanse.terra.boot.models.exceptions.UnsupportedEnumValueException;
+
+/** The states of a request in a batch. */
+public enum BatchItemState {
+    ACCEPTED("Accepted"),
+    COMPLETED("Completed"),
+    REJECTED("Rejected"),
+    FAILED("Failed");
+
+    private final String state;
+
+    BatchItemState(String state) {
+        this.state = state;
+    }
+
+    /** Convert string to BatchItemState. */
+    @JsonCreator
+    public BatchItemState getByValue(String value) {
+        for (BatchItemState itemState : values()) {
+            if (StringUtils.equalsIgnoreCase(itemState.state, value)) {
+                return itemState;
+            }
+        }
+        throw new UnsupportedEnumValueException(
+                String.format("BatchItemState value %s is not supported.", value));
+    }
+
+    /** For BatchItemState deserialize. */
+    @JsonValue
+    public String toValue() {
+        return this.state;
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.terra.boot.models.enums;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.xpanse.terra.boot.models.exceptions.UnsupportedEnumValueException;
+
+/** The states of the circuit of a webhook endpoint. */
+public enum CircuitState {
+    CLOSED("Closed"),
+    OPEN("Open"),
+    HALF_OPEN("HalfOpen");
+
+    private final String state;
+
+    CircuitState(String state) {
+        this.state = state;
+    }
+
+    /** Convert string to CircuitState. */
+    @JsonCreator
+    public CircuitState getByValue(String value) {
+        for (CircuitState circuitState : values()) {
+            if (StringUtils.equalsIgnoreCase(circuitState.state, value)) {
+                return circuitState;
+            }
+        }
+        throw new UnsupportedEnumValueException(
+                String.format("CircuitState value %s is not supported.", value));
+    }
+
+    /** For CircuitState deserialize. */
+    @JsonValue
+    public String toValue() {
+        return this.state;
+    }
+}
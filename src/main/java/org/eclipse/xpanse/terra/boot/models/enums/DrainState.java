@@ -0,0 +1,43 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.terra.boot.models.enums;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.xpanse.terra.boot.models.exceptions.UnsupportedEnumValueException;
+
+/** The states of the drain mode of terra-boot. */
+public enum DrainState {
+    ACTIVE("Active"),
+    DRAINING("Draining"),
+    DRAINED("Drained"),
+    DEADLINE_EXCEEDED("DeadlineExceeded");
+
+    private final String state;
+
+    DrainState(String state) {
+        this.state = state;
+    }
+
+    /** Convert string to DrainState. */
+    @JsonCreator
+    public DrainState getByValue(String value) {
+        for (DrainState drainState : values()) {
+            if (StringUtils.equalsIgnoreCase(drainState.state, value)) {
+                return drainState;
+            }
+        }
+        throw new UnsupportedEnumValueException(
+                String.format("DrainState value %s is not supported.", value));
+    }
+
+    /** For DrainState deserialize. */
+    @JsonValue
+    public String toValue() {
+        return this.state;
+    }
+}
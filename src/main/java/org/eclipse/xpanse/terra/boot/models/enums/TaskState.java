@@ -0,0 +1,45 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.terra.boot.models.enums;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.xpanse.terra.boot.models.exceptions.UnsupportedEnumValueException;
+
+/** The states of an async terraform task. */
+public enum TaskState {
+    QUEUED("Queued"),
+    RUNNING("Running"),
+    DEFERRED("Deferred"),
+    SUCCESSFUL("Successful"),
+    FAILED("Failed"),
+    UNKNOWN("Unknown");
+
+    private final String state;
+
+    TaskState(String state) {
+        this.state = state;
+    }
+
+    /** Convert string to TaskState. */
+    @JsonCreator
+    public TaskState getByValue(String value) {
+        for (TaskState taskState : values()) {
+            if (StringUtils.equalsIgnoreCase(taskState.state, value)) {
+                return taskState;
+            }
+        }
+        throw new UnsupportedEnumValueException(
+                String.format("TaskState value %s is not supported.", value));
+    }
+
+    /** For TaskState deserialize. */
+    @JsonValue
+    public String toValue() {
+        return this.state;
+    }
+}
@@ -0,0 +1,14 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.terra.boot.models.exceptions;
+
+/** Used to indicate that an accepted task could not be recorded in the task journal. */
+public class TaskJournalException extends RuntimeException {
+
+    public TaskJournalException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,20 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.terra.boot.models.exceptions;
+
+import lombok.Getter;
+
+/** Used to indicate that a scheduling lane is full and the task must be submitted again later. */
+@Getter
+public class TaskLaneOverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TaskLaneOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
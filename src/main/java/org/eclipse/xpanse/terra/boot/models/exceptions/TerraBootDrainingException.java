@@ -0,0 +1,14 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.terra.boot.models.exceptions;
+
+/** Used to indicate that terra-boot is draining and does not accept new work. */
+public class TerraBootDrainingException extends RuntimeException {
+
+    public TerraBootDrainingException(String message) {
+        super(message);
+    }
+}
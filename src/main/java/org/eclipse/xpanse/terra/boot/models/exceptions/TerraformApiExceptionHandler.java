@@ -12,7 +12,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.eclipse.xpanse.terra.boot.models.response.Response;
 import org.eclipse.xpanse.terra.boot.models.response.ResultType;
 import org.springframework.amqp.AmqpException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageConversionException;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
@@ -142,4 +144,37 @@ public class TerraformApiExceptionHandler {
         return Response.errorResponse(
                 ResultType.INVALID_TERRAFORM_REQUEST, Collections.singletonList(ex.getMessage()));
     }
+
+    /** Exception handler for TaskLaneOverloadedException. */
+    @ExceptionHandler({TaskLaneOverloadedException.class})
+    public ResponseEntity<Response> handleTaskLaneOverloadedException(
+            TaskLaneOverloadedException ex) {
+        log.warn("handleTaskLaneOverloadedException: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(
+                        Response.errorResponse(
+                                ResultType.TOO_MANY_REQUESTS,
+                                Collections.singletonList(ex.getMessage())));
+    }
+
+    /** Exception handler for TerraBootDrainingException. */
+    @ExceptionHandler({TerraBootDrainingException.class})
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ResponseBody
+    public Response handleTerraBootDrainingException(TerraBootDrainingException ex) {
+        log.warn("handleTerraBootDrainingException: {}", ex.getMessage());
+        return Response.errorResponse(
+                ResultType.SERVICE_UNAVAILABLE, Collections.singletonList(ex.getMessage()));
+    }
+
+    /** Exception handler for TaskJournalException. */
+    @ExceptionHandler({TaskJournalException.class})
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ResponseBody
+    public Response handleTaskJournalException(TaskJournalException ex) {
+        log.error("handleTaskJournalException: {}", ex.getMessage());
+        return Response.errorResponse(
+                ResultType.SERVICE_UNAVAILABLE, Collections.singletonList(ex.getMessage()));
+    }
 }
@@ -75,4 +75,11 @@ public abstract class TerraformRequest implements Serializable {
 
     @Schema(description = "Terraform state as a string.")
     private String tfState;
+
+    @Schema(
+            description =
+                    "Key of the deployment the request targets. Async requests with the same key"
+                            + " are executed one after another. If not set, the lineage of the"
+                            + " terraform state is used as key.")
+    private String deploymentKey;
 }
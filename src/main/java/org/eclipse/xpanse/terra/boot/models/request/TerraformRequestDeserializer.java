@@ -16,6 +16,7 @@ import org.eclipse.xpanse.terra.boot.models.request.directory.TerraformRequestWi
 import org.eclipse.xpanse.terra.boot.models.request.git.TerraformAsyncRequestWithScriptsGitRepo;
 import org.eclipse.xpanse.terra.boot.models.request.git.TerraformRequestWithScriptsGitRepo;
 import org.eclipse.xpanse.terra.boot.models.request.scripts.TerraformAsyncRequestWithScripts;
+import org.eclipse.xpanse.terra.boot.models.request.scripts.TerraformRequestWithScripts;
 
 /** TerraformRequestDeserializer is used to deserialize TerraformRequest. */
 @Slf4j
@@ -34,7 +35,7 @@ public class TerraformRequestDeserializer extends StdDeserializer<TerraformReque
             if (node.has("webhookConfig")) {
                 return p.getCodec().treeToValue(node, TerraformAsyncRequestWithScripts.class);
             }
-            return p.getCodec().treeToValue(node, TerraformAsyncRequestWithScripts.class);
+            return p.getCodec().treeToValue(node, TerraformRequestWithScripts.class);
         } else if (node.has("gitRepoDetails")) {
             if (node.has("webhookConfig")) {
                 return p.getCodec()
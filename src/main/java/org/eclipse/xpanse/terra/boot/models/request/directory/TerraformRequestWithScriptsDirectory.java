@@ -30,4 +30,6 @@ public class TerraformRequestWithScriptsDirectory extends TerraformRequest {
     private String scriptsDirectory;
 
     @Hidden @JsonIgnore private List<File> scriptFiles;
+
+    @Hidden @JsonIgnore private boolean workspaceInitialized;
 }
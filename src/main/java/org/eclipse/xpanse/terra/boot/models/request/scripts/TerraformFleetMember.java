@@ -0,0 +1,42 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.terra.boot.models.request.scripts;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Map;
+import java.util.UUID;
+import lombok.Data;
+
+/** Data model for a member of a fleet request, which is one deployment of the scripts. */
+@Data
+@Schema(description = "Member of a fleet request with its own variables and state")
+public class TerraformFleetMember implements Serializable {
+
+    @Serial private static final long serialVersionUID = 2750361483920915046L;
+
+    @NotNull
+    @Schema(description = "Id of the request of the member.")
+    private UUID requestId;
+
+    @NotNull
+    @Schema(
+            description =
+                    "Key-value pairs of variables that must be used to execute the "
+                            + "Terraform request of the member.")
+    private Map<String, Object> variables;
+
+    @Schema(
+            description =
+                    "Key-value pairs of variables that must be injected as environment "
+                            + "variables to terraform process of the member.")
+    private Map<String, String> envVariables;
+
+    @Schema(description = "Terraform state of the member as a string.")
+    private String tfState;
+}
@@ -0,0 +1,72 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.terra.boot.models.request.scripts;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import lombok.Data;
+import org.eclipse.xpanse.terra.boot.models.enums.RequestType;
+import org.eclipse.xpanse.terra.boot.terraform.tool.TerraformVersionsHelper;
+
+/**
+ * The terraform request for executing the same scripts files for many members, which differ only
+ * in their variables and state.
+ */
+@Data
+@Schema(description = "Terraform fleet request with scripts files")
+public class TerraformFleetRequestWithScripts implements Serializable {
+
+    @Serial private static final long serialVersionUID = 5816694201937460231L;
+
+    @NotNull
+    @Schema(description = "Id of the fleet request.")
+    private UUID requestId;
+
+    @NotNull
+    @Schema(description = "Type of the terraform request of the members, except validate.")
+    private RequestType requestType;
+
+    @NotNull
+    @NotBlank
+    @Pattern(regexp = TerraformVersionsHelper.TERRAFORM_REQUIRED_VERSION_REGEX)
+    @Schema(description = "The required version of terraform which will execute the scripts.")
+    private String terraformVersion;
+
+    @NotNull
+    @Schema(
+            description =
+                    "Flag to control if the deployment must only generate the terraform "
+                            + "or it must also apply the changes.")
+    private Boolean isPlanOnly;
+
+    @NotNull
+    @NotEmpty
+    @Schema(
+            description =
+                    "Map stores file name and content of all script files shared by the members.")
+    private Map<String, String> scriptFiles;
+
+    @Valid
+    @NotNull
+    @NotEmpty
+    @Schema(description = "Members of the fleet, each one is a deployment of the scripts.")
+    private List<TerraformFleetMember> members;
+
+    @Schema(
+            description =
+                    "Max number of members executed in parallel. Limited by "
+                            + "terraform.fleet.max.parallelism.")
+    private Integer maxParallelism;
+}
@@ -0,0 +1,48 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.terra.boot.models.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import java.time.OffsetDateTime;
+import lombok.Builder;
+import lombok.Data;
+import org.eclipse.xpanse.terra.boot.models.enums.DrainState;
+
+/** Data model for the progress of the drain mode. */
+@Data
+@Builder
+public class DrainStatus {
+
+    @NotNull
+    @Schema(description = "State of the drain mode.")
+    private DrainState state;
+
+    @Schema(description = "What started the drain, shutdown or api.")
+    private String trigger;
+
+    @Schema(description = "Time when the drain started.")
+    private OffsetDateTime startedTime;
+
+    @Schema(description = "Time until which running work is waited for.")
+    private OffsetDateTime deadlineTime;
+
+    @NotNull
+    @Schema(description = "Number of requests and tasks which are still running.")
+    private Integer runningWork;
+
+    @NotNull
+    @Schema(
+            description =
+                    "Number of queued async tasks which were deferred instead of started during "
+                            + "the drain. They stay in the task journal and are executed after "
+                            + "the restart.")
+    private Integer deferredTasks;
+
+    @NotNull
+    @Schema(description = "Number of results which are still waiting to be sent to their webhook.")
+    private Integer pendingDeliveries;
+}
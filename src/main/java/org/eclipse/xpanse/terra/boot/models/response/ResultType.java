@@ -16,6 +16,7 @@ public enum ResultType {
     TERRAFORM_EXECUTION_FAILED("Terraform Execution Failed"),
     UNSUPPORTED_ENUM_VALUE("Unsupported Enum Value"),
     SERVICE_UNAVAILABLE("Service Unavailable"),
+    TOO_MANY_REQUESTS("Too Many Requests"),
     UNAUTHORIZED("Unauthorized"),
     INVALID_TERRAFORM_REQUEST("Invalid Terraform Request"),
     INVALID_GIT_REPO_DETAILS("Invalid Git Repo Details"),
@@ -0,0 +1,53 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.terra.boot.models.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import lombok.Builder;
+import lombok.Data;
+import org.eclipse.xpanse.terra.boot.models.enums.RequestType;
+import org.eclipse.xpanse.terra.boot.models.enums.TaskState;
+
+/** Data model for the status of an async request. */
+@Data
+@Builder
+public class TaskStatus {
+
+    @NotNull
+    @Schema(description = "Id of the request.")
+    private UUID requestId;
+
+    @NotNull
+    @Schema(description = "State of the task of the request.")
+    private TaskState state;
+
+    @Schema(description = "Type of the request.")
+    private RequestType requestType;
+
+    @Schema(description = "Scheduling lane of the task, short or long.")
+    private String lane;
+
+    @Schema(description = "Terraform command the task is running, such as init, plan or apply.")
+    private String phase;
+
+    @Schema(description = "Estimated position of the queued task in its lane, starting at 1.")
+    private Long queuePosition;
+
+    @Schema(description = "Time when the request was accepted.")
+    private OffsetDateTime acceptedTime;
+
+    @Schema(description = "Time when the task started.")
+    private OffsetDateTime startedTime;
+
+    @Schema(description = "Time when the task completed.")
+    private OffsetDateTime completedTime;
+
+    @Schema(description = "Milliseconds the task has been running, or ran until it completed.")
+    private Long elapsedMillis;
+}
@@ -0,0 +1,53 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.terra.boot.models.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import java.util.UUID;
+import lombok.Builder;
+import lombok.Data;
+import org.eclipse.xpanse.terra.boot.models.enums.BatchItemState;
+import org.eclipse.xpanse.terra.boot.models.enums.RequestType;
+import org.eclipse.xpanse.terra.boot.models.response.validation.TerraformValidationResult;
+
+/** Data model for the result of a request in a batch. */
+@Data
+@Builder
+public class TerraformBatchItemResult {
+
+    @NotNull
+    @Schema(description = "Index of the request in the batch, starting at 0.")
+    private Integer index;
+
+    @Schema(description = "Id of the request.")
+    private UUID requestId;
+
+    @Schema(description = "Type of the request.")
+    private RequestType requestType;
+
+    @NotNull
+    @Schema(
+            description =
+                    "State of the request. Async requests are Accepted and send their result to "
+                            + "their webhook, the other requests are Completed with their result.")
+    private BatchItemState state;
+
+    @Schema(description = "Result of a completed validate request.")
+    private TerraformValidationResult validationResult;
+
+    @Schema(description = "Result of a completed plan request.")
+    private TerraformPlan plan;
+
+    @Schema(description = "Result of a completed deploy, modify or destroy request.")
+    private TerraformResult deploymentResult;
+
+    @Schema(description = "Reason why the request was rejected or failed.")
+    private String errorMessage;
+
+    @Schema(description = "Seconds after which a request rejected by a full lane can be retried.")
+    private Long retryAfterSeconds;
+}
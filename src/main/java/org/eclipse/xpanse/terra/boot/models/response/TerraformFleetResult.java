@@ -0,0 +1,33 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.terra.boot.models.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import java.util.List;
+import java.util.UUID;
+import lombok.Builder;
+import lombok.Data;
+
+/** Data model for the result of a fleet request. */
+@Data
+@Builder
+public class TerraformFleetResult {
+
+    @NotNull
+    @Schema(description = "Id of the fleet request.")
+    private UUID requestId;
+
+    @Schema(description = "Version of the terraform binary used to execute the members.")
+    private String terraformVersionUsed;
+
+    @Schema(description = "Error of the shared init. The members are not executed if it failed.")
+    private String initErrorMessage;
+
+    @NotNull
+    @Schema(description = "Results of the members, in the order of the members.")
+    private List<TerraformBatchItemResult> memberResults;
+}
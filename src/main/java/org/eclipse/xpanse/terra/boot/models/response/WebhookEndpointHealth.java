@@ -0,0 +1,47 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.terra.boot.models.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import java.time.OffsetDateTime;
+import lombok.Builder;
+import lombok.Data;
+import org.eclipse.xpanse.terra.boot.models.enums.CircuitState;
+
+/** Data model for the health of a webhook endpoint. */
+@Data
+@Builder
+public class WebhookEndpointHealth {
+
+    @NotNull
+    @Schema(description = "Scheme, host and port of the webhook endpoint.")
+    private String endpoint;
+
+    @NotNull
+    @Schema(description = "State of the circuit of the endpoint.")
+    private CircuitState state;
+
+    @NotNull
+    @Schema(description = "Number of deliveries which failed in a row.")
+    private Integer consecutiveFailures;
+
+    @NotNull
+    @Schema(description = "Number of deliveries which were skipped as the circuit was open.")
+    private Long rejectedDeliveries;
+
+    @Schema(description = "Time of the last successful delivery.")
+    private OffsetDateTime lastSuccessTime;
+
+    @Schema(description = "Time of the last failed delivery.")
+    private OffsetDateTime lastFailureTime;
+
+    @Schema(description = "Error of the last failed delivery.")
+    private String lastFailureMessage;
+
+    @Schema(description = "Time after which the open circuit lets a probe delivery through.")
+    private OffsetDateTime retryTime;
+}
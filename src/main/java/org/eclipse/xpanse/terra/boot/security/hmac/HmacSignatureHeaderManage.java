@@ -5,6 +5,9 @@
 
 package org.eclipse.xpanse.terra.boot.security.hmac;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
@@ -37,8 +40,13 @@ public class HmacSignatureHeaderManage {
     private static final String NONCE_SIGNATURE_HEADER = "x-nonce-signature";
     private static final String TIMESTAMP_SIGNATURE_HEADER = "x-timestamp-signature";
     private static final String MAIN_SIGNATURE_HEADER = "x-signature";
-    private final String hmacSecretKey;
+    private static final int PAYLOAD_BUFFER_SIZE = 8192;
+    private static final byte SIGNATURE_VALUE_SEPARATOR = '\n';
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
     private final String hmacAlgorithm;
+    private final SecretKeySpec secretKeySpec;
+    // a Mac is not thread safe, each thread reuses its own initialized instance.
+    private final ThreadLocal<Mac> threadLocalMac = ThreadLocal.withInitial(this::createMac);
 
     /** Constructor for HmacSignatureHeaderManage. */
     @Autowired
@@ -47,11 +55,14 @@ public class HmacSignatureHeaderManage {
             @Value("${terra.boot.webhook.hmac.request.signing.algorithm}") String hmacAlgorithm)
             throws InvalidAlgorithmParameterException {
         validateAlgorithmName(hmacAlgorithm);
-        this.hmacSecretKey = hmacSecretKey;
         this.hmacAlgorithm = hmacAlgorithm;
         if (hmacSecretKey.isBlank()) {
             throw new IllegalArgumentException("Missing mandatory hmac secret key");
         }
+        this.secretKeySpec =
+                new SecretKeySpec(hmacSecretKey.getBytes(StandardCharsets.UTF_8), hmacAlgorithm);
+        // fail at startup instead of at the first webhook request.
+        threadLocalMac.get();
     }
 
     /**
@@ -62,53 +73,81 @@ public class HmacSignatureHeaderManage {
      * @return HMAC HTTP Headers.
      */
     public Map<String, String> createHmacSignatureHeader(String webhookUrl, String payload) {
+        String nonce = getRandomNonce();
+        String currentTimeStamp = Long.toString(System.currentTimeMillis());
+        Mac mac = startSignature(nonce, currentTimeStamp, webhookUrl);
+        mac.update(payload.getBytes(StandardCharsets.UTF_8));
+        return getSignatureHeaders(nonce, currentTimeStamp, mac.doFinal());
+    }
+
+    /**
+     * Generates the HMAC related HTTP headers map of a payload which is read from a stream, so
+     * that large payloads are signed without holding them in memory.
+     *
+     * @param webhookUrl URL to which the application wants to send the webhook request.
+     * @param payload stream of the UTF-8 encoded JSON payload, it is read to its end.
+     * @return HMAC HTTP Headers.
+     * @throws IOException if the payload cannot be read.
+     */
+    public Map<String, String> createHmacSignatureHeader(String webhookUrl, InputStream payload)
+            throws IOException {
+        String nonce = getRandomNonce();
+        String currentTimeStamp = Long.toString(System.currentTimeMillis());
+        Mac mac = startSignature(nonce, currentTimeStamp, webhookUrl);
+        try {
+            byte[] buffer = new byte[PAYLOAD_BUFFER_SIZE];
+            int read;
+            while ((read = payload.read(buffer)) != -1) {
+                mac.update(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            mac.reset();
+            throw e;
+        }
+        return getSignatureHeaders(nonce, currentTimeStamp, mac.doFinal());
+    }
+
+    /**
+     * Start the signature of a request. The signed value is the nonce, the timestamp, the url and
+     * the payload, separated by new lines. They are fed to the Mac one by one instead of being
+     * concatenated, the payload is added by the caller.
+     */
+    private Mac startSignature(String nonce, String currentTimeStamp, String webhookUrl) {
+        Mac mac = threadLocalMac.get();
+        mac.update(nonce.getBytes(StandardCharsets.UTF_8));
+        mac.update(SIGNATURE_VALUE_SEPARATOR);
+        mac.update(currentTimeStamp.getBytes(StandardCharsets.UTF_8));
+        mac.update(SIGNATURE_VALUE_SEPARATOR);
+        mac.update(webhookUrl.getBytes(StandardCharsets.UTF_8));
+        mac.update(SIGNATURE_VALUE_SEPARATOR);
+        return mac;
+    }
+
+    private Mac createMac() {
         try {
             Mac mac = Mac.getInstance(hmacAlgorithm);
-            SecretKeySpec secretKeySpec =
-                    new SecretKeySpec(hmacSecretKey.getBytes(), hmacAlgorithm);
             mac.init(secretKeySpec);
-            String nonce = getRandomNonce();
-            String currentTimeStamp = Long.toString(System.currentTimeMillis());
-            byte[] hmacBytes =
-                    mac.doFinal(
-                            getSignatureValue(nonce, currentTimeStamp, webhookUrl, payload)
-                                    .getBytes());
-            Map<String, String> headers = new HashMap<>();
-            headers.put(NONCE_SIGNATURE_HEADER, nonce);
-            headers.put(TIMESTAMP_SIGNATURE_HEADER, currentTimeStamp);
-            headers.put(
-                    MAIN_SIGNATURE_HEADER,
-                    constructSignatureHeader(Hex.encodeHexString(hmacBytes)));
-            return headers;
+            return mac;
         } catch (NoSuchAlgorithmException | InvalidKeyException e) {
             log.error("Failed generating key", e);
-            throw new RuntimeException();
+            throw new IllegalStateException("Failed to create HMAC " + hmacAlgorithm, e);
         }
     }
 
-    private String getSignatureValue(
-            String nonce, String currentTimeStamp, String webhookUrl, String payload) {
-        return """
-               %s
-               %s
-               %s
-               %s"""
-                .formatted(nonce, currentTimeStamp, webhookUrl, payload);
+    private Map<String, String> getSignatureHeaders(
+            String nonce, String currentTimeStamp, byte[] hmacBytes) {
+        Map<String, String> headers = new HashMap<>();
+        headers.put(NONCE_SIGNATURE_HEADER, nonce);
+        headers.put(TIMESTAMP_SIGNATURE_HEADER, currentTimeStamp);
+        headers.put(
+                MAIN_SIGNATURE_HEADER, constructSignatureHeader(Hex.encodeHexString(hmacBytes)));
+        return headers;
     }
 
     private String getRandomNonce() {
         byte[] nonce = new byte[16];
-        SecureRandom secureRandom = new SecureRandom();
-        secureRandom.nextBytes(nonce);
-        return bytesToHex(nonce);
-    }
-
-    private String bytesToHex(byte[] bytes) {
-        StringBuilder result = new StringBuilder();
-        for (byte b : bytes) {
-            result.append(String.format("%02x", b));
-        }
-        return result.toString();
+        SECURE_RANDOM.nextBytes(nonce);
+        return Hex.encodeHexString(nonce);
     }
 
     private String constructSignatureHeader(String generatedKey) {
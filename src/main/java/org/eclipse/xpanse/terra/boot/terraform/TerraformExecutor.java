@@ -16,6 +16,7 @@ import java.util.Map;
 import java.util.Objects;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
+import org.eclipse.xpanse.terra.boot.async.TaskRegistry;
 import org.eclipse.xpanse.terra.boot.models.exceptions.TerraformExecutorException;
 import org.eclipse.xpanse.terra.boot.terraform.utils.SystemCmd;
 import org.eclipse.xpanse.terra.boot.terraform.utils.SystemCmdResult;
@@ -37,6 +38,8 @@ public class TerraformExecutor {
 
     private final SystemCmd systemCmd;
 
+    private final TaskRegistry taskRegistry;
+
     private final boolean isStdoutStdErrLoggingEnabled;
 
     private final String customTerraformBinary;
@@ -47,6 +50,7 @@ public class TerraformExecutor {
      * Constructor for the TerraformExecutor bean.
      *
      * @param systemCmd SystemCmd bean
+     * @param taskRegistry TaskRegistry bean
      * @param isStdoutStdErrLoggingEnabled value of `log.terraform.stdout.stderr` property
      * @param customTerraformBinary value of `terraform.binary.location` property
      * @param terraformLogLevel value of `terraform.log.level` property
@@ -54,10 +58,12 @@ public class TerraformExecutor {
     @Autowired
     public TerraformExecutor(
             SystemCmd systemCmd,
+            TaskRegistry taskRegistry,
             @Value("${log.terraform.stdout.stderr:true}") boolean isStdoutStdErrLoggingEnabled,
             @Value("${terraform.binary.location}") String customTerraformBinary,
             @Value("${terraform.log.level}") String terraformLogLevel) {
         this.systemCmd = systemCmd;
+        this.taskRegistry = taskRegistry;
         this.customTerraformBinary = customTerraformBinary;
         this.isStdoutStdErrLoggingEnabled = isStdoutStdErrLoggingEnabled;
         this.terraformLogLevel = terraformLogLevel;
@@ -68,8 +74,9 @@ public class TerraformExecutor {
             String executorPath,
             Map<String, Object> variables,
             Map<String, String> envVariables,
-            String taskWorkspace) {
-        tfPlan(executorPath, variables, envVariables, taskWorkspace);
+            String taskWorkspace,
+            boolean isWorkspaceInitialized) {
+        tfPlan(executorPath, variables, envVariables, taskWorkspace, isWorkspaceInitialized);
         SystemCmdResult applyResult =
                 tfDestroyCommand(executorPath, variables, envVariables, taskWorkspace);
         if (!applyResult.isCommandSuccessful()) {
@@ -85,8 +92,9 @@ public class TerraformExecutor {
             String executorPath,
             Map<String, Object> variables,
             Map<String, String> envVariables,
-            String taskWorkspace) {
-        tfPlan(executorPath, variables, envVariables, taskWorkspace);
+            String taskWorkspace,
+            boolean isWorkspaceInitialized) {
+        tfPlan(executorPath, variables, envVariables, taskWorkspace, isWorkspaceInitialized);
         SystemCmdResult applyResult =
                 tfApplyCommand(executorPath, variables, envVariables, taskWorkspace);
         if (!applyResult.isCommandSuccessful()) {
@@ -97,13 +105,19 @@ public class TerraformExecutor {
         return applyResult;
     }
 
-    /** Terraform executes init and plan commands. */
+    /**
+     * Terraform executes init and plan commands. The init is skipped if the workspace is a clone
+     * of an initialized workspace.
+     */
     public SystemCmdResult tfPlan(
             String executorPath,
             Map<String, Object> variables,
             Map<String, String> envVariables,
-            String taskWorkspace) {
-        tfInit(executorPath, taskWorkspace);
+            String taskWorkspace,
+            boolean isWorkspaceInitialized) {
+        if (!isWorkspaceInitialized) {
+            tfInit(executorPath, taskWorkspace);
+        }
         SystemCmdResult planResult =
                 tfPlanCommand(executorPath, variables, envVariables, taskWorkspace);
         if (!planResult.isCommandSuccessful()) {
@@ -119,8 +133,11 @@ public class TerraformExecutor {
             String executorPath,
             Map<String, Object> variables,
             Map<String, String> envVariables,
-            String taskWorkspace) {
-        tfInit(executorPath, taskWorkspace);
+            String taskWorkspace,
+            boolean isWorkspaceInitialized) {
+        if (!isWorkspaceInitialized) {
+            tfInit(executorPath, taskWorkspace);
+        }
         SystemCmdResult tfPlanResult =
                 executeWithVariables(
                         new StringBuilder(
@@ -170,6 +187,7 @@ public class TerraformExecutor {
      * @return Returns result of SystemCmd executed.
      */
     private SystemCmdResult tfInitCommand(String executorPath, String taskWorkspace) {
+        taskRegistry.enterPhase("init");
         return execute(
                 getTerraformCommand(executorPath, "init -no-color"),
                 taskWorkspace,
@@ -182,6 +200,7 @@ public class TerraformExecutor {
      * @return Returns result of SystemCmd executed.
      */
     private SystemCmdResult tfValidateCommand(String executorPath, String taskWorkspace) {
+        taskRegistry.enterPhase("validate");
         return execute(
                 getTerraformCommand(executorPath, "validate -json -no-color"),
                 taskWorkspace,
@@ -198,6 +217,7 @@ public class TerraformExecutor {
             Map<String, Object> variables,
             Map<String, String> envVariables,
             String taskWorkspace) {
+        taskRegistry.enterPhase("plan");
         return executeWithVariables(
                 new StringBuilder(
                         getTerraformCommand(executorPath, "plan -input=false -no-color ")),
@@ -216,6 +236,7 @@ public class TerraformExecutor {
             Map<String, Object> variables,
             Map<String, String> envVariables,
             String taskWorkspace) {
+        taskRegistry.enterPhase("apply");
         return executeWithVariables(
                 new StringBuilder(
                         getTerraformCommand(
@@ -235,6 +256,7 @@ public class TerraformExecutor {
             Map<String, Object> variables,
             Map<String, String> envVariables,
             String taskWorkspace) {
+        taskRegistry.enterPhase("destroy");
         return executeWithVariables(
                 new StringBuilder(executorPath + " destroy -auto-approve -input=false -no-color "),
                 variables,
@@ -255,7 +277,15 @@ public class TerraformExecutor {
         createVariablesFile(variables, taskWorkspace);
         command.append(" -var-file=");
         command.append(TF_VARS_FILE_NAME);
-        SystemCmdResult systemCmdResult = execute(command.toString(), taskWorkspace, envVariables);
+        // only the commands with variables, plan, apply and destroy, run long enough to be
+        // limited by the process admission limit.
+        envVariables.putAll(getTerraformLogConfig());
+        SystemCmdResult systemCmdResult =
+                this.systemCmd.executeWithProcessAdmission(
+                        command.toString(),
+                        taskWorkspace,
+                        this.isStdoutStdErrLoggingEnabled,
+                        envVariables);
         cleanUpVariablesFile(taskWorkspace);
         return systemCmdResult;
     }
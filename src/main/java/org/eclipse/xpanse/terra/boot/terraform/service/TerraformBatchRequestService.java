@@ -0,0 +1,205 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.terra.boot.terraform.service;
+
+import jakarta.annotation.Resource;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.xpanse.terra.boot.async.TaskConfiguration;
+import org.eclipse.xpanse.terra.boot.async.TaskLane;
+import org.eclipse.xpanse.terra.boot.models.enums.BatchItemState;
+import org.eclipse.xpanse.terra.boot.models.enums.RequestType;
+import org.eclipse.xpanse.terra.boot.models.exceptions.InvalidTerraformRequestException;
+import org.eclipse.xpanse.terra.boot.models.exceptions.TaskLaneOverloadedException;
+import org.eclipse.xpanse.terra.boot.models.exceptions.TerraBootDrainingException;
+import org.eclipse.xpanse.terra.boot.models.exceptions.UnsupportedEnumValueException;
+import org.eclipse.xpanse.terra.boot.models.request.TerraformRequest;
+import org.eclipse.xpanse.terra.boot.models.request.directory.TerraformAsyncRequestWithScriptsDirectory;
+import org.eclipse.xpanse.terra.boot.models.request.git.TerraformAsyncRequestWithScriptsGitRepo;
+import org.eclipse.xpanse.terra.boot.models.request.scripts.TerraformAsyncRequestWithScripts;
+import org.eclipse.xpanse.terra.boot.models.response.TerraformBatchItemResult;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service to process a batch of terraform requests. Each request of the batch is admitted like a
+ * single request: async requests are queued and send their result to their webhook, the other
+ * requests run in parallel in their scheduling lane. A request which is rejected or fails does not
+ * affect the other requests of the batch.
+ */
+@Slf4j
+@Service
+public class TerraformBatchRequestService {
+
+    @Value("${terraform.batch.max.requests:100}")
+    private int maxBatchRequests;
+
+    @Resource private TerraformRequestService requestService;
+
+    @Resource
+    @Qualifier(TaskConfiguration.SHORT_LANE_EXECUTOR_NAME)
+    private Executor shortLaneExecutor;
+
+    @Resource
+    @Qualifier(TaskConfiguration.LONG_LANE_EXECUTOR_NAME)
+    private Executor longLaneExecutor;
+
+    /**
+     * Process a batch of terraform requests.
+     *
+     * @param requests requests of the batch.
+     * @param resultConsumer consumer called with the result of each request once it is available.
+     * @return future completed with the results of all requests, in the order of the requests.
+     */
+    public CompletableFuture<List<TerraformBatchItemResult>> processBatchRequest(
+            List<TerraformRequest> requests, Consumer<TerraformBatchItemResult> resultConsumer) {
+        if (Objects.isNull(requests) || requests.isEmpty()) {
+            throw new IllegalArgumentException("The batch must contain at least one request.");
+        }
+        if (requests.size() > maxBatchRequests) {
+            throw new IllegalArgumentException(
+                    String.format(
+                            "The batch contains %d requests, at most %d are allowed.",
+                            requests.size(), maxBatchRequests));
+        }
+        log.info("Processing batch of {} requests.", requests.size());
+        Set<UUID> requestIds = new HashSet<>();
+        List<CompletableFuture<TerraformBatchItemResult>> futures = new ArrayList<>();
+        for (int index = 0; index < requests.size(); index++) {
+            TerraformRequest request = requests.get(index);
+            CompletableFuture<TerraformBatchItemResult> future =
+                    submitRequest(index, request, requestIds);
+            futures.add(future.thenApply(result -> publishResult(result, resultConsumer)));
+        }
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> futures.stream().map(CompletableFuture::join).toList());
+    }
+
+    private CompletableFuture<TerraformBatchItemResult> submitRequest(
+            int index, TerraformRequest request, Set<UUID> requestIds) {
+        if (Objects.isNull(request)
+                || Objects.isNull(request.getRequestId())
+                || Objects.isNull(request.getRequestType())) {
+            return CompletableFuture.completedFuture(
+                    rejectedResult(index, request, "Request id and request type are required."));
+        }
+        // requests of the batch share the task workspaces, which are named by the request id.
+        if (!requestIds.add(request.getRequestId())) {
+            return CompletableFuture.completedFuture(
+                    rejectedResult(
+                            index,
+                            request,
+                            String.format(
+                                    "Request id %s is used by another request of the batch.",
+                                    request.getRequestId())));
+        }
+        if (isAsyncRequest(request)) {
+            return CompletableFuture.completedFuture(admitAsyncRequest(index, request));
+        }
+        TaskLane lane = TaskLane.of(request.getRequestType(), request.getIsPlanOnly());
+        Executor laneExecutor = TaskLane.SHORT == lane ? shortLaneExecutor : longLaneExecutor;
+        try {
+            return CompletableFuture.supplyAsync(
+                            () -> executeRequest(index, request), laneExecutor)
+                    .exceptionally(e -> toErrorResult(index, request, e));
+        } catch (TaskLaneOverloadedException e) {
+            return CompletableFuture.completedFuture(toErrorResult(index, request, e));
+        }
+    }
+
+    private TerraformBatchItemResult admitAsyncRequest(int index, TerraformRequest request) {
+        try {
+            requestService.processAsyncDeploymentRequest(request);
+            return TerraformBatchItemResult.builder()
+                    .index(index)
+                    .requestId(request.getRequestId())
+                    .requestType(request.getRequestType())
+                    .state(BatchItemState.ACCEPTED)
+                    .build();
+        } catch (RuntimeException e) {
+            return toErrorResult(index, request, e);
+        }
+    }
+
+    private TerraformBatchItemResult executeRequest(int index, TerraformRequest request) {
+        TerraformBatchItemResult.TerraformBatchItemResultBuilder result =
+                TerraformBatchItemResult.builder()
+                        .index(index)
+                        .requestId(request.getRequestId())
+                        .requestType(request.getRequestType())
+                        .state(BatchItemState.COMPLETED);
+        switch (request.getRequestType()) {
+            case RequestType.VALIDATE ->
+                    result.validationResult(requestService.handleTerraformValidateRequest(request));
+            case RequestType.PLAN ->
+                    result.plan(requestService.handleTerraformPlanRequest(request));
+            default ->
+                    result.deploymentResult(
+                            requestService.handleTerraformDeploymentRequest(request));
+        }
+        return result.build();
+    }
+
+    private TerraformBatchItemResult publishResult(
+            TerraformBatchItemResult result, Consumer<TerraformBatchItemResult> resultConsumer) {
+        try {
+            resultConsumer.accept(result);
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish result of batch request {}.", result.getRequestId(), e);
+        }
+        return result;
+    }
+
+    private boolean isAsyncRequest(TerraformRequest request) {
+        return request instanceof TerraformAsyncRequestWithScriptsDirectory
+                || request instanceof TerraformAsyncRequestWithScriptsGitRepo
+                || request instanceof TerraformAsyncRequestWithScripts;
+    }
+
+    private TerraformBatchItemResult toErrorResult(
+            int index, TerraformRequest request, Throwable throwable) {
+        Throwable e = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+        if (e instanceof TaskLaneOverloadedException overloadedException) {
+            TerraformBatchItemResult result = rejectedResult(index, request, e.getMessage());
+            result.setRetryAfterSeconds(overloadedException.getRetryAfterSeconds());
+            return result;
+        }
+        if (e instanceof TerraBootDrainingException
+                || e instanceof InvalidTerraformRequestException
+                || e instanceof UnsupportedEnumValueException) {
+            return rejectedResult(index, request, e.getMessage());
+        }
+        log.error("Batch request {} failed.", request.getRequestId(), e);
+        return TerraformBatchItemResult.builder()
+                .index(index)
+                .requestId(request.getRequestId())
+                .requestType(request.getRequestType())
+                .state(BatchItemState.FAILED)
+                .errorMessage(e.getMessage())
+                .build();
+    }
+
+    private TerraformBatchItemResult rejectedResult(
+            int index, TerraformRequest request, String errorMessage) {
+        return TerraformBatchItemResult.builder()
+                .index(index)
+                .requestId(Objects.nonNull(request) ? request.getRequestId() : null)
+                .requestType(Objects.nonNull(request) ? request.getRequestType() : null)
+                .state(BatchItemState.REJECTED)
+                .errorMessage(errorMessage)
+                .build();
+    }
+}
@@ -0,0 +1,312 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.terra.boot.terraform.service;
+
+import static org.eclipse.xpanse.terra.boot.logging.CustomRequestIdGenerator.REQUEST_ID;
+
+import jakarta.annotation.Resource;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.xpanse.terra.boot.async.DrainManager;
+import org.eclipse.xpanse.terra.boot.async.TaskConfiguration;
+import org.eclipse.xpanse.terra.boot.async.TaskLane;
+import org.eclipse.xpanse.terra.boot.models.enums.BatchItemState;
+import org.eclipse.xpanse.terra.boot.models.enums.RequestType;
+import org.eclipse.xpanse.terra.boot.models.exceptions.InvalidTerraformRequestException;
+import org.eclipse.xpanse.terra.boot.models.exceptions.InvalidTerraformToolException;
+import org.eclipse.xpanse.terra.boot.models.exceptions.TaskLaneOverloadedException;
+import org.eclipse.xpanse.terra.boot.models.exceptions.TerraformExecutorException;
+import org.eclipse.xpanse.terra.boot.models.request.directory.TerraformRequestWithScriptsDirectory;
+import org.eclipse.xpanse.terra.boot.models.request.scripts.TerraformFleetMember;
+import org.eclipse.xpanse.terra.boot.models.request.scripts.TerraformFleetRequestWithScripts;
+import org.eclipse.xpanse.terra.boot.models.response.TerraformBatchItemResult;
+import org.eclipse.xpanse.terra.boot.models.response.TerraformFleetResult;
+import org.eclipse.xpanse.terra.boot.terraform.TerraformExecutor;
+import org.eclipse.xpanse.terra.boot.terraform.tool.TerraformInstaller;
+import org.eclipse.xpanse.terra.boot.terraform.tool.TerraformVersionsHelper;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service to execute the same scripts for a fleet of members which differ only in their variables
+ * and state. The scripts are initialized once in a shared workspace, and each member runs in a
+ * clone of it. The members are executed by a limited number of workers in their scheduling lane.
+ */
+@Slf4j
+@Service
+public class TerraformFleetRequestService {
+
+    @Value("${terraform.fleet.max.members:100}")
+    private int maxFleetMembers;
+
+    @Value("${terraform.fleet.max.parallelism:4}")
+    private int maxFleetParallelism;
+
+    @Resource private TerraformScriptsDirectoryService terraformScriptsDirectoryService;
+    @Resource private TerraformScriptsDirectoryHelper scriptsDirectoryHelper;
+    @Resource private TerraformExecutor executor;
+    @Resource private TerraformInstaller installer;
+    @Resource private TerraformVersionsHelper versionHelper;
+    @Resource private DrainManager drainManager;
+
+    @Resource
+    @Qualifier(TaskConfiguration.SHORT_LANE_EXECUTOR_NAME)
+    private Executor shortLaneExecutor;
+
+    @Resource
+    @Qualifier(TaskConfiguration.LONG_LANE_EXECUTOR_NAME)
+    private Executor longLaneExecutor;
+
+    /**
+     * Handle the fleet request and return the results of the members.
+     *
+     * @param request fleet request.
+     * @return TerraformFleetResult.
+     */
+    public TerraformFleetResult handleTerraformFleetRequest(
+            TerraformFleetRequestWithScripts request) {
+        validateFleetRequest(request);
+        drainManager.admitWork();
+        String fleetWorkspace = null;
+        try {
+            fleetWorkspace =
+                    scriptsDirectoryHelper.buildTaskWorkspace(request.getRequestId().toString());
+            scriptsDirectoryHelper.prepareDeploymentFilesWithScripts(
+                    fleetWorkspace, request.getScriptFiles(), null);
+            String executorPath;
+            try {
+                executorPath =
+                        installer.getExecutorPathThatMatchesRequiredVersion(
+                                request.getTerraformVersion());
+                executor.tfInit(executorPath, fleetWorkspace);
+            } catch (InvalidTerraformToolException | TerraformExecutorException e) {
+                log.error("Init of fleet request {} failed.", request.getRequestId(), e);
+                return getInitFailedResult(request, e);
+            }
+            List<TerraformBatchItemResult> memberResults =
+                    executeMembers(request, fleetWorkspace);
+            return TerraformFleetResult.builder()
+                    .requestId(request.getRequestId())
+                    .terraformVersionUsed(versionHelper.getExactVersionOfExecutor(executorPath))
+                    .memberResults(memberResults)
+                    .build();
+        } finally {
+            if (Objects.nonNull(fleetWorkspace)) {
+                scriptsDirectoryHelper.deleteTaskWorkspace(fleetWorkspace);
+            }
+            drainManager.finishWork();
+        }
+    }
+
+    private List<TerraformBatchItemResult> executeMembers(
+            TerraformFleetRequestWithScripts request, String fleetWorkspace) {
+        List<TerraformFleetMember> members = request.getMembers();
+        AtomicReferenceArray<TerraformBatchItemResult> memberResults =
+                new AtomicReferenceArray<>(members.size());
+        Queue<Integer> pendingMembers = new ConcurrentLinkedQueue<>();
+        for (int index = 0; index < members.size(); index++) {
+            pendingMembers.add(index);
+        }
+        Runnable worker =
+                () -> {
+                    Integer index;
+                    while ((index = pendingMembers.poll()) != null) {
+                        memberResults.set(
+                                index,
+                                executeMember(
+                                        request, index, members.get(index), fleetWorkspace));
+                    }
+                };
+        TaskLane lane = TaskLane.of(request.getRequestType(), request.getIsPlanOnly());
+        Executor laneExecutor = TaskLane.SHORT == lane ? shortLaneExecutor : longLaneExecutor;
+        List<CompletableFuture<Void>> workers = new ArrayList<>();
+        for (int i = 0; i < getParallelism(request); i++) {
+            try {
+                workers.add(CompletableFuture.runAsync(worker, laneExecutor));
+            } catch (TaskLaneOverloadedException e) {
+                // the fleet continues with the workers which fit into the lane.
+                if (workers.isEmpty()) {
+                    throw e;
+                }
+                log.warn(
+                        "Fleet request {} runs with {} workers, the {} lane is full.",
+                        request.getRequestId(),
+                        workers.size(),
+                        lane.getLaneName());
+                break;
+            }
+        }
+        CompletableFuture.allOf(workers.toArray(CompletableFuture[]::new)).join();
+        List<TerraformBatchItemResult> results = new ArrayList<>(members.size());
+        for (int index = 0; index < members.size(); index++) {
+            results.add(memberResults.get(index));
+        }
+        return results;
+    }
+
+    private TerraformBatchItemResult executeMember(
+            TerraformFleetRequestWithScripts request,
+            int index,
+            TerraformFleetMember member,
+            String fleetWorkspace) {
+        TerraformBatchItemResult.TerraformBatchItemResultBuilder result =
+                TerraformBatchItemResult.builder()
+                        .index(index)
+                        .requestId(member.getRequestId())
+                        .requestType(request.getRequestType());
+        if ((RequestType.DESTROY == request.getRequestType()
+                        || RequestType.MODIFY == request.getRequestType())
+                && StringUtils.isBlank(member.getTfState())) {
+            return result.state(BatchItemState.REJECTED)
+                    .errorMessage(
+                            String.format(
+                                    "Terraform state is required for request with order type %s.",
+                                    request.getRequestType()))
+                    .build();
+        }
+        // the workers run several members, the request id of the fleet is restored after each.
+        String fleetRequestId = MDC.get(REQUEST_ID);
+        MDC.put(REQUEST_ID, member.getRequestId().toString());
+        String memberWorkspace = null;
+        try {
+            memberWorkspace =
+                    scriptsDirectoryHelper.buildTaskWorkspace(member.getRequestId().toString());
+            List<File> scriptFiles =
+                    scriptsDirectoryHelper.cloneInitializedWorkspace(
+                            fleetWorkspace, memberWorkspace, member.getTfState());
+            TerraformRequestWithScriptsDirectory memberRequest =
+                    toMemberRequest(request, member, memberWorkspace, scriptFiles);
+            switch (request.getRequestType()) {
+                case RequestType.PLAN ->
+                        result.plan(
+                                terraformScriptsDirectoryService
+                                        .getTerraformPlanWithScriptsDirectory(memberRequest));
+                case RequestType.DEPLOY ->
+                        result.deploymentResult(
+                                terraformScriptsDirectoryService.deployWithScriptsDirectory(
+                                        memberRequest));
+                case RequestType.MODIFY ->
+                        result.deploymentResult(
+                                terraformScriptsDirectoryService.modifyWithScriptsDirectory(
+                                        memberRequest));
+                default ->
+                        result.deploymentResult(
+                                terraformScriptsDirectoryService.destroyWithScriptsDirectory(
+                                        memberRequest));
+            }
+            return result.state(BatchItemState.COMPLETED).build();
+        } catch (RuntimeException e) {
+            log.error("Member {} of fleet request failed.", member.getRequestId(), e);
+            if (Objects.nonNull(memberWorkspace)) {
+                scriptsDirectoryHelper.deleteTaskWorkspace(memberWorkspace);
+            }
+            return result.state(BatchItemState.FAILED).errorMessage(e.getMessage()).build();
+        } finally {
+            if (Objects.nonNull(fleetRequestId)) {
+                MDC.put(REQUEST_ID, fleetRequestId);
+            } else {
+                MDC.remove(REQUEST_ID);
+            }
+        }
+    }
+
+    private TerraformRequestWithScriptsDirectory toMemberRequest(
+            TerraformFleetRequestWithScripts request,
+            TerraformFleetMember member,
+            String memberWorkspace,
+            List<File> scriptFiles) {
+        TerraformRequestWithScriptsDirectory memberRequest =
+                new TerraformRequestWithScriptsDirectory();
+        memberRequest.setRequestId(member.getRequestId());
+        memberRequest.setRequestType(request.getRequestType());
+        memberRequest.setTerraformVersion(request.getTerraformVersion());
+        memberRequest.setIsPlanOnly(request.getIsPlanOnly());
+        memberRequest.setVariables(member.getVariables());
+        // the executor adds its log config to the environment variables of the request.
+        memberRequest.setEnvVariables(
+                Objects.nonNull(member.getEnvVariables())
+                        ? new HashMap<>(member.getEnvVariables())
+                        : new HashMap<>());
+        memberRequest.setTfState(member.getTfState());
+        memberRequest.setScriptsDirectory(memberWorkspace);
+        memberRequest.setScriptFiles(scriptFiles);
+        memberRequest.setWorkspaceInitialized(true);
+        return memberRequest;
+    }
+
+    private int getParallelism(TerraformFleetRequestWithScripts request) {
+        int parallelism = maxFleetParallelism;
+        if (Objects.nonNull(request.getMaxParallelism()) && request.getMaxParallelism() > 0) {
+            parallelism = Math.min(parallelism, request.getMaxParallelism());
+        }
+        return Math.max(1, Math.min(parallelism, request.getMembers().size()));
+    }
+
+    private void validateFleetRequest(TerraformFleetRequestWithScripts request) {
+        MDC.put(REQUEST_ID, request.getRequestId().toString());
+        String errorMessage = null;
+        if (RequestType.VALIDATE == request.getRequestType()) {
+            errorMessage = "Validate requests are not supported for fleets.";
+        } else if (Objects.isNull(request.getMembers()) || request.getMembers().isEmpty()) {
+            errorMessage = "The fleet must contain at least one member.";
+        } else if (request.getMembers().size() > maxFleetMembers) {
+            errorMessage =
+                    String.format(
+                            "The fleet contains %d members, at most %d are allowed.",
+                            request.getMembers().size(), maxFleetMembers);
+        } else {
+            // each member runs in the task workspace named by its request id.
+            Set<UUID> requestIds = new HashSet<>();
+            requestIds.add(request.getRequestId());
+            for (TerraformFleetMember member : request.getMembers()) {
+                if (Objects.isNull(member.getRequestId())
+                        || !requestIds.add(member.getRequestId())) {
+                    errorMessage = "Each member of the fleet must have its own request id.";
+                    break;
+                }
+            }
+        }
+        if (Objects.nonNull(errorMessage)) {
+            log.error(errorMessage);
+            throw new InvalidTerraformRequestException(errorMessage);
+        }
+    }
+
+    private TerraformFleetResult getInitFailedResult(
+            TerraformFleetRequestWithScripts request, Exception e) {
+        List<TerraformBatchItemResult> memberResults = new ArrayList<>();
+        for (int index = 0; index < request.getMembers().size(); index++) {
+            memberResults.add(
+                    TerraformBatchItemResult.builder()
+                            .index(index)
+                            .requestId(request.getMembers().get(index).getRequestId())
+                            .requestType(request.getRequestType())
+                            .state(BatchItemState.FAILED)
+                            .errorMessage(e.getMessage())
+                            .build());
+        }
+        return TerraformFleetResult.builder()
+                .requestId(request.getRequestId())
+                .initErrorMessage(e.getMessage())
+                .memberResults(memberResults)
+                .build();
+    }
+}
@@ -13,6 +13,7 @@ import java.util.List;
 import java.util.UUID;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.eclipse.xpanse.terra.boot.async.DrainManager;
 import org.eclipse.xpanse.terra.boot.models.enums.RequestType;
 import org.eclipse.xpanse.terra.boot.models.exceptions.InvalidTerraformRequestException;
 import org.eclipse.xpanse.terra.boot.models.exceptions.UnsupportedEnumValueException;
@@ -41,6 +42,8 @@ public class TerraformRequestService {
 
     @Resource private TerraformScriptsDirectoryService terraformScriptsDirectoryService;
     @Resource private TerraformScriptsDirectoryHelper scriptsDirectoryHelper;
+    @Resource private TerraformScriptsGitRepoPrefetcher scriptsGitRepoPrefetcher;
+    @Resource private DrainManager drainManager;
 
     /** Handle the request of health check. */
     public TerraBootSystemStatus healthCheck(UUID requestId) {
@@ -55,10 +58,15 @@ public class TerraformRequestService {
      * @return TerraformValidationResult.
      */
     public TerraformValidationResult handleTerraformValidateRequest(TerraformRequest request) {
-        TerraformRequestWithScriptsDirectory requestWithDirectory =
-                convertRequestWithScriptsDirectory(request);
-        return terraformScriptsDirectoryService.tfValidateWithScriptsDirectory(
-                requestWithDirectory);
+        drainManager.admitWork();
+        try {
+            TerraformRequestWithScriptsDirectory requestWithDirectory =
+                    convertRequestWithScriptsDirectory(request);
+            return terraformScriptsDirectoryService.tfValidateWithScriptsDirectory(
+                    requestWithDirectory);
+        } finally {
+            drainManager.finishWork();
+        }
     }
 
     /**
@@ -68,10 +76,15 @@ public class TerraformRequestService {
      * @return TerraformPlan.
      */
     public TerraformPlan handleTerraformPlanRequest(TerraformRequest request) {
-        TerraformRequestWithScriptsDirectory requestWithDirectory =
-                convertRequestWithScriptsDirectory(request);
-        return terraformScriptsDirectoryService.getTerraformPlanWithScriptsDirectory(
-                requestWithDirectory);
+        drainManager.admitWork();
+        try {
+            TerraformRequestWithScriptsDirectory requestWithDirectory =
+                    convertRequestWithScriptsDirectory(request);
+            return terraformScriptsDirectoryService.getTerraformPlanWithScriptsDirectory(
+                    requestWithDirectory);
+        } finally {
+            drainManager.finishWork();
+        }
     }
 
     /**
@@ -81,6 +94,15 @@ public class TerraformRequestService {
      * @return TerraformResult.
      */
     public TerraformResult handleTerraformDeploymentRequest(TerraformRequest request) {
+        drainManager.admitWork();
+        try {
+            return executeDeploymentRequest(request);
+        } finally {
+            drainManager.finishWork();
+        }
+    }
+
+    private TerraformResult executeDeploymentRequest(TerraformRequest request) {
         TerraformRequestWithScriptsDirectory requestWithDirectory =
                 convertRequestWithScriptsDirectory(request);
         switch (request.getRequestType()) {
@@ -110,6 +132,7 @@ public class TerraformRequestService {
      * @param request request.
      */
     public void processAsyncDeploymentRequest(TerraformRequest request) {
+        drainManager.checkAcceptingWork();
         TerraformAsyncRequestWithScriptsDirectory requestWithDirectory =
                 (TerraformAsyncRequestWithScriptsDirectory)
                         convertRequestWithScriptsDirectory(request);
@@ -245,6 +268,7 @@ public class TerraformRequestService {
             requestWithDirectory = new TerraformAsyncRequestWithScriptsDirectory();
         }
         BeanUtils.copyProperties(request, requestWithDirectory);
+        scriptsGitRepoPrefetcher.recordRequest(request.getGitRepoDetails());
         String taskWorkspace =
                 scriptsDirectoryHelper.buildTaskWorkspace(request.getRequestId().toString());
         String scriptsPath =
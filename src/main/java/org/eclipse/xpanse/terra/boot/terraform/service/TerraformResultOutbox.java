@@ -0,0 +1,573 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.terra.boot.terraform.service;
+
+import static org.eclipse.xpanse.terra.boot.logging.CustomRequestIdGenerator.REQUEST_ID;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.xpanse.terra.boot.async.DrainManager;
+import org.eclipse.xpanse.terra.boot.async.TaskJournal;
+import org.eclipse.xpanse.terra.boot.config.WebhookStreamingClient;
+import org.eclipse.xpanse.terra.boot.models.response.TerraformResult;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+/**
+ * Persistent outbox of the results sent to webhooks. A result is stored on the local disk before it
+ * is streamed from there to the webhook by the outbox workers, so that the threads of the terraform
+ * tasks never wait for a webhook and large results are never buffered in memory. Failed deliveries
+ * are retried with exponential backoff and jitter, limited by the retry budget of the webhook
+ * endpoint. While the circuit of an endpoint is open, its results wait in the outbox without
+ * connection attempts, up to the maximum wait time of a delivery. Only results whose retries are
+ * exhausted or whose webhook url is invalid are stored to be fetched through the task result API.
+ * Results still in the outbox are delivered after a restart, so the outbox directory must be on
+ * a persistent volume. The drain on shutdown waits for the pending deliveries until its deadline.
+ */
+@Slf4j
+@Component
+public class TerraformResultOutbox implements ApplicationListener<ApplicationStartedEvent> {
+
+    private static final String OUTBOX_DIR_NAME = "terra-boot-webhook-outbox";
+    private static final String OUTBOX_FILE_SUFFIX = ".json";
+    private static final int MAX_URL_LENGTH = 8192;
+    private static final long CLOSE_TIMEOUT_SECONDS = 10;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String DELIVERED_METRIC_NAME = "terra.boot.webhook.outbox.delivered";
+    private static final String RETRIED_METRIC_NAME = "terra.boot.webhook.outbox.retried";
+    private static final String EXHAUSTED_METRIC_NAME = "terra.boot.webhook.outbox.exhausted";
+    private static final String PENDING_METRIC_NAME = "terra.boot.webhook.outbox.pending";
+
+    @Value("${terra.boot.webhook.outbox.dir:}")
+    private String outboxDirectoryPath;
+
+    @Value("${terra.boot.webhook.outbox.workers:4}")
+    private int workers;
+
+    @Value("${terra.boot.webhook.outbox.max.attempts:6}")
+    private int maxAttempts;
+
+    @Value("${terra.boot.webhook.outbox.initial.backoff.millis:1000}")
+    private long initialBackoffMillis;
+
+    @Value("${terra.boot.webhook.outbox.max.backoff.millis:60000}")
+    private long maxBackoffMillis;
+
+    @Value("${terra.boot.webhook.outbox.retry.budget.per.minute:100}")
+    private int retryBudgetPerMinute;
+
+    @Value("${terra.boot.webhook.outbox.max.wait.millis:3600000}")
+    private long maxWaitMillis;
+
+    @Resource private WebhookStreamingClient webhookStreamingClient;
+    @Resource private TerraformResultPersistenceManage terraformResultPersistenceManage;
+    @Resource private WebhookCircuitBreaker webhookCircuitBreaker;
+    @Resource private TaskJournal taskJournal;
+    @Resource private DrainManager drainManager;
+    @Resource private MeterRegistry meterRegistry;
+
+    private final Set<UUID> pendingDeliveries = ConcurrentHashMap.newKeySet();
+    private final Map<String, RetryBudget> retryBudgets = new ConcurrentHashMap<>();
+    private Path outboxDirectory;
+    private ScheduledThreadPoolExecutor deliveryExecutor;
+    private Counter deliveredCounter;
+    private Counter retriedCounter;
+    private Counter exhaustedCounter;
+
+    /**
+     * Open the outbox and start the delivery workers.
+     *
+     * @throws IOException if the outbox directory cannot be created.
+     */
+    @PostConstruct
+    public void openOutbox() throws IOException {
+        outboxDirectory =
+                StringUtils.isNotBlank(outboxDirectoryPath)
+                        ? Paths.get(outboxDirectoryPath)
+                        : Paths.get(System.getProperty("java.io.tmpdir"), OUTBOX_DIR_NAME);
+        Files.createDirectories(outboxDirectory);
+        deliveryExecutor =
+                new ScheduledThreadPoolExecutor(
+                        Math.max(1, workers),
+                        Thread.ofPlatform().name("webhook-outbox-", 0).daemon().factory());
+        deliveryExecutor.setRemoveOnCancelPolicy(true);
+        deliveredCounter =
+                Counter.builder(DELIVERED_METRIC_NAME)
+                        .description("Number of results delivered to their webhook.")
+                        .register(meterRegistry);
+        retriedCounter =
+                Counter.builder(RETRIED_METRIC_NAME)
+                        .description("Number of retried webhook deliveries.")
+                        .register(meterRegistry);
+        exhaustedCounter =
+                Counter.builder(EXHAUSTED_METRIC_NAME)
+                        .description("Number of results stored after their retries were exhausted.")
+                        .register(meterRegistry);
+        Gauge.builder(PENDING_METRIC_NAME, pendingDeliveries, Set::size)
+                .description("Number of results waiting in the outbox.")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Stop the delivery workers after the drain. Running deliveries may finish, results which are
+     * not delivered yet stay in the outbox.
+     */
+    @PreDestroy
+    public void closeOutbox() throws InterruptedException {
+        if (Objects.isNull(deliveryExecutor)) {
+            return;
+        }
+        deliveryExecutor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        deliveryExecutor.shutdown();
+        if (!deliveryExecutor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            deliveryExecutor.shutdownNow();
+        }
+    }
+
+    @Override
+    public void onApplicationEvent(@Nonnull ApplicationStartedEvent event) {
+        int recovered = 0;
+        try (DirectoryStream<Path> outboxFiles =
+                Files.newDirectoryStream(outboxDirectory, "*" + OUTBOX_FILE_SUFFIX)) {
+            for (Path outboxFile : outboxFiles) {
+                if (recoverDelivery(outboxFile)) {
+                    recovered++;
+                }
+            }
+        } catch (IOException e) {
+            log.error("Failed to read the webhook outbox {}.", outboxDirectory, e);
+        }
+        if (recovered > 0) {
+            log.info("Delivering {} results left in the webhook outbox.", recovered);
+        }
+    }
+
+    /**
+     * Store the result in the outbox and deliver it to the webhook in the background.
+     *
+     * @param url url of the webhook.
+     * @param result result of the request.
+     */
+    public void deliver(String url, TerraformResult result) {
+        UUID requestId = result.getRequestId();
+        // the first result of a request wins, a later one must never replace it.
+        if (!addPendingDelivery(requestId)) {
+            log.warn("Result {} is already in the outbox, dropped the later result.", requestId);
+            return;
+        }
+        OutboxEntry entry;
+        try {
+            Path outboxFile = writeOutboxFile(url, result);
+            entry =
+                    new OutboxEntry(
+                            requestId,
+                            url,
+                            outboxFile,
+                            getBodyLength(outboxFile, url),
+                            null,
+                            getDeliveryDeadline());
+        } catch (FileAlreadyExistsException e) {
+            // left by the last run, the recovery of the outbox delivers it.
+            log.warn("Result {} is already in the outbox, dropped the later result.", requestId);
+            removePendingDelivery(requestId);
+            return;
+        } catch (IOException e) {
+            // the result is still delivered, it is only lost if terra-boot stops meanwhile.
+            log.error("Failed to store result {} in the outbox.", requestId, e);
+            try {
+                byte[] body = OBJECT_MAPPER.writeValueAsBytes(result);
+                entry =
+                        new OutboxEntry(
+                                requestId, url, null, body.length, body, getDeliveryDeadline());
+            } catch (JsonProcessingException ex) {
+                log.error("Failed to serialize result {}.", requestId, ex);
+                terraformResultPersistenceManage.persistTerraformResult(result);
+                removePendingDelivery(requestId);
+                taskJournal.resultSent(requestId.toString());
+                return;
+            }
+        }
+        // recorded before the delivery starts, a restart must not report the task as interrupted.
+        taskJournal.resultSent(requestId.toString());
+        scheduleDelivery(entry, 1, 0);
+    }
+
+    /**
+     * Check whether the outbox holds the result of the request, also if it is left by the last
+     * run and not recovered yet.
+     *
+     * @param requestId id of the request.
+     * @return true if the result is stored in the outbox.
+     */
+    public boolean hasResult(UUID requestId) {
+        return pendingDeliveries.contains(requestId)
+                || Files.exists(outboxDirectory.resolve(requestId + OUTBOX_FILE_SUFFIX));
+    }
+
+    /**
+     * Check whether the result of the request is waiting in the outbox.
+     *
+     * @param requestId id of the request.
+     * @return true if the result is not delivered yet.
+     */
+    public boolean isPending(UUID requestId) {
+        return pendingDeliveries.contains(requestId);
+    }
+
+    private boolean recoverDelivery(Path outboxFile) {
+        try {
+            String fileName = outboxFile.getFileName().toString();
+            UUID requestId =
+                    UUID.fromString(StringUtils.removeEnd(fileName, OUTBOX_FILE_SUFFIX));
+            String url = readOutboxUrl(outboxFile);
+            OutboxEntry entry =
+                    new OutboxEntry(
+                            requestId,
+                            url,
+                            outboxFile,
+                            getBodyLength(outboxFile, url),
+                            null,
+                            getDeliveryDeadline());
+            if (!addPendingDelivery(requestId)) {
+                // already scheduled, a result file is never delivered twice.
+                return false;
+            }
+            scheduleDelivery(entry, 1, 0);
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            log.error("Discarding unreadable outbox file {}.", outboxFile, e);
+            deleteOutboxFile(outboxFile);
+            return false;
+        }
+    }
+
+    private boolean addPendingDelivery(UUID requestId) {
+        if (!pendingDeliveries.add(requestId)) {
+            return false;
+        }
+        drainManager.admitDelivery();
+        return true;
+    }
+
+    private void removePendingDelivery(UUID requestId) {
+        if (pendingDeliveries.remove(requestId)) {
+            drainManager.finishDelivery();
+        }
+    }
+
+    private void scheduleDelivery(OutboxEntry entry, int attempt, long delay) {
+        try {
+            deliveryExecutor.schedule(
+                    () -> attemptDelivery(entry, attempt), delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // the outbox is closed, the result is delivered after the restart.
+            log.warn("Outbox is closed, result {} stays in the outbox.", entry.requestId());
+        }
+    }
+
+    private void attemptDelivery(OutboxEntry entry, int attempt) {
+        MDC.put(REQUEST_ID, entry.requestId().toString());
+        try {
+            if (!isValidWebhookUrl(entry.url())) {
+                log.error(
+                        "Webhook url {} of result {} is invalid, store the result.",
+                        entry.url(),
+                        entry.requestId());
+                storeResult(entry);
+                completeDelivery(entry);
+                return;
+            }
+            if (!webhookCircuitBreaker.tryAcquire(entry.url())) {
+                waitForCircuit(entry, attempt);
+                return;
+            }
+            try {
+                // the body is streamed from the outbox file, it is never loaded into memory.
+                webhookStreamingClient.postJson(
+                        entry.url(), () -> openBody(entry), entry.bodyLength());
+            } catch (HttpClientErrorException e) {
+                // the receiver is available, it only rejected the result.
+                webhookCircuitBreaker.onSuccess(entry.url());
+                if (isRetryableRejection(e)) {
+                    retryOrStore(entry, attempt, e);
+                    return;
+                }
+                log.error(
+                        "Webhook rejected result {} with status {}, store the result. {}",
+                        entry.requestId(),
+                        e.getStatusCode().value(),
+                        e.getMessage());
+                storeResult(entry);
+                completeDelivery(entry);
+                return;
+            } catch (RuntimeException e) {
+                webhookCircuitBreaker.onFailure(entry.url(), e);
+                retryOrStore(entry, attempt, e);
+                return;
+            }
+            webhookCircuitBreaker.onSuccess(entry.url());
+            deliveredCounter.increment();
+            completeDelivery(entry);
+        } catch (RuntimeException e) {
+            // a task of the executor must never fail, the entry would stay pending forever.
+            log.error("Delivery of result {} to webhook failed.", entry.requestId(), e);
+            storeResult(entry);
+            completeDelivery(entry);
+        } finally {
+            MDC.remove(REQUEST_ID);
+        }
+    }
+
+    /**
+     * No connection is attempted, so the delivery does not count as an attempt. The result waits
+     * in the outbox until the circuit lets it through or the maximum wait time has passed.
+     */
+    private void waitForCircuit(OutboxEntry entry, int attempt) {
+        long remainingMillis = entry.deadline() - System.currentTimeMillis();
+        if (remainingMillis <= 0) {
+            log.error(
+                    "Delivery of result {} to webhook was skipped by the open circuit until the"
+                            + " maximum wait time passed.",
+                    entry.requestId());
+            exhaustedCounter.increment();
+            storeResult(entry);
+            completeDelivery(entry);
+            return;
+        }
+        long delay =
+                Math.max(
+                        webhookCircuitBreaker.getRetryDelayMillis(entry.url()),
+                        getBackoffMillis(attempt));
+        log.debug(
+                "Circuit of the webhook endpoint of result {} is open, wait {} ms.",
+                entry.requestId(),
+                delay);
+        scheduleDelivery(entry, attempt, Math.min(delay, remainingMillis));
+    }
+
+    private void retryOrStore(OutboxEntry entry, int attempt, RuntimeException e) {
+        if (attempt >= maxAttempts || !getRetryBudget(entry.url()).tryAcquire()) {
+            log.error(
+                    "Delivery of result {} to webhook failed after {} attempts. {}",
+                    entry.requestId(),
+                    attempt,
+                    e.getMessage(),
+                    e);
+            exhaustedCounter.increment();
+            storeResult(entry);
+            completeDelivery(entry);
+            return;
+        }
+        long backoffMillis = getBackoffMillis(attempt);
+        log.warn(
+                "Delivery of result {} to webhook failed, retry {} in {} ms. {}",
+                entry.requestId(),
+                attempt,
+                backoffMillis,
+                e.getMessage());
+        retriedCounter.increment();
+        scheduleDelivery(entry, attempt + 1, backoffMillis);
+    }
+
+    private void storeResult(OutboxEntry entry) {
+        try (InputStream body = openBody(entry)) {
+            terraformResultPersistenceManage.persistTerraformResult(
+                    OBJECT_MAPPER.readValue(body, TerraformResult.class));
+        } catch (IOException e) {
+            log.error("Failed to read result {} from the outbox.", entry.requestId(), e);
+        }
+    }
+
+    private void completeDelivery(OutboxEntry entry) {
+        if (Objects.nonNull(entry.outboxFile())) {
+            deleteOutboxFile(entry.outboxFile());
+        }
+        removePendingDelivery(entry.requestId());
+    }
+
+    /** Other client errors fail the same way again, they are never retried. */
+    private boolean isRetryableRejection(HttpClientErrorException e) {
+        int status = e.getStatusCode().value();
+        return status == HttpStatus.REQUEST_TIMEOUT.value()
+                || status == HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    private long getBackoffMillis(int attempt) {
+        long backoff = initialBackoffMillis << Math.min(attempt - 1, 30);
+        backoff = Math.min(Math.max(backoff, 1), maxBackoffMillis);
+        // equal jitter spreads the retries of results which failed at the same time.
+        long halfBackoff = backoff / 2;
+        return halfBackoff + ThreadLocalRandom.current().nextLong(backoff - halfBackoff + 1);
+    }
+
+    private long getDeliveryDeadline() {
+        return System.currentTimeMillis() + Math.max(0, maxWaitMillis);
+    }
+
+    private boolean isValidWebhookUrl(String url) {
+        try {
+            URI uri = URI.create(url);
+            return uri.isAbsolute() && Objects.nonNull(uri.getHost());
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private RetryBudget getRetryBudget(String url) {
+        return retryBudgets.computeIfAbsent(
+                WebhookCircuitBreaker.getEndpoint(url),
+                key -> new RetryBudget(Math.max(1, retryBudgetPerMinute)));
+    }
+
+    private Path writeOutboxFile(String url, TerraformResult result) throws IOException {
+        Path outboxFile = outboxDirectory.resolve(result.getRequestId() + OUTBOX_FILE_SUFFIX);
+        Path tempFile = Files.createTempFile(outboxDirectory, OUTBOX_DIR_NAME, ".tmp");
+        try {
+            // the results contain the terraform state, only the owner may read the outbox.
+            if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+                Files.setPosixFilePermissions(
+                        tempFile, PosixFilePermissions.fromString("rw-------"));
+            }
+            // the url is the first line, the rest of the file is the body of the request.
+            try (OutputStream outputStream =
+                    new BufferedOutputStream(Files.newOutputStream(tempFile))) {
+                outputStream.write(getUrlLine(url));
+                OBJECT_MAPPER.writeValue(outputStream, result);
+            }
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                channel.force(false);
+            }
+            // fails if the request has an entry already, an existing result is never replaced.
+            Files.move(tempFile, outboxFile);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+        return outboxFile;
+    }
+
+    private String readOutboxUrl(Path outboxFile) throws IOException {
+        try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(outboxFile))) {
+            ByteArrayOutputStream url = new ByteArrayOutputStream();
+            int read;
+            while ((read = inputStream.read()) != '\n') {
+                if (read == -1 || url.size() >= MAX_URL_LENGTH) {
+                    throw new IOException("Outbox file has no url line.");
+                }
+                url.write(read);
+            }
+            return url.toString(StandardCharsets.UTF_8);
+        }
+    }
+
+    private long getBodyLength(Path outboxFile, String url) throws IOException {
+        return Files.size(outboxFile) - getUrlLine(url).length;
+    }
+
+    private InputStream openBody(OutboxEntry entry) throws IOException {
+        if (Objects.isNull(entry.outboxFile())) {
+            return new ByteArrayInputStream(entry.body());
+        }
+        InputStream inputStream = new BufferedInputStream(Files.newInputStream(entry.outboxFile()));
+        inputStream.skipNBytes(getUrlLine(entry.url()).length);
+        return inputStream;
+    }
+
+    private byte[] getUrlLine(String url) {
+        return (url + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void deleteOutboxFile(Path outboxFile) {
+        try {
+            Files.deleteIfExists(outboxFile);
+        } catch (IOException e) {
+            log.error("Failed to delete outbox file {}.", outboxFile, e);
+        }
+    }
+
+    /**
+     * Entry of the outbox. The body is only kept in memory if it could not be stored in the outbox.
+     *
+     * @param requestId id of the request.
+     * @param url url of the webhook.
+     * @param outboxFile file of the entry, null if the result could not be stored.
+     * @param bodyLength length of the body in bytes.
+     * @param body body of the request, null if it is read from the outbox file.
+     * @param deadline time in epoch milliseconds until which the delivery may wait for the circuit.
+     */
+    private record OutboxEntry(
+            UUID requestId,
+            String url,
+            Path outboxFile,
+            long bodyLength,
+            byte[] body,
+            long deadline) {}
+
+    /** Token bucket of the retries to a webhook endpoint, refilled in one minute. */
+    private static final class RetryBudget {
+
+        private final int capacity;
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+
+        private RetryBudget(int capacity) {
+            this.capacity = capacity;
+            this.tokens = capacity;
+        }
+
+        private synchronized boolean tryAcquire() {
+            long now = System.nanoTime();
+            double refill = (now - refilledAt) * capacity / (double) TimeUnit.MINUTES.toNanos(1);
+            tokens = Math.min(capacity, tokens + refill);
+            refilledAt = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+    }
+}
@@ -12,11 +12,13 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.UUID;
 import lombok.extern.slf4j.Slf4j;
+import org.eclipse.xpanse.terra.boot.async.TaskRegistry;
 import org.eclipse.xpanse.terra.boot.models.response.ReFetchResult;
 import org.eclipse.xpanse.terra.boot.models.response.ReFetchState;
 import org.eclipse.xpanse.terra.boot.models.response.TerraformResult;
 import org.eclipse.xpanse.terra.boot.utils.TerraformResultSerializer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
 /** Terraform service classes are manage task result. */
@@ -32,6 +34,8 @@ public class TerraformResultPersistenceManage {
 
     @Resource private TerraformScriptsDirectoryHelper scriptsHelper;
     @Resource private TerraformResultSerializer terraformResultSerializer;
+    @Resource private TaskRegistry taskRegistry;
+    @Lazy @Resource private TerraformResultOutbox terraformResultOutbox;
 
     /**
      * When the terra-boot callback fails, store the TerraformResult in the local file system.
@@ -107,6 +111,10 @@ public class TerraformResultPersistenceManage {
     }
 
     private boolean isDeployingInProgress(UUID requestId) {
+        if (taskRegistry.isInFlight(requestId) || terraformResultOutbox.isPending(requestId)) {
+            return true;
+        }
+        // the lock file is only checked for tasks which are not tracked by this instance.
         File workspace = scriptsHelper.getTaskWorkspace(requestId.toString());
         File tfLockFile = new File(workspace, TF_LOCK_FILE_NAME);
         return tfLockFile.exists() && tfLockFile.isFile();
@@ -5,6 +5,9 @@
 
 package org.eclipse.xpanse.terra.boot.terraform.service;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import jakarta.annotation.Resource;
 import java.io.File;
 import java.io.FileWriter;
@@ -17,6 +20,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -36,6 +40,9 @@ public class TerraformScriptsDirectoryHelper {
 
     public static final String TF_SCRIPT_FILE_EXTENSION = ".tf";
     private static final String TF_STATE_FILE_NAME = "terraform.tfstate";
+    private static final String TF_STATE_LINEAGE_FIELD = "lineage";
+    private static final String TF_DATA_DIR_NAME = ".terraform";
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
     private static final List<String> EXCLUDED_FILE_SUFFIX_LIST =
             Arrays.asList(".tf", ".tfstate", ".binary", ".hcl");
 
@@ -45,7 +52,11 @@ public class TerraformScriptsDirectoryHelper {
     @Value("${clean.workspace.after.deployment.enabled:true}")
     private Boolean cleanWorkspaceAfterDeployment;
 
+    @Value("${terraform.scripts.git.cache.enabled:true}")
+    private Boolean gitRepoCacheEnabled;
+
     @Resource private TerraformScriptsGitRepoHelper terraformScriptsGitRepoHelper;
+    @Resource private TerraformScriptsGitRepoCache terraformScriptsGitRepoCache;
 
     /**
      * Create workspace for the Terraform deployment task.
@@ -123,7 +134,11 @@ public class TerraformScriptsDirectoryHelper {
     public List<File> prepareDeploymentFilesWithGitRepo(
             String taskWorkspace, TerraformScriptsGitRepoDetails gitRepoDetails, String tfState) {
         List<File> scriptFiles =
-                terraformScriptsGitRepoHelper.checkoutScripts(taskWorkspace, gitRepoDetails);
+                gitRepoCacheEnabled
+                        ? terraformScriptsGitRepoCache.checkoutScripts(
+                                taskWorkspace, gitRepoDetails)
+                        : terraformScriptsGitRepoHelper.checkoutScripts(
+                                taskWorkspace, gitRepoDetails);
         List<File> projectFiles = new ArrayList<>(scriptFiles);
         if (StringUtils.isNotBlank(tfState)) {
             File tfStateFile = createTfStateFile(taskWorkspace, tfState);
@@ -132,6 +147,57 @@ public class TerraformScriptsDirectoryHelper {
         return projectFiles;
     }
 
+    /**
+     * Clone an initialized workspace into the workspace of another Terraform deployment task. The
+     * scripts are copied, the providers and modules installed by the init are hard linked, so the
+     * clone needs neither an init nor the disk space of the providers.
+     *
+     * @param sourceWorkspace initialized workspace.
+     * @param taskWorkspace workspace path for the Terraform deployment task.
+     * @param tfState tfState file contents as string.
+     * @return list of script files.
+     */
+    public List<File> cloneInitializedWorkspace(
+            String sourceWorkspace, String taskWorkspace, String tfState) {
+        Path sourcePath = Paths.get(sourceWorkspace).toAbsolutePath().normalize();
+        Path targetPath = Paths.get(taskWorkspace).toAbsolutePath().normalize();
+        List<File> files = new ArrayList<>();
+        try (Stream<Path> pathStream = Files.walk(sourcePath)) {
+            for (Path source : pathStream.toList()) {
+                Path target = targetPath.resolve(sourcePath.relativize(source).toString());
+                if (Files.isSymbolicLink(source)) {
+                    // providers installed from the plugin cache are links into the cache.
+                    Files.createSymbolicLink(target, Files.readSymbolicLink(source));
+                } else if (Files.isDirectory(source)) {
+                    Files.createDirectories(target);
+                } else if (source.getParent().equals(sourcePath)) {
+                    if (!TF_STATE_FILE_NAME.equals(source.getFileName().toString())) {
+                        Files.copy(source, target);
+                        files.add(target.toFile());
+                    }
+                } else {
+                    linkOrCopyFile(source, target);
+                }
+            }
+        } catch (IOException ex) {
+            log.error("Clone workspace {} to {} failed.", sourceWorkspace, taskWorkspace, ex);
+            throw new TerraformExecutorException("Clone initialized workspace failed.", ex);
+        }
+        if (StringUtils.isNotBlank(tfState)) {
+            files.add(createTfStateFile(taskWorkspace, tfState));
+        }
+        return files;
+    }
+
+    private void linkOrCopyFile(Path source, Path target) throws IOException {
+        try {
+            Files.createLink(target, source);
+        } catch (UnsupportedOperationException | IOException e) {
+            // the workspaces share a parent directory, links only fail on unusual file systems.
+            Files.copy(source, target);
+        }
+    }
+
     private List<File> buildScriptFiles(String taskWorkspace, Map<String, String> scriptsMap) {
         log.info("start build Terraform script");
         if (Objects.isNull(scriptsMap) || scriptsMap.isEmpty()) {
@@ -185,6 +251,37 @@ public class TerraformScriptsDirectoryHelper {
         return state;
     }
 
+    /**
+     * Get the lineage of the tfState file in the workspace. The lineage is assigned when a state is
+     * created and stays the same for all later versions of the state.
+     *
+     * @param taskWorkspace workspace path for the Terraform deployment task.
+     * @return lineage of the state, or null if there is no state.
+     */
+    public String getTerraformStateLineage(String taskWorkspace) {
+        File tfState = new File(taskWorkspace, TF_STATE_FILE_NAME);
+        if (!tfState.isFile()) {
+            return null;
+        }
+        // only the top level fields are read, the resources of large states are skipped.
+        try (JsonParser parser = JSON_FACTORY.createParser(tfState)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.currentName();
+                parser.nextToken();
+                if (TF_STATE_LINEAGE_FIELD.equals(fieldName)) {
+                    return parser.getValueAsString();
+                }
+                parser.skipChildren();
+            }
+        } catch (IOException ex) {
+            log.error("Read lineage of state file failed.", ex);
+        }
+        return null;
+    }
+
     /**
      * Get the list of files in the workspace for the Terraform deployment task.
      *
@@ -209,6 +306,57 @@ public class TerraformScriptsDirectoryHelper {
         return scriptFiles;
     }
 
+    /**
+     * Read the files of the workspace which are needed to build it again, the scripts, the local
+     * modules and the tfState file. The providers and modules installed by the init are skipped.
+     *
+     * @param taskWorkspace workspace path for the Terraform deployment task.
+     * @return map of the path relative to the workspace and the content of each file.
+     */
+    public Map<String, byte[]> readWorkspaceFiles(String taskWorkspace) {
+        Path workspacePath = Paths.get(taskWorkspace).toAbsolutePath().normalize();
+        Map<String, byte[]> workspaceFiles = new LinkedHashMap<>();
+        if (!Files.isDirectory(workspacePath)) {
+            return workspaceFiles;
+        }
+        try (Stream<Path> pathStream = Files.walk(workspacePath)) {
+            for (Path file : pathStream.filter(Files::isRegularFile).toList()) {
+                Path relativePath = workspacePath.relativize(file);
+                if (!TF_DATA_DIR_NAME.equals(relativePath.getName(0).toString())) {
+                    workspaceFiles.put(relativePath.toString(), Files.readAllBytes(file));
+                }
+            }
+        } catch (IOException ex) {
+            log.error("Read files of workspace {} failed.", taskWorkspace, ex);
+            throw new TerraformExecutorException("Read files of workspace failed.", ex);
+        }
+        return workspaceFiles;
+    }
+
+    /**
+     * Write the files read by {@link #readWorkspaceFiles(String)} into the workspace.
+     *
+     * @param taskWorkspace workspace path for the Terraform deployment task.
+     * @param workspaceFiles map of the path relative to the workspace and the content of each file.
+     */
+    public void restoreWorkspaceFiles(String taskWorkspace, Map<String, byte[]> workspaceFiles) {
+        Path workspacePath = Paths.get(taskWorkspace).toAbsolutePath().normalize();
+        try {
+            for (Map.Entry<String, byte[]> workspaceFile : workspaceFiles.entrySet()) {
+                Path file = workspacePath.resolve(workspaceFile.getKey()).normalize();
+                if (!file.startsWith(workspacePath)) {
+                    throw new IOException("File is outside of the workspace: " + file);
+                }
+                Files.createDirectories(file.getParent());
+                Files.write(file, workspaceFile.getValue());
+            }
+            log.info("Restored {} files in workspace {}.", workspaceFiles.size(), taskWorkspace);
+        } catch (IOException ex) {
+            log.error("Restore files of workspace {} failed.", taskWorkspace, ex);
+            throw new TerraformExecutorException("Restore files of workspace failed.", ex);
+        }
+    }
+
     /**
      * Get map of name and content of these generated files in the workspace for the Terraform
      * deployment task.
@@ -11,10 +11,21 @@ import jakarta.annotation.Resource;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.Executor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.xpanse.terra.boot.async.DrainManager;
+import org.eclipse.xpanse.terra.boot.async.KeyedTaskExecutor;
+import org.eclipse.xpanse.terra.boot.async.KeyedTaskExecutor.KeyedTask;
 import org.eclipse.xpanse.terra.boot.async.TaskConfiguration;
+import org.eclipse.xpanse.terra.boot.async.TaskJournal;
+import org.eclipse.xpanse.terra.boot.async.TaskLane;
+import org.eclipse.xpanse.terra.boot.async.TaskRegistry;
 import org.eclipse.xpanse.terra.boot.models.enums.HealthStatus;
+import org.eclipse.xpanse.terra.boot.models.enums.RequestType;
 import org.eclipse.xpanse.terra.boot.models.exceptions.InvalidTerraformToolException;
+import org.eclipse.xpanse.terra.boot.models.exceptions.TaskJournalException;
+import org.eclipse.xpanse.terra.boot.models.exceptions.TaskLaneOverloadedException;
 import org.eclipse.xpanse.terra.boot.models.exceptions.TerraformExecutorException;
 import org.eclipse.xpanse.terra.boot.models.request.directory.TerraformAsyncRequestWithScriptsDirectory;
 import org.eclipse.xpanse.terra.boot.models.request.directory.TerraformRequestWithScriptsDirectory;
@@ -23,14 +34,13 @@ import org.eclipse.xpanse.terra.boot.models.response.TerraformPlan;
 import org.eclipse.xpanse.terra.boot.models.response.TerraformResult;
 import org.eclipse.xpanse.terra.boot.models.response.validation.TerraformValidationResult;
 import org.eclipse.xpanse.terra.boot.terraform.TerraformExecutor;
+import org.eclipse.xpanse.terra.boot.terraform.service.TerraformTaskJournalRecovery.JournaledAsyncRequest;
 import org.eclipse.xpanse.terra.boot.terraform.tool.TerraformInstaller;
 import org.eclipse.xpanse.terra.boot.terraform.tool.TerraformVersionsHelper;
 import org.eclipse.xpanse.terra.boot.terraform.utils.SystemCmdResult;
 import org.springframework.beans.BeanUtils;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestClientException;
-import org.springframework.web.client.RestTemplate;
 
 /** Terraform service classes are deployed form Directory. */
 @Slf4j
@@ -46,10 +56,24 @@ public class TerraformScriptsDirectoryService {
             """;
     @Resource private TerraformExecutor executor;
     @Resource private TerraformInstaller installer;
-    @Resource private RestTemplate restTemplate;
     @Resource private TerraformVersionsHelper versionHelper;
     @Resource private TerraformScriptsDirectoryHelper scriptsHelper;
-    @Resource private TerraformResultPersistenceManage terraformResultPersistenceManage;
+    @Resource private TerraformResultOutbox terraformResultOutbox;
+    @Resource private TaskJournal taskJournal;
+    @Resource private TaskRegistry taskRegistry;
+    @Resource private DrainManager drainManager;
+
+    @Resource
+    @Qualifier(TaskConfiguration.SHORT_LANE_EXECUTOR_NAME)
+    private Executor shortLaneExecutor;
+
+    @Resource
+    @Qualifier(TaskConfiguration.LONG_LANE_EXECUTOR_NAME)
+    private Executor longLaneExecutor;
+
+    @Resource
+    @Qualifier(TaskConfiguration.KEYED_LONG_LANE_EXECUTOR_NAME)
+    private KeyedTaskExecutor keyedLongLaneExecutor;
 
     /**
      * Perform Terra-Boot health checks by creating a Terraform test configuration file.
@@ -116,14 +140,16 @@ public class TerraformScriptsDirectoryService {
                                 executorPath,
                                 request.getVariables(),
                                 request.getEnvVariables(),
-                                request.getScriptsDirectory());
+                                request.getScriptsDirectory(),
+                                request.isWorkspaceInitialized());
             } else {
                 result =
                         executor.tfApply(
                                 executorPath,
                                 request.getVariables(),
                                 request.getEnvVariables(),
-                                request.getScriptsDirectory());
+                                request.getScriptsDirectory(),
+                                request.isWorkspaceInitialized());
             }
         } catch (InvalidTerraformToolException | TerraformExecutorException tfEx) {
             log.error("Terraform deploy service failed. error:{}", tfEx.getMessage());
@@ -153,14 +179,16 @@ public class TerraformScriptsDirectoryService {
                                 executorPath,
                                 request.getVariables(),
                                 request.getEnvVariables(),
-                                request.getScriptsDirectory());
+                                request.getScriptsDirectory(),
+                                request.isWorkspaceInitialized());
             } else {
                 result =
                         executor.tfApply(
                                 executorPath,
                                 request.getVariables(),
                                 request.getEnvVariables(),
-                                request.getScriptsDirectory());
+                                request.getScriptsDirectory(),
+                                request.isWorkspaceInitialized());
             }
         } catch (InvalidTerraformToolException | TerraformExecutorException tfEx) {
             log.error("Terraform deploy service failed. error:{}", tfEx.getMessage());
@@ -190,7 +218,8 @@ public class TerraformScriptsDirectoryService {
                             executorPath,
                             request.getVariables(),
                             request.getEnvVariables(),
-                            request.getScriptsDirectory());
+                            request.getScriptsDirectory(),
+                            request.isWorkspaceInitialized());
         } catch (InvalidTerraformToolException | TerraformExecutorException tfEx) {
             log.error("Terraform destroy service failed. error:{}", tfEx.getMessage());
             result = new SystemCmdResult();
@@ -215,7 +244,8 @@ public class TerraformScriptsDirectoryService {
                         executorPath,
                         request.getVariables(),
                         request.getEnvVariables(),
-                        request.getScriptsDirectory());
+                        request.getScriptsDirectory(),
+                        request.isWorkspaceInitialized());
         scriptsHelper.deleteTaskWorkspace(request.getScriptsDirectory());
         TerraformPlan terraformPlan =
                 TerraformPlan.builder().plan(result).requestId(request.getRequestId()).build();
@@ -225,9 +255,12 @@ public class TerraformScriptsDirectoryService {
     }
 
     /** Async deploy a source by terraform. */
-    @Async(TaskConfiguration.TASK_EXECUTOR_NAME)
     public void asyncDeployWithScriptsDirectory(
             TerraformAsyncRequestWithScriptsDirectory asyncDeployRequest) {
+        executeInLane(asyncDeployRequest, () -> deployAndSendResult(asyncDeployRequest));
+    }
+
+    private void deployAndSendResult(TerraformAsyncRequestWithScriptsDirectory asyncDeployRequest) {
         TerraformResult result;
         try {
             result = deployWithScriptsDirectory(asyncDeployRequest);
@@ -248,9 +281,12 @@ public class TerraformScriptsDirectoryService {
     }
 
     /** Async modify a source by terraform. */
-    @Async(TaskConfiguration.TASK_EXECUTOR_NAME)
     public void asyncModifyWithScriptsDirectory(
             TerraformAsyncRequestWithScriptsDirectory asyncModifyRequest) {
+        executeInLane(asyncModifyRequest, () -> modifyAndSendResult(asyncModifyRequest));
+    }
+
+    private void modifyAndSendResult(TerraformAsyncRequestWithScriptsDirectory asyncModifyRequest) {
         TerraformResult result;
         try {
             result = modifyWithScriptsDirectory(asyncModifyRequest);
@@ -271,9 +307,12 @@ public class TerraformScriptsDirectoryService {
     }
 
     /** Async destroy resource of the service. */
-    @Async(TaskConfiguration.TASK_EXECUTOR_NAME)
     public void asyncDestroyWithScriptsDirectory(
             TerraformAsyncRequestWithScriptsDirectory request) {
+        executeInLane(request, () -> destroyAndSendResult(request));
+    }
+
+    private void destroyAndSendResult(TerraformAsyncRequestWithScriptsDirectory request) {
         TerraformResult result;
         try {
             result = destroyWithScriptsDirectory(request);
@@ -293,15 +332,119 @@ public class TerraformScriptsDirectoryService {
         sendTerraformResult(url, result);
     }
 
-    private void sendTerraformResult(String url, TerraformResult result) {
+    private void executeInLane(TerraformAsyncRequestWithScriptsDirectory request, Runnable task) {
+        UUID requestId = request.getRequestId();
+        String taskId = requestId.toString();
+        // the request is journaled before it is queued, so that a restart can recover it.
+        try {
+            if (taskJournal.isEnabled()) {
+                // the workspace is journaled too, it may be lost when the container is replaced.
+                taskJournal.accepted(
+                        taskId,
+                        new JournaledAsyncRequest(
+                                request,
+                                scriptsHelper.readWorkspaceFiles(request.getScriptsDirectory())));
+            }
+        } catch (TaskJournalException | TerraformExecutorException e) {
+            // the request is rejected and must be sent again, its workspace is not needed.
+            scriptsHelper.deleteTaskWorkspace(request.getScriptsDirectory());
+            throw e;
+        }
+        TaskLane lane = TaskLane.of(request.getRequestType(), request.getIsPlanOnly());
+        taskRegistry.queued(requestId, request.getRequestType(), lane);
+        Runnable journaledTask =
+                () -> {
+                    // while draining, queued tasks stay in the journal for the next start.
+                    if (!drainManager.startAcceptedTask(taskJournal.isEnabled())) {
+                        log.info("Deferred async request {} to the restart.", taskId);
+                        taskRegistry.deferred(requestId);
+                        return;
+                    }
+                    taskJournal.started(taskId);
+                    taskRegistry.started(requestId);
+                    try {
+                        task.run();
+                    } finally {
+                        // the task is already finished when its result was sent.
+                        taskRegistry.finished(requestId, false);
+                        taskJournal.completed(taskId);
+                        drainManager.finishWork();
+                    }
+                };
         try {
-            restTemplate.postForLocation(url, result);
-        } catch (RestClientException e) {
-            log.error("error while sending terraform result", e);
-            terraformResultPersistenceManage.persistTerraformResult(result);
+            if (TaskLane.SHORT == lane) {
+                shortLaneExecutor.execute(journaledTask);
+                return;
+            }
+            String deploymentKey = getDeploymentKey(request);
+            if (StringUtils.isBlank(deploymentKey)) {
+                longLaneExecutor.execute(journaledTask);
+                return;
+            }
+            // a waiting modify is obsolete once a newer modify or destroy of the key arrives.
+            keyedLongLaneExecutor.execute(
+                    new KeyedTask(
+                            deploymentKey,
+                            taskId,
+                            journaledTask,
+                            RequestType.MODIFY == request.getRequestType(),
+                            RequestType.DEPLOY != request.getRequestType(),
+                            reason -> sendFailedAsyncResult(request, reason),
+                            () -> deferAcceptedTask(request)));
+        } catch (TaskLaneOverloadedException e) {
+            // the request is rejected and must be sent again, its workspace is not needed.
+            taskRegistry.finished(requestId, false);
+            taskJournal.completed(taskId);
+            scriptsHelper.deleteTaskWorkspace(request.getScriptsDirectory());
+            throw e;
         }
     }
 
+    private void deferAcceptedTask(TerraformAsyncRequestWithScriptsDirectory request) {
+        if (!taskJournal.isEnabled()) {
+            sendFailedAsyncResult(request, "The task was not started before terra-boot stopped.");
+            return;
+        }
+        // the task stays accepted in the journal and is executed after the restart.
+        log.info("Deferred async request {} to the restart.", request.getRequestId());
+        taskRegistry.deferred(request.getRequestId());
+    }
+
+    private String getDeploymentKey(TerraformRequestWithScriptsDirectory request) {
+        if (StringUtils.isNotBlank(request.getDeploymentKey())) {
+            return request.getDeploymentKey();
+        }
+        return scriptsHelper.getTerraformStateLineage(request.getScriptsDirectory());
+    }
+
+    /**
+     * Complete an async request which is never executed with a failed result sent to its webhook.
+     *
+     * @param request async request.
+     * @param reason reason why the request is not executed.
+     */
+    public void sendFailedAsyncResult(
+            TerraformAsyncRequestWithScriptsDirectory request, String reason) {
+        TerraformResult result =
+                TerraformResult.builder()
+                        .commandStdOutput(null)
+                        .commandStdError(reason)
+                        .isCommandSuccessful(false)
+                        .terraformState(null)
+                        .generatedFileContentMap(new HashMap<>())
+                        .build();
+        result.setRequestId(request.getRequestId());
+        scriptsHelper.deleteTaskWorkspace(request.getScriptsDirectory());
+        sendTerraformResult(request.getWebhookConfig().getUrl(), result);
+        taskJournal.completed(request.getRequestId().toString());
+    }
+
+    private void sendTerraformResult(String url, TerraformResult result) {
+        // the outbox delivers the result in the background, the task is finished already.
+        terraformResultOutbox.deliver(url, result);
+        taskRegistry.finished(result.getRequestId(), result.isCommandSuccessful());
+    }
+
     private TerraformResult transSystemCmdResultToTerraformResult(
             SystemCmdResult result, TerraformRequestWithScriptsDirectory request) {
         TerraformResult terraformResult =
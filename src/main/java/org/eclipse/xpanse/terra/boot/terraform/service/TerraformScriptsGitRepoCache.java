@@ -0,0 +1,302 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.terra.boot.terraform.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.xpanse.terra.boot.models.exceptions.GitRepoCloneException;
+import org.eclipse.xpanse.terra.boot.models.request.git.TerraformScriptsGitRepoDetails;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bean to cache the script trees checked out from GIT repos. Trees are keyed by the commit id and
+ * the script path, so all requests for the same commit share one checkout. Task workspaces are
+ * populated by hard-linking the files from the cached tree.
+ */
+@Slf4j
+@Component
+public class TerraformScriptsGitRepoCache {
+
+    private static final String CHECKOUT_LATENCY_METRIC_NAME = "terra.boot.git.checkout";
+    private static final String GIT_DIR_NAME = ".git";
+    private static final String CACHE_DIR_NAME = "terra-boot-git-cache";
+    private static final List<String> COPY_ONLY_FILE_SUFFIX_LIST =
+            List.of(".tfstate", ".tfstate.backup", ".terraform.lock.hcl", ".tfvars.json");
+
+    @Value("${terraform.scripts.git.cache.dir:}")
+    private String cacheDirectoryPath;
+
+    @Value("${terraform.scripts.git.cache.max.entries:100}")
+    private long maxCacheEntries;
+
+    @Resource private TerraformScriptsGitRepoHelper terraformScriptsGitRepoHelper;
+    @Resource private MeterRegistry meterRegistry;
+
+    private AsyncCache<String, Path> scriptTreeCache;
+
+    /** Clean up the trees left by the previous run and initialize the cache. */
+    @PostConstruct
+    public void initialize() {
+        deleteDirectory(getCacheDirectory());
+        this.scriptTreeCache =
+                Caffeine.newBuilder()
+                        .maximumSize(maxCacheEntries)
+                        .removalListener(
+                                (String key, Path tree, RemovalCause cause) -> {
+                                    if (Objects.nonNull(tree)) {
+                                        log.info(
+                                                "Evict cached scripts tree {}. Cause: {}",
+                                                key,
+                                                cause);
+                                        deleteDirectory(tree);
+                                    }
+                                })
+                        .buildAsync();
+    }
+
+    /**
+     * Populate the task workspace with the scripts from a GIT repo. The branch is resolved to a
+     * commit id and the scripts tree of that commit is checked out once into the cache, then
+     * hard-linked into the task workspace.
+     *
+     * @param taskWorkspace workspace of the task.
+     * @param scriptsRepo GIT repo details.
+     * @return list of script files in the task workspace.
+     */
+    public List<File> checkoutScripts(
+            String taskWorkspace, TerraformScriptsGitRepoDetails scriptsRepo) {
+        Timer.Sample checkoutTimer = Timer.start(meterRegistry);
+        String commitId = terraformScriptsGitRepoHelper.resolveCommitId(scriptsRepo);
+        boolean isPrefetched = isScriptsTreeReady(commitId, scriptsRepo);
+        try {
+            return checkoutScriptsFromCache(taskWorkspace, commitId, scriptsRepo);
+        } finally {
+            checkoutTimer.stop(
+                    Timer.builder(CHECKOUT_LATENCY_METRIC_NAME)
+                            .description("Latency of populating a task workspace from a GIT repo.")
+                            .tag("prefetched", String.valueOf(isPrefetched))
+                            .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Fetch the latest commit of the branch of a GIT repo and check out its scripts tree into the
+     * cache, so that requests for it do not wait on the network.
+     *
+     * @param scriptsRepo GIT repo details.
+     */
+    public void prefetchScriptsTree(TerraformScriptsGitRepoDetails scriptsRepo) {
+        String commitId = terraformScriptsGitRepoHelper.refreshCommitId(scriptsRepo);
+        if (!isScriptsTreeReady(commitId, scriptsRepo)) {
+            log.info(
+                    "Prefetch scripts tree of commit {} from branch {} of GIT repo {}.",
+                    commitId,
+                    scriptsRepo.getBranch(),
+                    scriptsRepo.getRepoUrl());
+            getOrCheckoutScriptsTree(commitId, scriptsRepo);
+        }
+    }
+
+    private boolean isScriptsTreeReady(
+            String commitId, TerraformScriptsGitRepoDetails scriptsRepo) {
+        CompletableFuture<Path> future =
+                scriptTreeCache.getIfPresent(getCacheKey(commitId, scriptsRepo.getScriptPath()));
+        return Objects.nonNull(future) && future.isDone() && !future.isCompletedExceptionally();
+    }
+
+    private List<File> checkoutScriptsFromCache(
+            String taskWorkspace, String commitId, TerraformScriptsGitRepoDetails scriptsRepo) {
+        Path cachedTree = getOrCheckoutScriptsTree(commitId, scriptsRepo);
+        if (Objects.isNull(cachedTree)) {
+            return terraformScriptsGitRepoHelper.checkoutScripts(taskWorkspace, scriptsRepo);
+        }
+        try {
+            linkScriptsTree(cachedTree, Paths.get(taskWorkspace));
+        } catch (IOException e) {
+            log.warn(
+                    "Populate task workspace {} from cached scripts tree {} failed, clone the GIT"
+                            + " repo directly.",
+                    taskWorkspace,
+                    cachedTree,
+                    e);
+            deleteDirectory(Paths.get(taskWorkspace));
+            return terraformScriptsGitRepoHelper.checkoutScripts(taskWorkspace, scriptsRepo);
+        }
+        return terraformScriptsGitRepoHelper.getSourceFiles(taskWorkspace, scriptsRepo);
+    }
+
+    private Path getOrCheckoutScriptsTree(
+            String commitId, TerraformScriptsGitRepoDetails scriptsRepo) {
+        String cacheKey = getCacheKey(commitId, scriptsRepo.getScriptPath());
+        CompletableFuture<Path> checkoutFuture = new CompletableFuture<>();
+        CompletableFuture<Path> existingFuture =
+                scriptTreeCache.asMap().putIfAbsent(cacheKey, checkoutFuture);
+        if (Objects.nonNull(existingFuture)) {
+            log.info("Use cached scripts tree {} for commit {}.", cacheKey, commitId);
+            return waitForScriptsTree(existingFuture);
+        }
+        try {
+            checkoutFuture.complete(checkoutScriptsTree(cacheKey, commitId, scriptsRepo));
+        } catch (RuntimeException e) {
+            // failed futures are removed from the cache, the next request will retry.
+            checkoutFuture.completeExceptionally(e);
+        }
+        return waitForScriptsTree(checkoutFuture);
+    }
+
+    private Path checkoutScriptsTree(
+            String cacheKey, String commitId, TerraformScriptsGitRepoDetails scriptsRepo) {
+        // each checkout gets its own tree, so that evicting a previous tree of the same key
+        // in the background never deletes the files of this one.
+        Path cachedTree = getCacheDirectory().resolve(cacheKey + "-" + UUID.randomUUID());
+        log.info("Check out scripts tree of commit {} into cache {}.", commitId, cachedTree);
+        boolean isCached = false;
+        try {
+            Files.createDirectories(cachedTree);
+            terraformScriptsGitRepoHelper.checkoutScripts(cachedTree.toString(), scriptsRepo);
+            String checkedOutCommitId = getHeadCommitId(cachedTree);
+            if (!StringUtils.equals(commitId, checkedOutCommitId)) {
+                // the branch has moved after it was resolved. Never store a tree under a wrong key,
+                // a null value is not kept in the cache and the request clones the repo directly.
+                log.warn(
+                        "Branch {} of GIT repo {} moved from commit {} to {}, skip the cache.",
+                        scriptsRepo.getBranch(),
+                        scriptsRepo.getRepoUrl(),
+                        commitId,
+                        checkedOutCommitId);
+                return null;
+            }
+            deleteDirectory(cachedTree.resolve(GIT_DIR_NAME));
+            isCached = true;
+            return cachedTree;
+        } catch (IOException e) {
+            String errorMsg =
+                    String.format("Cache scripts tree of GIT repo error:%s", e.getMessage());
+            log.error(errorMsg);
+            throw new GitRepoCloneException(errorMsg);
+        } finally {
+            if (!isCached) {
+                deleteDirectory(cachedTree);
+            }
+        }
+    }
+
+    private Path waitForScriptsTree(CompletableFuture<Path> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    private String getHeadCommitId(Path repoDirectory) throws IOException {
+        try (Git git = Git.open(repoDirectory.toFile())) {
+            ObjectId headId = git.getRepository().resolve(Constants.HEAD);
+            return Objects.nonNull(headId) ? headId.name() : null;
+        }
+    }
+
+    private void linkScriptsTree(Path cachedTree, Path taskWorkspace) throws IOException {
+        Files.walkFileTree(
+                cachedTree,
+                new SimpleFileVisitor<>() {
+                    @Override
+                    public FileVisitResult preVisitDirectory(
+                            Path dir, BasicFileAttributes attrs) throws IOException {
+                        Files.createDirectories(taskWorkspace.resolve(cachedTree.relativize(dir)));
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
+                            throws IOException {
+                        Path target = taskWorkspace.resolve(cachedTree.relativize(file));
+                        if (isCopyOnlyFile(file.getFileName().toString())) {
+                            Files.copy(file, target, StandardCopyOption.REPLACE_EXISTING);
+                            return FileVisitResult.CONTINUE;
+                        }
+                        try {
+                            Files.createLink(target, file);
+                        } catch (UnsupportedOperationException | IOException e) {
+                            // hard links are not possible across file systems.
+                            Files.copy(file, target, StandardCopyOption.REPLACE_EXISTING);
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+    }
+
+    /** Files which terraform may rewrite in place must not be shared with the cache. */
+    private boolean isCopyOnlyFile(String fileName) {
+        return COPY_ONLY_FILE_SUFFIX_LIST.stream().anyMatch(fileName::endsWith);
+    }
+
+    private String getCacheKey(String commitId, String scriptPath) {
+        return commitId + "-" + DigestUtils.sha1Hex(StringUtils.defaultString(scriptPath));
+    }
+
+    /**
+     * The trees are always kept in a dedicated sub directory, as the whole cache directory is
+     * deleted on startup and the configured directory may hold other files.
+     */
+    private Path getCacheDirectory() {
+        return Paths.get(
+                StringUtils.isNotBlank(cacheDirectoryPath)
+                        ? cacheDirectoryPath
+                        : System.getProperty("java.io.tmpdir"),
+                CACHE_DIR_NAME);
+    }
+
+    private void deleteDirectory(Path directory) {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> pathStream = Files.walk(directory)) {
+            pathStream
+                    .sorted(Comparator.reverseOrder())
+                    .map(Path::toFile)
+                    .forEach(
+                            file -> {
+                                if (!file.delete()) {
+                                    log.warn("Failed to delete file {}.", file.getAbsolutePath());
+                                }
+                            });
+        } catch (IOException e) {
+            log.error("Delete directory:{} error", directory, e);
+        }
+    }
+}
@@ -5,22 +5,40 @@
 
 package org.eclipse.xpanse.terra.boot.terraform.service;
 
+import static org.eclipse.xpanse.terra.boot.cache.CaffeineCacheConfig.GIT_REPO_COMMIT_CACHE_NAME;
 import static org.eclipse.xpanse.terra.boot.terraform.service.TerraformScriptsDirectoryHelper.TF_SCRIPT_FILE_EXTENSION;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.jgit.api.CloneCommand;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
 import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
 import org.eclipse.xpanse.terra.boot.models.exceptions.GitRepoCloneException;
 import org.eclipse.xpanse.terra.boot.models.exceptions.InvalidTerraformScriptsException;
 import org.eclipse.xpanse.terra.boot.models.request.git.TerraformScriptsGitRepoDetails;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.retry.support.RetrySynchronizationManager;
@@ -31,6 +49,16 @@ import org.springframework.stereotype.Component;
 @Component
 public class TerraformScriptsGitRepoHelper {
 
+    private static final int SHALLOW_CLONE_DEPTH = 1;
+    private static final Pattern LOCAL_MODULE_SOURCE_PATTERN =
+            Pattern.compile("source\\s*=\\s*\"(\\.{1,2}/[^\"]*)\"");
+
+    @Value("${terraform.scripts.git.shallow.clone.enabled:true}")
+    private boolean shallowCloneEnabled;
+
+    @Value("${terraform.scripts.git.sparse.checkout.enabled:true}")
+    private boolean sparseCheckoutEnabled;
+
     /**
      * Method to check out scripts from a GIT repo.
      *
@@ -51,14 +79,28 @@ public class TerraformScriptsGitRepoHelper {
         FileRepositoryBuilder repositoryBuilder = new FileRepositoryBuilder();
         repositoryBuilder.findGitDir(workspaceDirectory);
         if (Objects.isNull(repositoryBuilder.getGitDir())) {
+            String sparseCheckoutPath =
+                    sparseCheckoutEnabled
+                            ? getSparseCheckoutPath(workspaceDirectory, scriptsRepo.getScriptPath())
+                            : null;
+            boolean isSparseCheckout = Objects.nonNull(sparseCheckoutPath);
             CloneCommand cloneCommand = new CloneCommand();
             cloneCommand.setURI(scriptsRepo.getRepoUrl());
             cloneCommand.setProgressMonitor(null);
             cloneCommand.setDirectory(workspaceDirectory);
             cloneCommand.setBranch(scriptsRepo.getBranch());
             cloneCommand.setTimeout(20);
+            if (shallowCloneEnabled) {
+                cloneCommand.setDepth(SHALLOW_CLONE_DEPTH);
+                cloneCommand.setCloneAllBranches(false);
+            }
+            cloneCommand.setNoCheckout(isSparseCheckout);
             try (Git git = cloneCommand.call()) {
-                git.checkout();
+                if (isSparseCheckout) {
+                    sparseCheckoutScripts(git, workspaceDirectory, sparseCheckoutPath);
+                } else {
+                    git.checkout();
+                }
             } catch (GitAPIException e) {
                 String errorMsg =
                         String.format("Clone scripts form GIT repo error:%s", e.getMessage());
@@ -73,8 +115,184 @@ public class TerraformScriptsGitRepoHelper {
         return files;
     }
 
-    private List<File> getSourceFiles(
-            String workspace, TerraformScriptsGitRepoDetails scriptsRepo) {
+    /**
+     * Get the path which the sparse checkout starts from. The script path is resolved against the
+     * root of the repo, and a leading slash also refers to the root.
+     *
+     * @param workspaceDirectory directory where the GIT repo is cloned.
+     * @param scriptPath directory inside the GIT repo where scripts are expected to be present.
+     * @return path relative to the root of the repo, or null if the whole repo must be checked
+     *     out because the script path is the root or lies outside the repo.
+     */
+    String getSparseCheckoutPath(File workspaceDirectory, String scriptPath) {
+        if (StringUtils.isBlank(scriptPath)) {
+            return null;
+        }
+        Path repoRoot = workspaceDirectory.toPath().toAbsolutePath().normalize();
+        Path scriptDirectory =
+                repoRoot.resolve(StringUtils.stripStart(scriptPath.strip(), "/" + File.separator))
+                        .normalize();
+        if (scriptDirectory.equals(repoRoot) || !scriptDirectory.startsWith(repoRoot)) {
+            log.info(
+                    "Script path {} is not a sub directory of the GIT repo, check out the whole"
+                            + " repo.",
+                    scriptPath);
+            return null;
+        }
+        return toRepoRelativePath(repoRoot, scriptDirectory);
+    }
+
+    /**
+     * Checks out only the script path and the local module paths referenced from it. Module
+     * sources are resolved iteratively, so modules which refer to other local modules are also
+     * checked out.
+     */
+    private void sparseCheckoutScripts(Git git, File workspaceDirectory, String scriptPath)
+            throws GitAPIException {
+        Path repoRoot = workspaceDirectory.toPath().toAbsolutePath().normalize();
+        Set<String> checkedOutPaths = new HashSet<>();
+        Deque<String> pathsToCheckout = new ArrayDeque<>();
+        pathsToCheckout.add(scriptPath);
+        while (!pathsToCheckout.isEmpty()) {
+            String path = pathsToCheckout.poll();
+            if (StringUtils.isBlank(path) || !checkedOutPaths.add(path)) {
+                continue;
+            }
+            log.info("Sparse checkout of path {} from GIT repo.", path);
+            git.checkout().setStartPoint(Constants.HEAD).addPath(path).call();
+            for (String modulePath : getLocalModulePaths(repoRoot, repoRoot.resolve(path))) {
+                if (!checkedOutPaths.contains(modulePath)) {
+                    pathsToCheckout.add(modulePath);
+                }
+            }
+        }
+    }
+
+    private Set<String> getLocalModulePaths(Path repoRoot, Path directory) {
+        Set<String> modulePaths = new HashSet<>();
+        if (!Files.isDirectory(directory)) {
+            return modulePaths;
+        }
+        try (Stream<Path> pathStream = Files.walk(directory)) {
+            pathStream
+                    .filter(
+                            path ->
+                                    Files.isRegularFile(path)
+                                            && path.toString().endsWith(TF_SCRIPT_FILE_EXTENSION))
+                    .forEach(
+                            scriptFile -> {
+                                try {
+                                    Matcher matcher =
+                                            LOCAL_MODULE_SOURCE_PATTERN.matcher(
+                                                    Files.readString(scriptFile));
+                                    while (matcher.find()) {
+                                        Path modulePath =
+                                                scriptFile
+                                                        .getParent()
+                                                        .resolve(matcher.group(1))
+                                                        .normalize();
+                                        if (modulePath.startsWith(repoRoot)) {
+                                            modulePaths.add(
+                                                    toRepoRelativePath(repoRoot, modulePath));
+                                        }
+                                    }
+                                } catch (IOException e) {
+                                    log.warn(
+                                            "Read script file {} failed, referenced modules"
+                                                    + " will not be checked out.",
+                                            scriptFile,
+                                            e);
+                                }
+                            });
+        } catch (IOException e) {
+            log.warn("Search module sources in {} failed.", directory, e);
+        }
+        return modulePaths;
+    }
+
+    private String toRepoRelativePath(Path repoRoot, Path path) {
+        // JGit expects slash-separated paths relative to the root of the repo.
+        return repoRoot.relativize(path.toAbsolutePath().normalize())
+                .toString()
+                .replace(File.separatorChar, '/');
+    }
+
+    /**
+     * Resolve the branch of the GIT repo to the commit id it currently points to. The result is
+     * cached for a short time, and concurrent lookups of the same branch share one ls-remote call.
+     *
+     * @param scriptsRepo GIT repo details.
+     * @return id of the commit the branch points to.
+     */
+    @Cacheable(
+            value = GIT_REPO_COMMIT_CACHE_NAME,
+            key = "#p0.repoUrl + '@' + #p0.branch",
+            sync = true)
+    public String resolveCommitId(TerraformScriptsGitRepoDetails scriptsRepo) {
+        return getRemoteCommitId(scriptsRepo);
+    }
+
+    /**
+     * Resolve the branch of the GIT repo to the commit id it currently points to and replace the
+     * cached value, regardless of whether it has expired.
+     *
+     * @param scriptsRepo GIT repo details.
+     * @return id of the commit the branch points to.
+     */
+    @CachePut(value = GIT_REPO_COMMIT_CACHE_NAME, key = "#p0.repoUrl + '@' + #p0.branch")
+    public String refreshCommitId(TerraformScriptsGitRepoDetails scriptsRepo) {
+        return getRemoteCommitId(scriptsRepo);
+    }
+
+    private String getRemoteCommitId(TerraformScriptsGitRepoDetails scriptsRepo) {
+        try {
+            Map<String, Ref> remoteRefs =
+                    Git.lsRemoteRepository()
+                            .setRemote(scriptsRepo.getRepoUrl())
+                            .setHeads(true)
+                            .setTags(true)
+                            .setTimeout(20)
+                            .callAsMap();
+            for (String refName :
+                    List.of(
+                            Constants.R_HEADS + scriptsRepo.getBranch(),
+                            Constants.R_TAGS + scriptsRepo.getBranch())) {
+                Ref ref = remoteRefs.get(refName);
+                if (Objects.nonNull(ref)) {
+                    ObjectId commitId =
+                            Objects.nonNull(ref.getPeeledObjectId())
+                                    ? ref.getPeeledObjectId()
+                                    : ref.getObjectId();
+                    log.info(
+                            "Resolved branch {} of GIT repo {} to commit {}.",
+                            scriptsRepo.getBranch(),
+                            scriptsRepo.getRepoUrl(),
+                            commitId.name());
+                    return commitId.name();
+                }
+            }
+        } catch (GitAPIException e) {
+            String errorMsg =
+                    String.format("List references of GIT repo error:%s", e.getMessage());
+            log.error(errorMsg);
+            throw new GitRepoCloneException(errorMsg);
+        }
+        String errorMsg =
+                String.format(
+                        "Branch %s not found in GIT repo %s.",
+                        scriptsRepo.getBranch(), scriptsRepo.getRepoUrl());
+        log.error(errorMsg);
+        throw new GitRepoCloneException(errorMsg);
+    }
+
+    /**
+     * Get the files in the scripts folder of a checked out GIT repo.
+     *
+     * @param workspace directory where the GIT repo is checked out.
+     * @param scriptsRepo GIT repo details.
+     * @return list of files in the scripts folder.
+     */
+    public List<File> getSourceFiles(String workspace, TerraformScriptsGitRepoDetails scriptsRepo) {
         List<File> sourceFiles = new ArrayList<>();
         File directory =
                 new File(
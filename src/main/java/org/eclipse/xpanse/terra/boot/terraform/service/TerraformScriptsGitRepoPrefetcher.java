@@ -0,0 +1,181 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.terra.boot.terraform.service;
+
+import static org.eclipse.xpanse.terra.boot.async.TaskConfiguration.GIT_PREFETCH_EXECUTOR_NAME;
+
+import jakarta.annotation.Resource;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.xpanse.terra.boot.models.request.git.TerraformScriptsGitRepoDetails;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bean to learn which GIT repos are requested often and refresh them in the background. Each
+ * request adds to the score of its repo, branch and script path, and the scores are halved on every
+ * prefetch cycle. Repos whose score is at least the configured minimum, and the pinned repos, are
+ * fetched into the scripts tree cache.
+ */
+@Slf4j
+@Component
+public class TerraformScriptsGitRepoPrefetcher {
+
+    private static final String PINNED_REPO_FIELD_SEPARATOR = "\\|";
+
+    @Value("${terraform.scripts.git.prefetch.enabled:true}")
+    private boolean prefetchEnabled;
+
+    @Value("${terraform.scripts.git.cache.enabled:true}")
+    private boolean gitRepoCacheEnabled;
+
+    @Value("${terraform.scripts.git.prefetch.min.score:2}")
+    private long minScoreOfHotRepo;
+
+    @Value("${terraform.scripts.git.prefetch.max.hot.repos:20}")
+    private int maxHotRepos;
+
+    @Value("${terraform.scripts.git.prefetch.pinned.repos:}")
+    private List<String> pinnedRepos;
+
+    @Resource private TerraformScriptsGitRepoCache terraformScriptsGitRepoCache;
+
+    @Resource
+    @Qualifier(GIT_PREFETCH_EXECUTOR_NAME)
+    private Executor gitPrefetchExecutor;
+
+    private final Map<String, RepoRequestScore> repoRequestScores = new ConcurrentHashMap<>();
+    private final Set<String> prefetchesInProgress = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Record a request for scripts from a GIT repo.
+     *
+     * @param scriptsRepo GIT repo details of the request.
+     */
+    public void recordRequest(TerraformScriptsGitRepoDetails scriptsRepo) {
+        if (!prefetchEnabled || !gitRepoCacheEnabled || Objects.isNull(scriptsRepo)) {
+            return;
+        }
+        repoRequestScores
+                .computeIfAbsent(
+                        getRepoKey(scriptsRepo),
+                        key -> {
+                            TerraformScriptsGitRepoDetails repoToPrefetch =
+                                    new TerraformScriptsGitRepoDetails();
+                            BeanUtils.copyProperties(scriptsRepo, repoToPrefetch);
+                            return new RepoRequestScore(repoToPrefetch);
+                        })
+                .score()
+                .incrementAndGet();
+    }
+
+    /** Refresh the pinned and hot GIT repos in the background. */
+    @Scheduled(
+            fixedDelayString = "${terraform.scripts.git.prefetch.interval.millis:60000}",
+            initialDelayString = "${terraform.scripts.git.prefetch.interval.millis:60000}")
+    public void prefetchHotRepos() {
+        if (!prefetchEnabled || !gitRepoCacheEnabled) {
+            return;
+        }
+        List<TerraformScriptsGitRepoDetails> reposToPrefetch = new ArrayList<>(getPinnedRepos());
+        reposToPrefetch.addAll(getHotReposAndDecayScores());
+        reposToPrefetch.forEach(this::submitPrefetch);
+    }
+
+    private void submitPrefetch(TerraformScriptsGitRepoDetails scriptsRepo) {
+        String repoKey = getRepoKey(scriptsRepo);
+        // skip the repo if the previous prefetch of it has not finished yet.
+        if (!prefetchesInProgress.add(repoKey)) {
+            return;
+        }
+        try {
+            gitPrefetchExecutor.execute(
+                    () -> {
+                        try {
+                            terraformScriptsGitRepoCache.prefetchScriptsTree(scriptsRepo);
+                        } catch (Exception e) {
+                            log.warn("Prefetch GIT repo {} failed. {}", repoKey, e.getMessage());
+                        } finally {
+                            prefetchesInProgress.remove(repoKey);
+                        }
+                    });
+        } catch (RejectedExecutionException e) {
+            log.warn("Prefetch queue is full, skip prefetch of GIT repo {}.", repoKey);
+            prefetchesInProgress.remove(repoKey);
+        }
+    }
+
+    private List<TerraformScriptsGitRepoDetails> getHotReposAndDecayScores() {
+        List<RepoRequestScore> hotRepos =
+                repoRequestScores.values().stream()
+                        .filter(repoScore -> repoScore.score().get() >= minScoreOfHotRepo)
+                        .sorted(
+                                Comparator.comparingLong(
+                                                (RepoRequestScore repoScore) ->
+                                                        repoScore.score().get())
+                                        .reversed())
+                        .limit(maxHotRepos)
+                        .toList();
+        repoRequestScores
+                .entrySet()
+                .removeIf(entry -> entry.getValue().score().updateAndGet(s -> s / 2) == 0);
+        return hotRepos.stream().map(RepoRequestScore::scriptsRepo).toList();
+    }
+
+    private List<TerraformScriptsGitRepoDetails> getPinnedRepos() {
+        List<TerraformScriptsGitRepoDetails> repos = new ArrayList<>();
+        if (Objects.isNull(pinnedRepos)) {
+            return repos;
+        }
+        for (String pinnedRepo : pinnedRepos) {
+            if (StringUtils.isBlank(pinnedRepo)) {
+                continue;
+            }
+            // format of each pinned repo: <repoUrl>|<branch>[|<scriptPath>]
+            String[] fields = pinnedRepo.trim().split(PINNED_REPO_FIELD_SEPARATOR);
+            if (fields.length < 2) {
+                log.warn("Ignore invalid pinned GIT repo config {}.", pinnedRepo);
+                continue;
+            }
+            TerraformScriptsGitRepoDetails scriptsRepo = new TerraformScriptsGitRepoDetails();
+            scriptsRepo.setRepoUrl(fields[0]);
+            scriptsRepo.setBranch(fields[1]);
+            if (fields.length > 2) {
+                scriptsRepo.setScriptPath(fields[2]);
+            }
+            repos.add(scriptsRepo);
+        }
+        return repos;
+    }
+
+    private String getRepoKey(TerraformScriptsGitRepoDetails scriptsRepo) {
+        return scriptsRepo.getRepoUrl()
+                + "@"
+                + scriptsRepo.getBranch()
+                + ":"
+                + StringUtils.defaultString(scriptsRepo.getScriptPath());
+    }
+
+    private record RepoRequestScore(TerraformScriptsGitRepoDetails scriptsRepo, AtomicLong score) {
+
+        private RepoRequestScore(TerraformScriptsGitRepoDetails scriptsRepo) {
+            this(scriptsRepo, new AtomicLong());
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.terra.boot.terraform.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Resource;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.xpanse.terra.boot.async.TaskJournal;
+import org.eclipse.xpanse.terra.boot.async.TaskJournal.TaskJournalEntry;
+import org.eclipse.xpanse.terra.boot.async.TaskJournal.TaskJournalState;
+import org.eclipse.xpanse.terra.boot.models.request.directory.TerraformAsyncRequestWithScriptsDirectory;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bean to recover the async requests which did not complete before the last shutdown. Requests
+ * which were still waiting in a lane are executed again, their workspace is restored from the
+ * journal if it was lost with the replaced container. Requests which were running were
+ * interrupted in an unknown state, they are reported as failed to their webhook. Requests whose
+ * result was already stored in the outbox are only completed, the outbox delivers their result.
+ */
+@Slf4j
+@Component
+public class TerraformTaskJournalRecovery implements ApplicationListener<ApplicationStartedEvent> {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Resource private TaskJournal taskJournal;
+    @Resource private TerraformRequestService requestService;
+    @Resource private TerraformScriptsDirectoryService terraformScriptsDirectoryService;
+    @Resource private TerraformResultOutbox terraformResultOutbox;
+    @Resource private TerraformScriptsDirectoryHelper scriptsDirectoryHelper;
+
+    @Override
+    public void onApplicationEvent(@Nonnull ApplicationStartedEvent event) {
+        List<TaskJournalEntry> recoveredEntries = taskJournal.getRecoveredEntries();
+        if (!recoveredEntries.isEmpty()) {
+            log.info("Recovering {} unfinished async requests.", recoveredEntries.size());
+        }
+        recoveredEntries.forEach(this::recoverTask);
+    }
+
+    private void recoverTask(TaskJournalEntry entry) {
+        if (isResultSent(entry)) {
+            // the outbox delivers the real result, the task must not be reported as interrupted.
+            log.info("Result of async request {} was sent before restart.", entry.taskId());
+            taskJournal.completed(entry.taskId());
+            return;
+        }
+        JournaledAsyncRequest journaledRequest = readRequest(entry);
+        if (Objects.isNull(journaledRequest)) {
+            taskJournal.completed(entry.taskId());
+            return;
+        }
+        TerraformAsyncRequestWithScriptsDirectory request = journaledRequest.request();
+        if (entry.state() == TaskJournalState.ACCEPTED) {
+            restoreWorkspace(request.getScriptsDirectory(), journaledRequest.workspaceFiles());
+        }
+        // the script files are listed again from the restored task workspace.
+        request.setScriptFiles(
+                scriptsDirectoryHelper.getDeploymentFilesFromTaskWorkspace(
+                        request.getScriptsDirectory()));
+        if (entry.state() == TaskJournalState.STARTED) {
+            log.warn("Async request {} was interrupted by a restart.", entry.taskId());
+            terraformScriptsDirectoryService.sendFailedAsyncResult(
+                    request, "Request was interrupted by a restart of terra-boot.");
+            return;
+        }
+        try {
+            log.info("Executing again async request {} accepted before restart.", entry.taskId());
+            requestService.processAsyncDeploymentRequest(request);
+        } catch (RuntimeException e) {
+            log.error("Failed to recover async request {}.", entry.taskId(), e);
+            terraformScriptsDirectoryService.sendFailedAsyncResult(request, e.getMessage());
+        }
+    }
+
+    private void restoreWorkspace(String scriptsDirectory, Map<String, byte[]> workspaceFiles) {
+        if (Objects.isNull(workspaceFiles)
+                || !scriptsDirectoryHelper
+                        .getDeploymentFilesFromTaskWorkspace(scriptsDirectory)
+                        .isEmpty()) {
+            return;
+        }
+        try {
+            scriptsDirectoryHelper.restoreWorkspaceFiles(scriptsDirectory, workspaceFiles);
+        } catch (RuntimeException e) {
+            // the request fails when it is executed without its scripts.
+            log.error("Failed to restore the workspace {}.", scriptsDirectory, e);
+        }
+    }
+
+    private boolean isResultSent(TaskJournalEntry entry) {
+        if (entry.state() == TaskJournalState.RESULT_SENT) {
+            return true;
+        }
+        try {
+            return terraformResultOutbox.hasResult(UUID.fromString(entry.taskId()));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private JournaledAsyncRequest readRequest(TaskJournalEntry entry) {
+        try {
+            if (Objects.nonNull(entry.payload())) {
+                return OBJECT_MAPPER.treeToValue(entry.payload(), JournaledAsyncRequest.class);
+            }
+            log.error("Unfinished async request {} has no payload.", entry.taskId());
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            log.error("Failed to read the unfinished async request {}.", entry.taskId(), e);
+        }
+        return null;
+    }
+
+    /**
+     * Payload of an accepted async request in the task journal.
+     *
+     * @param request async request.
+     * @param workspaceFiles files of the workspace of the request, by their relative path.
+     */
+    public record JournaledAsyncRequest(
+            TerraformAsyncRequestWithScriptsDirectory request,
+            Map<String, byte[]> workspaceFiles) {}
+}
@@ -0,0 +1,251 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.terra.boot.terraform.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import java.net.URI;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.xpanse.terra.boot.models.enums.CircuitState;
+import org.eclipse.xpanse.terra.boot.models.response.WebhookEndpointHealth;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Circuit breaker which tracks the health of each webhook endpoint. After repeated failures the
+ * circuit of the endpoint opens and deliveries to it are skipped without a connection attempt, so
+ * that a receiver which is down does not hold the outbox workers for its connect timeout. Once
+ * the open duration has passed, a single probe delivery tests whether the receiver recovered. An
+ * endpoint which started failing gets only one delivery at a time, so a few dead receivers never
+ * take all the workers from the healthy ones.
+ */
+@Slf4j
+@Component
+public class WebhookCircuitBreaker {
+
+    private static final String OPEN_METRIC_NAME = "terra.boot.webhook.circuit.open";
+    private static final String REJECTED_METRIC_NAME = "terra.boot.webhook.circuit.rejected";
+
+    @Value("${terra.boot.webhook.circuit.failure.threshold:5}")
+    private int failureThreshold;
+
+    @Value("${terra.boot.webhook.circuit.open.duration.millis:30000}")
+    private long openDurationMillis;
+
+    @Resource private MeterRegistry meterRegistry;
+
+    private final Map<String, EndpointCircuit> circuits = new ConcurrentHashMap<>();
+    private Counter rejectedCounter;
+
+    /** Register the metrics of the circuits. */
+    @PostConstruct
+    public void registerMetrics() {
+        rejectedCounter =
+                Counter.builder(REJECTED_METRIC_NAME)
+                        .description("Number of webhook deliveries skipped by their circuit.")
+                        .register(meterRegistry);
+        Gauge.builder(OPEN_METRIC_NAME, circuits, this::countOpenCircuits)
+                .description("Number of webhook endpoints whose circuit is open or half open.")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Get the endpoint of the webhook which the health is tracked for.
+     *
+     * @param url url of the webhook.
+     * @return scheme, host and port of the url, with the default port of the scheme if the url has
+     *     no port.
+     */
+    public static String getEndpoint(String url) {
+        URI uri = URI.create(url);
+        String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+        int port = uri.getPort() != -1 ? uri.getPort() : getDefaultPort(scheme);
+        String endpoint = scheme + "://" + uri.getHost();
+        return port != -1 ? endpoint + ":" + port : endpoint;
+    }
+
+    private static int getDefaultPort(String scheme) {
+        return switch (scheme) {
+            case "http" -> 80;
+            case "https" -> 443;
+            default -> -1;
+        };
+    }
+
+    /**
+     * Check whether a delivery to the webhook may be attempted now. Every permitted delivery must
+     * be followed by a call of onSuccess or onFailure.
+     *
+     * @param url url of the webhook.
+     * @return true if the delivery may be attempted.
+     */
+    public boolean tryAcquire(String url) {
+        EndpointCircuit circuit = getCircuit(url);
+        synchronized (circuit) {
+            if (circuit.state == CircuitState.OPEN && !Instant.now().isBefore(circuit.retryAt)) {
+                circuit.state = CircuitState.HALF_OPEN;
+                log.info("Circuit of webhook endpoint {} is half open.", circuit.endpoint);
+            }
+            boolean permitted =
+                    switch (circuit.state) {
+                        case CircuitState.CLOSED ->
+                                circuit.consecutiveFailures == 0 || circuit.inFlight == 0;
+                        case CircuitState.HALF_OPEN -> circuit.inFlight == 0;
+                        case CircuitState.OPEN -> false;
+                    };
+            if (permitted) {
+                circuit.inFlight++;
+            } else {
+                circuit.rejectedDeliveries++;
+                rejectedCounter.increment();
+            }
+            return permitted;
+        }
+    }
+
+    /**
+     * Get the time until the circuit of the webhook lets a delivery through again.
+     *
+     * @param url url of the webhook.
+     * @return remaining time in milliseconds, 0 if the circuit is not open.
+     */
+    public long getRetryDelayMillis(String url) {
+        EndpointCircuit circuit = getCircuit(url);
+        synchronized (circuit) {
+            if (circuit.state != CircuitState.OPEN) {
+                return 0;
+            }
+            return Math.max(0, circuit.retryAt.toEpochMilli() - System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Record a delivery which reached the receiver of the webhook.
+     *
+     * @param url url of the webhook.
+     */
+    public void onSuccess(String url) {
+        EndpointCircuit circuit = getCircuit(url);
+        synchronized (circuit) {
+            circuit.inFlight = Math.max(0, circuit.inFlight - 1);
+            circuit.lastSuccessAt = Instant.now();
+            if (circuit.state != CircuitState.CLOSED) {
+                log.info("Circuit of webhook endpoint {} is closed again.", circuit.endpoint);
+            }
+            circuit.state = CircuitState.CLOSED;
+            circuit.consecutiveFailures = 0;
+        }
+    }
+
+    /**
+     * Record a delivery which failed as the receiver of the webhook is not available.
+     *
+     * @param url url of the webhook.
+     * @param e error of the delivery.
+     */
+    public void onFailure(String url, Exception e) {
+        EndpointCircuit circuit = getCircuit(url);
+        synchronized (circuit) {
+            circuit.inFlight = Math.max(0, circuit.inFlight - 1);
+            circuit.consecutiveFailures++;
+            circuit.lastFailureAt = Instant.now();
+            circuit.lastFailureMessage = e.getMessage();
+            if (circuit.state == CircuitState.HALF_OPEN
+                    || circuit.consecutiveFailures >= Math.max(1, failureThreshold)) {
+                if (circuit.state != CircuitState.OPEN) {
+                    log.warn(
+                            "Circuit of webhook endpoint {} is open after {} failures.",
+                            circuit.endpoint,
+                            circuit.consecutiveFailures);
+                }
+                circuit.state = CircuitState.OPEN;
+                circuit.retryAt = circuit.lastFailureAt.plusMillis(openDurationMillis);
+            }
+        }
+    }
+
+    /**
+     * Get the health of the webhook endpoints which results were delivered to.
+     *
+     * @return health of the endpoints.
+     */
+    public List<WebhookEndpointHealth> getEndpointHealth() {
+        return circuits.values().stream()
+                .map(this::toEndpointHealth)
+                .sorted(Comparator.comparing(WebhookEndpointHealth::getEndpoint))
+                .toList();
+    }
+
+    private WebhookEndpointHealth toEndpointHealth(EndpointCircuit circuit) {
+        synchronized (circuit) {
+            return WebhookEndpointHealth.builder()
+                    .endpoint(circuit.endpoint)
+                    .state(circuit.state)
+                    .consecutiveFailures(circuit.consecutiveFailures)
+                    .rejectedDeliveries(circuit.rejectedDeliveries)
+                    .lastSuccessTime(toOffsetDateTime(circuit.lastSuccessAt))
+                    .lastFailureTime(toOffsetDateTime(circuit.lastFailureAt))
+                    .lastFailureMessage(circuit.lastFailureMessage)
+                    .retryTime(
+                            circuit.state == CircuitState.OPEN
+                                    ? toOffsetDateTime(circuit.retryAt)
+                                    : null)
+                    .build();
+        }
+    }
+
+    private EndpointCircuit getCircuit(String url) {
+        return circuits.computeIfAbsent(getEndpoint(url), EndpointCircuit::new);
+    }
+
+    private int countOpenCircuits(Map<String, EndpointCircuit> circuits) {
+        int open = 0;
+        for (EndpointCircuit circuit : circuits.values()) {
+            synchronized (circuit) {
+                if (circuit.state != CircuitState.CLOSED) {
+                    open++;
+                }
+            }
+        }
+        return open;
+    }
+
+    private OffsetDateTime toOffsetDateTime(Instant instant) {
+        return Objects.nonNull(instant)
+                ? OffsetDateTime.ofInstant(instant, ZoneId.systemDefault())
+                : null;
+    }
+
+    /** Health of a webhook endpoint, guarded by its own monitor. */
+    private static final class EndpointCircuit {
+
+        private final String endpoint;
+        private CircuitState state = CircuitState.CLOSED;
+        private int consecutiveFailures;
+        private int inFlight;
+        private long rejectedDeliveries;
+        private Instant retryAt;
+        private Instant lastSuccessAt;
+        private Instant lastFailureAt;
+        private String lastFailureMessage;
+
+        private EndpointCircuit(String endpoint) {
+            this.endpoint = endpoint;
+        }
+    }
+}
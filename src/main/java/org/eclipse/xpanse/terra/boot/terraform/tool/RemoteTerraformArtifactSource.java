@@ -0,0 +1,152 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.terra.boot.terraform.tool;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLConnection;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bean to download the release artifacts of terraform from the download base url. Interrupted
+ * HTTP downloads are resumed with range requests from the last byte read.
+ */
+@Slf4j
+@Component
+public class RemoteTerraformArtifactSource implements TerraformArtifactSource {
+
+    private static final String TERRAFORM_ARTIFACT_DOWNLOAD_URL_FORMAT = "%s/%s/%s";
+
+    @Value("${terraform.download.base.url:https://releases.hashicorp.com/terraform}")
+    private String terraformDownloadBaseUrl;
+
+    @Value("${terraform.download.read.timeout.millis:60000}")
+    private int downloadReadTimeoutMillis;
+
+    @Value("${terraform.download.max.resume.attempts:3}")
+    private int maxResumeAttempts;
+
+    @Override
+    public InputStream openArtifact(String versionNumber, String artifactName)
+            throws IOException {
+        URL url =
+                URI.create(
+                                String.format(
+                                        TERRAFORM_ARTIFACT_DOWNLOAD_URL_FORMAT,
+                                        terraformDownloadBaseUrl,
+                                        versionNumber,
+                                        artifactName))
+                        .toURL();
+        log.info("Downloading terraform artifact from {}.", url);
+        return new ResumableDownloadInputStream(url);
+    }
+
+    /** Stream of a download which reconnects from the current position when reading fails. */
+    private final class ResumableDownloadInputStream extends InputStream {
+
+        private final URL url;
+        private InputStream currentStream;
+        private String entityTag;
+        private long contentLength = -1;
+        private long position;
+        private int resumeAttempts;
+
+        private ResumableDownloadInputStream(URL url) throws IOException {
+            this.url = url;
+            this.currentStream = connect();
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] singleByte = new byte[1];
+            int read = read(singleByte, 0, 1);
+            return read == -1 ? -1 : singleByte[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            while (true) {
+                try {
+                    int read = currentStream.read(buffer, offset, length);
+                    if (read > 0) {
+                        position += read;
+                    } else if (read == -1 && contentLength > 0 && position < contentLength) {
+                        // a connection closed early ends the stream without an error.
+                        throw new IOException(
+                                String.format(
+                                        "Download ended at byte %d of %d.",
+                                        position, contentLength));
+                    }
+                    return read;
+                } catch (IOException e) {
+                    if (resumeAttempts >= maxResumeAttempts) {
+                        throw e;
+                    }
+                    resumeAttempts++;
+                    log.warn(
+                            "Download of {} interrupted at byte {}, resume it. Attempt {}. {}",
+                            url,
+                            position,
+                            resumeAttempts,
+                            e.getMessage());
+                    closeCurrentStream();
+                    currentStream = connect();
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            currentStream.close();
+        }
+
+        private InputStream connect() throws IOException {
+            URLConnection connection = url.openConnection();
+            connection.setReadTimeout(downloadReadTimeoutMillis);
+            if (!(connection instanceof HttpURLConnection httpConnection)) {
+                if (position > 0) {
+                    throw new IOException("Only HTTP downloads can be resumed, url: " + url);
+                }
+                return connection.getInputStream();
+            }
+            if (position > 0) {
+                httpConnection.setRequestProperty(HttpHeaders.RANGE, "bytes=" + position + "-");
+                // the server sends the whole artifact instead if it has changed meanwhile.
+                if (StringUtils.isNotBlank(entityTag)) {
+                    httpConnection.setRequestProperty(HttpHeaders.IF_RANGE, entityTag);
+                }
+            }
+            int responseCode = httpConnection.getResponseCode();
+            if (position > 0 && responseCode != HttpURLConnection.HTTP_PARTIAL) {
+                httpConnection.disconnect();
+                throw new IOException(
+                        String.format(
+                                "Resume download of %s from byte %d failed, response code %d.",
+                                url, position, responseCode));
+            }
+            if (position == 0) {
+                entityTag = httpConnection.getHeaderField(HttpHeaders.ETAG);
+                contentLength = httpConnection.getContentLengthLong();
+            }
+            return httpConnection.getInputStream();
+        }
+
+        private void closeCurrentStream() {
+            try {
+                currentStream.close();
+            } catch (IOException e) {
+                log.debug("Close interrupted download stream of {} failed.", url, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.terra.boot.terraform.tool;
+
+import jakarta.annotation.Resource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bean to cache the release artifacts of terraform in a local dir. Artifacts are stored as
+ * {version}/{artifact name}, and the names of the binary zip files contain the os and arch. The
+ * artifacts are written to temp files and renamed atomically, so the dir can be shared by several
+ * installation dirs and nodes over a mounted volume. In offline mode, artifacts are resolved only
+ * from the cache.
+ */
+@Slf4j
+@Component
+public class TerraformArtifactCache {
+
+    @Value("${terraform.artifact.cache.dir:}")
+    private String artifactCacheDir;
+
+    @Value("${terraform.download.offline.enabled:false}")
+    private boolean offlineEnabled;
+
+    @Resource private TerraformArtifactSource artifactSource;
+
+    /**
+     * Open a release artifact of a terraform version. The artifact is downloaded into the cache
+     * if it is not cached yet.
+     *
+     * @param versionNumber version number of terraform.
+     * @param artifactName file name of the artifact.
+     * @return stream of the artifact content.
+     * @throws IOException if the artifact is not available.
+     */
+    public InputStream openArtifact(String versionNumber, String artifactName)
+            throws IOException {
+        if (StringUtils.isBlank(artifactCacheDir)) {
+            if (offlineEnabled) {
+                throw new IOException(
+                        "Offline mode of terraform downloads requires an artifact cache dir.");
+            }
+            return artifactSource.openArtifact(versionNumber, artifactName);
+        }
+        Path cachedArtifact = getCachedArtifactPath(versionNumber, artifactName);
+        if (Files.isRegularFile(cachedArtifact)) {
+            log.info("Use cached terraform artifact {}.", cachedArtifact);
+        } else if (offlineEnabled) {
+            throw new IOException(
+                    String.format(
+                            "Terraform artifact %s not found in the artifact cache dir %s in"
+                                    + " offline mode.",
+                            artifactName, artifactCacheDir));
+        } else {
+            downloadArtifactIntoCache(versionNumber, artifactName, cachedArtifact);
+        }
+        return Files.newInputStream(cachedArtifact);
+    }
+
+    /**
+     * Delete an invalid artifact from the cache, so that it is downloaded again next time. The
+     * cache is never modified in offline mode.
+     *
+     * @param versionNumber version number of terraform.
+     * @param artifactName file name of the artifact.
+     */
+    public void evictArtifact(String versionNumber, String artifactName) {
+        if (StringUtils.isBlank(artifactCacheDir) || offlineEnabled) {
+            return;
+        }
+        Path cachedArtifact = getCachedArtifactPath(versionNumber, artifactName);
+        try {
+            if (Files.deleteIfExists(cachedArtifact)) {
+                log.info("Evicted terraform artifact {} from the cache.", cachedArtifact);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to evict terraform artifact {}.", cachedArtifact, e);
+        }
+    }
+
+    private void downloadArtifactIntoCache(
+            String versionNumber, String artifactName, Path cachedArtifact) throws IOException {
+        Files.createDirectories(cachedArtifact.getParent());
+        Path tempArtifact =
+                Files.createTempFile(cachedArtifact.getParent(), "." + artifactName + "-", ".part");
+        try (InputStream artifactStream =
+                artifactSource.openArtifact(versionNumber, artifactName)) {
+            Files.copy(artifactStream, tempArtifact, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(
+                    tempArtifact,
+                    cachedArtifact,
+                    StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+            log.info("Cached terraform artifact {}.", cachedArtifact);
+        } finally {
+            Files.deleteIfExists(tempArtifact);
+        }
+    }
+
+    private Path getCachedArtifactPath(String versionNumber, String artifactName) {
+        return Path.of(artifactCacheDir, versionNumber, artifactName);
+    }
+}
@@ -0,0 +1,27 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.terra.boot.terraform.tool;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Source of the release artifacts of terraform, which are the binary zip files and the checksums
+ * files. The default source downloads them from the terraform releases site, other
+ * implementations can serve them from a local stand-in server.
+ */
+public interface TerraformArtifactSource {
+
+    /**
+     * Open a release artifact of a terraform version.
+     *
+     * @param versionNumber version number of terraform.
+     * @param artifactName file name of the artifact.
+     * @return stream of the artifact content.
+     * @throws IOException if the artifact can not be opened.
+     */
+    InputStream openArtifact(String versionNumber, String artifactName) throws IOException;
+}
@@ -0,0 +1,261 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.terra.boot.terraform.tool;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.semver4j.Semver;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory index of the terraform executors installed in the installation dir. The index is built
+ * at startup and kept current by watching the installation dir, so finding an executor for a
+ * required version does not touch the file system. Usage timestamps are recorded per executor and
+ * used to evict the least recently used executors when the installation dir exceeds its disk
+ * budget.
+ */
+@Slf4j
+@Component
+public class TerraformExecutorsIndex {
+
+    private static final String TERRAFORM_EXECUTOR_PREFIX = "terraform-";
+
+    @Value("${terraform.install.dir:/opt/terraform}")
+    private String terraformInstallDir;
+
+    @Value("${terraform.install.dir.max.size.mb:0}")
+    private long installDirMaxSizeMb;
+
+    @Value("${terraform.install.dir.eviction.min.idle.minutes:180}")
+    private long evictionMinIdleMinutes;
+
+    private final NavigableMap<Semver, InstalledExecutor> installedExecutors =
+            new ConcurrentSkipListMap<>();
+
+    private WatchService watchService;
+
+    /** Build the index from the installation dir and start watching it. */
+    @PostConstruct
+    public void initialize() {
+        rebuildIndex();
+        startWatching();
+    }
+
+    /** Stop watching the installation dir. */
+    @PreDestroy
+    public synchronized void close() {
+        if (Objects.nonNull(watchService)) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                log.warn("Close watch service of dir {} failed.", terraformInstallDir, e);
+            }
+            watchService = null;
+        }
+    }
+
+    /**
+     * Find the installed executor which best matches the required version and record its usage.
+     *
+     * @param versionConstraint required version constraint
+     * @return executor file, or null if no installed executor matches.
+     */
+    public File findExecutorMatchedRequiredVersion(TerraformVersionConstraint versionConstraint) {
+        Semver matchedVersion =
+                versionConstraint.findBestVersion(installedExecutors.navigableKeySet());
+        InstalledExecutor executor =
+                Objects.nonNull(matchedVersion) ? installedExecutors.get(matchedVersion) : null;
+        if (Objects.isNull(executor)) {
+            return null;
+        }
+        executor.lastUsedMillis().set(System.currentTimeMillis());
+        return executor.file();
+    }
+
+    /**
+     * Add a newly installed executor to the index and evict the least recently used executors if
+     * the installation dir exceeds its disk budget.
+     *
+     * @param executorFile installed executor file.
+     */
+    public void addExecutor(File executorFile) {
+        indexExecutor(executorFile.toPath());
+        startWatching();
+        evictLeastRecentlyUsedExecutors();
+    }
+
+    private void rebuildIndex() {
+        File[] files = new File(terraformInstallDir).listFiles();
+        if (Objects.nonNull(files)) {
+            Arrays.stream(files).map(File::toPath).forEach(this::indexExecutor);
+        }
+        // the index is updated in place, so lookups never see it empty while it is rebuilt.
+        installedExecutors.values().removeIf(executor -> !executor.file().isFile());
+        log.info(
+                "Indexed terraform executors {} in the installation dir {}.",
+                installedExecutors.keySet(),
+                terraformInstallDir);
+    }
+
+    private void indexExecutor(Path executorPath) {
+        Semver version = getVersionFromExecutorName(executorPath.getFileName().toString());
+        if (Objects.isNull(version)) {
+            return;
+        }
+        File executorFile = executorPath.toFile();
+        if (!executorFile.isFile() || !executorFile.canExecute()) {
+            installedExecutors.remove(version);
+            return;
+        }
+        try {
+            BasicFileAttributes attributes =
+                    Files.readAttributes(executorPath, BasicFileAttributes.class);
+            InstalledExecutor existing = installedExecutors.get(version);
+            long lastUsedMillis =
+                    Objects.nonNull(existing)
+                            ? existing.lastUsedMillis().get()
+                            : attributes.lastAccessTime().toMillis();
+            installedExecutors.put(
+                    version,
+                    new InstalledExecutor(
+                            executorFile.getAbsoluteFile(),
+                            attributes.size(),
+                            new AtomicLong(lastUsedMillis)));
+        } catch (IOException e) {
+            log.warn("Index terraform executor {} failed.", executorPath, e);
+            installedExecutors.remove(version);
+        }
+    }
+
+    private synchronized void startWatching() {
+        if (Objects.nonNull(watchService)) {
+            return;
+        }
+        Path installDir = Path.of(terraformInstallDir);
+        if (!Files.isDirectory(installDir)) {
+            log.info(
+                    "Terraform installation dir {} does not exist yet, watch it after the first"
+                            + " installation.",
+                    terraformInstallDir);
+            return;
+        }
+        try {
+            WatchService newWatchService = FileSystems.getDefault().newWatchService();
+            installDir.register(
+                    newWatchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY, OVERFLOW);
+            watchService = newWatchService;
+            // files created before the watch was registered are picked up by the rebuild.
+            rebuildIndex();
+            Thread.ofPlatform()
+                    .daemon()
+                    .name("terraform-install-dir-watcher")
+                    .start(() -> watchInstallDir(newWatchService, installDir));
+        } catch (IOException e) {
+            log.error("Watch terraform installation dir {} failed.", terraformInstallDir, e);
+        }
+    }
+
+    private void watchInstallDir(WatchService service, Path installDir) {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = service.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == OVERFLOW) {
+                        rebuildIndex();
+                    } else if (event.context() instanceof Path changedPath) {
+                        indexExecutor(installDir.resolve(changedPath));
+                    }
+                }
+                if (!key.reset()) {
+                    log.warn("Terraform installation dir {} is no longer watched.", installDir);
+                    close();
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            log.info("Stopped watching terraform installation dir {}.", installDir);
+        }
+    }
+
+    private void evictLeastRecentlyUsedExecutors() {
+        if (installDirMaxSizeMb <= 0) {
+            return;
+        }
+        long maxSizeBytes = installDirMaxSizeMb * 1024 * 1024;
+        long totalSizeBytes =
+                installedExecutors.values().stream().mapToLong(InstalledExecutor::size).sum();
+        if (totalSizeBytes <= maxSizeBytes) {
+            return;
+        }
+        // executors used recently may still be needed by running requests.
+        long idleThresholdMillis =
+                System.currentTimeMillis() - Duration.ofMinutes(evictionMinIdleMinutes).toMillis();
+        List<Map.Entry<Semver, InstalledExecutor>> evictionCandidates =
+                installedExecutors.entrySet().stream()
+                        .filter(
+                                entry ->
+                                        entry.getValue().lastUsedMillis().get()
+                                                < idleThresholdMillis)
+                        .sorted(
+                                Comparator.comparingLong(
+                                        entry -> entry.getValue().lastUsedMillis().get()))
+                        .toList();
+        for (Map.Entry<Semver, InstalledExecutor> candidate : evictionCandidates) {
+            if (totalSizeBytes <= maxSizeBytes) {
+                break;
+            }
+            File executorFile = candidate.getValue().file();
+            if (executorFile.delete()) {
+                installedExecutors.remove(candidate.getKey(), candidate.getValue());
+                totalSizeBytes -= candidate.getValue().size();
+                log.info(
+                        "Evicted least recently used terraform executor {} from the installation"
+                                + " dir.",
+                        executorFile.getAbsolutePath());
+            } else {
+                log.warn("Failed to evict terraform executor {}.", executorFile.getAbsolutePath());
+            }
+        }
+    }
+
+    private Semver getVersionFromExecutorName(String executorName) {
+        if (StringUtils.startsWith(executorName, TERRAFORM_EXECUTOR_PREFIX)) {
+            return Semver.parse(executorName.substring(TERRAFORM_EXECUTOR_PREFIX.length()));
+        }
+        return null;
+    }
+
+    private record InstalledExecutor(File file, long size, AtomicLong lastUsedMillis) {}
+}
@@ -0,0 +1,98 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.terra.boot.terraform.tool;
+
+import static org.eclipse.xpanse.terra.boot.async.TaskConfiguration.TERRAFORM_WARM_UP_EXECUTOR_NAME;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Resource;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bean to install the configured default versions of terraform in parallel at startup, so that
+ * the first requests do not wait for downloads. Versions already installed are skipped. The bean
+ * is also a health indicator which reports out of service until the warm-up is finished, it is
+ * included in the readiness group.
+ */
+@Slf4j
+@Component
+public class TerraformInstallationWarmUp
+        implements ApplicationListener<ApplicationStartedEvent>, HealthIndicator {
+
+    @Value("${terraform.install.warm.up.enabled:true}")
+    private boolean warmUpEnabled;
+
+    @Resource private TerraformVersionsFetcher versionsFetcher;
+    @Resource private TerraformInstaller installer;
+
+    @Resource
+    @Qualifier(TERRAFORM_WARM_UP_EXECUTOR_NAME)
+    private Executor warmUpExecutor;
+
+    private final Set<String> failedVersions = ConcurrentHashMap.newKeySet();
+    private volatile CompletableFuture<Void> warmUpFuture;
+
+    @Override
+    public void onApplicationEvent(@Nonnull ApplicationStartedEvent event) {
+        if (!warmUpEnabled) {
+            warmUpFuture = CompletableFuture.completedFuture(null);
+            return;
+        }
+        Set<String> versions = versionsFetcher.getDefaultVersionsFromConfig();
+        log.info("Start warm-up installation of terraform versions {}.", versions);
+        warmUpFuture =
+                CompletableFuture.allOf(
+                                versions.stream()
+                                        .filter(StringUtils::isNotBlank)
+                                        .map(
+                                                version ->
+                                                        CompletableFuture.runAsync(
+                                                                () -> warmUpVersion(version.trim()),
+                                                                warmUpExecutor))
+                                        .toArray(CompletableFuture[]::new))
+                        .whenComplete(
+                                (result, e) ->
+                                        log.info(
+                                                "Finished warm-up installation of terraform"
+                                                        + " versions {}. Failed versions: {}",
+                                                versions,
+                                                failedVersions));
+    }
+
+    @Override
+    public Health health() {
+        CompletableFuture<Void> future = warmUpFuture;
+        if (Objects.isNull(future) || !future.isDone()) {
+            return Health.outOfService().withDetail("warmUp", "in progress").build();
+        }
+        return Health.up().withDetail("failedVersions", failedVersions).build();
+    }
+
+    private void warmUpVersion(String version) {
+        try {
+            String executorPath =
+                    installer.getExecutorPathThatMatchesRequiredVersion("=" + version);
+            log.info("Warm-up of terraform version {} done, executor {}.", version, executorPath);
+        } catch (Exception e) {
+            // the version is still installed on demand by the first request which needs it.
+            failedVersions.add(version);
+            log.warn("Warm-up of terraform version {} failed. {}", version, e.getMessage());
+        }
+    }
+}
@@ -7,7 +7,12 @@ package org.eclipse.xpanse.terra.boot.terraform.tool;
 
 import jakarta.annotation.Resource;
 import java.io.File;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.xpanse.terra.boot.models.exceptions.InvalidTerraformToolException;
@@ -21,14 +26,15 @@ import org.springframework.stereotype.Component;
 @Component
 public class TerraformInstaller {
 
-    @Value("${terraform.download.base.url:https://releases.hashicorp.com/terraform}")
-    private String terraformDownloadBaseUrl;
-
     @Value("${terraform.install.dir:/opt/terraform}")
     private String terraformInstallDir;
 
     @Resource private TerraformVersionsCache versionsCache;
     @Resource private TerraformVersionsHelper versionHelper;
+    @Resource private TerraformExecutorsIndex executorsIndex;
+
+    private final Map<String, CompletableFuture<File>> installsInProgress =
+            new ConcurrentHashMap<>();
 
     /**
      * Find the executable binary path of the Terraform tool that matches the required version. If
@@ -47,34 +53,41 @@ public class TerraformInstaller {
             log.info("No required version of terraform is specified, use the default terraform.");
             return "terraform";
         }
-        String[] operatorAndNumber =
-                this.versionHelper.getOperatorAndNumberFromRequiredVersion(requiredVersion);
-        String requiredOperator = operatorAndNumber[0];
-        String requiredNumber = operatorAndNumber[1];
-        // Get path of the executor matched required version in the environment.
+        TerraformVersionConstraint versionConstraint =
+                this.versionHelper.getVersionConstraint(requiredVersion);
+        // Get path of the executor matched required version from the index of installed executors.
         String matchedVersionExecutorPath =
-                this.versionHelper.getExecutorPathMatchedRequiredVersion(
-                        this.terraformInstallDir, requiredOperator, requiredNumber);
+                getInstalledExecutorPathMatchedRequiredVersion(versionConstraint);
         if (StringUtils.isBlank(matchedVersionExecutorPath)) {
             log.info(
                     "Not found any terraform executor matched the required version {} from the "
                             + "terraform installation dir {}, start to download and install one.",
                     requiredVersion,
                     this.terraformInstallDir);
-            return installTerraformByRequiredVersion(requiredOperator, requiredNumber);
+            return installTerraformByRequiredVersion(versionConstraint);
         }
         return matchedVersionExecutorPath;
     }
 
-    private String installTerraformByRequiredVersion(
-            String requiredOperator, String requiredNumber) {
+    private String getInstalledExecutorPathMatchedRequiredVersion(
+            TerraformVersionConstraint versionConstraint) {
+        File executorFile =
+                this.executorsIndex.findExecutorMatchedRequiredVersion(versionConstraint);
+        if (Objects.nonNull(executorFile)
+                && this.versionHelper.checkIfExecutorIsMatchedRequiredVersion(
+                        executorFile, versionConstraint)) {
+            return executorFile.getAbsolutePath();
+        }
+        return null;
+    }
+
+    private String installTerraformByRequiredVersion(TerraformVersionConstraint versionConstraint) {
         String bestVersionNumber =
-                getBestAvailableVersionMatchingRequiredVersion(requiredOperator, requiredNumber);
-        File installedExecutorFile =
-                this.versionHelper.installTerraformWithVersion(
-                        bestVersionNumber, this.terraformDownloadBaseUrl, this.terraformInstallDir);
+                getBestAvailableVersionMatchingRequiredVersion(versionConstraint);
+        File installedExecutorFile = installTerraformWithVersionOnce(bestVersionNumber);
         if (this.versionHelper.checkIfExecutorCanBeExecuted(installedExecutorFile)) {
             log.info("Terraform with version {}  installed successfully.", installedExecutorFile);
+            this.executorsIndex.addExecutor(installedExecutorFile);
             return installedExecutorFile.getAbsolutePath();
         }
         String errorMsg =
@@ -85,32 +98,66 @@ public class TerraformInstaller {
         throw new InvalidTerraformToolException(errorMsg);
     }
 
+    /**
+     * Install the version only once when it is required by concurrent requests. The first request
+     * runs the installation and the others wait for its result.
+     */
+    private File installTerraformWithVersionOnce(String versionNumber) {
+        CompletableFuture<File> installFuture = new CompletableFuture<>();
+        CompletableFuture<File> existingFuture =
+                this.installsInProgress.putIfAbsent(versionNumber, installFuture);
+        if (Objects.nonNull(existingFuture)) {
+            log.info("Wait for the installation of terraform {} in progress.", versionNumber);
+            return waitForInstallation(existingFuture);
+        }
+        try {
+            installFuture.complete(
+                    this.versionHelper.installTerraformWithVersion(
+                            versionNumber, this.terraformInstallDir));
+        } catch (RuntimeException e) {
+            installFuture.completeExceptionally(e);
+        } finally {
+            this.installsInProgress.remove(versionNumber, installFuture);
+        }
+        return waitForInstallation(installFuture);
+    }
+
+    private File waitForInstallation(CompletableFuture<File> installFuture) {
+        try {
+            return installFuture.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
     /**
      * Get the best available version in download url.
      *
-     * @param requiredOperator operator in required version
-     * @param requiredNumber number in required version
+     * @param versionConstraint required version constraint
      * @return the best available version existed in download url.
      */
     private String getBestAvailableVersionMatchingRequiredVersion(
-            String requiredOperator, String requiredNumber) {
+            TerraformVersionConstraint versionConstraint) {
         Set<String> availableVersions = this.versionsCache.getAvailableVersions();
         String bestAvailableVersion =
                 this.versionHelper.findBestVersionFromAllAvailableVersions(
-                        availableVersions, requiredOperator, requiredNumber);
+                        availableVersions, versionConstraint);
         if (StringUtils.isNotBlank(bestAvailableVersion)) {
             log.info(
                     "Found the best available version {} for terraform by the required version "
                             + "{}.",
                     bestAvailableVersion,
-                    requiredOperator + requiredNumber);
+                    versionConstraint);
             return bestAvailableVersion;
         }
         String errorMsg =
                 String.format(
                         "Failed to find available versions for terraform by the "
                                 + "required version %s.",
-                        requiredOperator + requiredNumber);
+                        versionConstraint);
         log.error(errorMsg);
         throw new InvalidTerraformToolException(errorMsg);
     }
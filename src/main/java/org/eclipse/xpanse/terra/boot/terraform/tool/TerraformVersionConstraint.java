@@ -0,0 +1,233 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.terra.boot.terraform.tool;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.xpanse.terra.boot.models.exceptions.InvalidTerraformToolException;
+import org.semver4j.Semver;
+
+/**
+ * Terraform version constraint, such as "~> 1.6" or ">= 1.2.0, < 2.0.0". The constraint is a comma
+ * separated list of conditions which must all be met. Supported operators are =, !=, >, >=, <, <=
+ * and ~>, a version without operator means =. Pre-release versions never meet a constraint.
+ *
+ * <p>The conditions are folded into one version range and a set of excluded versions when the
+ * constraint is parsed, so matching a sorted list of versions only needs binary searches. If the
+ * range has an upper bound, the highest matching version is the best one, otherwise the lowest. A
+ * constraint which no version can meet, such as ">= 1.5.0, < 1.2.0", is rejected when parsed.
+ */
+public final class TerraformVersionConstraint {
+
+    private static final String CONDITIONS_SEPARATOR = ",";
+    private static final Pattern CONDITION_PATTERN =
+            Pattern.compile("^(=|!=|>=|<=|>|<|~>)?[vV]?(\\d{1,3}(?:\\.\\d{1,3}){0,2})$");
+
+    private final String constraint;
+    private final Set<Semver> excludedVersions = new HashSet<>();
+    private Semver lowerBound;
+    private boolean lowerBoundInclusive;
+    private Semver upperBound;
+    private boolean upperBoundInclusive;
+
+    private TerraformVersionConstraint(String constraint) {
+        this.constraint = constraint;
+    }
+
+    /**
+     * Parse the required version into a constraint.
+     *
+     * @param requiredVersion required version, such as "~> 1.6" or ">= 1.2.0, < 2.0.0".
+     * @return parsed constraint.
+     */
+    public static TerraformVersionConstraint parse(String requiredVersion) {
+        String constraint = StringUtils.deleteWhitespace(requiredVersion);
+        if (StringUtils.isBlank(constraint)) {
+            throw invalidConstraint(requiredVersion);
+        }
+        TerraformVersionConstraint versionConstraint = new TerraformVersionConstraint(constraint);
+        for (String condition : constraint.split(CONDITIONS_SEPARATOR, -1)) {
+            Matcher matcher = CONDITION_PATTERN.matcher(condition);
+            if (!matcher.matches()) {
+                throw invalidConstraint(requiredVersion);
+            }
+            String operator = StringUtils.defaultIfEmpty(matcher.group(1), "=");
+            versionConstraint.addCondition(operator, matcher.group(2));
+        }
+        if (versionConstraint.isEmptyRange()) {
+            throw new InvalidTerraformToolException(
+                    String.format(
+                            "Terraform required version %s can not be met by any version.",
+                            requiredVersion));
+        }
+        return versionConstraint;
+    }
+
+    /**
+     * Check if the version meets the constraint.
+     *
+     * @param version version to check.
+     * @return true if the version meets the constraint.
+     */
+    public boolean isSatisfiedBy(Semver version) {
+        if (Objects.isNull(version) || !version.getPreRelease().isEmpty()) {
+            return false;
+        }
+        if (Objects.nonNull(lowerBound)) {
+            int compared = version.compareTo(lowerBound);
+            if (compared < 0 || (compared == 0 && !lowerBoundInclusive)) {
+                return false;
+            }
+        }
+        if (Objects.nonNull(upperBound)) {
+            int compared = version.compareTo(upperBound);
+            if (compared > 0 || (compared == 0 && !upperBoundInclusive)) {
+                return false;
+            }
+        }
+        return !excludedVersions.contains(version);
+    }
+
+    /**
+     * Find the best version which meets the constraint.
+     *
+     * @param sortedVersions versions sorted in ascending order.
+     * @return index of the best version, or -1 if no version meets the constraint.
+     */
+    public int findBestVersionIndex(Semver[] sortedVersions) {
+        int fromIndex = 0;
+        int toIndex = sortedVersions.length;
+        if (Objects.nonNull(lowerBound)) {
+            int index = Arrays.binarySearch(sortedVersions, lowerBound);
+            fromIndex = index >= 0 ? (lowerBoundInclusive ? index : index + 1) : -index - 1;
+        }
+        if (Objects.nonNull(upperBound)) {
+            int index = Arrays.binarySearch(sortedVersions, upperBound);
+            toIndex = index >= 0 ? (upperBoundInclusive ? index + 1 : index) : -index - 1;
+        }
+        if (prefersHighestVersion()) {
+            for (int i = toIndex - 1; i >= fromIndex; i--) {
+                if (isSatisfiedBy(sortedVersions[i])) {
+                    return i;
+                }
+            }
+        } else {
+            for (int i = fromIndex; i < toIndex; i++) {
+                if (isSatisfiedBy(sortedVersions[i])) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Find the best version which meets the constraint.
+     *
+     * @param versions sorted set of versions.
+     * @return the best version, or null if no version meets the constraint.
+     */
+    public Semver findBestVersion(NavigableSet<Semver> versions) {
+        NavigableSet<Semver> candidates = versions;
+        if (Objects.nonNull(lowerBound)) {
+            candidates = candidates.tailSet(lowerBound, lowerBoundInclusive);
+        }
+        if (Objects.nonNull(upperBound)) {
+            candidates = candidates.headSet(upperBound, upperBoundInclusive);
+        }
+        if (prefersHighestVersion()) {
+            candidates = candidates.descendingSet();
+        }
+        return candidates.stream().filter(this::isSatisfiedBy).findFirst().orElse(null);
+    }
+
+    private boolean isEmptyRange() {
+        if (Objects.isNull(lowerBound) || Objects.isNull(upperBound)) {
+            return false;
+        }
+        int compared = lowerBound.compareTo(upperBound);
+        if (compared == 0) {
+            return !lowerBoundInclusive
+                    || !upperBoundInclusive
+                    || excludedVersions.contains(lowerBound);
+        }
+        return compared > 0;
+    }
+
+    private boolean prefersHighestVersion() {
+        return Objects.nonNull(upperBound);
+    }
+
+    private void addCondition(String operator, String number) {
+        Semver version = Semver.coerce(number);
+        switch (operator) {
+            case "=" -> {
+                setLowerBound(version, true);
+                setUpperBound(version, true);
+            }
+            case "!=" -> excludedVersions.add(version);
+            case ">" -> setLowerBound(version, false);
+            case ">=" -> setLowerBound(version, true);
+            case "<" -> setUpperBound(version, false);
+            case "<=" -> setUpperBound(version, true);
+            case "~>" -> {
+                // only the right-most number given may increase: ~> 1.2.3 is >= 1.2.3, < 1.3.0
+                // and ~> 1.2 is >= 1.2.0, < 2.0.0.
+                setLowerBound(version, true);
+                boolean isPatchGiven = StringUtils.countMatches(number, '.') == 2;
+                setUpperBound(isPatchGiven ? version.nextMinor() : version.nextMajor(), false);
+            }
+            default -> throw invalidConstraint(constraint);
+        }
+    }
+
+    private void setLowerBound(Semver version, boolean inclusive) {
+        int compared = Objects.isNull(lowerBound) ? 1 : version.compareTo(lowerBound);
+        if (compared > 0) {
+            lowerBound = version;
+            lowerBoundInclusive = inclusive;
+        } else if (compared == 0) {
+            lowerBoundInclusive = lowerBoundInclusive && inclusive;
+        }
+    }
+
+    private void setUpperBound(Semver version, boolean inclusive) {
+        int compared = Objects.isNull(upperBound) ? -1 : version.compareTo(upperBound);
+        if (compared < 0) {
+            upperBound = version;
+            upperBoundInclusive = inclusive;
+        } else if (compared == 0) {
+            upperBoundInclusive = upperBoundInclusive && inclusive;
+        }
+    }
+
+    private static InvalidTerraformToolException invalidConstraint(String requiredVersion) {
+        return new InvalidTerraformToolException(
+                String.format("Invalid terraform required version format:%s", requiredVersion));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof TerraformVersionConstraint other
+                && constraint.equals(other.constraint);
+    }
+
+    @Override
+    public int hashCode() {
+        return constraint.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return constraint;
+    }
+}
@@ -11,6 +11,7 @@ import jakarta.annotation.Resource;
 import java.util.Set;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Component;
 
@@ -34,22 +35,25 @@ public class TerraformVersionsCache {
         if (getDefaultVersionsOnly) {
             return versionsFetcher.getDefaultVersionsFromConfig();
         }
-        try {
-            return versionsFetcher.fetchAvailableVersionsFromTerraformWebsite();
-        } catch (Exception e) {
-            log.error(
-                    "Failed to fetch versions from Terraform website. Using default versions.", e);
-            return versionsFetcher.getDefaultVersionsFromConfig();
+        // the persisted catalog is used without waiting for the website, which is fetched by
+        // TerraformVersionsCacheManager in the background to refresh the cache.
+        Set<String> persistedVersions = versionsFetcher.getPersistedVersions();
+        if (!persistedVersions.isEmpty()) {
+            return persistedVersions;
         }
+        log.info("No persisted Terraform versions catalog found. Using default versions.");
+        return versionsFetcher.getDefaultVersionsFromConfig();
     }
 
     /**
      * Update the cache of versions of OpenTofu.
      *
      * @param versions List of available versions.
+     * @return versions put into the cache.
      */
-    @Cacheable(value = TERRAFORM_VERSIONS_CACHE_NAME, key = "'all'")
-    public void updateCachedVersions(Set<String> versions) {
+    @CachePut(value = TERRAFORM_VERSIONS_CACHE_NAME, key = "'all'")
+    public Set<String> updateCachedVersions(Set<String> versions) {
         log.info("Updated OpenTofu versions cache with versions:{}.", versions);
+        return versions;
     }
 }
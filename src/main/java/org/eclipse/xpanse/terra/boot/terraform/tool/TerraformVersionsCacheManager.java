@@ -9,7 +9,11 @@ import jakarta.annotation.Nonnull;
 import jakarta.annotation.Resource;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import lombok.extern.slf4j.Slf4j;
+import org.eclipse.xpanse.terra.boot.async.TaskConfiguration;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.event.ApplicationStartedEvent;
 import org.springframework.context.ApplicationListener;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -25,16 +29,29 @@ public class TerraformVersionsCacheManager implements ApplicationListener<Applic
 
     @Resource private TerraformVersionsFetcher versionsFetcher;
 
+    @Resource
+    @Qualifier(TaskConfiguration.TASK_EXECUTOR_NAME)
+    private Executor taskExecutor;
+
+    @Value("${support.default.terraform.versions.only:true}")
+    private boolean getDefaultVersionsOnly;
+
     @Override
     public void onApplicationEvent(@Nonnull ApplicationStartedEvent event) {
         initializeCache();
     }
 
-    /** Initialize the cache of available versions of Terraform. */
+    /**
+     * Initialize the cache of available versions of Terraform with the persisted catalog, and
+     * refresh it from the Terraform website in the background so that startup never waits.
+     */
     private void initializeCache() {
         log.info("Initializing Terraform versions cache.");
         Set<String> versions = versionsCache.getAvailableVersions();
         log.info("Initialized Terraform versions cache with versions:{}.", versions);
+        if (!getDefaultVersionsOnly) {
+            taskExecutor.execute(this::fetchVersionsFromWebsiteAndLoadCache);
+        }
     }
 
     /**
@@ -43,6 +60,9 @@ public class TerraformVersionsCacheManager implements ApplicationListener<Applic
      */
     @Scheduled(cron = "0 0 1 * * ?")
     public void fetchVersionsFromWebsiteAndLoadCache() {
+        if (getDefaultVersionsOnly) {
+            return;
+        }
         try {
             Set<String> availableVersionsFromWebsite =
                     versionsFetcher.fetchAvailableVersionsFromTerraformWebsite();
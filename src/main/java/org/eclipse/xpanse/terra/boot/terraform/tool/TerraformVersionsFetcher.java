@@ -5,51 +5,60 @@
 
 package org.eclipse.xpanse.terra.boot.terraform.tool;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
 import java.util.regex.Pattern;
-import javax.annotation.Nonnull;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import org.eclipse.xpanse.terra.boot.models.exceptions.InvalidTerraformToolException;
-import org.kohsuke.github.GHRepository;
-import org.kohsuke.github.GHTag;
-import org.kohsuke.github.GitHub;
-import org.kohsuke.github.GitHubBuilder;
-import org.kohsuke.github.GitHubRateLimitHandler;
-import org.kohsuke.github.PagedIterable;
-import org.kohsuke.github.connector.GitHubConnectorResponse;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpHeaders;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.retry.support.RetrySynchronizationManager;
 import org.springframework.stereotype.Component;
 
-/** Class to get available versions of Terraform. */
+/**
+ * Class to get available versions of Terraform. The versions are read from the releases index of
+ * the download site with conditional requests, and the catalog of versions is persisted on disk so
+ * that restarts can use it without any request.
+ */
 @Slf4j
 @Component
 public class TerraformVersionsFetcher {
 
     private static final Pattern OFFICIAL_VERSION_PATTERN =
-            Pattern.compile("^v(\\d{1,3}\\.\\d{1,3}\\.\\d{1,3})$");
+            Pattern.compile("^\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}$");
+    private static final String RELEASES_INDEX_FILE_NAME = "index.json";
+    private static final String RELEASES_INDEX_VERSIONS_FIELD = "versions";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
-    @Value("${terraform.github.api.endpoint:https://api.github.com}")
-    private String terraformGithubApiEndpoint;
+    @Value("${terraform.download.base.url:https://releases.hashicorp.com/terraform}")
+    private String terraformDownloadBaseUrl;
 
-    @Value("${terraform.github.repository:hashicorp/terraform}")
-    private String terraformGithubRepository;
+    @Value("${terraform.versions.catalog.file:/opt/terraform/.versions-catalog.json}")
+    private String versionsCatalogFile;
 
     @Value("${terraform.default.supported.versions}")
     private String defaultVersionsString;
 
+    private volatile TerraformVersionsCatalog versionsCatalog;
+
     /**
-     * Fetch all available versions from Terraform website.
+     * Fetch all available versions from Terraform website. The releases index is only downloaded
+     * again if it has changed since the persisted catalog was fetched.
      *
      * @return all available versions from Terraform website.
      */
@@ -66,55 +75,145 @@ public class TerraformVersionsFetcher {
                 "Start to fetch available versions from website for Terraform."
                         + " Retry count: {}",
                 retryCount);
-        Set<String> allVersions = new HashSet<>();
+        TerraformVersionsCatalog catalog = getPersistedVersionsCatalog();
+        URL url = URI.create(terraformDownloadBaseUrl + "/" + RELEASES_INDEX_FILE_NAME).toURL();
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        Set<String> allVersions;
         try {
-            if (!isEndpointReachable(terraformGithubApiEndpoint)) {
-                String errorMsg = "Terraform website is not reachable.";
-                log.error(errorMsg);
-                throw new IOException(errorMsg);
+            connection.setConnectTimeout(10000);
+            connection.setReadTimeout(60000);
+            if (Objects.nonNull(catalog)) {
+                if (StringUtils.isNotBlank(catalog.etag())) {
+                    connection.setRequestProperty(HttpHeaders.IF_NONE_MATCH, catalog.etag());
+                }
+                if (StringUtils.isNotBlank(catalog.lastModified())) {
+                    connection.setRequestProperty(
+                            HttpHeaders.IF_MODIFIED_SINCE, catalog.lastModified());
+                }
+            }
+            int responseCode = connection.getResponseCode();
+            if (responseCode == HttpURLConnection.HTTP_NOT_MODIFIED && Objects.nonNull(catalog)) {
+                log.info(
+                        "Terraform releases index {} not modified, use the persisted versions.",
+                        url);
+                return catalog.versions();
+            }
+            if (responseCode != HttpURLConnection.HTTP_OK) {
+                throw new IOException(
+                        String.format(
+                                "Fetch terraform releases index %s failed, response code %d.",
+                                url, responseCode));
+            }
+            try (InputStream indexStream = connection.getInputStream()) {
+                allVersions = parseVersionsFromReleasesIndex(indexStream);
+            }
+            if (allVersions.isEmpty()) {
+                String errorMsg = "No available versions found from Terraform website";
+                throw new InvalidTerraformToolException(errorMsg);
             }
-            GitHub gitHub =
-                    new GitHubBuilder()
-                            .withEndpoint(terraformGithubApiEndpoint)
-                            .withRateLimitHandler(getGithubRateLimitHandler())
-                            .build();
-            GHRepository repository = gitHub.getRepository(terraformGithubRepository);
-            PagedIterable<GHTag> tags = repository.listTags();
-            tags.forEach(
-                    tag -> {
-                        String version = tag.getName();
-                        if (OFFICIAL_VERSION_PATTERN.matcher(version).matches()) {
-                            // remove the prefix 'v'
-                            allVersions.add(version.substring(1));
-                        }
-                    });
+            persistVersionsCatalog(
+                    new TerraformVersionsCatalog(
+                            connection.getHeaderField(HttpHeaders.ETAG),
+                            connection.getHeaderField(HttpHeaders.LAST_MODIFIED),
+                            allVersions));
         } catch (Exception e) {
             log.error(
                     "Failed to fetch available versions from Terraform website. Retry count: {}.",
                     retryCount,
                     e);
             throw e;
+        } finally {
+            connection.disconnect();
         }
         log.info(
                 "Get available versions: {} from Terraform website. Retry count: {}",
                 allVersions,
                 retryCount);
-        if (allVersions.isEmpty()) {
-            String errorMsg = "No available versions found from Terraform website";
-            throw new InvalidTerraformToolException(errorMsg);
-        }
         return allVersions;
     }
 
-    private boolean isEndpointReachable(String endpoint) throws IOException {
+    /**
+     * Get the versions from the persisted catalog.
+     *
+     * @return persisted versions, or an empty set if no catalog is persisted.
+     */
+    public Set<String> getPersistedVersions() {
+        TerraformVersionsCatalog catalog = getPersistedVersionsCatalog();
+        return Objects.nonNull(catalog) ? catalog.versions() : Set.of();
+    }
+
+    private Set<String> parseVersionsFromReleasesIndex(InputStream indexStream)
+            throws IOException {
+        Set<String> versions = new HashSet<>();
+        try (JsonParser parser = OBJECT_MAPPER.getFactory().createParser(indexStream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Invalid terraform releases index.");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.currentName();
+                parser.nextToken();
+                if (!RELEASES_INDEX_VERSIONS_FIELD.equals(fieldName)) {
+                    parser.skipChildren();
+                    continue;
+                }
+                // only the version names are read, the builds of each version are skipped.
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String version = parser.currentName();
+                    parser.nextToken();
+                    parser.skipChildren();
+                    if (OFFICIAL_VERSION_PATTERN.matcher(version).matches()) {
+                        versions.add(version);
+                    }
+                }
+            }
+        }
+        return versions;
+    }
+
+    private TerraformVersionsCatalog getPersistedVersionsCatalog() {
+        if (Objects.isNull(versionsCatalog) && StringUtils.isNotBlank(versionsCatalogFile)) {
+            Path catalogPath = Path.of(versionsCatalogFile);
+            if (Files.isRegularFile(catalogPath)) {
+                try {
+                    versionsCatalog =
+                            OBJECT_MAPPER.readValue(
+                                    catalogPath.toFile(), TerraformVersionsCatalog.class);
+                    log.info(
+                            "Loaded {} terraform versions from the persisted catalog {}.",
+                            versionsCatalog.versions().size(),
+                            catalogPath);
+                } catch (IOException e) {
+                    log.warn("Load terraform versions catalog {} failed.", catalogPath, e);
+                }
+            }
+        }
+        return versionsCatalog;
+    }
+
+    private void persistVersionsCatalog(TerraformVersionsCatalog catalog) {
+        versionsCatalog = catalog;
+        if (StringUtils.isBlank(versionsCatalogFile)) {
+            return;
+        }
+        Path catalogPath = Path.of(versionsCatalogFile).toAbsolutePath();
         try {
-            URL url = URI.create(endpoint).toURL();
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-            connection.setConnectTimeout(10000);
-            connection.setRequestMethod(HttpMethod.HEAD.name());
-            return connection.getResponseCode() == HttpStatus.OK.value();
+            Files.createDirectories(catalogPath.getParent());
+            Path tempCatalogPath =
+                    Files.createTempFile(
+                            catalogPath.getParent(), catalogPath.getFileName().toString(), ".tmp");
+            try {
+                OBJECT_MAPPER.writeValue(tempCatalogPath.toFile(), catalog);
+                Files.move(
+                        tempCatalogPath,
+                        catalogPath,
+                        StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(tempCatalogPath);
+            }
+            log.info("Persisted terraform versions catalog {}.", catalogPath);
         } catch (IOException e) {
-            throw new IOException("Failed to connect to the endpoint: " + endpoint);
+            log.warn("Persist terraform versions catalog {} failed.", catalogPath, e);
         }
     }
 
@@ -125,7 +224,7 @@ public class TerraformVersionsFetcher {
      */
     public Set<String> getDefaultVersionsFromConfig() {
         Set<String> defaultVersions =
-                Set.of(defaultVersionsString.replaceAll("//s+", "").split(","));
+                Set.of(defaultVersionsString.replaceAll("\\s+", "").split(","));
         log.info(
                 "Get default versions: {} from Terraform versions config value: {}",
                 defaultVersions,
@@ -133,20 +232,7 @@ public class TerraformVersionsFetcher {
         return defaultVersions;
     }
 
-    private GitHubRateLimitHandler getGithubRateLimitHandler() {
-        return new GitHubRateLimitHandler() {
-            @Override
-            public void onError(@Nonnull GitHubConnectorResponse response) throws IOException {
-                String limit = response.header("X-RateLimit-Limit");
-                String remaining = response.header("X-RateLimit-Remaining");
-                String reset = response.header("X-RateLimit-Reset");
-                String errorMsg =
-                        String.format(
-                                "GitHub API rate limit exceeded. "
-                                        + "Rate limit: %s, remaining: %s, reset time: %s",
-                                limit, remaining, reset);
-                throw new IOException(errorMsg);
-            }
-        };
-    }
+    /** Versions of the releases index and the validators of the response they were read from. */
+    private record TerraformVersionsCatalog(
+            String etag, String lastModified, Set<String> versions) {}
 }
@@ -5,34 +5,46 @@
 
 package org.eclipse.xpanse.terra.boot.terraform.tool;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import jakarta.annotation.Resource;
+import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.net.URI;
-import java.net.URL;
-import java.nio.channels.Channels;
-import java.nio.channels.ReadableByteChannel;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
-import java.util.Arrays;
-import java.util.Comparator;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.xpanse.terra.boot.models.exceptions.InvalidTerraformToolException;
 import org.eclipse.xpanse.terra.boot.terraform.utils.SystemCmd;
 import org.eclipse.xpanse.terra.boot.terraform.utils.SystemCmdResult;
 import org.semver4j.Semver;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.util.CollectionUtils;
 
@@ -41,141 +53,131 @@ import org.springframework.util.CollectionUtils;
 @Component
 public class TerraformVersionsHelper {
 
-    /** Terraform version required version regex. */
+    /**
+     * Terraform version required version regex. A comma separated list of conditions, each one an
+     * optional operator and a version.
+     */
     public static final String TERRAFORM_REQUIRED_VERSION_REGEX =
-            "^(=|>=|<=)\\s*[vV]?\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}$";
+            "^\\s*(=|!=|>=|<=|>|<|~>)?\\s*[vV]?\\d{1,3}(\\.\\d{1,3}){0,2}\\s*"
+                    + "(,\\s*(=|!=|>=|<=|>|<|~>)?\\s*[vV]?\\d{1,3}(\\.\\d{1,3}){0,2}\\s*)*$";
 
-    private static final Pattern TERRAFORM_REQUIRED_VERSION_PATTERN =
-            Pattern.compile(TERRAFORM_REQUIRED_VERSION_REGEX);
+    private static final int MAX_MEMOIZED_VERSION_CONSTRAINTS = 1000;
     private static final Pattern TERRAFORM_VERSION_OUTPUT_PATTERN =
             Pattern.compile("^Terraform\\s+v(\\d{1,3}\\.\\d{1,3}\\.\\d{1,3})\\b");
-    private static final String TERRAFORM_BINARY_DOWNLOAD_URL_FORMAT =
-            "%s/%s/terraform_%s_%s_%s.zip";
+    private static final String TERRAFORM_BINARY_ZIP_FILE_NAME_FORMAT = "terraform_%s_%s_%s.zip";
+    private static final String TERRAFORM_CHECKSUMS_FILE_NAME_FORMAT = "terraform_%s_SHA256SUMS";
     private static final String OS_NAME = System.getProperty("os.name").toLowerCase();
     private static final String OS_ARCH = System.getProperty("os.arch").toLowerCase();
     private static final String TERRAFORM_EXECUTOR_PREFIX = "terraform-";
+    private static final int DOWNLOAD_BUFFER_SIZE = 64 * 1024;
+    private static final String STAGING_DIR_PREFIX = ".staging-";
+    private static final String INSTALL_DIR_LOCK_FILE_NAME = ".install.lock";
 
-    @Resource private SystemCmd systemCmd;
+    @Value("${terraform.download.checksum.verification.enabled:true}")
+    private boolean checksumVerificationEnabled;
 
-    /**
-     * Get terraform executor path which matches the required version.
-     *
-     * @param installationDir terraform installation directory
-     * @param requiredOperator operator in required version
-     * @param requiredNumber number in required version
-     * @return return the version of terraform which is matched required, otherwise return null.
-     */
-    public String getExecutorPathMatchedRequiredVersion(
-            String installationDir, String requiredOperator, String requiredNumber) {
-        // Get path of terraform executor matched required version in the installation dir.
-        File installDir = new File(installationDir);
-        if (!installDir.exists() || !installDir.isDirectory()) {
-            return null;
-        }
-        File[] terraformExecutors = installDir.listFiles();
-        if (Objects.isNull(terraformExecutors) || terraformExecutors.length == 0) {
-            return null;
-        }
-        Map<String, File> executorVersionFileMap = new HashMap<>();
-        Arrays.stream(terraformExecutors)
-                .filter(
-                        f ->
-                                f.isFile()
-                                        && f.canExecute()
-                                        && f.getName().startsWith(TERRAFORM_EXECUTOR_PREFIX))
-                .forEach(
-                        f -> {
-                            String versionNumber = getVersionFromExecutorPath(f.getAbsolutePath());
-                            executorVersionFileMap.put(versionNumber, f);
-                        });
-        if (CollectionUtils.isEmpty(executorVersionFileMap)) {
-            return null;
-        }
-        String findBestVersion =
-                findBestVersionFromAllAvailableVersions(
-                        executorVersionFileMap.keySet(), requiredOperator, requiredNumber);
-        if (StringUtils.isNotBlank(findBestVersion)) {
-            File executorFile = executorVersionFileMap.get(findBestVersion);
-            if (checkIfExecutorIsMatchedRequiredVersion(
-                    executorFile, requiredOperator, requiredNumber)) {
-                return executorFile.getAbsolutePath();
-            }
-        }
-        return null;
-    }
+    private final Object installDirMonitor = new Object();
+    private final Cache<String, TerraformVersionConstraint> versionConstraints =
+            Caffeine.newBuilder().maximumSize(MAX_MEMOIZED_VERSION_CONSTRAINTS).build();
+    private volatile SortedAvailableVersions sortedAvailableVersions;
+    private final Map<String, ExecutorVersionOutput> executorVersionOutputCache =
+            new ConcurrentHashMap<>();
+
+    @Resource private SystemCmd systemCmd;
+    @Resource private TerraformArtifactCache artifactCache;
 
     /**
-     * Get the operator and number from the required version.
+     * Parse the required version into a version constraint. Parsed constraints are memoized.
      *
      * @param requiredVersion required version
-     * @return string array, the first element is operator, the second element is number.
+     * @return version constraint.
      */
-    public String[] getOperatorAndNumberFromRequiredVersion(String requiredVersion) {
-
-        String version = requiredVersion.replaceAll("\\s+", "").toLowerCase().replaceAll("v", "");
-        if (StringUtils.isNotBlank(version)) {
-            Matcher matcher = TERRAFORM_REQUIRED_VERSION_PATTERN.matcher(version);
-            if (matcher.find()) {
-                String[] operatorAndNumber = new String[2];
-                operatorAndNumber[0] = matcher.group(1);
-                operatorAndNumber[1] = matcher.group(0).replaceAll("^(=|>=|<=)", "");
-                return operatorAndNumber;
-            }
+    public TerraformVersionConstraint getVersionConstraint(String requiredVersion) {
+        String constraint = StringUtils.deleteWhitespace(requiredVersion);
+        if (StringUtils.isBlank(constraint)) {
+            String errorMsg =
+                    String.format("Invalid terraform required version format:%s", requiredVersion);
+            throw new InvalidTerraformToolException(errorMsg);
         }
-        String errorMsg =
-                String.format("Invalid terraform required version format:%s", requiredVersion);
-        throw new InvalidTerraformToolException(errorMsg);
+        return versionConstraints.get(constraint, TerraformVersionConstraint::parse);
     }
 
     /**
-     * Find the best version from all available versions.
+     * Find the best version from all available versions. The available versions are parsed and
+     * sorted once, and the best version of each constraint is memoized until the available
+     * versions change.
      *
      * @param allAvailableVersions all available versions
-     * @param requiredOperator operator in required version
-     * @param requiredNumber number in required version
+     * @param versionConstraint required version constraint
      * @return the best version
      */
     public String findBestVersionFromAllAvailableVersions(
-            Set<String> allAvailableVersions, String requiredOperator, String requiredNumber) {
-        if (CollectionUtils.isEmpty(allAvailableVersions)
-                || StringUtils.isBlank(requiredOperator)
-                || StringUtils.isBlank(requiredNumber)) {
+            Set<String> allAvailableVersions, TerraformVersionConstraint versionConstraint) {
+        if (CollectionUtils.isEmpty(allAvailableVersions) || Objects.isNull(versionConstraint)) {
             return null;
         }
-        Semver requiredSemver = new Semver(requiredNumber);
-        return switch (requiredOperator) {
-            case "=" ->
-                    allAvailableVersions.stream()
-                            .filter(v -> new Semver(v).isEqualTo(requiredSemver))
-                            .findAny()
-                            .orElse(null);
-            case ">=" ->
-                    allAvailableVersions.stream()
-                            .filter(v -> new Semver(v).isGreaterThanOrEqualTo(requiredSemver))
-                            .min(Comparator.naturalOrder())
-                            .orElse(null);
-            case "<=" ->
-                    allAvailableVersions.stream()
-                            .filter(v -> new Semver(v).isLowerThanOrEqualTo(requiredSemver))
-                            .max(Comparator.naturalOrder())
-                            .orElse(null);
-            default -> null;
-        };
+        SortedAvailableVersions availableVersions =
+                getSortedAvailableVersions(allAvailableVersions);
+        return availableVersions
+                .bestVersions()
+                .get(
+                        versionConstraint,
+                        constraint -> {
+                            int index =
+                                    constraint.findBestVersionIndex(
+                                            availableVersions.sortedVersions());
+                            return index >= 0
+                                    ? Optional.of(availableVersions.sortedVersionNames()[index])
+                                    : Optional.empty();
+                        })
+                .orElse(null);
+    }
+
+    private Semver parseAvailableVersion(String version) {
+        // keep the pre-release part if the version has one, so that it is never chosen.
+        Semver semver = Semver.parse(version);
+        return Objects.nonNull(semver) ? semver : Semver.coerce(version);
+    }
+
+    private SortedAvailableVersions getSortedAvailableVersions(Set<String> allAvailableVersions) {
+        SortedAvailableVersions availableVersions = sortedAvailableVersions;
+        // the versions cache returns the same set until the versions are updated.
+        if (Objects.nonNull(availableVersions)
+                && (availableVersions.source() == allAvailableVersions
+                        || availableVersions.source().equals(allAvailableVersions))) {
+            return availableVersions;
+        }
+        List<Map.Entry<Semver, String>> parsedVersions =
+                allAvailableVersions.stream()
+                        .filter(StringUtils::isNotBlank)
+                        .map(version -> Map.entry(parseAvailableVersion(version), version))
+                        .filter(entry -> Objects.nonNull(entry.getKey()))
+                        .sorted(Map.Entry.comparingByKey())
+                        .toList();
+        availableVersions =
+                new SortedAvailableVersions(
+                        allAvailableVersions,
+                        parsedVersions.stream().map(Map.Entry::getKey).toArray(Semver[]::new),
+                        parsedVersions.stream().map(Map.Entry::getValue).toArray(String[]::new),
+                        Caffeine.newBuilder()
+                                .maximumSize(MAX_MEMOIZED_VERSION_CONSTRAINTS)
+                                .build());
+        sortedAvailableVersions = availableVersions;
+        return availableVersions;
     }
 
     /**
-     * Check the version of installed executor is matched required version.
+     * Check the version of installed executor meets the required version constraint.
      *
      * @param executorFile executor file
-     * @param requiredOperator operator in required version
-     * @param requiredNumber number in required version
+     * @param versionConstraint required version constraint
      * @return true if the version is valid, otherwise return false.
      */
     public boolean checkIfExecutorIsMatchedRequiredVersion(
-            File executorFile, String requiredOperator, String requiredNumber) {
+            File executorFile, TerraformVersionConstraint versionConstraint) {
         String versionNumber = getExactVersionOfExecutor(executorFile.getAbsolutePath());
         if (StringUtils.isNotBlank(versionNumber)) {
-            return isVersionSatisfied(versionNumber, requiredOperator, requiredNumber);
+            return versionConstraint.isSatisfiedBy(Semver.coerce(versionNumber));
         }
         return false;
     }
@@ -209,7 +211,38 @@ public class TerraformVersionsHelper {
         return null;
     }
 
+    /**
+     * Get the output of the version command of the executor. The output is cached per executor
+     * path and only reused while the inode, size and modification time of the executor file are
+     * unchanged, so the command is spawned once per binary.
+     */
     private String getVersionCommandOutput(String executorPath) {
+        if (StringUtils.isBlank(executorPath)) {
+            return null;
+        }
+        File executorFile = resolveExecutorFile(executorPath);
+        BasicFileAttributes executorAttributes = readFileAttributes(executorFile);
+        if (Objects.nonNull(executorAttributes)) {
+            ExecutorVersionOutput cachedOutput =
+                    executorVersionOutputCache.get(executorFile.getAbsolutePath());
+            if (Objects.nonNull(cachedOutput) && cachedOutput.isSameBinary(executorAttributes)) {
+                return cachedOutput.versionOutput();
+            }
+        }
+        String versionOutput = executeVersionCommand(executorPath);
+        if (StringUtils.isNotBlank(versionOutput) && Objects.nonNull(executorAttributes)) {
+            executorVersionOutputCache.put(
+                    executorFile.getAbsolutePath(),
+                    new ExecutorVersionOutput(
+                            executorAttributes.fileKey(),
+                            executorAttributes.size(),
+                            executorAttributes.lastModifiedTime(),
+                            versionOutput));
+        }
+        return versionOutput;
+    }
+
+    private String executeVersionCommand(String executorPath) {
         try {
             File executorFile = new File(executorPath);
             if (executorFile.exists() && !executorFile.canExecute()) {
@@ -249,20 +282,48 @@ public class TerraformVersionsHelper {
         return null;
     }
 
+    /** Resolve the executor to a file. Bare command names are looked up on the PATH. */
+    private File resolveExecutorFile(String executorPath) {
+        File executorFile = new File(executorPath);
+        if (executorFile.isAbsolute() || executorPath.contains(File.separator)) {
+            return executorFile;
+        }
+        String systemPath = System.getenv("PATH");
+        if (StringUtils.isNotBlank(systemPath)) {
+            for (String pathDir : systemPath.split(File.pathSeparator)) {
+                File candidate = new File(pathDir, executorPath);
+                if (candidate.isFile()) {
+                    return candidate;
+                }
+            }
+        }
+        return executorFile;
+    }
+
+    private BasicFileAttributes readFileAttributes(File file) {
+        try {
+            return Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+        } catch (IOException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
     /**
-     * Install terraform with specific version.
+     * Install terraform with specific version. The binary is downloaded and unzipped into a
+     * staging dir of its own and then moved atomically into the installation dir while holding a
+     * file lock on the dir, so concurrent installations in this and other processes on the same
+     * host never see or delete each other's partial files.
      *
      * @param versionNumber the version number
-     * @param downloadBaseUrl download base url
      * @param installDir installation directory
      * @return the path of the installed executor.
      */
-    public File installTerraformWithVersion(
-            String versionNumber, String downloadBaseUrl, String installDir) {
+    public File installTerraformWithVersion(String versionNumber, String installDir) {
         // Install the executor with specific version into the path.
         String terraformExecutorName = getTerraformExecutorName(versionNumber);
         File terraformExecutorFile = new File(installDir, terraformExecutorName);
         File parentDir = terraformExecutorFile.getParentFile();
+        File stagingDir = null;
         try {
             if (!parentDir.exists()) {
                 log.info(
@@ -270,73 +331,140 @@ public class TerraformVersionsHelper {
                         parentDir.getAbsolutePath(),
                         parentDir.mkdirs() ? "successfully" : "failed");
             }
-            // download the binary zip file into the installation directory
-            File terraformZipFile =
-                    downloadTerraformBinaryZipFile(versionNumber, downloadBaseUrl, installDir);
-            // unzip the zip file and move the executable binary to the installation directory
-            unzipBinaryZipToGetExecutor(terraformZipFile, terraformExecutorFile);
+            stagingDir =
+                    Files.createTempDirectory(
+                                    parentDir.toPath(),
+                                    STAGING_DIR_PREFIX + terraformExecutorName + "-")
+                            .toFile();
+            // unzip the executor while downloading the binary zip file into the staging directory
+            File stagedExecutorFile = new File(stagingDir, terraformExecutorName);
+            downloadAndUnzipExecutor(versionNumber, stagedExecutorFile);
+            // move the executable binary to the installation directory
+            publishExecutor(stagedExecutorFile, terraformExecutorFile);
         } catch (IOException e) {
             log.error(e.getMessage(), e);
             throw new InvalidTerraformToolException(e.getMessage());
+        } finally {
+            // delete the non-executable files of this installation
+            deleteStagingDir(stagingDir);
         }
-        // delete the non-executable files
-        deleteNonExecutorFiles(parentDir);
         return terraformExecutorFile;
     }
 
-    private File downloadTerraformBinaryZipFile(
-            String versionNumber, String downloadBaseUrl, String installDir) throws IOException {
-        String binaryDownloadUrl = getTerraformBinaryDownloadUrl(downloadBaseUrl, versionNumber);
-        String binaryZipFileName = getTerraformBinaryZipFileName(binaryDownloadUrl);
-        File binaryZipFile = new File(installDir, binaryZipFileName);
-        URL url = URI.create(binaryDownloadUrl).toURL();
-        try (ReadableByteChannel rbc = Channels.newChannel(url.openStream());
-                FileOutputStream fos = new FileOutputStream(binaryZipFile, false)) {
-            log.info(
-                    "Downloading terraform binary file from {} to {}",
-                    url,
-                    binaryZipFile.getAbsolutePath());
-            fos.getChannel().transferFrom(rbc, 0, Long.MAX_VALUE);
-            log.info(
-                    "Downloaded terraform binary file from {} to {} successfully.",
-                    url,
-                    binaryZipFile.getAbsolutePath());
-        }
-        return binaryZipFile;
-    }
-
-    private void unzipBinaryZipToGetExecutor(File binaryZipFile, File executorFile)
-            throws IOException {
-        if (!binaryZipFile.exists()) {
+    private void publishExecutor(File stagedExecutorFile, File executorFile) throws IOException {
+        if (!stagedExecutorFile.exists()) {
             String errorMsg =
                     String.format(
-                            "Terraform binary zip file %s not found.",
-                            binaryZipFile.getAbsolutePath());
+                            "Terraform executor not found in the binary zip file for %s.",
+                            executorFile.getName());
             log.error(errorMsg);
             throw new IOException(errorMsg);
         }
-        try (ZipInputStream zis = new ZipInputStream(new FileInputStream(binaryZipFile))) {
-            log.info("Unzipping terraform binary zip file {}", binaryZipFile.getAbsolutePath());
+        if (!stagedExecutorFile.setExecutable(true)) {
+            log.warn("Failed to set executable permission of {}.", stagedExecutorFile);
+        }
+        File lockFile = new File(executorFile.getParentFile(), INSTALL_DIR_LOCK_FILE_NAME);
+        // file locks are held per process, threads of this process are serialized by the monitor.
+        synchronized (installDirMonitor) {
+            try (FileChannel lockChannel =
+                            FileChannel.open(
+                                    lockFile.toPath(),
+                                    StandardOpenOption.CREATE,
+                                    StandardOpenOption.WRITE);
+                    FileLock ignored = lockChannel.lock()) {
+                if (executorFile.isFile() && checkIfExecutorCanBeExecuted(executorFile)) {
+                    log.info(
+                            "Terraform executor {} has been installed by another installation.",
+                            executorFile.getAbsolutePath());
+                    return;
+                }
+                Files.move(
+                        stagedExecutorFile.toPath(),
+                        executorFile.toPath(),
+                        StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+                log.info("Installed terraform executor {}.", executorFile.getAbsolutePath());
+            }
+        }
+    }
+
+    /**
+     * Download the binary zip file and extract the executor from it in one pass over the download
+     * stream. The checksum is computed on the same stream, so the zip file is never written to
+     * disk.
+     */
+    private void downloadAndUnzipExecutor(String versionNumber, File executorFile)
+            throws IOException {
+        String binaryZipFileName = getTerraformBinaryZipFileName(versionNumber);
+        MessageDigest sha256Digest = DigestUtils.getSha256Digest();
+        try (DigestInputStream digestStream =
+                        new DigestInputStream(
+                                artifactCache.openArtifact(versionNumber, binaryZipFileName),
+                                sha256Digest);
+                ZipInputStream zis =
+                        new ZipInputStream(
+                                new BufferedInputStream(digestStream, DOWNLOAD_BUFFER_SIZE))) {
+            log.info(
+                    "Downloading and unzipping terraform binary file {} to {}",
+                    binaryZipFileName,
+                    executorFile.getAbsolutePath());
             ZipEntry entry;
             while ((entry = zis.getNextEntry()) != null) {
-                if (!entry.isDirectory()) {
-                    String entryName = entry.getName();
-                    File entryDestinationFile = new File(executorFile.getParentFile(), entryName);
-                    if (isExecutorFileInZipForTerraform(entryName)) {
-                        extractFile(zis, entryDestinationFile);
-                        Files.move(
-                                entryDestinationFile.toPath(),
-                                executorFile.toPath(),
-                                StandardCopyOption.REPLACE_EXISTING);
-                        log.info(
-                                "Unzipped terraform file {} and extract the executor {} "
-                                        + "successfully.",
-                                binaryZipFile.getAbsolutePath(),
-                                executorFile.getAbsolutePath());
-                    }
+                if (!entry.isDirectory() && isExecutorFileInZipForTerraform(entry.getName())) {
+                    extractFile(zis, executorFile);
+                    log.info(
+                            "Unzipped terraform file {} and extract the executor {} "
+                                    + "successfully.",
+                            binaryZipFileName,
+                            executorFile.getAbsolutePath());
                 }
             }
+            // the checksum covers the whole zip file, read the rest after the last entry.
+            digestStream.transferTo(OutputStream.nullOutputStream());
+        }
+        if (checksumVerificationEnabled) {
+            try {
+                verifyBinaryZipFileChecksum(
+                        versionNumber,
+                        binaryZipFileName,
+                        Hex.encodeHexString(sha256Digest.digest()));
+            } catch (IOException e) {
+                // do not keep serving an invalid artifact from the cache.
+                artifactCache.evictArtifact(versionNumber, binaryZipFileName);
+                artifactCache.evictArtifact(versionNumber, getChecksumsFileName(versionNumber));
+                throw e;
+            }
+        }
+    }
+
+    private void verifyBinaryZipFileChecksum(
+            String versionNumber, String binaryZipFileName, String actualChecksum)
+            throws IOException {
+        String checksumsFileName = getChecksumsFileName(versionNumber);
+        String checksums;
+        try (InputStream checksumsStream =
+                artifactCache.openArtifact(versionNumber, checksumsFileName)) {
+            checksums = new String(checksumsStream.readAllBytes(), StandardCharsets.UTF_8);
         }
+        // each line of the checksums file is in the format: <sha256>  <file name>
+        String expectedChecksum =
+                checksums
+                        .lines()
+                        .map(line -> line.trim().split("\\s+"))
+                        .filter(fields -> fields.length == 2)
+                        .filter(fields -> StringUtils.equals(fields[1], binaryZipFileName))
+                        .map(fields -> fields[0])
+                        .findFirst()
+                        .orElse(null);
+        if (!StringUtils.equalsIgnoreCase(expectedChecksum, actualChecksum)) {
+            String errorMsg =
+                    String.format(
+                            "Checksum of terraform binary file %s is %s, but %s is expected by %s.",
+                            binaryZipFileName, actualChecksum, expectedChecksum, checksumsFileName);
+            log.error(errorMsg);
+            throw new IOException(errorMsg);
+        }
+        log.info("Verified checksum of terraform binary file {}.", binaryZipFileName);
     }
 
     private boolean isExecutorFileInZipForTerraform(String entryName) {
@@ -346,7 +474,7 @@ public class TerraformVersionsHelper {
     private void extractFile(ZipInputStream zis, File destinationFile) throws IOException {
         try (BufferedOutputStream bos =
                 new BufferedOutputStream(new FileOutputStream(destinationFile))) {
-            byte[] bytesIn = new byte[4096];
+            byte[] bytesIn = new byte[DOWNLOAD_BUFFER_SIZE];
             int read;
             while ((read = zis.read(bytesIn)) != -1) {
                 bos.write(bytesIn, 0, read);
@@ -354,40 +482,21 @@ public class TerraformVersionsHelper {
         }
     }
 
-    private void deleteNonExecutorFiles(File dir) {
-        File[] files = dir.listFiles();
+    private void deleteStagingDir(File stagingDir) {
+        if (Objects.isNull(stagingDir)) {
+            return;
+        }
+        File[] files = stagingDir.listFiles();
         if (files != null) {
             for (File file : files) {
-                if (file.isDirectory()) {
-                    deleteNonExecutorFiles(file);
-                } else {
-                    if (!file.getName().startsWith(TERRAFORM_EXECUTOR_PREFIX) && !file.delete()) {
-                        log.warn("Failed to delete file {}.", file.getAbsolutePath());
-                    }
+                if (!file.delete()) {
+                    log.warn("Failed to delete file {}.", file.getAbsolutePath());
                 }
             }
         }
-    }
-
-    private String getVersionFromExecutorPath(String executorPath) {
-        if (executorPath.contains("-")) {
-            return Arrays.asList(executorPath.split("-")).getLast();
-        }
-        return null;
-    }
-
-    private boolean isVersionSatisfied(
-            String actualNumber, String requiredOperator, String requiredNumber) {
-        Semver actualSemver = new Semver(actualNumber);
-        Semver requiredSemver = new Semver(requiredNumber);
-        if ("=".equals(requiredOperator)) {
-            return actualSemver.isEqualTo(requiredSemver);
-        } else if (">=".equals(requiredOperator)) {
-            return actualSemver.isGreaterThanOrEqualTo(requiredSemver);
-        } else if ("<=".equals(requiredOperator)) {
-            return actualSemver.isLowerThanOrEqualTo(requiredSemver);
+        if (!stagingDir.delete()) {
+            log.warn("Failed to delete dir {}.", stagingDir.getAbsolutePath());
         }
-        return false;
     }
 
     /**
@@ -401,24 +510,21 @@ public class TerraformVersionsHelper {
     }
 
     /**
-     * Get whole download url of the executor binary file.
+     * Get file name of the binary zip file of the version for the current os and arch.
      *
-     * @param downloadBaseUrl download base url
      * @param versionNumber version number
-     * @return whole download url of the executor binary file
+     * @return file name of the binary zip file
      */
-    private String getTerraformBinaryDownloadUrl(String downloadBaseUrl, String versionNumber) {
+    private String getTerraformBinaryZipFileName(String versionNumber) {
         return String.format(
-                TERRAFORM_BINARY_DOWNLOAD_URL_FORMAT,
-                downloadBaseUrl,
-                versionNumber,
+                TERRAFORM_BINARY_ZIP_FILE_NAME_FORMAT,
                 versionNumber,
                 getOperatingSystemCode(),
                 OS_ARCH);
     }
 
-    private String getTerraformBinaryZipFileName(String executorBinaryDownloadUrl) {
-        return executorBinaryDownloadUrl.substring(executorBinaryDownloadUrl.lastIndexOf("/") + 1);
+    private String getChecksumsFileName(String versionNumber) {
+        return String.format(TERRAFORM_CHECKSUMS_FILE_NAME_FORMAT, versionNumber);
     }
 
     private String getOperatingSystemCode() {
@@ -437,4 +543,22 @@ public class TerraformVersionsHelper {
         }
         return "Unsupported OS";
     }
+
+    /** Available versions sorted in ascending order and the best version of each constraint. */
+    private record SortedAvailableVersions(
+            Set<String> source,
+            Semver[] sortedVersions,
+            String[] sortedVersionNames,
+            Cache<TerraformVersionConstraint, Optional<String>> bestVersions) {}
+
+    /** Output of the version command of an executor and the identity of the binary file. */
+    private record ExecutorVersionOutput(
+            Object fileKey, long size, FileTime lastModifiedTime, String versionOutput) {
+
+        private boolean isSameBinary(BasicFileAttributes attributes) {
+            return Objects.equals(fileKey, attributes.fileKey())
+                    && size == attributes.size()
+                    && Objects.equals(lastModifiedTime, attributes.lastModifiedTime());
+        }
+    }
 }
@@ -5,8 +5,7 @@
 
 package org.eclipse.xpanse.terra.boot.terraform.utils;
 
-import static java.util.concurrent.Executors.newSingleThreadExecutor;
-
+import jakarta.annotation.PostConstruct;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
@@ -16,24 +15,63 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.xpanse.terra.boot.models.exceptions.TerraformExecutorException;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-/** Executes operating system commands. */
+/**
+ * Executes operating system commands. The number of long running terraform processes, the plan,
+ * apply and destroy commands, is limited by the process admission limit, callers wait for a free
+ * slot before such a process is started. Short helper commands are started without waiting, so
+ * they are never queued behind long running processes.
+ */
 @Slf4j
 @Component
 public class SystemCmd {
 
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    @Value("${terraform.process.max.concurrent.executions:20}")
+    private int maxConcurrentExecutions;
+
+    private Semaphore processAdmissionPermits;
+
+    /** Create the process admission limit. The number of processes is unlimited if not positive. */
+    @PostConstruct
+    public void initProcessAdmissionLimit() {
+        if (maxConcurrentExecutions > 0) {
+            processAdmissionPermits = new Semaphore(maxConcurrentExecutions, true);
+        }
+    }
+
     public SystemCmdResult execute(
             String cmd,
             String workspace,
             boolean isCommandOutputToBeLogged,
             Map<String, String> envVariables) {
-        return execute(cmd, 0, workspace, isCommandOutputToBeLogged, envVariables);
+        return execute(cmd, 0, workspace, isCommandOutputToBeLogged, envVariables, false);
+    }
+
+    /**
+     * Executes a long running terraform command, like plan, apply or destroy, once the process
+     * admission limit admits it.
+     *
+     * @param cmd command to be executed.
+     * @return returns SystemCmdResult object which has all the execution details.
+     */
+    public SystemCmdResult executeWithProcessAdmission(
+            String cmd,
+            String workspace,
+            boolean isCommandOutputToBeLogged,
+            Map<String, String> envVariables) {
+        return execute(cmd, 0, workspace, isCommandOutputToBeLogged, envVariables, true);
     }
 
     /**
@@ -49,10 +87,22 @@ public class SystemCmd {
             String workspace,
             boolean isCommandOutputToBeLogged,
             Map<String, String> envVariables) {
+        return execute(cmd, waitSecond, workspace, isCommandOutputToBeLogged, envVariables, false);
+    }
+
+    private SystemCmdResult execute(
+            String cmd,
+            int waitSecond,
+            String workspace,
+            boolean isCommandOutputToBeLogged,
+            Map<String, String> envVariables,
+            boolean isProcessAdmissionRequired) {
         SystemCmdResult systemCmdResult = new SystemCmdResult();
         systemCmdResult.setCommandExecuted(cmd);
         log.info("SystemCmd executing cmd: " + String.join(" ", cmd));
+        boolean isAdmitted = false;
         try {
+            isAdmitted = isProcessAdmissionRequired && acquireProcessAdmission();
             String[] safeCmd = cmd.split(" +");
             ProcessBuilder processBuilder = new ProcessBuilder(safeCmd);
             if (Objects.nonNull(envVariables) && !envVariables.isEmpty()) {
@@ -91,10 +141,28 @@ public class SystemCmd {
             systemCmdResult.setCommandSuccessful(false);
             systemCmdResult.setCommandStdError(e.getMessage());
             throw new TerraformExecutorException(e.getMessage());
+        } finally {
+            if (isAdmitted) {
+                processAdmissionPermits.release();
+            }
         }
         return systemCmdResult;
     }
 
+    private boolean acquireProcessAdmission() throws InterruptedException {
+        if (Objects.isNull(processAdmissionPermits)) {
+            return false;
+        }
+        if (!processAdmissionPermits.tryAcquire()) {
+            log.info(
+                    "SystemCmd waiting for process admission. Limit of {} concurrent processes"
+                            + " reached.",
+                    maxConcurrentExecutions);
+            processAdmissionPermits.acquire();
+        }
+        return true;
+    }
+
     private String readStream(
             BufferedReader bufferedReader,
             Map<String, String> contextMap,
@@ -136,36 +204,29 @@ public class SystemCmd {
         // the output after the buffers are fully read.
         BufferedReader stdoutReader =
                 new BufferedReader(new InputStreamReader(process.getInputStream()));
-
-        try (ExecutorService threadToReadStdout = newSingleThreadExecutor()) {
+        BufferedReader stdErrorReader =
+                new BufferedReader(new InputStreamReader(process.getErrorStream()));
+        try (ExecutorService streamReaders = newStreamReaderExecutor()) {
             Future<String> stdOutFuture =
-                    threadToReadStdout.submit(
+                    streamReaders.submit(
                             () -> readStream(stdoutReader, contextMap, isCommandOutputToBeLogged));
-
-            BufferedReader stdErrorReader =
-                    new BufferedReader(new InputStreamReader(process.getErrorStream()));
-            Future<String> stdErrFuture;
-            try (ExecutorService threadToReadStdErr = newSingleThreadExecutor()) {
-                stdErrFuture =
-                        threadToReadStdErr.submit(
-                                () ->
-                                        readStream(
-                                                stdErrorReader,
-                                                contextMap,
-                                                isCommandOutputToBeLogged));
-
-                int count = 0;
-                while (!stdOutFuture.isDone() || !stdErrFuture.isDone()) {
-                    if (count++ < 10 || count % 100000 == 0) {
-                        log.debug("Command output and error streams are still being read.");
-                    }
-                }
-
-                systemCmdResult.setCommandStdError(stdErrFuture.get());
-                systemCmdResult.setCommandStdOutput(stdOutFuture.get());
-                threadToReadStdout.shutdown();
-                threadToReadStdErr.shutdown();
-            }
+            Future<String> stdErrFuture =
+                    streamReaders.submit(
+                            () ->
+                                    readStream(
+                                            stdErrorReader,
+                                            contextMap,
+                                            isCommandOutputToBeLogged));
+            // blocks until both streams are fully read.
+            systemCmdResult.setCommandStdError(stdErrFuture.get());
+            systemCmdResult.setCommandStdOutput(stdOutFuture.get());
         }
     }
+
+    private ExecutorService newStreamReaderExecutor() {
+        // blocked stream reads do not hold a platform thread when virtual threads are enabled.
+        return virtualThreadsEnabled
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(2);
+    }
 }
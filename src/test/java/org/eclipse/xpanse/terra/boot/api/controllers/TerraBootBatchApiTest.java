@@ -0,0 +1,159 @@
+package org.eclipse.xpanse.terra.boot.api.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import org.eclipse.xpanse.terra.boot.api.config.JacksonConfig;
+import org.eclipse.xpanse.terra.boot.models.enums.BatchItemState;
+import org.eclipse.xpanse.terra.boot.models.enums.RequestType;
+import org.eclipse.xpanse.terra.boot.models.request.TerraformRequest;
+import org.eclipse.xpanse.terra.boot.models.request.scripts.TerraformAsyncRequestWithScripts;
+import org.eclipse.xpanse.terra.boot.models.request.scripts.TerraformRequestWithScripts;
+import org.eclipse.xpanse.terra.boot.models.response.TerraformBatchItemResult;
+import org.eclipse.xpanse.terra.boot.terraform.service.TerraformBatchRequestService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+class TerraBootBatchApiTest {
+
+    private static final UUID PLAN_REQUEST_ID = UUID.randomUUID();
+    private static final UUID ASYNC_REQUEST_ID = UUID.randomUUID();
+    private static final String BATCH_BODY =
+            """
+            [
+              {
+                "requestId": "%s",
+                "requestType": "plan",
+                "terraformVersion": "= 1.6.0",
+                "isPlanOnly": false,
+                "variables": {},
+                "scriptFiles": {"main.tf": ""}
+              },
+              {
+                "requestId": "%s",
+                "requestType": "deploy",
+                "terraformVersion": "= 1.6.0",
+                "isPlanOnly": false,
+                "variables": {},
+                "scriptFiles": {"main.tf": ""},
+                "webhookConfig": {"url": "http://localhost/webhook", "authType": "none"}
+              }
+            ]
+            """
+                    .formatted(PLAN_REQUEST_ID, ASYNC_REQUEST_ID);
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+    private final TerraformBatchRequestService batchRequestService =
+            mock(TerraformBatchRequestService.class);
+    private final List<TerraformBatchItemResult> results =
+            List.of(
+                    TerraformBatchItemResult.builder()
+                            .index(0)
+                            .requestId(PLAN_REQUEST_ID)
+                            .requestType(RequestType.PLAN)
+                            .state(BatchItemState.REJECTED)
+                            .errorMessage("The short lane is full.")
+                            .retryAfterSeconds(30L)
+                            .build(),
+                    TerraformBatchItemResult.builder()
+                            .index(1)
+                            .requestId(ASYNC_REQUEST_ID)
+                            .requestType(RequestType.DEPLOY)
+                            .state(BatchItemState.ACCEPTED)
+                            .build());
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        TerraBootBatchApi batchApi = new TerraBootBatchApi();
+        ReflectionTestUtils.setField(batchApi, "batchRequestService", batchRequestService);
+        ReflectionTestUtils.setField(batchApi, "objectMapper", objectMapper);
+        mockMvc =
+                MockMvcBuilders.standaloneSetup(batchApi)
+                        .setMessageConverters(new MappingJackson2HttpMessageConverter(objectMapper))
+                        .build();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBatchReturnsAllResultsAsJson() throws Exception {
+        ArgumentCaptor<List<TerraformRequest>> requests = ArgumentCaptor.forClass(List.class);
+        when(batchRequestService.processBatchRequest(requests.capture(), any()))
+                .thenReturn(CompletableFuture.completedFuture(results));
+
+        mockMvc.perform(
+                        post("/terra-boot/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .accept(MediaType.APPLICATION_JSON)
+                                .content(BATCH_BODY))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].state").value("Rejected"))
+                .andExpect(jsonPath("$[0].retryAfterSeconds").value(30))
+                .andExpect(jsonPath("$[1].requestId").value(ASYNC_REQUEST_ID.toString()))
+                .andExpect(jsonPath("$[1].state").value("Accepted"));
+
+        // each request of the batch is read as the request type its fields belong to.
+        assertInstanceOf(TerraformRequestWithScripts.class, requests.getValue().get(0));
+        assertInstanceOf(TerraformAsyncRequestWithScripts.class, requests.getValue().get(1));
+        assertEquals(RequestType.PLAN, requests.getValue().get(0).getRequestType());
+    }
+
+    @Test
+    void testBatchStreamsResultLinesInOrderOfCompletion() throws Exception {
+        when(batchRequestService.processBatchRequest(any(), any()))
+                .thenAnswer(
+                        invocation -> {
+                            Consumer<TerraformBatchItemResult> resultConsumer =
+                                    invocation.getArgument(1);
+                            resultConsumer.accept(results.get(1));
+                            resultConsumer.accept(results.get(0));
+                            return CompletableFuture.completedFuture(results);
+                        });
+
+        MvcResult mvcResult =
+                mockMvc.perform(
+                                post("/terra-boot/batch")
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .accept(MediaType.APPLICATION_NDJSON)
+                                        .content(BATCH_BODY))
+                        .andExpect(request().asyncStarted())
+                        .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", MediaType.APPLICATION_NDJSON_VALUE));
+
+        String[] lines = mvcResult.getResponse().getContentAsString().split("\n");
+        assertEquals(2, lines.length);
+        JsonNode firstLine = objectMapper.readTree(lines[0]);
+        JsonNode secondLine = objectMapper.readTree(lines[1]);
+        assertEquals(1, firstLine.get("index").asInt());
+        assertEquals("Accepted", firstLine.get("state").asText());
+        assertEquals(0, secondLine.get("index").asInt());
+        assertEquals(30, secondLine.get("retryAfterSeconds").asInt());
+    }
+}
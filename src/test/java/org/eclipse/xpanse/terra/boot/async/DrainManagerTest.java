@@ -0,0 +1,181 @@
+package org.eclipse.xpanse.terra.boot.async;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.eclipse.xpanse.terra.boot.models.enums.DrainState;
+import org.eclipse.xpanse.terra.boot.models.exceptions.TerraBootDrainingException;
+import org.eclipse.xpanse.terra.boot.models.response.DrainStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class DrainManagerTest {
+
+    private final DrainManager drainManager = new DrainManager();
+    private final ApplicationContext applicationContext = mock(ApplicationContext.class);
+    private final RabbitListenerEndpointRegistry listenerRegistry =
+            mock(RabbitListenerEndpointRegistry.class);
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ObjectProvider<RabbitListenerEndpointRegistry> listenerRegistryProvider =
+                mock(ObjectProvider.class);
+        when(listenerRegistryProvider.getIfAvailable()).thenReturn(listenerRegistry);
+        when(applicationContext.getBeanProvider(RabbitListenerEndpointRegistry.class))
+                .thenReturn(listenerRegistryProvider);
+        ReflectionTestUtils.setField(drainManager, "drainDeadlineSeconds", 60L);
+        ReflectionTestUtils.setField(drainManager, "applicationContext", applicationContext);
+    }
+
+    @Test
+    void testWorkIsCountedWhileActive() {
+        drainManager.admitWork();
+        drainManager.admitWork();
+        assertTrue(drainManager.startAcceptedTask(true));
+        drainManager.admitDelivery();
+
+        DrainStatus status = drainManager.getDrainStatus();
+        assertEquals(DrainState.ACTIVE, status.getState());
+        assertNull(status.getTrigger());
+        assertNull(status.getDeadlineTime());
+        assertEquals(3, status.getRunningWork());
+        assertEquals(0, status.getDeferredTasks());
+        assertEquals(1, status.getPendingDeliveries());
+
+        drainManager.finishWork();
+        drainManager.finishWork();
+        drainManager.finishDelivery();
+
+        status = drainManager.getDrainStatus();
+        assertEquals(1, status.getRunningWork());
+        assertEquals(0, status.getPendingDeliveries());
+    }
+
+    @Test
+    void testNewWorkIsRejectedWhileDraining() {
+        drainManager.admitWork();
+
+        DrainStatus status = drainManager.startDrainInBackground(DrainManager.API_TRIGGER);
+
+        assertEquals(DrainState.DRAINING, status.getState());
+        assertEquals(DrainManager.API_TRIGGER, status.getTrigger());
+        assertNotNull(status.getStartedTime());
+        assertNotNull(status.getDeadlineTime());
+        assertThrows(TerraBootDrainingException.class, drainManager::admitWork);
+        assertThrows(TerraBootDrainingException.class, drainManager::checkAcceptingWork);
+        // queued tasks which are kept in the journal are deferred, the others still run.
+        assertFalse(drainManager.startAcceptedTask(true));
+        assertTrue(drainManager.startAcceptedTask(false));
+        // results of the running work are still delivered.
+        drainManager.admitDelivery();
+
+        status = drainManager.getDrainStatus();
+        assertEquals(2, status.getRunningWork());
+        assertEquals(1, status.getDeferredTasks());
+        assertEquals(1, status.getPendingDeliveries());
+        ArgumentCaptor<ApplicationEvent> event = ArgumentCaptor.forClass(ApplicationEvent.class);
+        verify(applicationContext).publishEvent(event.capture());
+        assertEquals(
+                ReadinessState.REFUSING_TRAFFIC,
+                ((AvailabilityChangeEvent<?>) event.getValue()).getState());
+        verify(listenerRegistry).stop(any(Runnable.class));
+    }
+
+    @Test
+    void testDrainIsStartedOnce() {
+        drainManager.admitWork();
+        drainManager.startDrainInBackground(DrainManager.API_TRIGGER);
+
+        DrainStatus status = drainManager.startDrainInBackground(DrainManager.SHUTDOWN_TRIGGER);
+
+        assertEquals(DrainState.DRAINING, status.getState());
+        assertEquals(DrainManager.API_TRIGGER, status.getTrigger());
+        verify(listenerRegistry, times(1)).stop(any(Runnable.class));
+    }
+
+    @Test
+    void testDrainedWhenWorkAndDeliveriesFinish() throws Exception {
+        drainManager.admitWork();
+        drainManager.admitDelivery();
+        drainManager.startDrainInBackground(DrainManager.API_TRIGGER);
+
+        drainManager.finishWork();
+        Thread.sleep(100);
+        assertEquals(DrainState.DRAINING, drainManager.getDrainStatus().getState());
+
+        drainManager.finishDelivery();
+        awaitState(DrainState.DRAINED);
+    }
+
+    @Test
+    void testDrainDeadlineExceeded() throws Exception {
+        ReflectionTestUtils.setField(drainManager, "drainDeadlineSeconds", 1L);
+        drainManager.admitWork();
+
+        drainManager.startDrainInBackground(DrainManager.API_TRIGGER);
+
+        Thread.sleep(500);
+        assertEquals(DrainState.DRAINING, drainManager.getDrainStatus().getState());
+        awaitState(DrainState.DEADLINE_EXCEEDED);
+        assertEquals(1, drainManager.getDrainStatus().getRunningWork());
+    }
+
+    @Test
+    void testShutdownWaitsForRunningWork() {
+        drainManager.admitWork();
+        Thread.ofPlatform()
+                .start(
+                        () -> {
+                            try {
+                                Thread.sleep(200);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                            drainManager.finishWork();
+                        });
+
+        drainManager.onApplicationEvent(new ContextClosedEvent(applicationContext));
+
+        DrainStatus status = drainManager.getDrainStatus();
+        assertEquals(DrainState.DRAINED, status.getState());
+        assertEquals(DrainManager.SHUTDOWN_TRIGGER, status.getTrigger());
+        assertEquals(0, status.getRunningWork());
+    }
+
+    @Test
+    void testClosedChildContextIsIgnored() {
+        drainManager.onApplicationEvent(new ContextClosedEvent(mock(ApplicationContext.class)));
+
+        assertEquals(DrainState.ACTIVE, drainManager.getDrainStatus().getState());
+        verify(listenerRegistry, never()).stop(any(Runnable.class));
+    }
+
+    private void awaitState(DrainState state) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (drainManager.getDrainStatus().getState() != state
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(state, drainManager.getDrainStatus().getState());
+    }
+}
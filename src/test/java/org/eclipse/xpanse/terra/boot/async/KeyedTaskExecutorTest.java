@@ -0,0 +1,128 @@
+package org.eclipse.xpanse.terra.boot.async;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.xpanse.terra.boot.async.KeyedTaskExecutor.KeyedTask;
+import org.eclipse.xpanse.terra.boot.models.exceptions.TaskLaneOverloadedException;
+import org.junit.jupiter.api.Test;
+
+class KeyedTaskExecutorTest {
+
+    private final Deque<Runnable> submittedTasks = new ArrayDeque<>();
+    private final List<String> events = new ArrayList<>();
+
+    @Test
+    void testTasksOfSameKeyRunInOrder() {
+        KeyedTaskExecutor executor = new KeyedTaskExecutor(submittedTasks::add, false);
+        executor.execute(task("A", "deploy", false, false));
+        executor.execute(task("A", "modify", true, true));
+        executor.execute(task("B", "deploy-b", false, false));
+        // only the first task of each key is submitted.
+        assertEquals(2, submittedTasks.size());
+        runSubmittedTasks();
+        assertEquals(List.of("run deploy", "run deploy-b", "run modify"), events);
+        assertEquals(0, executor.getActiveKeys());
+    }
+
+    @Test
+    void testWaitingTasksAreSuperseded() {
+        KeyedTaskExecutor executor = new KeyedTaskExecutor(submittedTasks::add, true);
+        executor.execute(task("A", "deploy", false, false));
+        executor.execute(task("A", "modify-1", true, true));
+        executor.execute(task("A", "modify-2", true, true));
+        executor.execute(task("A", "destroy", false, true));
+        runSubmittedTasks();
+        assertEquals(
+                List.of("discard modify-1", "discard modify-2", "run deploy", "run destroy"),
+                events);
+    }
+
+    @Test
+    void testRejectedFirstTaskIsThrown() {
+        KeyedTaskExecutor executor =
+                new KeyedTaskExecutor(
+                        task -> {
+                            throw new RejectedExecutionException("full");
+                        },
+                        true);
+        assertThrows(
+                RejectedExecutionException.class,
+                () -> executor.execute(task("A", "deploy", false, false)));
+        assertEquals(0, executor.getActiveKeys());
+    }
+
+    @Test
+    void testWaitingTaskRejectedByFullDelegateIsRetried() throws Exception {
+        List<Runnable> submissions = new ArrayList<>();
+        ScheduledExecutorService retryScheduler = Executors.newSingleThreadScheduledExecutor();
+        KeyedTaskExecutor executor =
+                new KeyedTaskExecutor(
+                        task -> {
+                            if (submissions.size() == 1) {
+                                submissions.add(task);
+                                throw new TaskLaneOverloadedException("full", 0);
+                            }
+                            submissions.add(task);
+                            submittedTasks.add(task);
+                        },
+                        true,
+                        retryScheduler);
+        executor.execute(task("A", "deploy", false, false));
+        executor.execute(task("A", "modify", true, true));
+        submittedTasks.poll().run();
+        // the modify is rejected once and submitted again by the retry scheduler.
+        retryScheduler.shutdown();
+        retryScheduler.awaitTermination(10, TimeUnit.SECONDS);
+        assertEquals(3, submissions.size());
+        runSubmittedTasks();
+        assertEquals(List.of("run deploy", "run modify"), events);
+        assertEquals(0, executor.getActiveKeys());
+    }
+
+    @Test
+    void testWaitingTasksRejectedByShutDownDelegateAreDeferred() {
+        KeyedTaskExecutor executor =
+                new KeyedTaskExecutor(
+                        task -> {
+                            if (!submittedTasks.isEmpty() || !events.isEmpty()) {
+                                throw new RejectedExecutionException("shut down");
+                            }
+                            submittedTasks.add(task);
+                        },
+                        false);
+        executor.execute(task("A", "deploy", false, false));
+        executor.execute(task("A", "modify", true, true));
+        executor.execute(task("A", "destroy", false, true));
+        runSubmittedTasks();
+        // rejected waiting tasks are neither run nor discarded.
+        assertEquals(List.of("run deploy", "defer modify", "defer destroy"), events);
+        assertEquals(0, executor.getActiveKeys());
+    }
+
+    private KeyedTask task(
+            String key, String taskId, boolean isSupersedable, boolean supersedesWaitingTasks) {
+        return new KeyedTask(
+                key,
+                taskId,
+                () -> events.add("run " + taskId),
+                isSupersedable,
+                supersedesWaitingTasks,
+                reason -> events.add("discard " + taskId),
+                () -> events.add("defer " + taskId));
+    }
+
+    private void runSubmittedTasks() {
+        while (!submittedTasks.isEmpty()) {
+            submittedTasks.poll().run();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package org.eclipse.xpanse.terra.boot.async;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import org.eclipse.xpanse.terra.boot.async.TaskJournal.TaskJournalEntry;
+import org.eclipse.xpanse.terra.boot.async.TaskJournal.TaskJournalState;
+import org.eclipse.xpanse.terra.boot.models.exceptions.TaskJournalException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class TaskJournalTest {
+
+    @TempDir private Path journalDirectory;
+
+    @Test
+    void testUnfinishedTasksAreRecoveredAfterRestart() throws Exception {
+        TaskJournal journal = openJournal(16);
+        journal.accepted("task-1", Map.of("scriptsDirectory", "/tmp/task-1"));
+        journal.accepted("task-2", Map.of("scriptsDirectory", "/tmp/task-2"));
+        journal.accepted("task-3", Map.of("scriptsDirectory", "/tmp/task-3"));
+        journal.started("task-2");
+        journal.started("task-3");
+        journal.completed("task-3");
+        journal.closeJournal();
+
+        List<TaskJournalEntry> recoveredEntries = openJournal(16).getRecoveredEntries();
+
+        assertEquals(2, recoveredEntries.size());
+        assertEquals("task-1", recoveredEntries.get(0).taskId());
+        assertEquals(TaskJournalState.ACCEPTED, recoveredEntries.get(0).state());
+        // the started task keeps the payload it was accepted with.
+        assertEquals("task-2", recoveredEntries.get(1).taskId());
+        assertEquals(TaskJournalState.STARTED, recoveredEntries.get(1).state());
+        assertEquals(
+                "/tmp/task-2", recoveredEntries.get(1).payload().get("scriptsDirectory").asText());
+    }
+
+    @Test
+    void testInvalidLastLineIsSkipped() throws Exception {
+        TaskJournal journal = openJournal(16);
+        journal.accepted("task-1", Map.of("scriptsDirectory", "/tmp/task-1"));
+        journal.closeJournal();
+        // the process stopped while the last line was written.
+        Files.writeString(
+                getJournalFile(), "{\"taskId\":\"task-2\",\"sta", StandardOpenOption.APPEND);
+
+        List<TaskJournalEntry> recoveredEntries = openJournal(16).getRecoveredEntries();
+
+        assertEquals(1, recoveredEntries.size());
+        assertEquals("task-1", recoveredEntries.getFirst().taskId());
+    }
+
+    @Test
+    void testJournalIsCompactedToUnfinishedTasks() throws Exception {
+        // the journal is rewritten after each batch when the threshold is zero.
+        TaskJournal journal = openJournal(0);
+        for (int i = 0; i < 10; i++) {
+            journal.accepted("task-" + i, Map.of("scriptsDirectory", "/tmp/task-" + i));
+            journal.started("task-" + i);
+            journal.completed("task-" + i);
+        }
+        journal.accepted("task-10", Map.of("scriptsDirectory", "/tmp/task-10"));
+        journal.closeJournal();
+
+        List<String> lines = Files.readAllLines(getJournalFile());
+
+        assertEquals(1, lines.size());
+        assertTrue(lines.getFirst().contains("task-10"));
+    }
+
+    @Test
+    void testAcceptedTaskIsRejectedWhenNotSynced() throws Exception {
+        TaskJournal journal = openJournal(16);
+        ((FileChannel) ReflectionTestUtils.getField(journal, "journalChannel")).close();
+
+        assertThrows(
+                TaskJournalException.class,
+                () -> journal.accepted("task-1", Map.of("scriptsDirectory", "/tmp/task-1")));
+        journal.closeJournal();
+        // the rejected task is completed, it must not be executed after the restart.
+        assertTrue(openJournal(16).getRecoveredEntries().isEmpty());
+    }
+
+    @Test
+    void testDisabledJournalRecordsNothing() throws Exception {
+        TaskJournal journal = new TaskJournal();
+        ReflectionTestUtils.setField(journal, "journalEnabled", false);
+        journal.openJournal();
+
+        journal.accepted("task-1", Map.of("scriptsDirectory", "/tmp/task-1"));
+
+        assertTrue(journal.getRecoveredEntries().isEmpty());
+        assertTrue(Files.notExists(getJournalFile()));
+    }
+
+    private TaskJournal openJournal(long compactionThresholdMb) throws Exception {
+        TaskJournal journal = new TaskJournal();
+        ReflectionTestUtils.setField(journal, "journalEnabled", true);
+        ReflectionTestUtils.setField(journal, "journalDirectoryPath", journalDirectory.toString());
+        ReflectionTestUtils.setField(journal, "compactionThresholdMb", compactionThresholdMb);
+        journal.openJournal();
+        return journal;
+    }
+
+    private Path getJournalFile() {
+        return journalDirectory.resolve("journal.log");
+    }
+}
@@ -0,0 +1,118 @@
+package org.eclipse.xpanse.terra.boot.async;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.eclipse.xpanse.terra.boot.models.enums.RequestType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+class TaskLaneMetricsDecoratorTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TaskLaneMetricsDecorator laneMetrics =
+            new TaskLaneMetricsDecorator(TaskLane.LONG, meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    void testOccupancyOfLaneIsRecorded() {
+        AtomicReference<Double> activeWhileRunning = new AtomicReference<>();
+        Runnable task = laneMetrics.decorate(() -> activeWhileRunning.set(getGauge("active")));
+        Runnable waitingTask = laneMetrics.decorate(() -> {});
+
+        assertEquals(2, laneMetrics.getQueuedTasks());
+        assertEquals(2.0, getGauge("queued"));
+        task.run();
+
+        assertEquals(1.0, activeWhileRunning.get());
+        assertEquals(0.0, getGauge("active"));
+        assertEquals(1, laneMetrics.getQueuedTasks());
+        assertEquals(
+                1,
+                meterRegistry
+                        .get("terra.boot.task.lane.queue.wait")
+                        .tag("lane", "long")
+                        .timer()
+                        .count());
+        waitingTask.run();
+        assertEquals(0, laneMetrics.getQueuedTasks());
+    }
+
+    @Test
+    void testRejectedTaskIsCounted() {
+        laneMetrics.decorate(() -> {});
+
+        laneMetrics.taskRejected();
+
+        assertEquals(0, laneMetrics.getQueuedTasks());
+        assertEquals(
+                1.0,
+                meterRegistry
+                        .get("terra.boot.task.lane.rejected")
+                        .tag("lane", "long")
+                        .counter()
+                        .count());
+    }
+
+    @Test
+    void testAverageExecutionTimeIsSmoothed() {
+        assertEquals(0, laneMetrics.getAverageExecutionNanos());
+
+        laneMetrics.decorate(() -> sleep(100)).run();
+        long firstAverage = laneMetrics.getAverageExecutionNanos();
+        assertTrue(firstAverage >= TimeUnit.MILLISECONDS.toNanos(100));
+
+        // a quick task only moves the average by a fifth of the difference.
+        laneMetrics.decorate(() -> {}).run();
+        long secondAverage = laneMetrics.getAverageExecutionNanos();
+        assertTrue(secondAverage < firstAverage);
+        assertTrue(secondAverage >= firstAverage * 0.79);
+    }
+
+    @Test
+    void testMdcOfSubmittingThreadIsCopied() throws Exception {
+        MDC.put("TASK_ID", "task-1");
+        AtomicReference<String> taskId = new AtomicReference<>();
+        Runnable task = laneMetrics.decorate(() -> taskId.set(MDC.get("TASK_ID")));
+
+        CompletableFuture.runAsync(task).get(5, TimeUnit.SECONDS);
+
+        assertEquals("task-1", taskId.get());
+    }
+
+    @Test
+    void testLaneOfRequest() {
+        assertEquals(TaskLane.SHORT, TaskLane.of(RequestType.VALIDATE, null));
+        assertEquals(TaskLane.SHORT, TaskLane.of(RequestType.PLAN, false));
+        assertEquals(TaskLane.SHORT, TaskLane.of(RequestType.DEPLOY, true));
+        assertEquals(TaskLane.LONG, TaskLane.of(RequestType.DEPLOY, false));
+        assertEquals(TaskLane.LONG, TaskLane.of(RequestType.MODIFY, null));
+        assertEquals(TaskLane.LONG, TaskLane.of(RequestType.DESTROY, true));
+    }
+
+    private double getGauge(String name) {
+        return meterRegistry
+                .get("terra.boot.task.lane." + name)
+                .tag("lane", "long")
+                .gauge()
+                .value();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
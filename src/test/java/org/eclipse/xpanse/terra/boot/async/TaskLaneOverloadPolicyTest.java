@@ -0,0 +1,115 @@
+package org.eclipse.xpanse.terra.boot.async;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.eclipse.xpanse.terra.boot.models.exceptions.TaskLaneOverloadedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+class TaskLaneOverloadPolicyTest {
+
+    private final TaskLaneMetricsDecorator laneMetrics = mock(TaskLaneMetricsDecorator.class);
+    private final ThreadPoolExecutor executor =
+            new ThreadPoolExecutor(4, 4, 0, TimeUnit.SECONDS, new ArrayBlockingQueue<>(1));
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testRetryAfterIsEstimatedFromQueueAndThroughput() {
+        // 20 waiting tasks of 60 seconds run by 4 workers take 300 seconds to start.
+        long retryAfterSeconds = rejectTask(20, TimeUnit.SECONDS.toNanos(60), 600);
+
+        assertEquals(300, retryAfterSeconds);
+        verify(laneMetrics).taskRejected();
+    }
+
+    @Test
+    void testRetryAfterIsClampedToMaximum() {
+        assertEquals(600, rejectTask(200, TimeUnit.MINUTES.toNanos(30), 600));
+    }
+
+    @Test
+    void testRetryAfterIsAtLeastOneSecond() {
+        // no task has finished yet, so the throughput of the lane is unknown.
+        assertEquals(1, rejectTask(20, 0, 600));
+        assertEquals(1, rejectTask(1, TimeUnit.MILLISECONDS.toNanos(100), 600));
+        // a maximum below one second is raised to one second.
+        assertEquals(1, rejectTask(200, TimeUnit.MINUTES.toNanos(30), 0));
+    }
+
+    @Test
+    void testFullLaneRejectsTaskInsteadOfRunningItOnCaller() {
+        TaskLaneMetricsDecorator metrics =
+                new TaskLaneMetricsDecorator(TaskLane.SHORT, new SimpleMeterRegistry());
+        ThreadPoolTaskExecutor laneExecutor = new ThreadPoolTaskExecutor();
+        laneExecutor.setCorePoolSize(1);
+        laneExecutor.setMaxPoolSize(1);
+        laneExecutor.setQueueCapacity(1);
+        laneExecutor.setTaskDecorator(metrics);
+        laneExecutor.setRejectedExecutionHandler(
+                new TaskLaneOverloadPolicy(TaskLane.SHORT, metrics, 600));
+        laneExecutor.initialize();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            laneExecutor.execute(
+                    () -> {
+                        started.countDown();
+                        await(release);
+                    });
+            await(started);
+            laneExecutor.execute(() -> {});
+            AtomicBoolean rejectedTaskRun = new AtomicBoolean();
+            TaskLaneOverloadedException e =
+                    assertThrows(
+                            TaskLaneOverloadedException.class,
+                            () -> laneExecutor.execute(() -> rejectedTaskRun.set(true)));
+
+            assertFalse(rejectedTaskRun.get());
+            assertEquals(1, e.getRetryAfterSeconds());
+            assertTrue(e.getMessage().contains("in the short lane"));
+            // the rejected task is no longer counted as waiting.
+            assertEquals(1, metrics.getQueuedTasks());
+        } finally {
+            release.countDown();
+            laneExecutor.shutdown();
+        }
+    }
+
+    private long rejectTask(int queuedTasks, long averageExecutionNanos, long maxRetryAfter) {
+        when(laneMetrics.getQueuedTasks()).thenReturn(queuedTasks);
+        when(laneMetrics.getAverageExecutionNanos()).thenReturn(averageExecutionNanos);
+        TaskLaneOverloadPolicy policy =
+                new TaskLaneOverloadPolicy(TaskLane.LONG, laneMetrics, maxRetryAfter);
+        TaskLaneOverloadedException e =
+                assertThrows(
+                        TaskLaneOverloadedException.class,
+                        () -> policy.rejectedExecution(() -> {}, executor));
+        assertTrue(e.getMessage().contains("Retry after " + e.getRetryAfterSeconds()));
+        return e.getRetryAfterSeconds();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.eclipse.xpanse.terra.boot.async;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.UUID;
+import org.eclipse.xpanse.terra.boot.models.enums.RequestType;
+import org.eclipse.xpanse.terra.boot.models.enums.TaskState;
+import org.eclipse.xpanse.terra.boot.models.response.TaskStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class TaskRegistryTest {
+
+    private final TaskRegistry taskRegistry = new TaskRegistry();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(taskRegistry, "historySize", 2);
+    }
+
+    @Test
+    void testQueuePositionAndPhaseOfTasks() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        taskRegistry.queued(first, RequestType.DEPLOY, TaskLane.LONG);
+        taskRegistry.queued(second, RequestType.MODIFY, TaskLane.LONG);
+        taskRegistry.queued(third, RequestType.DESTROY, TaskLane.LONG);
+        assertEquals(3L, taskRegistry.getTaskStatus(third).getQueuePosition());
+
+        taskRegistry.started(first);
+        taskRegistry.enterPhase("apply");
+        TaskStatus running = taskRegistry.getTaskStatus(first);
+        assertEquals(TaskState.RUNNING, running.getState());
+        assertEquals("apply", running.getPhase());
+        assertNull(running.getQueuePosition());
+        assertNotNull(running.getElapsedMillis());
+        assertEquals(2L, taskRegistry.getTaskStatus(third).getQueuePosition());
+
+        // a queued task which is rejected leaves the queue as well.
+        taskRegistry.finished(second, false);
+        assertEquals(1L, taskRegistry.getTaskStatus(third).getQueuePosition());
+        assertEquals(TaskState.FAILED, taskRegistry.getTaskStatus(second).getState());
+    }
+
+    @Test
+    void testDeferredTaskLeavesQueueButStaysInFlight() {
+        UUID deferred = UUID.randomUUID();
+        UUID queued = UUID.randomUUID();
+        taskRegistry.queued(deferred, RequestType.DEPLOY, TaskLane.LONG);
+        taskRegistry.queued(queued, RequestType.DEPLOY, TaskLane.LONG);
+
+        taskRegistry.deferred(deferred);
+
+        TaskStatus status = taskRegistry.getTaskStatus(deferred);
+        assertEquals(TaskState.DEFERRED, status.getState());
+        assertNull(status.getQueuePosition());
+        assertTrue(taskRegistry.isInFlight(deferred));
+        assertEquals(1L, taskRegistry.getTaskStatus(queued).getQueuePosition());
+    }
+
+    @Test
+    void testCompletedTasksAreKeptInBoundedHistory() {
+        UUID[] requestIds = {UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()};
+        for (UUID requestId : requestIds) {
+            taskRegistry.queued(requestId, RequestType.DEPLOY, TaskLane.SHORT);
+            taskRegistry.started(requestId);
+            taskRegistry.finished(requestId, true);
+            assertFalse(taskRegistry.isInFlight(requestId));
+        }
+        assertEquals(TaskState.UNKNOWN, taskRegistry.getTaskStatus(requestIds[0]).getState());
+        assertEquals(TaskState.SUCCESSFUL, taskRegistry.getTaskStatus(requestIds[2]).getState());
+        // the phase is only recorded for the task of the current thread.
+        taskRegistry.enterPhase("plan");
+        assertNull(taskRegistry.getTaskStatus(requestIds[2]).getPhase());
+    }
+}
@@ -0,0 +1,115 @@
+package org.eclipse.xpanse.terra.boot.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class WebhookHostConcurrencyLimiterTest {
+
+    private static final URI WEBHOOK = URI.create("https://xpanse.example.com/webhook/results");
+
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private WebhookHostConcurrencyLimiter limiter =
+            new WebhookHostConcurrencyLimiter(2, Duration.ofMillis(200), meterRegistry);
+
+    @Test
+    void testConnectionsPerHostAreLimited() throws IOException {
+        limiter.acquire(WEBHOOK);
+        limiter.acquire(URI.create("https://xpanse.example.com/webhook/other"));
+
+        IOException e = assertThrows(IOException.class, () -> limiter.acquire(WEBHOOK));
+
+        assertEquals(
+                "All 2 connections to webhook host https://xpanse.example.com:443 are busy.",
+                e.getMessage());
+        assertEquals(2.0, getGauge("active"));
+        assertEquals(0.0, getGauge("pending"));
+        assertEquals(
+                1.0, meterRegistry.get("terra.boot.webhook.client.rejected").counter().count());
+        assertEquals(3, meterRegistry.get("terra.boot.webhook.client.wait").timer().count());
+    }
+
+    @Test
+    void testHostsAreLimitedSeparately() throws IOException {
+        limiter.acquire(WEBHOOK);
+        limiter.acquire(WEBHOOK);
+
+        limiter.acquire(URI.create("https://other.example.com/webhook"));
+        limiter.acquire(URI.create("http://xpanse.example.com/webhook"));
+
+        assertEquals(4.0, getGauge("active"));
+        assertEquals(3.0, getGauge("hosts"));
+    }
+
+    @Test
+    void testDefaultPortIsPartOfHost() throws IOException {
+        limiter.acquire(URI.create("https://xpanse.example.com/webhook"));
+        limiter.acquire(URI.create("HTTPS://xpanse.example.com:443/webhook"));
+
+        // the url with the explicit default port targets the same host.
+        assertThrows(
+                IOException.class,
+                () -> limiter.acquire(URI.create("https://xpanse.example.com:443/webhook")));
+        assertEquals(1.0, getGauge("hosts"));
+    }
+
+    @Test
+    void testReleasedConnectionIsGivenToWaitingRequest() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new WebhookHostConcurrencyLimiter(1, Duration.ofSeconds(10), meterRegistry);
+        limiter.acquire(WEBHOOK);
+        CompletableFuture<Void> waitingRequest =
+                CompletableFuture.runAsync(
+                        () -> {
+                            try {
+                                limiter.acquire(WEBHOOK);
+                            } catch (IOException e) {
+                                throw new IllegalStateException(e);
+                            }
+                        });
+        waitForPendingRequest();
+        assertFalse(waitingRequest.isDone());
+
+        limiter.release(WEBHOOK);
+
+        waitingRequest.get(5, TimeUnit.SECONDS);
+        assertEquals(1.0, getGauge("active"));
+        assertEquals(0.0, getGauge("pending"));
+    }
+
+    @Test
+    void testInterruptedWaitFails() throws IOException {
+        limiter.acquire(WEBHOOK);
+        limiter.acquire(WEBHOOK);
+
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(InterruptedIOException.class, () -> limiter.acquire(WEBHOOK));
+            assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    private void waitForPendingRequest() throws InterruptedException {
+        for (int i = 0; i < 100 && getGauge("pending") == 0; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(1.0, getGauge("pending"));
+    }
+
+    private double getGauge(String name) {
+        return meterRegistry.get("terra.boot.webhook.client." + name).gauge().value();
+    }
+}
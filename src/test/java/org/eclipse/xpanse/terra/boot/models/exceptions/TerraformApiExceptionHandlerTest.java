@@ -0,0 +1,46 @@
+package org.eclipse.xpanse.terra.boot.models.exceptions;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+class TerraformApiExceptionHandlerTest {
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc =
+                MockMvcBuilders.standaloneSetup(new OverloadedApi())
+                        .setControllerAdvice(new TerraformApiExceptionHandler())
+                        .build();
+    }
+
+    @Test
+    void testOverloadedLaneIsMappedToTooManyRequests() throws Exception {
+        mockMvc.perform(post("/overloaded/lane"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "42"))
+                .andExpect(jsonPath("$.resultType").value("Too Many Requests"))
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.details[0]").value("The long lane is full."));
+    }
+
+    @RestController
+    static class OverloadedApi {
+
+        @PostMapping("/overloaded/lane")
+        void submitToFullLane() {
+            throw new TaskLaneOverloadedException("The long lane is full.", 42L);
+        }
+    }
+}
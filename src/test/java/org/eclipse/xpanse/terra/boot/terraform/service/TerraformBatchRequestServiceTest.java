@@ -0,0 +1,226 @@
+package org.eclipse.xpanse.terra.boot.terraform.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import org.eclipse.xpanse.terra.boot.models.enums.BatchItemState;
+import org.eclipse.xpanse.terra.boot.models.enums.RequestType;
+import org.eclipse.xpanse.terra.boot.models.exceptions.TaskLaneOverloadedException;
+import org.eclipse.xpanse.terra.boot.models.exceptions.TerraBootDrainingException;
+import org.eclipse.xpanse.terra.boot.models.request.TerraformRequest;
+import org.eclipse.xpanse.terra.boot.models.request.scripts.TerraformAsyncRequestWithScripts;
+import org.eclipse.xpanse.terra.boot.models.request.scripts.TerraformRequestWithScripts;
+import org.eclipse.xpanse.terra.boot.models.response.TerraformBatchItemResult;
+import org.eclipse.xpanse.terra.boot.models.response.TerraformPlan;
+import org.eclipse.xpanse.terra.boot.models.response.TerraformResult;
+import org.eclipse.xpanse.terra.boot.models.response.validation.TerraformValidationResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class TerraformBatchRequestServiceTest {
+
+    private static final Executor OVERLOADED_EXECUTOR =
+            task -> {
+                throw new TaskLaneOverloadedException("The long lane is full.", 30L);
+            };
+
+    private final TerraformBatchRequestService batchRequestService =
+            new TerraformBatchRequestService();
+    private final TerraformRequestService requestService = mock(TerraformRequestService.class);
+    private final List<TerraformBatchItemResult> publishedResults =
+            Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(batchRequestService, "maxBatchRequests", 5);
+        ReflectionTestUtils.setField(batchRequestService, "requestService", requestService);
+        setLaneExecutors(Runnable::run, Runnable::run);
+    }
+
+    @Test
+    void testRequestsAreCompletedInOrder() {
+        TerraformValidationResult validationResult = new TerraformValidationResult();
+        TerraformPlan plan = TerraformPlan.builder().plan("{}").build();
+        TerraformResult deploymentResult =
+                TerraformResult.builder().isCommandSuccessful(true).build();
+        when(requestService.handleTerraformValidateRequest(any())).thenReturn(validationResult);
+        when(requestService.handleTerraformPlanRequest(any())).thenReturn(plan);
+        when(requestService.handleTerraformDeploymentRequest(any())).thenReturn(deploymentResult);
+        List<TerraformRequest> requests =
+                List.of(
+                        buildRequest(RequestType.VALIDATE),
+                        buildRequest(RequestType.PLAN),
+                        buildRequest(RequestType.DEPLOY));
+
+        List<TerraformBatchItemResult> results = processBatch(requests);
+
+        assertEquals(3, results.size());
+        for (int index = 0; index < results.size(); index++) {
+            assertEquals(index, results.get(index).getIndex());
+            assertEquals(requests.get(index).getRequestId(), results.get(index).getRequestId());
+            assertEquals(BatchItemState.COMPLETED, results.get(index).getState());
+        }
+        assertSame(validationResult, results.get(0).getValidationResult());
+        assertSame(plan, results.get(1).getPlan());
+        assertSame(deploymentResult, results.get(2).getDeploymentResult());
+        assertEquals(3, publishedResults.size());
+    }
+
+    @Test
+    void testDuplicateRequestIdIsRejected() {
+        TerraformRequest first = buildRequest(RequestType.PLAN);
+        TerraformRequest duplicate = buildRequest(RequestType.PLAN);
+        duplicate.setRequestId(first.getRequestId());
+        when(requestService.handleTerraformPlanRequest(any())).thenReturn(new TerraformPlan());
+
+        List<TerraformBatchItemResult> results = processBatch(List.of(first, duplicate));
+
+        assertEquals(BatchItemState.COMPLETED, results.get(0).getState());
+        assertEquals(BatchItemState.REJECTED, results.get(1).getState());
+        assertEquals(first.getRequestId(), results.get(1).getRequestId());
+        assertTrue(results.get(1).getErrorMessage().contains("is used by another request"));
+        verify(requestService, times(1)).handleTerraformPlanRequest(any());
+    }
+
+    @Test
+    void testRequestWithoutTypeIsRejected() {
+        TerraformRequest request = buildRequest(null);
+
+        List<TerraformBatchItemResult> results = processBatch(List.of(request));
+
+        assertEquals(BatchItemState.REJECTED, results.getFirst().getState());
+        assertEquals("Request id and request type are required.", results.get(0).getErrorMessage());
+    }
+
+    @Test
+    void testRequestOfOverloadedLaneIsRejectedWithRetryAfter() {
+        setLaneExecutors(Runnable::run, OVERLOADED_EXECUTOR);
+        when(requestService.handleTerraformPlanRequest(any())).thenReturn(new TerraformPlan());
+
+        List<TerraformBatchItemResult> results =
+                processBatch(
+                        List.of(buildRequest(RequestType.DEPLOY), buildRequest(RequestType.PLAN)));
+
+        assertEquals(BatchItemState.REJECTED, results.get(0).getState());
+        assertEquals(30L, results.get(0).getRetryAfterSeconds());
+        assertEquals("The long lane is full.", results.get(0).getErrorMessage());
+        // a request rejected by its full lane does not affect the requests of the other lane.
+        assertEquals(BatchItemState.COMPLETED, results.get(1).getState());
+        assertNull(results.get(1).getRetryAfterSeconds());
+    }
+
+    @Test
+    void testFailedRequestDoesNotAffectOtherRequests() {
+        when(requestService.handleTerraformDeploymentRequest(any()))
+                .thenThrow(new IllegalStateException("terraform crashed"))
+                .thenReturn(new TerraformResult());
+
+        List<TerraformRequest> requests =
+                List.of(buildRequest(RequestType.DEPLOY), buildRequest(RequestType.DEPLOY));
+
+        List<TerraformBatchItemResult> results = processBatch(requests);
+
+        assertEquals(BatchItemState.FAILED, results.get(0).getState());
+        assertEquals("terraform crashed", results.get(0).getErrorMessage());
+        assertEquals(BatchItemState.COMPLETED, results.get(1).getState());
+    }
+
+    @Test
+    void testAsyncRequestsAreAdmitted() {
+        TerraformRequest accepted = buildAsyncRequest();
+        TerraformRequest overloaded = buildAsyncRequest();
+        TerraformRequest draining = buildAsyncRequest();
+        doThrow(new TaskLaneOverloadedException("The long lane is full.", 12L))
+                .when(requestService)
+                .processAsyncDeploymentRequest(overloaded);
+        doThrow(new TerraBootDrainingException("terra-boot is draining."))
+                .when(requestService)
+                .processAsyncDeploymentRequest(draining);
+        // async requests are only admitted by the calling thread, the lanes are not used.
+        setLaneExecutors(OVERLOADED_EXECUTOR, OVERLOADED_EXECUTOR);
+
+        List<TerraformBatchItemResult> results =
+                processBatch(List.of(accepted, overloaded, draining));
+
+        assertEquals(BatchItemState.ACCEPTED, results.get(0).getState());
+        assertNull(results.get(0).getDeploymentResult());
+        assertEquals(BatchItemState.REJECTED, results.get(1).getState());
+        assertEquals(12L, results.get(1).getRetryAfterSeconds());
+        assertEquals(BatchItemState.REJECTED, results.get(2).getState());
+        assertEquals("terra-boot is draining.", results.get(2).getErrorMessage());
+        verify(requestService).processAsyncDeploymentRequest(accepted);
+    }
+
+    @Test
+    void testFailingResultConsumerDoesNotAffectResults() {
+        when(requestService.handleTerraformPlanRequest(any())).thenReturn(new TerraformPlan());
+
+        List<TerraformBatchItemResult> results =
+                batchRequestService
+                        .processBatchRequest(
+                                List.of(buildRequest(RequestType.PLAN)),
+                                result -> {
+                                    throw new IllegalStateException("client disconnected");
+                                })
+                        .join();
+
+        assertEquals(BatchItemState.COMPLETED, results.getFirst().getState());
+    }
+
+    @Test
+    void testEmptyOrTooLargeBatchIsRefused() {
+        List<TerraformRequest> tooLarge = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            tooLarge.add(buildRequest(RequestType.PLAN));
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> processBatch(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> processBatch(tooLarge));
+    }
+
+    private List<TerraformBatchItemResult> processBatch(List<TerraformRequest> requests) {
+        return batchRequestService.processBatchRequest(requests, publishedResults::add).join();
+    }
+
+    private void setLaneExecutors(Executor shortLaneExecutor, Executor longLaneExecutor) {
+        ReflectionTestUtils.setField(batchRequestService, "shortLaneExecutor", shortLaneExecutor);
+        ReflectionTestUtils.setField(batchRequestService, "longLaneExecutor", longLaneExecutor);
+    }
+
+    private TerraformRequest buildRequest(RequestType requestType) {
+        TerraformRequestWithScripts request = new TerraformRequestWithScripts();
+        fillRequest(request, requestType);
+        return request;
+    }
+
+    private TerraformRequest buildAsyncRequest() {
+        TerraformAsyncRequestWithScripts request = new TerraformAsyncRequestWithScripts();
+        fillRequest(request, RequestType.DEPLOY);
+        return request;
+    }
+
+    private void fillRequest(TerraformRequestWithScripts request, RequestType requestType) {
+        request.setRequestId(UUID.randomUUID());
+        request.setRequestType(requestType);
+        request.setTerraformVersion("= 1.6.0");
+        request.setIsPlanOnly(false);
+        request.setVariables(new HashMap<>());
+        request.setScriptFiles(new HashMap<>());
+    }
+}
@@ -0,0 +1,273 @@
+package org.eclipse.xpanse.terra.boot.terraform.service;
+
+import static org.eclipse.xpanse.terra.boot.logging.CustomRequestIdGenerator.REQUEST_ID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.xpanse.terra.boot.async.DrainManager;
+import org.eclipse.xpanse.terra.boot.models.enums.BatchItemState;
+import org.eclipse.xpanse.terra.boot.models.enums.RequestType;
+import org.eclipse.xpanse.terra.boot.models.exceptions.InvalidTerraformRequestException;
+import org.eclipse.xpanse.terra.boot.models.exceptions.TaskLaneOverloadedException;
+import org.eclipse.xpanse.terra.boot.models.exceptions.TerraformExecutorException;
+import org.eclipse.xpanse.terra.boot.models.request.directory.TerraformRequestWithScriptsDirectory;
+import org.eclipse.xpanse.terra.boot.models.request.scripts.TerraformFleetMember;
+import org.eclipse.xpanse.terra.boot.models.request.scripts.TerraformFleetRequestWithScripts;
+import org.eclipse.xpanse.terra.boot.models.response.TerraformFleetResult;
+import org.eclipse.xpanse.terra.boot.models.response.TerraformResult;
+import org.eclipse.xpanse.terra.boot.terraform.TerraformExecutor;
+import org.eclipse.xpanse.terra.boot.terraform.tool.TerraformInstaller;
+import org.eclipse.xpanse.terra.boot.terraform.tool.TerraformVersionsHelper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.MDC;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class TerraformFleetRequestServiceTest {
+
+    private static final String EXECUTOR_PATH = "/opt/terraform/terraform-1.6.0";
+
+    @TempDir Path moduleParentDirectory;
+
+    private final TerraformFleetRequestService fleetRequestService =
+            new TerraformFleetRequestService();
+    private final TerraformScriptsDirectoryHelper scriptsHelper =
+            new TerraformScriptsDirectoryHelper();
+    private final TerraformScriptsDirectoryService directoryService =
+            mock(TerraformScriptsDirectoryService.class);
+    private final TerraformExecutor executor = mock(TerraformExecutor.class);
+    private final DrainManager drainManager = new DrainManager();
+    private final Map<UUID, String> memberRequestIdsInMdc = new ConcurrentHashMap<>();
+    private final Map<UUID, String> memberStates = new ConcurrentHashMap<>();
+    private ExecutorService workerPool;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(
+                scriptsHelper, "moduleParentDirectoryPath", moduleParentDirectory.toString());
+        ReflectionTestUtils.setField(scriptsHelper, "cleanWorkspaceAfterDeployment", true);
+        TerraformInstaller installer = mock(TerraformInstaller.class);
+        when(installer.getExecutorPathThatMatchesRequiredVersion(anyString()))
+                .thenReturn(EXECUTOR_PATH);
+        TerraformVersionsHelper versionsHelper = mock(TerraformVersionsHelper.class);
+        when(versionsHelper.getExactVersionOfExecutor(EXECUTOR_PATH)).thenReturn("1.6.0");
+        when(directoryService.deployWithScriptsDirectory(any()))
+                .thenAnswer(invocation -> executeMember(invocation.getArgument(0)));
+        when(directoryService.destroyWithScriptsDirectory(any()))
+                .thenAnswer(invocation -> executeMember(invocation.getArgument(0)));
+        workerPool = Executors.newFixedThreadPool(2);
+        ReflectionTestUtils.setField(fleetRequestService, "maxFleetMembers", 10);
+        ReflectionTestUtils.setField(fleetRequestService, "maxFleetParallelism", 4);
+        ReflectionTestUtils.setField(
+                fleetRequestService, "terraformScriptsDirectoryService", directoryService);
+        ReflectionTestUtils.setField(fleetRequestService, "scriptsDirectoryHelper", scriptsHelper);
+        ReflectionTestUtils.setField(fleetRequestService, "executor", executor);
+        ReflectionTestUtils.setField(fleetRequestService, "installer", installer);
+        ReflectionTestUtils.setField(fleetRequestService, "versionHelper", versionsHelper);
+        ReflectionTestUtils.setField(fleetRequestService, "drainManager", drainManager);
+        ReflectionTestUtils.setField(fleetRequestService, "shortLaneExecutor", workerPool);
+        ReflectionTestUtils.setField(fleetRequestService, "longLaneExecutor", workerPool);
+    }
+
+    @AfterEach
+    void tearDown() {
+        workerPool.shutdownNow();
+        MDC.clear();
+    }
+
+    @Test
+    void testMembersRunInClonesOfInitializedWorkspace() throws Exception {
+        TerraformFleetRequestWithScripts request =
+                buildFleetRequest(RequestType.DEPLOY, "{\"serial\":1}", null, "{\"serial\":3}");
+
+        TerraformFleetResult result = fleetRequestService.handleTerraformFleetRequest(request);
+
+        assertEquals(request.getRequestId(), result.getRequestId());
+        assertEquals("1.6.0", result.getTerraformVersionUsed());
+        assertNull(result.getInitErrorMessage());
+        assertEquals(3, result.getMemberResults().size());
+        for (int index = 0; index < 3; index++) {
+            TerraformFleetMember member = request.getMembers().get(index);
+            assertEquals(index, result.getMemberResults().get(index).getIndex());
+            assertEquals(BatchItemState.COMPLETED, result.getMemberResults().get(index).getState());
+            // each member logs with its own request id.
+            assertEquals(
+                    member.getRequestId().toString(),
+                    memberRequestIdsInMdc.get(member.getRequestId()));
+            assertEquals(
+                    String.valueOf(member.getTfState()), memberStates.get(member.getRequestId()));
+        }
+        // the scripts are initialized once for all members.
+        verify(executor, times(1)).tfInit(anyString(), anyString());
+        assertFalse(Files.exists(moduleParentDirectory.resolve(request.getRequestId().toString())));
+        assertEquals(request.getRequestId().toString(), MDC.get(REQUEST_ID));
+        assertEquals(0, drainManager.getDrainStatus().getRunningWork());
+    }
+
+    @Test
+    void testRequestIdOfMemberIsRemovedFromPooledThread() throws Exception {
+        TerraformFleetRequestWithScripts request =
+                buildFleetRequest(RequestType.DEPLOY, null, null, null, null);
+
+        fleetRequestService.handleTerraformFleetRequest(request);
+
+        for (int i = 0; i < 4; i++) {
+            assertNull(workerPool.submit(() -> MDC.get(REQUEST_ID)).get());
+        }
+    }
+
+    @Test
+    void testMemberWithoutStateIsRejected() {
+        TerraformFleetRequestWithScripts request =
+                buildFleetRequest(RequestType.DESTROY, "{\"serial\":1}", null);
+
+        TerraformFleetResult result = fleetRequestService.handleTerraformFleetRequest(request);
+
+        assertEquals(BatchItemState.COMPLETED, result.getMemberResults().get(0).getState());
+        assertEquals(BatchItemState.REJECTED, result.getMemberResults().get(1).getState());
+        assertEquals(
+                "Terraform state is required for request with order type DESTROY.",
+                result.getMemberResults().get(1).getErrorMessage());
+        verify(directoryService, times(1)).destroyWithScriptsDirectory(any());
+    }
+
+    @Test
+    void testInitFailureFailsAllMembers() {
+        TerraformExecutorException initError =
+                new TerraformExecutorException("Provider registry not reachable.");
+        doThrow(initError).when(executor).tfInit(anyString(), anyString());
+        TerraformFleetRequestWithScripts request =
+                buildFleetRequest(RequestType.DEPLOY, null, null);
+
+        TerraformFleetResult result = fleetRequestService.handleTerraformFleetRequest(request);
+
+        assertEquals(initError.getMessage(), result.getInitErrorMessage());
+        assertNull(result.getTerraformVersionUsed());
+        assertEquals(2, result.getMemberResults().size());
+        result.getMemberResults()
+                .forEach(
+                        memberResult -> {
+                            assertEquals(BatchItemState.FAILED, memberResult.getState());
+                            assertEquals(initError.getMessage(), memberResult.getErrorMessage());
+                        });
+        verify(directoryService, never()).deployWithScriptsDirectory(any());
+        assertFalse(Files.exists(moduleParentDirectory.resolve(request.getRequestId().toString())));
+        assertEquals(0, drainManager.getDrainStatus().getRunningWork());
+    }
+
+    @Test
+    void testFleetRunsWithFewerWorkersWhenLaneIsFull() {
+        AtomicInteger startedWorkers = new AtomicInteger();
+        Executor laneWithRoomForOneWorker =
+                worker -> {
+                    if (startedWorkers.incrementAndGet() > 1) {
+                        throw new TaskLaneOverloadedException("The long lane is full.", 5);
+                    }
+                    workerPool.execute(worker);
+                };
+        ReflectionTestUtils.setField(
+                fleetRequestService, "longLaneExecutor", laneWithRoomForOneWorker);
+        TerraformFleetRequestWithScripts request =
+                buildFleetRequest(RequestType.DEPLOY, null, null, null);
+
+        TerraformFleetResult result = fleetRequestService.handleTerraformFleetRequest(request);
+
+        assertEquals(2, startedWorkers.get());
+        assertEquals(3, result.getMemberResults().size());
+        result.getMemberResults()
+                .forEach(
+                        memberResult ->
+                                assertEquals(BatchItemState.COMPLETED, memberResult.getState()));
+    }
+
+    @Test
+    void testFleetIsRejectedWhenLaneHasNoRoom() {
+        Executor fullLane =
+                worker -> {
+                    throw new TaskLaneOverloadedException("The long lane is full.", 5);
+                };
+        ReflectionTestUtils.setField(fleetRequestService, "longLaneExecutor", fullLane);
+        TerraformFleetRequestWithScripts request =
+                buildFleetRequest(RequestType.DEPLOY, null, null);
+
+        assertThrows(
+                TaskLaneOverloadedException.class,
+                () -> fleetRequestService.handleTerraformFleetRequest(request));
+
+        assertFalse(Files.exists(moduleParentDirectory.resolve(request.getRequestId().toString())));
+        assertEquals(0, drainManager.getDrainStatus().getRunningWork());
+    }
+
+    @Test
+    void testMembersWithSameRequestIdAreRefused() {
+        TerraformFleetRequestWithScripts request =
+                buildFleetRequest(RequestType.DEPLOY, null, null);
+        request.getMembers().get(1).setRequestId(request.getMembers().get(0).getRequestId());
+
+        assertThrows(
+                InvalidTerraformRequestException.class,
+                () -> fleetRequestService.handleTerraformFleetRequest(request));
+        verify(executor, never()).tfInit(anyString(), anyString());
+    }
+
+    private TerraformResult executeMember(TerraformRequestWithScriptsDirectory memberRequest)
+            throws Exception {
+        assertTrue(memberRequest.isWorkspaceInitialized());
+        Path memberWorkspace = Path.of(memberRequest.getScriptsDirectory());
+        assertTrue(Files.exists(memberWorkspace.resolve("main.tf")));
+        Path stateFile = memberWorkspace.resolve("terraform.tfstate");
+        memberStates.put(
+                memberRequest.getRequestId(),
+                Files.exists(stateFile) ? Files.readString(stateFile) : "null");
+        memberRequestIdsInMdc.put(memberRequest.getRequestId(), MDC.get(REQUEST_ID));
+        return TerraformResult.builder()
+                .requestId(memberRequest.getRequestId())
+                .isCommandSuccessful(true)
+                .build();
+    }
+
+    private TerraformFleetRequestWithScripts buildFleetRequest(
+            RequestType requestType, String... memberStates) {
+        TerraformFleetRequestWithScripts request = new TerraformFleetRequestWithScripts();
+        request.setRequestId(UUID.randomUUID());
+        request.setRequestType(requestType);
+        request.setTerraformVersion("= 1.6.0");
+        request.setIsPlanOnly(false);
+        request.setScriptFiles(Map.of("main.tf", "resource \"null_resource\" \"a\" {}"));
+        List<TerraformFleetMember> members = new ArrayList<>();
+        for (String memberState : memberStates) {
+            TerraformFleetMember member = new TerraformFleetMember();
+            member.setRequestId(UUID.randomUUID());
+            member.setVariables(new HashMap<>());
+            member.setTfState(memberState);
+            members.add(member);
+        }
+        request.setMembers(members);
+        return request;
+    }
+}
@@ -0,0 +1,294 @@
+package org.eclipse.xpanse.terra.boot.terraform.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.xpanse.terra.boot.async.DrainManager;
+import org.eclipse.xpanse.terra.boot.async.TaskJournal;
+import org.eclipse.xpanse.terra.boot.config.WebhookStreamingClient;
+import org.eclipse.xpanse.terra.boot.models.response.TerraformResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+class TerraformResultOutboxTest {
+
+    private static final String WEBHOOK_URL = "http://localhost:8080/webhook";
+
+    @TempDir Path outboxDirectory;
+
+    private final TerraformResultOutbox outbox = new TerraformResultOutbox();
+    private final StubWebhookStreamingClient webhookClient = new StubWebhookStreamingClient();
+    private final TerraformResultPersistenceManage persistenceManage =
+            mock(TerraformResultPersistenceManage.class);
+    private final WebhookCircuitBreaker circuitBreaker = new WebhookCircuitBreaker();
+    private final DrainManager drainManager = new DrainManager();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ReflectionTestUtils.setField(circuitBreaker, "failureThreshold", 5);
+        ReflectionTestUtils.setField(circuitBreaker, "openDurationMillis", 60000L);
+        ReflectionTestUtils.setField(circuitBreaker, "meterRegistry", meterRegistry);
+        circuitBreaker.registerMetrics();
+        ReflectionTestUtils.setField(outbox, "outboxDirectoryPath", outboxDirectory.toString());
+        ReflectionTestUtils.setField(outbox, "workers", 2);
+        ReflectionTestUtils.setField(outbox, "maxAttempts", 3);
+        ReflectionTestUtils.setField(outbox, "initialBackoffMillis", 1L);
+        ReflectionTestUtils.setField(outbox, "maxBackoffMillis", 10L);
+        ReflectionTestUtils.setField(outbox, "retryBudgetPerMinute", 100);
+        ReflectionTestUtils.setField(outbox, "maxWaitMillis", 60000L);
+        ReflectionTestUtils.setField(outbox, "webhookStreamingClient", webhookClient);
+        ReflectionTestUtils.setField(outbox, "terraformResultPersistenceManage", persistenceManage);
+        ReflectionTestUtils.setField(outbox, "webhookCircuitBreaker", circuitBreaker);
+        ReflectionTestUtils.setField(outbox, "taskJournal", mock(TaskJournal.class));
+        ReflectionTestUtils.setField(outbox, "drainManager", drainManager);
+        ReflectionTestUtils.setField(outbox, "meterRegistry", meterRegistry);
+        outbox.openOutbox();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        outbox.closeOutbox();
+    }
+
+    @Test
+    void testResultIsStreamedToWebhook() throws Exception {
+        TerraformResult result = buildResult("deployed");
+
+        outbox.deliver(WEBHOOK_URL, result);
+        awaitDelivered(result.getRequestId());
+
+        assertEquals(1, webhookClient.bodies.size());
+        assertTrue(webhookClient.bodies.getFirst().contains("deployed"));
+        assertEquals(
+                webhookClient.bodies.getFirst().getBytes(StandardCharsets.UTF_8).length,
+                webhookClient.contentLengths.getFirst());
+        assertOutboxIsEmpty();
+        verify(persistenceManage, never()).persistTerraformResult(any());
+    }
+
+    @Test
+    void testFirstResultOfRequestWins() throws Exception {
+        webhookClient.blockDeliveries();
+        TerraformResult firstResult = buildResult("first");
+        TerraformResult laterResult = buildResult("later");
+        laterResult.setRequestId(firstResult.getRequestId());
+
+        outbox.deliver(WEBHOOK_URL, firstResult);
+        outbox.deliver(WEBHOOK_URL, laterResult);
+        webhookClient.releaseDeliveries();
+        awaitDelivered(firstResult.getRequestId());
+
+        assertEquals(1, webhookClient.bodies.size());
+        assertTrue(webhookClient.bodies.getFirst().contains("first"));
+        assertOutboxIsEmpty();
+    }
+
+    @Test
+    void testRejectedResultIsStoredWithoutRetry() throws Exception {
+        webhookClient.failWith(new HttpClientErrorException(HttpStatus.BAD_REQUEST));
+        TerraformResult result = buildResult("rejected");
+
+        outbox.deliver(WEBHOOK_URL, result);
+        awaitDelivered(result.getRequestId());
+
+        assertEquals(1, webhookClient.bodies.size());
+        assertStored(result);
+    }
+
+    @Test
+    void testThrottledResultIsRetried() throws Exception {
+        webhookClient.failWith(
+                new HttpClientErrorException(HttpStatus.REQUEST_TIMEOUT),
+                new HttpClientErrorException(HttpStatus.TOO_MANY_REQUESTS));
+        TerraformResult result = buildResult("throttled");
+
+        outbox.deliver(WEBHOOK_URL, result);
+        awaitDelivered(result.getRequestId());
+
+        assertEquals(3, webhookClient.bodies.size());
+        verify(persistenceManage, never()).persistTerraformResult(any());
+        assertEquals(2, meterRegistry.counter("terra.boot.webhook.outbox.retried").count());
+    }
+
+    @Test
+    void testResultIsStoredWhenRetriesAreExhausted() throws Exception {
+        ResourceAccessException error = new ResourceAccessException("Connection refused");
+        webhookClient.failWith(error, error, error);
+        TerraformResult result = buildResult("unreachable");
+
+        outbox.deliver(WEBHOOK_URL, result);
+        awaitDelivered(result.getRequestId());
+
+        assertEquals(3, webhookClient.bodies.size());
+        assertStored(result);
+        assertEquals(1, meterRegistry.counter("terra.boot.webhook.outbox.exhausted").count());
+    }
+
+    @Test
+    void testOpenCircuitHoldsResultUntilMaxWaitTime() throws Exception {
+        ReflectionTestUtils.setField(outbox, "maxWaitMillis", 200L);
+        ReflectionTestUtils.setField(circuitBreaker, "failureThreshold", 1);
+        circuitBreaker.tryAcquire(WEBHOOK_URL);
+        circuitBreaker.onFailure(WEBHOOK_URL, new ResourceAccessException("Connection refused"));
+        TerraformResult result = buildResult("held");
+
+        outbox.deliver(WEBHOOK_URL, result);
+        awaitDelivered(result.getRequestId());
+
+        // no connection is attempted while the circuit is open.
+        assertTrue(webhookClient.bodies.isEmpty());
+        assertStored(result);
+    }
+
+    @Test
+    void testLeftoverResultsAreDeliveredAfterRestart() throws Exception {
+        TerraformResult result = buildResult("leftover");
+        Path leftoverFile = writeLeftoverFile(result);
+        Path unreadableFile = Files.writeString(outboxDirectory.resolve("unknown.json"), "{}");
+
+        outbox.onApplicationEvent(mock(ApplicationStartedEvent.class));
+        awaitDelivered(result.getRequestId());
+
+        assertEquals(1, webhookClient.bodies.size());
+        assertTrue(webhookClient.bodies.getFirst().contains("leftover"));
+        assertFalse(Files.exists(leftoverFile));
+        assertFalse(Files.exists(unreadableFile));
+    }
+
+    @Test
+    void testLaterResultOfLeftoverRequestIsDropped() throws Exception {
+        TerraformResult leftoverResult = buildResult("leftover");
+        writeLeftoverFile(leftoverResult);
+        TerraformResult laterResult = buildResult("later");
+        laterResult.setRequestId(leftoverResult.getRequestId());
+
+        outbox.deliver(WEBHOOK_URL, laterResult);
+
+        // the dropped result is no pending delivery, the drain does not wait for it.
+        assertFalse(outbox.isPending(laterResult.getRequestId()));
+        assertEquals(0, drainManager.getDrainStatus().getPendingDeliveries());
+        outbox.onApplicationEvent(mock(ApplicationStartedEvent.class));
+        awaitDelivered(leftoverResult.getRequestId());
+        assertEquals(1, webhookClient.bodies.size());
+        assertTrue(webhookClient.bodies.getFirst().contains("leftover"));
+    }
+
+    private TerraformResult buildResult(String stdOutput) {
+        TerraformResult result =
+                TerraformResult.builder()
+                        .commandStdOutput(stdOutput)
+                        .isCommandSuccessful(true)
+                        .generatedFileContentMap(new HashMap<>())
+                        .build();
+        result.setRequestId(UUID.randomUUID());
+        return result;
+    }
+
+    private Path writeLeftoverFile(TerraformResult result) throws IOException {
+        // the url is the first line, the rest of the file is the body of the request.
+        String body =
+                "{\"requestId\":\""
+                        + result.getRequestId()
+                        + "\",\"commandStdOutput\":\""
+                        + result.getCommandStdOutput()
+                        + "\"}";
+        return Files.writeString(
+                outboxDirectory.resolve(result.getRequestId() + ".json"),
+                WEBHOOK_URL + "\n" + body);
+    }
+
+    private void awaitDelivered(UUID requestId) throws InterruptedException {
+        for (int i = 0; i < 100 && outbox.isPending(requestId); i++) {
+            Thread.sleep(50);
+        }
+        assertFalse(outbox.isPending(requestId));
+        assertEquals(0, drainManager.getDrainStatus().getPendingDeliveries());
+    }
+
+    private void assertStored(TerraformResult result) {
+        ArgumentCaptor<TerraformResult> storedResult =
+                ArgumentCaptor.forClass(TerraformResult.class);
+        verify(persistenceManage, times(1)).persistTerraformResult(storedResult.capture());
+        assertEquals(result.getRequestId(), storedResult.getValue().getRequestId());
+        assertEquals(result.getCommandStdOutput(), storedResult.getValue().getCommandStdOutput());
+        assertOutboxIsEmpty();
+    }
+
+    private void assertOutboxIsEmpty() {
+        assertEquals(0, outboxDirectory.toFile().list().length);
+    }
+
+    /** Records the streamed bodies and fails with the given errors one after another. */
+    private static class StubWebhookStreamingClient extends WebhookStreamingClient {
+
+        private final List<String> bodies = Collections.synchronizedList(new ArrayList<>());
+        private final List<Long> contentLengths = Collections.synchronizedList(new ArrayList<>());
+        private final List<RuntimeException> errors =
+                Collections.synchronizedList(new ArrayList<>());
+        private volatile CountDownLatch released = new CountDownLatch(0);
+
+        private StubWebhookStreamingClient() {
+            super(null, null, null);
+        }
+
+        @Override
+        public void postJson(String url, InputStreamSource body, long contentLength) {
+            try {
+                released.await(10, TimeUnit.SECONDS);
+                try (InputStream inputStream = body.getInputStream()) {
+                    bodies.add(new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+                }
+            } catch (IOException e) {
+                throw new ResourceAccessException(e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ResourceAccessException(e.getMessage());
+            }
+            contentLengths.add(contentLength);
+            if (!errors.isEmpty()) {
+                throw errors.removeFirst();
+            }
+        }
+
+        private void failWith(RuntimeException... failures) {
+            errors.addAll(List.of(failures));
+        }
+
+        private void blockDeliveries() {
+            released = new CountDownLatch(1);
+        }
+
+        private void releaseDeliveries() {
+            released.countDown();
+        }
+    }
+}
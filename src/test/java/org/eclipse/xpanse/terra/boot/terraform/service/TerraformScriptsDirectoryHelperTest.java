@@ -0,0 +1,94 @@
+package org.eclipse.xpanse.terra.boot.terraform.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.eclipse.xpanse.terra.boot.models.exceptions.TerraformExecutorException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TerraformScriptsDirectoryHelperTest {
+
+    private static final String SCRIPT = "resource \"null_resource\" \"a\" {}";
+
+    @TempDir Path tempDir;
+
+    private final TerraformScriptsDirectoryHelper scriptsHelper =
+            new TerraformScriptsDirectoryHelper();
+    private Path sourceWorkspace;
+    private Path providerFile;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        sourceWorkspace = Files.createDirectories(tempDir.resolve("fleet"));
+        Files.writeString(sourceWorkspace.resolve("main.tf"), SCRIPT);
+        Files.writeString(sourceWorkspace.resolve(".terraform.lock.hcl"), "provider {}");
+        Files.writeString(sourceWorkspace.resolve("terraform.tfstate"), "{\"serial\":1}");
+        Path providerDirectory =
+                Files.createDirectories(
+                        sourceWorkspace.resolve(".terraform/providers/hashicorp/null"));
+        providerFile = Files.writeString(providerDirectory.resolve("provider"), "binary");
+        Path pluginCache = Files.createDirectories(tempDir.resolve("plugin-cache/random"));
+        Files.createSymbolicLink(
+                sourceWorkspace.resolve(".terraform/providers/hashicorp/random"), pluginCache);
+    }
+
+    @Test
+    void testCloneInitializedWorkspace() throws Exception {
+        Path memberWorkspace = Files.createDirectories(tempDir.resolve("member"));
+
+        List<File> files =
+                scriptsHelper.cloneInitializedWorkspace(
+                        sourceWorkspace.toString(), memberWorkspace.toString(), "{\"serial\":7}");
+
+        Set<String> fileNames = files.stream().map(File::getName).collect(Collectors.toSet());
+        assertEquals(Set.of("main.tf", ".terraform.lock.hcl", "terraform.tfstate"), fileNames);
+        // the state of the member is written, the state of the initialized workspace not cloned.
+        assertEquals(
+                "{\"serial\":7}", Files.readString(memberWorkspace.resolve("terraform.tfstate")));
+        // providers are hard linked, the links into the plugin cache are kept.
+        Path clonedProvider =
+                memberWorkspace.resolve(".terraform/providers/hashicorp/null/provider");
+        assertTrue(Files.isSameFile(providerFile, clonedProvider));
+        Path clonedCacheLink = memberWorkspace.resolve(".terraform/providers/hashicorp/random");
+        assertTrue(Files.isSymbolicLink(clonedCacheLink));
+        assertEquals(
+                tempDir.resolve("plugin-cache/random"), Files.readSymbolicLink(clonedCacheLink));
+        // scripts are copied, so a member never changes the scripts of another member.
+        Files.writeString(memberWorkspace.resolve("main.tf"), "changed");
+        assertEquals(SCRIPT, Files.readString(sourceWorkspace.resolve("main.tf")));
+    }
+
+    @Test
+    void testCloneInitializedWorkspaceWithoutState() throws Exception {
+        Path memberWorkspace = Files.createDirectories(tempDir.resolve("member"));
+
+        List<File> files =
+                scriptsHelper.cloneInitializedWorkspace(
+                        sourceWorkspace.toString(), memberWorkspace.toString(), null);
+
+        assertEquals(2, files.size());
+        assertFalse(Files.exists(memberWorkspace.resolve("terraform.tfstate")));
+    }
+
+    @Test
+    void testCloneIntoUsedWorkspaceFails() throws Exception {
+        Path memberWorkspace = Files.createDirectories(tempDir.resolve("member"));
+        Files.writeString(memberWorkspace.resolve("main.tf"), "left by another task");
+
+        assertThrows(
+                TerraformExecutorException.class,
+                () ->
+                        scriptsHelper.cloneInitializedWorkspace(
+                                sourceWorkspace.toString(), memberWorkspace.toString(), null));
+    }
+}
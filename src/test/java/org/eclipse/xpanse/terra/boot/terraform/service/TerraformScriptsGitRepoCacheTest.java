@@ -0,0 +1,138 @@
+package org.eclipse.xpanse.terra.boot.terraform.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.xpanse.terra.boot.models.request.git.TerraformScriptsGitRepoDetails;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.retry.context.RetryContextSupport;
+import org.springframework.retry.support.RetrySynchronizationManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class TerraformScriptsGitRepoCacheTest {
+
+    @TempDir Path tempDir;
+
+    private final TerraformScriptsGitRepoHelper gitRepoHelper = new TerraformScriptsGitRepoHelper();
+    private final TerraformScriptsGitRepoCache gitRepoCache = new TerraformScriptsGitRepoCache();
+    private Path sourceRepo;
+    private Path cacheDirectory;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ReflectionTestUtils.setField(gitRepoHelper, "shallowCloneEnabled", false);
+        ReflectionTestUtils.setField(gitRepoHelper, "sparseCheckoutEnabled", true);
+        sourceRepo = tempDir.resolve("source");
+        Files.createDirectories(sourceRepo.resolve("scripts"));
+        Files.createDirectories(sourceRepo.resolve("modules/network"));
+        Files.writeString(
+                sourceRepo.resolve("scripts/main.tf"),
+                "module \"network\" {\n  source = \"../modules/network\"\n}\n");
+        Files.writeString(sourceRepo.resolve("modules/network/main.tf"), "# network");
+        try (Git git =
+                Git.init().setDirectory(sourceRepo.toFile()).setInitialBranch("main").call()) {
+            git.add().addFilepattern(".").call();
+            git.commit().setMessage("init").setSign(false).call();
+        }
+        ReflectionTestUtils.setField(gitRepoCache, "cacheDirectoryPath", tempDir.toString());
+        ReflectionTestUtils.setField(gitRepoCache, "maxCacheEntries", 1L);
+        ReflectionTestUtils.setField(gitRepoCache, "terraformScriptsGitRepoHelper", gitRepoHelper);
+        ReflectionTestUtils.setField(gitRepoCache, "meterRegistry", new SimpleMeterRegistry());
+        gitRepoCache.initialize();
+        cacheDirectory = tempDir.resolve("terra-boot-git-cache");
+        // checkoutScripts logs the retry count of the enclosing retry.
+        RetrySynchronizationManager.register(new RetryContextSupport(null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RetrySynchronizationManager.clear();
+    }
+
+    @Test
+    void testRequestsForSameCommitShareOneTree() throws Exception {
+        gitRepoCache.checkoutScripts(
+                tempDir.resolve("workspace-1").toString(), getScriptsRepo("scripts"));
+        gitRepoCache.checkoutScripts(
+                tempDir.resolve("workspace-2").toString(), getScriptsRepo("scripts"));
+
+        assertEquals(1, listCachedTrees().size());
+        assertTrue(Files.exists(tempDir.resolve("workspace-2/scripts/main.tf")));
+        assertTrue(Files.exists(tempDir.resolve("workspace-2/modules/network/main.tf")));
+    }
+
+    @Test
+    void testCheckoutAfterEvictionIsNotDeletedByEvictedTree() throws Exception {
+        gitRepoCache.checkoutScripts(
+                tempDir.resolve("workspace-1").toString(), getScriptsRepo("scripts"));
+        Path evictedTree = listCachedTrees().getFirst();
+
+        // the evicted tree is deleted in the background while the same key is checked out again.
+        getScriptTreeCache().synchronous().invalidateAll();
+        gitRepoCache.checkoutScripts(
+                tempDir.resolve("workspace-2").toString(), getScriptsRepo("scripts"));
+        awaitDeleted(evictedTree);
+
+        List<Path> cachedTrees = listCachedTrees();
+        assertEquals(1, cachedTrees.size());
+        assertNotEquals(evictedTree, cachedTrees.getFirst());
+        assertTrue(Files.exists(cachedTrees.getFirst().resolve("scripts/main.tf")));
+        assertTrue(Files.exists(tempDir.resolve("workspace-2/scripts/main.tf")));
+        gitRepoCache.checkoutScripts(
+                tempDir.resolve("workspace-3").toString(), getScriptsRepo("scripts"));
+        assertTrue(Files.exists(tempDir.resolve("workspace-3/modules/network/main.tf")));
+    }
+
+    @Test
+    void testTreesAboveMaxEntriesAreEvicted() throws Exception {
+        gitRepoCache.checkoutScripts(
+                tempDir.resolve("workspace-1").toString(), getScriptsRepo("scripts"));
+        Path evictedTree = listCachedTrees().getFirst();
+        gitRepoCache.checkoutScripts(
+                tempDir.resolve("workspace-2").toString(), getScriptsRepo("modules/network"));
+        getScriptTreeCache().synchronous().cleanUp();
+        awaitDeleted(evictedTree);
+
+        assertEquals(1, listCachedTrees().size());
+        // the workspace keeps its hard links to the files of the evicted tree.
+        assertTrue(Files.exists(tempDir.resolve("workspace-1/scripts/main.tf")));
+    }
+
+    @SuppressWarnings("unchecked")
+    private AsyncCache<String, Path> getScriptTreeCache() {
+        return (AsyncCache<String, Path>)
+                ReflectionTestUtils.getField(gitRepoCache, "scriptTreeCache");
+    }
+
+    private List<Path> listCachedTrees() throws Exception {
+        try (Stream<Path> trees = Files.list(cacheDirectory)) {
+            return trees.toList();
+        }
+    }
+
+    private void awaitDeleted(Path tree) throws InterruptedException {
+        for (int i = 0; i < 100 && Files.exists(tree); i++) {
+            Thread.sleep(100);
+        }
+        assertTrue(Files.notExists(tree));
+    }
+
+    private TerraformScriptsGitRepoDetails getScriptsRepo(String scriptPath) {
+        TerraformScriptsGitRepoDetails scriptsRepo = new TerraformScriptsGitRepoDetails();
+        scriptsRepo.setRepoUrl(sourceRepo.toUri().toString());
+        scriptsRepo.setBranch("main");
+        scriptsRepo.setScriptPath(scriptPath);
+        return scriptsRepo;
+    }
+}
@@ -0,0 +1,107 @@
+package org.eclipse.xpanse.terra.boot.terraform.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.xpanse.terra.boot.models.request.git.TerraformScriptsGitRepoDetails;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.retry.context.RetryContextSupport;
+import org.springframework.retry.support.RetrySynchronizationManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class TerraformScriptsGitRepoHelperTest {
+
+    @TempDir Path tempDir;
+
+    private final TerraformScriptsGitRepoHelper gitRepoHelper = new TerraformScriptsGitRepoHelper();
+    private Path sourceRepo;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ReflectionTestUtils.setField(gitRepoHelper, "shallowCloneEnabled", false);
+        ReflectionTestUtils.setField(gitRepoHelper, "sparseCheckoutEnabled", true);
+        sourceRepo = tempDir.resolve("source");
+        Files.createDirectories(sourceRepo.resolve("scripts"));
+        Files.createDirectories(sourceRepo.resolve("modules/network"));
+        Files.createDirectories(sourceRepo.resolve("unused"));
+        Files.writeString(sourceRepo.resolve("main.tf"), "# root");
+        Files.writeString(
+                sourceRepo.resolve("scripts/main.tf"),
+                "module \"network\" {\n  source = \"../modules/network\"\n}\n");
+        Files.writeString(sourceRepo.resolve("modules/network/main.tf"), "# network");
+        Files.writeString(sourceRepo.resolve("unused/main.tf"), "# unused");
+        try (Git git =
+                Git.init().setDirectory(sourceRepo.toFile()).setInitialBranch("main").call()) {
+            git.add().addFilepattern(".").call();
+            git.commit().setMessage("init").setSign(false).call();
+        }
+        // checkoutScripts logs the retry count of the enclosing retry.
+        RetrySynchronizationManager.register(new RetryContextSupport(null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RetrySynchronizationManager.clear();
+    }
+
+    @Test
+    void testGetSparseCheckoutPath() {
+        File workspace = tempDir.resolve("workspace").toFile();
+        assertEquals("scripts", gitRepoHelper.getSparseCheckoutPath(workspace, "scripts"));
+        assertEquals("scripts", gitRepoHelper.getSparseCheckoutPath(workspace, "/scripts/"));
+        assertEquals("scripts", gitRepoHelper.getSparseCheckoutPath(workspace, "./scripts"));
+        assertEquals("a/scripts", gitRepoHelper.getSparseCheckoutPath(workspace, "a/b/../scripts"));
+        assertNull(gitRepoHelper.getSparseCheckoutPath(workspace, null));
+        assertNull(gitRepoHelper.getSparseCheckoutPath(workspace, " "));
+        assertNull(gitRepoHelper.getSparseCheckoutPath(workspace, "."));
+        assertNull(gitRepoHelper.getSparseCheckoutPath(workspace, "./"));
+        assertNull(gitRepoHelper.getSparseCheckoutPath(workspace, "/"));
+        assertNull(gitRepoHelper.getSparseCheckoutPath(workspace, "scripts/.."));
+        assertNull(gitRepoHelper.getSparseCheckoutPath(workspace, "../scripts"));
+    }
+
+    @Test
+    void testSparseCheckoutOfScriptPathAndLocalModules() {
+        Path workspace = tempDir.resolve("sparse");
+        List<File> files =
+                gitRepoHelper.checkoutScripts(workspace.toString(), getScriptsRepo("scripts"));
+
+        assertEquals(1, files.size());
+        assertTrue(Files.exists(workspace.resolve("scripts/main.tf")));
+        assertTrue(Files.exists(workspace.resolve("modules/network/main.tf")));
+        assertFalse(Files.exists(workspace.resolve("unused/main.tf")));
+        assertFalse(Files.exists(workspace.resolve("main.tf")));
+    }
+
+    @Test
+    void testFullCheckoutWhenScriptPathIsRepoRoot() {
+        for (String scriptPath : List.of(".", "./", "/")) {
+            Path workspace = tempDir.resolve("full-" + scriptPath.length());
+            List<File> files =
+                    gitRepoHelper.checkoutScripts(
+                            workspace.toString(), getScriptsRepo(scriptPath));
+
+            assertEquals(1, files.size());
+            assertEquals("main.tf", files.getFirst().getName());
+            assertTrue(Files.exists(workspace.resolve("unused/main.tf")));
+        }
+    }
+
+    private TerraformScriptsGitRepoDetails getScriptsRepo(String scriptPath) {
+        TerraformScriptsGitRepoDetails scriptsRepo = new TerraformScriptsGitRepoDetails();
+        scriptsRepo.setRepoUrl(sourceRepo.toUri().toString());
+        scriptsRepo.setBranch("main");
+        scriptsRepo.setScriptPath(scriptPath);
+        return scriptsRepo;
+    }
+}
@@ -0,0 +1,170 @@
+package org.eclipse.xpanse.terra.boot.terraform.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import org.eclipse.xpanse.terra.boot.models.request.git.TerraformScriptsGitRepoDetails;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class TerraformScriptsGitRepoPrefetcherTest {
+
+    private static final String REPO_URL = "https://github.com/eclipse-xpanse/terra-boot";
+
+    private final TerraformScriptsGitRepoPrefetcher prefetcher =
+            new TerraformScriptsGitRepoPrefetcher();
+    private final TerraformScriptsGitRepoCache gitRepoCache =
+            mock(TerraformScriptsGitRepoCache.class);
+    private final List<String> prefetchedRepos = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(prefetcher, "prefetchEnabled", true);
+        ReflectionTestUtils.setField(prefetcher, "gitRepoCacheEnabled", true);
+        ReflectionTestUtils.setField(prefetcher, "minScoreOfHotRepo", 2L);
+        ReflectionTestUtils.setField(prefetcher, "maxHotRepos", 20);
+        ReflectionTestUtils.setField(prefetcher, "pinnedRepos", List.of());
+        ReflectionTestUtils.setField(prefetcher, "terraformScriptsGitRepoCache", gitRepoCache);
+        setPrefetchExecutor(Runnable::run);
+        doAnswer(
+                        invocation -> {
+                            TerraformScriptsGitRepoDetails scriptsRepo = invocation.getArgument(0);
+                            prefetchedRepos.add(scriptsRepo.getBranch());
+                            return null;
+                        })
+                .when(gitRepoCache)
+                .prefetchScriptsTree(any());
+    }
+
+    @Test
+    void testRepoIsPrefetchedOnlyWhenHot() {
+        recordRequests("cold", 1);
+        recordRequests("hot", 2);
+
+        prefetcher.prefetchHotRepos();
+
+        assertEquals(List.of("hot"), prefetchedRepos);
+    }
+
+    @Test
+    void testScoresAreHalvedOnEachCycle() {
+        recordRequests("main", 4);
+
+        // the score decays 4 -> 2 -> 1 -> 0, the repo is hot in the first 2 cycles only.
+        prefetcher.prefetchHotRepos();
+        prefetcher.prefetchHotRepos();
+        prefetcher.prefetchHotRepos();
+        prefetcher.prefetchHotRepos();
+
+        assertEquals(List.of("main", "main"), prefetchedRepos);
+        // a repo whose score decayed to 0 starts again from the first request.
+        recordRequests("main", 1);
+        prefetcher.prefetchHotRepos();
+        assertEquals(2, prefetchedRepos.size());
+    }
+
+    @Test
+    void testHottestReposArePrefetchedFirst() {
+        ReflectionTestUtils.setField(prefetcher, "maxHotRepos", 2);
+        recordRequests("warm", 2);
+        recordRequests("hottest", 6);
+        recordRequests("hot", 4);
+
+        prefetcher.prefetchHotRepos();
+
+        assertEquals(List.of("hottest", "hot"), prefetchedRepos);
+    }
+
+    @Test
+    void testPinnedReposArePrefetchedOnEachCycle() {
+        ReflectionTestUtils.setField(
+                prefetcher,
+                "pinnedRepos",
+                List.of(REPO_URL + "|pinned|modules/vm", "invalid-config", " "));
+        List<TerraformScriptsGitRepoDetails> pinnedRepos = new ArrayList<>();
+        doAnswer(
+                        invocation -> {
+                            pinnedRepos.add(invocation.getArgument(0));
+                            return null;
+                        })
+                .when(gitRepoCache)
+                .prefetchScriptsTree(any());
+
+        prefetcher.prefetchHotRepos();
+        prefetcher.prefetchHotRepos();
+
+        // pinned repos are never requested, they have no score to decay.
+        assertEquals(2, pinnedRepos.size());
+        assertEquals(REPO_URL, pinnedRepos.getFirst().getRepoUrl());
+        assertEquals("pinned", pinnedRepos.getFirst().getBranch());
+        assertEquals("modules/vm", pinnedRepos.getFirst().getScriptPath());
+    }
+
+    @Test
+    void testRunningPrefetchIsNotSubmittedAgain() {
+        List<Runnable> submittedPrefetches = new ArrayList<>();
+        setPrefetchExecutor(submittedPrefetches::add);
+        recordRequests("main", 8);
+
+        prefetcher.prefetchHotRepos();
+        prefetcher.prefetchHotRepos();
+        assertEquals(1, submittedPrefetches.size());
+
+        submittedPrefetches.getFirst().run();
+        prefetcher.prefetchHotRepos();
+        assertEquals(2, submittedPrefetches.size());
+    }
+
+    @Test
+    void testFailedOrRejectedPrefetchIsRetriedInNextCycle() {
+        doThrow(new IllegalStateException("repo unavailable"))
+                .when(gitRepoCache)
+                .prefetchScriptsTree(any());
+        recordRequests("main", 8);
+        prefetcher.prefetchHotRepos();
+
+        List<Runnable> submittedPrefetches = new ArrayList<>();
+        setPrefetchExecutor(
+                task -> {
+                    throw new RejectedExecutionException("queue full");
+                });
+        prefetcher.prefetchHotRepos();
+        setPrefetchExecutor(submittedPrefetches::add);
+        prefetcher.prefetchHotRepos();
+
+        assertEquals(1, submittedPrefetches.size());
+    }
+
+    @Test
+    void testNothingIsPrefetchedWhenDisabled() {
+        ReflectionTestUtils.setField(prefetcher, "prefetchEnabled", false);
+        ReflectionTestUtils.setField(prefetcher, "pinnedRepos", List.of(REPO_URL + "|pinned"));
+        recordRequests("main", 8);
+
+        prefetcher.prefetchHotRepos();
+
+        assertTrue(prefetchedRepos.isEmpty());
+    }
+
+    private void recordRequests(String branch, int times) {
+        for (int i = 0; i < times; i++) {
+            TerraformScriptsGitRepoDetails scriptsRepo = new TerraformScriptsGitRepoDetails();
+            scriptsRepo.setRepoUrl(REPO_URL);
+            scriptsRepo.setBranch(branch);
+            prefetcher.recordRequest(scriptsRepo);
+        }
+    }
+
+    private void setPrefetchExecutor(Executor executor) {
+        ReflectionTestUtils.setField(prefetcher, "gitPrefetchExecutor", executor);
+    }
+}
@@ -0,0 +1,148 @@
+package org.eclipse.xpanse.terra.boot.terraform.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import org.eclipse.xpanse.terra.boot.async.TaskJournal;
+import org.eclipse.xpanse.terra.boot.async.TaskJournal.TaskJournalEntry;
+import org.eclipse.xpanse.terra.boot.async.TaskJournal.TaskJournalState;
+import org.eclipse.xpanse.terra.boot.models.enums.RequestType;
+import org.eclipse.xpanse.terra.boot.models.request.directory.TerraformAsyncRequestWithScriptsDirectory;
+import org.eclipse.xpanse.terra.boot.models.request.webhook.WebhookConfig;
+import org.eclipse.xpanse.terra.boot.terraform.service.TerraformTaskJournalRecovery.JournaledAsyncRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class TerraformTaskJournalRecoveryTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @TempDir Path tempDir;
+
+    private final TerraformTaskJournalRecovery recovery = new TerraformTaskJournalRecovery();
+    private final TerraformScriptsDirectoryHelper scriptsHelper =
+            new TerraformScriptsDirectoryHelper();
+    private final TaskJournal taskJournal = mock(TaskJournal.class);
+    private final TerraformRequestService requestService = mock(TerraformRequestService.class);
+    private final TerraformScriptsDirectoryService directoryService =
+            mock(TerraformScriptsDirectoryService.class);
+    private final TerraformResultOutbox resultOutbox = mock(TerraformResultOutbox.class);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(scriptsHelper, "cleanWorkspaceAfterDeployment", true);
+        ReflectionTestUtils.setField(recovery, "taskJournal", taskJournal);
+        ReflectionTestUtils.setField(recovery, "requestService", requestService);
+        ReflectionTestUtils.setField(
+                recovery, "terraformScriptsDirectoryService", directoryService);
+        ReflectionTestUtils.setField(recovery, "terraformResultOutbox", resultOutbox);
+        ReflectionTestUtils.setField(recovery, "scriptsDirectoryHelper", scriptsHelper);
+    }
+
+    @Test
+    void testLostWorkspaceOfAcceptedRequestIsRestored() throws Exception {
+        Path workspace = tempDir.resolve("workspace");
+        Files.createDirectories(workspace.resolve("modules/network"));
+        Files.writeString(workspace.resolve("main.tf"), "module \"network\" {}");
+        Files.writeString(workspace.resolve("modules/network/main.tf"), "# network");
+        Files.writeString(workspace.resolve("terraform.tfstate"), "{\"lineage\":\"l-1\"}");
+        Files.createDirectories(workspace.resolve(".terraform/providers"));
+        Files.writeString(workspace.resolve(".terraform/providers/provider"), "binary");
+        TerraformAsyncRequestWithScriptsDirectory request = buildRequest(workspace);
+        TaskJournalEntry entry = journal(request, TaskJournalState.ACCEPTED);
+        // the container is replaced, the workspace is lost with it.
+        scriptsHelper.deleteTaskWorkspace(workspace.toString());
+        when(taskJournal.getRecoveredEntries()).thenReturn(List.of(entry));
+
+        recovery.onApplicationEvent(mock(ApplicationStartedEvent.class));
+
+        ArgumentCaptor<TerraformAsyncRequestWithScriptsDirectory> recoveredRequest =
+                ArgumentCaptor.forClass(TerraformAsyncRequestWithScriptsDirectory.class);
+        verify(requestService).processAsyncDeploymentRequest(recoveredRequest.capture());
+        assertEquals(request.getRequestId(), recoveredRequest.getValue().getRequestId());
+        assertEquals(2, recoveredRequest.getValue().getScriptFiles().size());
+        assertEquals("# network", Files.readString(workspace.resolve("modules/network/main.tf")));
+        assertEquals(
+                "{\"lineage\":\"l-1\"}",
+                Files.readString(workspace.resolve("terraform.tfstate"), StandardCharsets.UTF_8));
+        // the providers installed by the init are not journaled.
+        assertTrue(Files.notExists(workspace.resolve(".terraform")));
+        verify(directoryService, never()).sendFailedAsyncResult(any(), anyString());
+    }
+
+    @Test
+    void testStartedRequestIsReportedAsInterrupted() throws Exception {
+        Path workspace = tempDir.resolve("workspace");
+        Files.createDirectories(workspace);
+        Files.writeString(workspace.resolve("main.tf"), "# main");
+        TerraformAsyncRequestWithScriptsDirectory request = buildRequest(workspace);
+        when(taskJournal.getRecoveredEntries())
+                .thenReturn(List.of(journal(request, TaskJournalState.STARTED)));
+
+        recovery.onApplicationEvent(mock(ApplicationStartedEvent.class));
+
+        verify(directoryService)
+                .sendFailedAsyncResult(
+                        any(), eq("Request was interrupted by a restart of terra-boot."));
+        verify(requestService, never()).processAsyncDeploymentRequest(any());
+    }
+
+    @Test
+    void testRequestWithSentResultIsOnlyCompleted() throws Exception {
+        TerraformAsyncRequestWithScriptsDirectory request = buildRequest(tempDir);
+        when(taskJournal.getRecoveredEntries())
+                .thenReturn(List.of(journal(request, TaskJournalState.RESULT_SENT)));
+
+        recovery.onApplicationEvent(mock(ApplicationStartedEvent.class));
+
+        verify(taskJournal).completed(request.getRequestId().toString());
+        verify(directoryService, never()).sendFailedAsyncResult(any(), anyString());
+        verify(requestService, never()).processAsyncDeploymentRequest(any());
+    }
+
+    private TerraformAsyncRequestWithScriptsDirectory buildRequest(Path workspace) {
+        TerraformAsyncRequestWithScriptsDirectory request =
+                new TerraformAsyncRequestWithScriptsDirectory();
+        request.setRequestId(UUID.randomUUID());
+        request.setRequestType(RequestType.DEPLOY);
+        request.setIsPlanOnly(false);
+        request.setScriptsDirectory(workspace.toString());
+        WebhookConfig webhookConfig = new WebhookConfig();
+        webhookConfig.setUrl("http://localhost/webhook");
+        request.setWebhookConfig(webhookConfig);
+        return request;
+    }
+
+    private TaskJournalEntry journal(
+            TerraformAsyncRequestWithScriptsDirectory request, TaskJournalState state)
+            throws Exception {
+        JournaledAsyncRequest journaledRequest =
+                new JournaledAsyncRequest(
+                        request, scriptsHelper.readWorkspaceFiles(request.getScriptsDirectory()));
+        // the entry is read back from its JSON line like after a restart.
+        String line =
+                OBJECT_MAPPER.writeValueAsString(
+                        new TaskJournalEntry(
+                                request.getRequestId().toString(),
+                                state,
+                                OBJECT_MAPPER.valueToTree(journaledRequest)));
+        return OBJECT_MAPPER.readValue(line, TaskJournalEntry.class);
+    }
+}
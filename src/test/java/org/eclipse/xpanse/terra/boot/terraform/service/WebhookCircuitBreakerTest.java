@@ -0,0 +1,160 @@
+package org.eclipse.xpanse.terra.boot.terraform.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import org.eclipse.xpanse.terra.boot.models.enums.CircuitState;
+import org.eclipse.xpanse.terra.boot.models.response.WebhookEndpointHealth;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class WebhookCircuitBreakerTest {
+
+    private static final String WEBHOOK_URL = "http://localhost:8080/webhook/orderId";
+    private static final long OPEN_DURATION_MILLIS = 200L;
+
+    private final WebhookCircuitBreaker circuitBreaker = new WebhookCircuitBreaker();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(circuitBreaker, "failureThreshold", 3);
+        ReflectionTestUtils.setField(circuitBreaker, "openDurationMillis", OPEN_DURATION_MILLIS);
+        ReflectionTestUtils.setField(circuitBreaker, "meterRegistry", meterRegistry);
+        circuitBreaker.registerMetrics();
+    }
+
+    @Test
+    void testGetEndpoint() {
+        assertEquals(
+                "http://localhost:8080",
+                WebhookCircuitBreaker.getEndpoint("http://localhost:8080/webhook"));
+        assertEquals(
+                "http://localhost:80",
+                WebhookCircuitBreaker.getEndpoint("http://localhost/webhook"));
+        assertEquals(
+                "https://example.com:443",
+                WebhookCircuitBreaker.getEndpoint("HTTPS://example.com/webhook?id=1"));
+        assertEquals(
+                WebhookCircuitBreaker.getEndpoint("http://localhost:80/a"),
+                WebhookCircuitBreaker.getEndpoint("http://localhost/b"));
+    }
+
+    @Test
+    void testCircuitIsClosedWhileDeliveriesSucceed() {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(circuitBreaker.tryAcquire(WEBHOOK_URL));
+        }
+        for (int i = 0; i < 5; i++) {
+            circuitBreaker.onSuccess(WEBHOOK_URL);
+        }
+
+        WebhookEndpointHealth health = getHealth();
+        assertEquals("http://localhost:8080", health.getEndpoint());
+        assertEquals(CircuitState.CLOSED, health.getState());
+        assertEquals(0, health.getConsecutiveFailures());
+        assertNotNull(health.getLastSuccessTime());
+        assertEquals(0, circuitBreaker.getRetryDelayMillis(WEBHOOK_URL));
+    }
+
+    @Test
+    void testFailingEndpointGetsOneDeliveryAtATime() {
+        assertTrue(circuitBreaker.tryAcquire(WEBHOOK_URL));
+        circuitBreaker.onFailure(WEBHOOK_URL, new IOException("connection refused"));
+
+        assertTrue(circuitBreaker.tryAcquire(WEBHOOK_URL));
+        assertFalse(circuitBreaker.tryAcquire(WEBHOOK_URL));
+        circuitBreaker.onSuccess(WEBHOOK_URL);
+
+        assertTrue(circuitBreaker.tryAcquire(WEBHOOK_URL));
+        assertTrue(circuitBreaker.tryAcquire(WEBHOOK_URL));
+        WebhookEndpointHealth health = getHealth();
+        assertEquals(CircuitState.CLOSED, health.getState());
+        assertEquals(1, health.getRejectedDeliveries());
+    }
+
+    @Test
+    void testCircuitOpensAfterFailureThreshold() {
+        failDeliveries(3);
+
+        WebhookEndpointHealth health = getHealth();
+        assertEquals(CircuitState.OPEN, health.getState());
+        assertEquals(3, health.getConsecutiveFailures());
+        assertEquals("connection refused", health.getLastFailureMessage());
+        assertNotNull(health.getRetryTime());
+        assertFalse(circuitBreaker.tryAcquire(WEBHOOK_URL));
+        assertFalse(circuitBreaker.tryAcquire("http://localhost:8080/webhook/otherOrderId"));
+        assertTrue(circuitBreaker.tryAcquire("http://localhost:8081/webhook/orderId"));
+        assertEquals(2, getHealth().getRejectedDeliveries());
+        assertEquals(1, meterRegistry.get("terra.boot.webhook.circuit.open").gauge().value());
+        assertEquals(2, meterRegistry.get("terra.boot.webhook.circuit.rejected").counter().count());
+    }
+
+    @Test
+    void testCircuitStaysOpenForOpenDuration() throws Exception {
+        failDeliveries(3);
+
+        long retryDelayMillis = circuitBreaker.getRetryDelayMillis(WEBHOOK_URL);
+        assertTrue(retryDelayMillis > 0 && retryDelayMillis <= OPEN_DURATION_MILLIS);
+        assertFalse(circuitBreaker.tryAcquire(WEBHOOK_URL));
+
+        Thread.sleep(OPEN_DURATION_MILLIS + 50);
+
+        assertEquals(0, circuitBreaker.getRetryDelayMillis(WEBHOOK_URL));
+        assertTrue(circuitBreaker.tryAcquire(WEBHOOK_URL));
+    }
+
+    @Test
+    void testHalfOpenCircuitLetsSingleProbeThrough() throws Exception {
+        failDeliveries(3);
+        Thread.sleep(OPEN_DURATION_MILLIS + 50);
+
+        assertTrue(circuitBreaker.tryAcquire(WEBHOOK_URL));
+        assertEquals(CircuitState.HALF_OPEN, getHealth().getState());
+        assertNull(getHealth().getRetryTime());
+        assertFalse(circuitBreaker.tryAcquire(WEBHOOK_URL));
+        assertFalse(circuitBreaker.tryAcquire(WEBHOOK_URL));
+
+        circuitBreaker.onSuccess(WEBHOOK_URL);
+
+        assertEquals(CircuitState.CLOSED, getHealth().getState());
+        assertEquals(0, getHealth().getConsecutiveFailures());
+        assertTrue(circuitBreaker.tryAcquire(WEBHOOK_URL));
+        assertTrue(circuitBreaker.tryAcquire(WEBHOOK_URL));
+        assertEquals(0, meterRegistry.get("terra.boot.webhook.circuit.open").gauge().value());
+    }
+
+    @Test
+    void testFailedProbeOpensCircuitAgain() throws Exception {
+        failDeliveries(3);
+        Thread.sleep(OPEN_DURATION_MILLIS + 50);
+
+        assertTrue(circuitBreaker.tryAcquire(WEBHOOK_URL));
+        circuitBreaker.onFailure(WEBHOOK_URL, new IOException("connection refused"));
+
+        assertEquals(CircuitState.OPEN, getHealth().getState());
+        assertEquals(4, getHealth().getConsecutiveFailures());
+        assertTrue(circuitBreaker.getRetryDelayMillis(WEBHOOK_URL) > 0);
+        assertFalse(circuitBreaker.tryAcquire(WEBHOOK_URL));
+    }
+
+    private void failDeliveries(int count) {
+        for (int i = 0; i < count; i++) {
+            assertTrue(circuitBreaker.tryAcquire(WEBHOOK_URL));
+            circuitBreaker.onFailure(WEBHOOK_URL, new IOException("connection refused"));
+        }
+    }
+
+    private WebhookEndpointHealth getHealth() {
+        return circuitBreaker.getEndpointHealth().stream()
+                .filter(health -> health.getEndpoint().equals("http://localhost:8080"))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,123 @@
+package org.eclipse.xpanse.terra.boot.terraform.tool;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.eclipse.xpanse.terra.boot.security.hmac.HmacSignatureHeaderManage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the HMAC signature of webhook payloads from 1 KB to 50 MB. The previous signature is
+ * the implementation before the signing state was reused, it creates a Mac per request and signs
+ * the payload concatenated with the headers. The spooled file signature is the path of the results
+ * delivered from the outbox. Run it with the main method from the test classpath.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HmacSignatureBenchmark {
+
+    private static final String URL = "http://localhost/webhook/orderId";
+    private static final String ALGORITHM = "HmacSHA256";
+
+    @Param({"1024", "65536", "1048576", "52428800"})
+    private int payloadSize;
+
+    private HmacSignatureHeaderManage hmacSignatureHeaderManage;
+    private String payload;
+    private Path spooledFile;
+
+    /** Build the payload and spool it to a file like the outbox does. */
+    @Setup
+    public void setUp() throws Exception {
+        hmacSignatureHeaderManage =
+                new HmacSignatureHeaderManage(HmacSignatureHeaderTest.KEY, ALGORITHM);
+        payload = "{\"terraformState\":\"" + "a".repeat(Math.max(0, payloadSize - 21)) + "\"}";
+        spooledFile = Files.createTempFile("hmac-benchmark", ".json");
+        Files.writeString(spooledFile, payload);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(spooledFile);
+    }
+
+    /** Signature before the signing state was reused. */
+    @Benchmark
+    public Map<String, String> previousStringSignature() throws Exception {
+        return createPreviousSignatureHeader(URL, payload);
+    }
+
+    @Benchmark
+    public Map<String, String> stringSignature() {
+        return hmacSignatureHeaderManage.createHmacSignatureHeader(URL, payload);
+    }
+
+    @Benchmark
+    public Map<String, String> spooledFileSignature() throws IOException {
+        try (InputStream spooledPayload = Files.newInputStream(spooledFile)) {
+            return hmacSignatureHeaderManage.createHmacSignatureHeader(URL, spooledPayload);
+        }
+    }
+
+    private static Map<String, String> createPreviousSignatureHeader(String url, String payload)
+            throws Exception {
+        Mac mac = Mac.getInstance(ALGORITHM);
+        mac.init(new SecretKeySpec(HmacSignatureHeaderTest.KEY.getBytes(), ALGORITHM));
+        byte[] nonceBytes = new byte[16];
+        new SecureRandom().nextBytes(nonceBytes);
+        String nonce = bytesToHex(nonceBytes);
+        String currentTimeStamp = Long.toString(System.currentTimeMillis());
+        String signatureValue =
+                """
+                %s
+                %s
+                %s
+                %s"""
+                        .formatted(nonce, currentTimeStamp, url, payload);
+        String signature = bytesToHex(mac.doFinal(signatureValue.getBytes()));
+        return Map.of(
+                "x-nonce-signature", nonce,
+                "x-timestamp-signature", currentTimeStamp,
+                "x-signature", signature);
+    }
+
+    private static String bytesToHex(byte[] bytes) {
+        StringBuilder result = new StringBuilder();
+        for (byte b : bytes) {
+            result.append(String.format("%02x", b));
+        }
+        return result.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(
+                        new OptionsBuilder()
+                                .include(HmacSignatureBenchmark.class.getSimpleName())
+                                .build())
+                .run();
+    }
+}
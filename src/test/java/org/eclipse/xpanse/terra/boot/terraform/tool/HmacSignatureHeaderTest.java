@@ -1,10 +1,19 @@
 package org.eclipse.xpanse.terra.boot.terraform.tool;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Map;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.apache.commons.codec.binary.Hex;
 import org.assertj.core.api.Assertions;
 import org.eclipse.xpanse.terra.boot.security.hmac.HmacSignatureHeaderManage;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.TestPropertySource;
@@ -13,12 +22,14 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 @ExtendWith(SpringExtension.class)
 @TestPropertySource(
         properties = {
-            "terra.boot.webhook.hmac.request.signing.key=1c30e4b1fad574f88572e25d0da03f34365f4ae92eda22bfd3a8c53cb5102f27",
+            "terra.boot.webhook.hmac.request.signing.key=" + HmacSignatureHeaderTest.KEY,
             "terra.boot.webhook.hmac.request.signing.algorithm=HmacSHA256",
         })
 @ContextConfiguration(classes = {HmacSignatureHeaderManage.class})
 public class HmacSignatureHeaderTest {
 
+    static final String KEY = "1c30e4b1fad574f88572e25d0da03f34365f4ae92eda22bfd3a8c53cb5102f27";
+
     @Autowired HmacSignatureHeaderManage hmacSignatureHeaderManage;
 
     @Test
@@ -30,4 +41,62 @@ public class HmacSignatureHeaderTest {
         Assertions.assertThat(signatureHeaders)
                 .containsKeys("x-signature", "x-nonce-signature", "x-timestamp-signature");
     }
+
+    @Test
+    public void testSignatureOfStreamedPayload() throws Exception {
+        String url = "http://localhost/orderId";
+        String payload = "{\"terraformState\":\"" + "é".repeat(20000) + "\"}";
+        Map<String, String> signatureHeaders =
+                this.hmacSignatureHeaderManage.createHmacSignatureHeader(
+                        url, new ByteArrayInputStream(payload.getBytes(StandardCharsets.UTF_8)));
+        assertSignature(signatureHeaders, url, payload);
+    }
+
+    @Test
+    public void testSignatureOfSpooledPayloadFile(@TempDir Path tempDir) throws Exception {
+        String url = "http://localhost/orderId";
+        // the outbox spools the results to files and signs them while they are streamed.
+        String payload = "{\"terraformState\":\"" + "é".repeat(3 * 1024 * 1024) + "\"}";
+        Path spooledFile = tempDir.resolve("result.json");
+        Files.writeString(spooledFile, payload, StandardCharsets.UTF_8);
+        try (InputStream spooledPayload = Files.newInputStream(spooledFile)) {
+            assertSignature(
+                    this.hmacSignatureHeaderManage.createHmacSignatureHeader(url, spooledPayload),
+                    url,
+                    payload);
+        }
+    }
+
+    @Test
+    public void testSignatureOfPayloadSizes() throws Exception {
+        String url = "http://localhost/orderId";
+        // the signing Mac of the thread is reused, each signature must start from a clean state.
+        for (int size : new int[] {0, 1, 1024, 1024 * 1024, 1024}) {
+            String payload = "é".repeat(size);
+            assertSignature(
+                    this.hmacSignatureHeaderManage.createHmacSignatureHeader(url, payload),
+                    url,
+                    payload);
+        }
+    }
+
+    private void assertSignature(Map<String, String> signatureHeaders, String url, String payload)
+            throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(KEY.getBytes(), "HmacSHA256"));
+        String signatureValue =
+                String.join(
+                        "\n",
+                        signatureHeaders.get("x-nonce-signature"),
+                        signatureHeaders.get("x-timestamp-signature"),
+                        url,
+                        payload);
+        String expectedSignature =
+                Hex.encodeHexString(mac.doFinal(signatureValue.getBytes(StandardCharsets.UTF_8)));
+        Assertions.assertThat(signatureHeaders.get("x-signature"))
+                .isEqualTo(
+                        "algorithm=HmacSHA256;headers=x-nonce-signature x-timestamp-signature;"
+                                + "signature="
+                                + expectedSignature);
+    }
 }
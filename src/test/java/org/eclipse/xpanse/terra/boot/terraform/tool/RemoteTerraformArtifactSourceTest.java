@@ -0,0 +1,312 @@
+package org.eclipse.xpanse.terra.boot.terraform.tool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.eclipse.xpanse.terra.boot.models.exceptions.InvalidTerraformToolException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class RemoteTerraformArtifactSourceTest {
+
+    private static final String VERSION = "1.6.0";
+    private static final String ARTIFACT_NAME = "terraform_1.6.0_linux_amd64.zip";
+    private static final String ENTITY_TAG = "\"a1b2c3\"";
+
+    @TempDir Path installDir;
+
+    private final RemoteTerraformArtifactSource artifactSource =
+            new RemoteTerraformArtifactSource();
+    private final ArtifactServer artifactServer = new ArtifactServer();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        artifactServer.start();
+        ReflectionTestUtils.setField(
+                artifactSource, "terraformDownloadBaseUrl", artifactServer.getBaseUrl());
+        ReflectionTestUtils.setField(artifactSource, "downloadReadTimeoutMillis", 5000);
+        ReflectionTestUtils.setField(artifactSource, "maxResumeAttempts", 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        artifactServer.stop();
+    }
+
+    @Test
+    void testArtifactIsDownloaded() throws IOException {
+        byte[] content = randomBytes(100 * 1024);
+        artifactServer.addArtifact(VERSION, ARTIFACT_NAME, content);
+
+        assertArrayEquals(content, readArtifact());
+        assertEquals(1, artifactServer.requests.size());
+        assertNull(artifactServer.requests.getFirst().range());
+    }
+
+    @Test
+    void testInterruptedDownloadIsResumedWithRange() throws IOException {
+        byte[] content = randomBytes(100 * 1024);
+        artifactServer.addArtifact(VERSION, ARTIFACT_NAME, content);
+        artifactServer.interruptAfterBytes(40000, 1);
+
+        assertArrayEquals(content, readArtifact());
+        assertEquals(2, artifactServer.requests.size());
+        ArtifactRequest resumeRequest = artifactServer.requests.get(1);
+        assertEquals("bytes=40000-", resumeRequest.range());
+        assertEquals(ENTITY_TAG, resumeRequest.ifRange());
+    }
+
+    @Test
+    void testResumeFailsIfServerSendsWholeArtifact() {
+        artifactServer.addArtifact(VERSION, ARTIFACT_NAME, randomBytes(100 * 1024));
+        artifactServer.interruptAfterBytes(40000, 1);
+        // a server which does not support ranges, or whose artifact has changed, sends all of it.
+        artifactServer.rangesSupported = false;
+
+        IOException e = assertThrows(IOException.class, this::readArtifact);
+
+        assertTrue(e.getMessage().contains("from byte 40000 failed, response code 200"));
+    }
+
+    @Test
+    void testResumeAttemptsAreLimited() {
+        ReflectionTestUtils.setField(artifactSource, "maxResumeAttempts", 2);
+        artifactServer.addArtifact(VERSION, ARTIFACT_NAME, randomBytes(100 * 1024));
+        artifactServer.interruptAfterBytes(10000, 3);
+
+        assertThrows(IOException.class, this::readArtifact);
+        assertEquals(3, artifactServer.requests.size());
+    }
+
+    @Test
+    void testExecutorIsUnzippedFromResumedDownload() throws IOException {
+        TerraformVersionsHelper versionsHelper = buildVersionsHelper();
+        byte[] executor = randomBytes(200 * 1024);
+        byte[] binaryZip = buildBinaryZip(executor);
+        publishBinaryZip(versionsHelper, binaryZip, DigestUtils.sha256Hex(binaryZip));
+        artifactServer.interruptAfterBytes(binaryZip.length / 2, 1);
+
+        File executorFile =
+                versionsHelper.installTerraformWithVersion(VERSION, installDir.toString());
+
+        assertEquals(installDir.resolve("terraform-" + VERSION).toFile(), executorFile);
+        assertArrayEquals(executor, Files.readAllBytes(executorFile.toPath()));
+        assertTrue(executorFile.canExecute());
+        // the staging dir of the unzipped executor is not left in the installation dir.
+        assertEquals(List.of(".install.lock", "terraform-" + VERSION), listInstallDir());
+    }
+
+    @Test
+    void testExecutorWithWrongChecksumIsNotInstalled() throws IOException {
+        TerraformVersionsHelper versionsHelper = buildVersionsHelper();
+        byte[] binaryZip = buildBinaryZip(randomBytes(200 * 1024));
+        publishBinaryZip(versionsHelper, binaryZip, DigestUtils.sha256Hex("another zip"));
+
+        InvalidTerraformToolException e =
+                assertThrows(
+                        InvalidTerraformToolException.class,
+                        () ->
+                                versionsHelper.installTerraformWithVersion(
+                                        VERSION, installDir.toString()));
+
+        assertTrue(e.getMessage().contains("Checksum of terraform binary file"));
+        // neither the executor nor its staging dir are left in the installation dir.
+        assertFalse(Files.exists(installDir.resolve("terraform-" + VERSION)));
+        assertTrue(listInstallDir().stream().allMatch(name -> name.equals(".install.lock")));
+    }
+
+    private byte[] readArtifact() throws IOException {
+        try (InputStream artifact = artifactSource.openArtifact(VERSION, ARTIFACT_NAME)) {
+            return artifact.readAllBytes();
+        }
+    }
+
+    private TerraformVersionsHelper buildVersionsHelper() {
+        TerraformArtifactCache artifactCache = new TerraformArtifactCache();
+        ReflectionTestUtils.setField(artifactCache, "artifactSource", artifactSource);
+        TerraformVersionsHelper versionsHelper = new TerraformVersionsHelper();
+        ReflectionTestUtils.setField(versionsHelper, "artifactCache", artifactCache);
+        ReflectionTestUtils.setField(versionsHelper, "checksumVerificationEnabled", true);
+        return versionsHelper;
+    }
+
+    private void publishBinaryZip(
+            TerraformVersionsHelper versionsHelper, byte[] binaryZip, String checksum) {
+        String binaryZipFileName =
+                ReflectionTestUtils.invokeMethod(
+                        versionsHelper, "getTerraformBinaryZipFileName", VERSION);
+        artifactServer.addArtifact(VERSION, binaryZipFileName, binaryZip);
+        artifactServer.addArtifact(
+                VERSION,
+                "terraform_" + VERSION + "_SHA256SUMS",
+                (checksum + "  " + binaryZipFileName + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private List<String> listInstallDir() throws IOException {
+        try (var files = Files.list(installDir)) {
+            return files.map(file -> file.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    private static byte[] buildBinaryZip(byte[] executor) throws IOException {
+        ByteArrayOutputStream zipBytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(zipBytes)) {
+            zip.putNextEntry(new ZipEntry("LICENSE.txt"));
+            zip.write("license".getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+            zip.putNextEntry(new ZipEntry("terraform"));
+            zip.write(executor);
+            zip.closeEntry();
+        }
+        return zipBytes.toByteArray();
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+
+    private record ArtifactRequest(String path, String range, String ifRange) {}
+
+    /**
+     * Local stand-in for the terraform releases site. It supports range requests, and it can cut
+     * the connection of a download after a number of bytes. Plain sockets are used, so that a cut
+     * connection is seen by the client as the early end of the announced content.
+     */
+    private static final class ArtifactServer {
+
+        private final Map<String, byte[]> artifacts = new ConcurrentHashMap<>();
+        private final List<ArtifactRequest> requests = new CopyOnWriteArrayList<>();
+        private final AtomicInteger remainingInterruptions = new AtomicInteger();
+        private volatile int interruptAfterBytes;
+        private volatile boolean rangesSupported = true;
+        private ServerSocket serverSocket;
+
+        private void start() throws IOException {
+            serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            Thread acceptor = new Thread(this::acceptConnections, "artifact-server");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        private void stop() {
+            try {
+                serverSocket.close();
+            } catch (IOException e) {
+                // the server is stopped anyway.
+            }
+        }
+
+        private String getBaseUrl() {
+            return "http://localhost:" + serverSocket.getLocalPort();
+        }
+
+        private void addArtifact(String version, String artifactName, byte[] content) {
+            artifacts.put("/" + version + "/" + artifactName, content);
+        }
+
+        private void interruptAfterBytes(int bytes, int times) {
+            interruptAfterBytes = bytes;
+            remainingInterruptions.set(times);
+        }
+
+        private void acceptConnections() {
+            while (!serverSocket.isClosed()) {
+                try (Socket socket = serverSocket.accept()) {
+                    handle(socket);
+                } catch (IOException e) {
+                    // the server is stopped, or the client has gone away.
+                }
+            }
+        }
+
+        private void handle(Socket socket) throws IOException {
+            BufferedReader reader =
+                    new BufferedReader(
+                            new InputStreamReader(
+                                    socket.getInputStream(), StandardCharsets.ISO_8859_1));
+            String path = reader.readLine().split(" ")[1];
+            Map<String, String> headers = new HashMap<>();
+            String line;
+            while ((line = reader.readLine()) != null && !line.isEmpty()) {
+                int separator = line.indexOf(':');
+                headers.put(
+                        line.substring(0, separator).trim().toLowerCase(Locale.ROOT),
+                        line.substring(separator + 1).trim());
+            }
+            String range = headers.get("range");
+            String ifRange = headers.get("if-range");
+            requests.add(new ArtifactRequest(path, range, ifRange));
+            OutputStream out = socket.getOutputStream();
+            byte[] content = artifacts.get(path);
+            if (content == null) {
+                writeHead(out, "404 Not Found", 0, null);
+                return;
+            }
+            int start = 0;
+            String status = "200 OK";
+            String contentRange = null;
+            if (rangesSupported && range != null && ENTITY_TAG.equals(ifRange)) {
+                start = Integer.parseInt(range.substring("bytes=".length(), range.length() - 1));
+                status = "206 Partial Content";
+                contentRange = "bytes " + start + "-" + (content.length - 1) + "/" + content.length;
+            }
+            writeHead(out, status, content.length - start, contentRange);
+            int end = content.length;
+            if (path.endsWith(".zip") && remainingInterruptions.getAndDecrement() > 0) {
+                // the connection is closed before all the announced bytes were sent.
+                end = Math.min(content.length, start + interruptAfterBytes);
+            }
+            out.write(content, start, end - start);
+            out.flush();
+        }
+
+        private void writeHead(
+                OutputStream out, String status, int contentLength, String contentRange)
+                throws IOException {
+            StringBuilder head = new StringBuilder("HTTP/1.1 ").append(status).append("\r\n");
+            head.append(HttpHeaders.ETAG).append(": ").append(ENTITY_TAG).append("\r\n");
+            head.append(HttpHeaders.CONTENT_LENGTH).append(": ").append(contentLength);
+            head.append("\r\n");
+            if (contentRange != null) {
+                head.append(HttpHeaders.CONTENT_RANGE).append(": ").append(contentRange);
+                head.append("\r\n");
+            }
+            head.append(HttpHeaders.CONNECTION).append(": close\r\n\r\n");
+            out.write(head.toString().getBytes(StandardCharsets.ISO_8859_1));
+        }
+    }
+}
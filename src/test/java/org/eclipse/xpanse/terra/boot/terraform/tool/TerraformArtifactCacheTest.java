@@ -0,0 +1,149 @@
+package org.eclipse.xpanse.terra.boot.terraform.tool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class TerraformArtifactCacheTest {
+
+    private static final String VERSION = "1.6.0";
+    private static final String ARTIFACT_NAME = "terraform_1.6.0_linux_amd64.zip";
+    private static final byte[] CONTENT = "terraform zip".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir Path cacheDir;
+
+    private final TerraformArtifactCache artifactCache = new TerraformArtifactCache();
+    private final TerraformArtifactSource artifactSource = mock(TerraformArtifactSource.class);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ReflectionTestUtils.setField(artifactCache, "artifactCacheDir", cacheDir.toString());
+        ReflectionTestUtils.setField(artifactCache, "offlineEnabled", false);
+        ReflectionTestUtils.setField(artifactCache, "artifactSource", artifactSource);
+        when(artifactSource.openArtifact(VERSION, ARTIFACT_NAME))
+                .thenAnswer(invocation -> new ByteArrayInputStream(CONTENT));
+    }
+
+    @Test
+    void testMissedArtifactIsDownloadedOnce() throws IOException {
+        assertArrayEquals(CONTENT, readArtifact());
+        assertArrayEquals(CONTENT, readArtifact());
+
+        verify(artifactSource, times(1)).openArtifact(VERSION, ARTIFACT_NAME);
+        assertArrayEquals(CONTENT, Files.readAllBytes(cachedArtifact()));
+        // the temp file of the download is renamed into the cache.
+        assertEquals(List.of(ARTIFACT_NAME), listVersionDir());
+    }
+
+    @Test
+    void testOfflineHitIsReadFromCache() throws IOException {
+        Files.createDirectories(cachedArtifact().getParent());
+        Files.write(cachedArtifact(), CONTENT);
+        ReflectionTestUtils.setField(artifactCache, "offlineEnabled", true);
+
+        assertArrayEquals(CONTENT, readArtifact());
+        verifyNoInteractions(artifactSource);
+    }
+
+    @Test
+    void testOfflineMissFailsWithoutDownload() {
+        ReflectionTestUtils.setField(artifactCache, "offlineEnabled", true);
+
+        IOException e = assertThrows(IOException.class, this::readArtifact);
+
+        assertTrue(e.getMessage().contains("not found in the artifact cache dir"));
+        verifyNoInteractions(artifactSource);
+        assertFalse(Files.exists(cachedArtifact()));
+    }
+
+    @Test
+    void testOfflineModeRequiresCacheDir() {
+        ReflectionTestUtils.setField(artifactCache, "artifactCacheDir", "");
+        ReflectionTestUtils.setField(artifactCache, "offlineEnabled", true);
+
+        assertThrows(IOException.class, this::readArtifact);
+        verifyNoInteractions(artifactSource);
+    }
+
+    @Test
+    void testArtifactIsDownloadedDirectlyWithoutCacheDir() throws IOException {
+        ReflectionTestUtils.setField(artifactCache, "artifactCacheDir", "");
+
+        assertArrayEquals(CONTENT, readArtifact());
+        assertArrayEquals(CONTENT, readArtifact());
+
+        verify(artifactSource, times(2)).openArtifact(VERSION, ARTIFACT_NAME);
+    }
+
+    @Test
+    void testFailedDownloadLeavesNoPartialArtifact() throws IOException {
+        when(artifactSource.openArtifact(VERSION, ARTIFACT_NAME))
+                .thenReturn(
+                        new InputStream() {
+                            @Override
+                            public int read() throws IOException {
+                                throw new IOException("connection reset");
+                            }
+                        });
+
+        assertThrows(IOException.class, this::readArtifact);
+
+        assertEquals(List.of(), listVersionDir());
+    }
+
+    @Test
+    void testEvictedArtifactIsDownloadedAgain() throws IOException {
+        readArtifact();
+
+        artifactCache.evictArtifact(VERSION, ARTIFACT_NAME);
+        assertFalse(Files.exists(cachedArtifact()));
+        readArtifact();
+
+        verify(artifactSource, times(2)).openArtifact(VERSION, ARTIFACT_NAME);
+    }
+
+    @Test
+    void testCacheIsNotEvictedInOfflineMode() throws IOException {
+        readArtifact();
+        ReflectionTestUtils.setField(artifactCache, "offlineEnabled", true);
+
+        artifactCache.evictArtifact(VERSION, ARTIFACT_NAME);
+
+        assertTrue(Files.exists(cachedArtifact()));
+    }
+
+    private byte[] readArtifact() throws IOException {
+        try (InputStream artifact = artifactCache.openArtifact(VERSION, ARTIFACT_NAME)) {
+            return artifact.readAllBytes();
+        }
+    }
+
+    private Path cachedArtifact() {
+        return cacheDir.resolve(VERSION).resolve(ARTIFACT_NAME);
+    }
+
+    private List<String> listVersionDir() throws IOException {
+        try (var files = Files.list(cacheDir.resolve(VERSION))) {
+            return files.map(file -> file.getFileName().toString()).toList();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package org.eclipse.xpanse.terra.boot.terraform.tool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class TerraformExecutorsIndexTest {
+
+    private static final int EXECUTOR_SIZE = 512 * 1024;
+
+    @TempDir Path installDir;
+
+    private final TerraformExecutorsIndex executorsIndex = new TerraformExecutorsIndex();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(executorsIndex, "terraformInstallDir", installDir.toString());
+        ReflectionTestUtils.setField(executorsIndex, "installDirMaxSizeMb", 0L);
+        ReflectionTestUtils.setField(executorsIndex, "evictionMinIdleMinutes", 60L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executorsIndex.close();
+    }
+
+    @Test
+    void testInstalledExecutorsAreIndexed() throws IOException {
+        createExecutor("1.6.0", Duration.ZERO);
+        createExecutor("1.7.1", Duration.ZERO);
+        // only executable files named after a version are indexed.
+        createExecutor("1.8.0", Duration.ZERO).toFile().setExecutable(false);
+        Files.writeString(installDir.resolve("terraform-1.9.0.zip"), "zip");
+        Files.createDirectory(installDir.resolve("terraform-1.9.1"));
+        Files.writeString(installDir.resolve(".install.lock"), "");
+
+        executorsIndex.initialize();
+
+        assertEquals(executorFile("1.6.0"), findExecutor(">= 1.6.0"));
+        assertEquals(executorFile("1.7.1"), findExecutor("~> 1.7.0"));
+        assertNull(findExecutor("= 1.8.0"));
+        assertNull(findExecutor(">= 1.9.0"));
+    }
+
+    @Test
+    void testIndexFollowsInstallDir() throws Exception {
+        executorsIndex.initialize();
+        assertNull(findExecutor("= 1.6.0"));
+
+        createExecutor("1.6.0", Duration.ZERO);
+        assertTrue(waitForExecutor("= 1.6.0", true));
+
+        Files.delete(installDir.resolve("terraform-1.6.0"));
+        assertTrue(waitForExecutor("= 1.6.0", false));
+    }
+
+    @Test
+    void testAddedExecutorIsFoundWithoutWatching() throws IOException {
+        ReflectionTestUtils.setField(
+                executorsIndex, "terraformInstallDir", installDir.resolve("missing").toString());
+        // without installation dir nothing is watched, executors are only added by installs.
+        executorsIndex.initialize();
+        Path executor = createExecutor("1.6.0", Duration.ZERO);
+
+        executorsIndex.addExecutor(executor.toFile());
+
+        assertEquals(executorFile("1.6.0"), findExecutor("= 1.6.0"));
+    }
+
+    @Test
+    void testLeastRecentlyUsedExecutorsAreEvicted() throws IOException {
+        ReflectionTestUtils.setField(executorsIndex, "installDirMaxSizeMb", 1L);
+        createExecutor("1.5.0", Duration.ofHours(3));
+        createExecutor("1.6.0", Duration.ofHours(5));
+        createExecutor("1.7.0", Duration.ofHours(2));
+        executorsIndex.initialize();
+        // a lookup records the usage of the executor, so it is no longer the least recently used.
+        findExecutor("= 1.6.0");
+
+        Path installed = createExecutor("1.8.0", Duration.ZERO);
+        executorsIndex.addExecutor(installed.toFile());
+
+        // 2 MB are installed with a budget of 1 MB, the 2 executors idle the longest are evicted.
+        assertFalse(Files.exists(installDir.resolve("terraform-1.5.0")));
+        assertFalse(Files.exists(installDir.resolve("terraform-1.7.0")));
+        assertTrue(Files.exists(installDir.resolve("terraform-1.6.0")));
+        assertTrue(Files.exists(installed));
+        assertNull(findExecutor("= 1.5.0"));
+        assertNull(findExecutor("= 1.7.0"));
+    }
+
+    @Test
+    void testRecentlyUsedExecutorsAreNotEvicted() throws IOException {
+        ReflectionTestUtils.setField(executorsIndex, "installDirMaxSizeMb", 1L);
+        createExecutor("1.5.0", Duration.ofMinutes(30));
+        createExecutor("1.6.0", Duration.ofHours(2));
+        executorsIndex.initialize();
+
+        executorsIndex.addExecutor(createExecutor("1.7.0", Duration.ZERO).toFile());
+
+        // only the executor idle for longer than the min idle time is evicted, even though the
+        // installation dir still exceeds its budget.
+        assertFalse(Files.exists(installDir.resolve("terraform-1.6.0")));
+        assertTrue(Files.exists(installDir.resolve("terraform-1.5.0")));
+        assertTrue(Files.exists(installDir.resolve("terraform-1.7.0")));
+    }
+
+    private Path createExecutor(String version, Duration idleTime) throws IOException {
+        Path executor = installDir.resolve("terraform-" + version);
+        Files.write(executor, new byte[EXECUTOR_SIZE]);
+        executor.toFile().setExecutable(true);
+        Files.setAttribute(
+                executor, "lastAccessTime", FileTime.from(Instant.now().minus(idleTime)));
+        return executor;
+    }
+
+    private File executorFile(String version) {
+        return installDir.resolve("terraform-" + version).toFile().getAbsoluteFile();
+    }
+
+    private File findExecutor(String requiredVersion) {
+        return executorsIndex.findExecutorMatchedRequiredVersion(
+                TerraformVersionConstraint.parse(requiredVersion));
+    }
+
+    private boolean waitForExecutor(String requiredVersion, boolean indexed)
+            throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            if (indexed == (findExecutor(requiredVersion) != null)) {
+                return true;
+            }
+            Thread.sleep(100);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,82 @@
+package org.eclipse.xpanse.terra.boot.terraform.tool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import org.eclipse.xpanse.terra.boot.models.exceptions.InvalidTerraformToolException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class TerraformInstallationWarmUpTest {
+
+    private final TerraformInstallationWarmUp warmUp = new TerraformInstallationWarmUp();
+    private final TerraformVersionsFetcher versionsFetcher = mock(TerraformVersionsFetcher.class);
+    private final TerraformInstaller installer = mock(TerraformInstaller.class);
+    private final List<Runnable> warmUpTasks = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(warmUp, "warmUpEnabled", true);
+        ReflectionTestUtils.setField(warmUp, "versionsFetcher", versionsFetcher);
+        ReflectionTestUtils.setField(warmUp, "installer", installer);
+        Executor warmUpExecutor = warmUpTasks::add;
+        ReflectionTestUtils.setField(warmUp, "warmUpExecutor", warmUpExecutor);
+        when(versionsFetcher.getDefaultVersionsFromConfig()).thenReturn(Set.of("1.6.0", "1.7.1"));
+    }
+
+    @Test
+    void testNotReadyBeforeWarmUpIsFinished() {
+        assertEquals(Status.OUT_OF_SERVICE, warmUp.health().getStatus());
+
+        startWarmUp();
+        assertEquals(2, warmUpTasks.size());
+        warmUpTasks.getFirst().run();
+
+        // ready only after all the versions are installed.
+        assertEquals(Status.OUT_OF_SERVICE, warmUp.health().getStatus());
+        warmUpTasks.get(1).run();
+        Health health = warmUp.health();
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals(Set.of(), health.getDetails().get("failedVersions"));
+        verify(installer).getExecutorPathThatMatchesRequiredVersion("=1.6.0");
+        verify(installer).getExecutorPathThatMatchesRequiredVersion("=1.7.1");
+    }
+
+    @Test
+    void testFailedVersionsDoNotBlockReadiness() {
+        when(installer.getExecutorPathThatMatchesRequiredVersion("=1.7.1"))
+                .thenThrow(new InvalidTerraformToolException("download failed"));
+
+        startWarmUp();
+        warmUpTasks.forEach(Runnable::run);
+
+        Health health = warmUp.health();
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals(Set.of("1.7.1"), health.getDetails().get("failedVersions"));
+    }
+
+    @Test
+    void testReadyAtStartWhenWarmUpIsDisabled() {
+        ReflectionTestUtils.setField(warmUp, "warmUpEnabled", false);
+
+        startWarmUp();
+
+        assertEquals(Status.UP, warmUp.health().getStatus());
+        verifyNoInteractions(installer);
+    }
+
+    private void startWarmUp() {
+        warmUp.onApplicationEvent(mock(ApplicationStartedEvent.class));
+    }
+}
@@ -25,6 +25,9 @@ import org.springframework.boot.test.context.SpringBootTest;
         classes = {
             TerraformInstaller.class,
             TerraformVersionsHelper.class,
+            TerraformExecutorsIndex.class,
+            TerraformArtifactCache.class,
+            RemoteTerraformArtifactSource.class,
             TerraformVersionsCache.class,
             TerraformVersionsFetcher.class,
             SystemCmd.class
@@ -57,31 +60,28 @@ class TerraformInstallerTest {
         assertEquals("terraform", terraformPath);
 
         String requiredVersion1 = "= 1.7.0";
-        String[] operatorAndNumber1 =
-                versionHelper.getOperatorAndNumberFromRequiredVersion(requiredVersion1);
         String terraformPath1 =
                 installer.getExecutorPathThatMatchesRequiredVersion(requiredVersion1);
         assertTrue(
                 versionHelper.checkIfExecutorIsMatchedRequiredVersion(
-                        new File(terraformPath1), operatorAndNumber1[0], operatorAndNumber1[1]));
+                        new File(terraformPath1),
+                        versionHelper.getVersionConstraint(requiredVersion1)));
 
         String requiredVersion2 = "<= v1.6.0";
-        String[] operatorAndNumber2 =
-                versionHelper.getOperatorAndNumberFromRequiredVersion(requiredVersion2);
         String terraformPath2 =
                 installer.getExecutorPathThatMatchesRequiredVersion(requiredVersion2);
         assertTrue(
                 versionHelper.checkIfExecutorIsMatchedRequiredVersion(
-                        new File(terraformPath2), operatorAndNumber2[0], operatorAndNumber2[1]));
+                        new File(terraformPath2),
+                        versionHelper.getVersionConstraint(requiredVersion2)));
 
         String requiredVersion3 = ">= v1.9.0";
-        String[] operatorAndNumber3 =
-                versionHelper.getOperatorAndNumberFromRequiredVersion(requiredVersion3);
         String terraformPath3 =
                 installer.getExecutorPathThatMatchesRequiredVersion(requiredVersion3);
         assertTrue(
                 versionHelper.checkIfExecutorIsMatchedRequiredVersion(
-                        new File(terraformPath3), operatorAndNumber3[0], operatorAndNumber3[1]));
+                        new File(terraformPath3),
+                        versionHelper.getVersionConstraint(requiredVersion3)));
 
         String requiredVersion4 = ">= 100.0.0";
         assertThrows(
@@ -128,31 +128,28 @@ class TerraformInstallerTest {
         assertEquals("terraform", terraformPath);
 
         String requiredVersion1 = "= 1.7.0";
-        String[] operatorAndNumber1 =
-                versionHelper.getOperatorAndNumberFromRequiredVersion(requiredVersion1);
         String terraformPath1 =
                 installer.getExecutorPathThatMatchesRequiredVersion(requiredVersion1);
         assertTrue(
                 versionHelper.checkIfExecutorIsMatchedRequiredVersion(
-                        new File(terraformPath1), operatorAndNumber1[0], operatorAndNumber1[1]));
+                        new File(terraformPath1),
+                        versionHelper.getVersionConstraint(requiredVersion1)));
 
         String requiredVersion2 = "<= v1.6.0";
-        String[] operatorAndNumber2 =
-                versionHelper.getOperatorAndNumberFromRequiredVersion(requiredVersion2);
         String terraformPath2 =
                 installer.getExecutorPathThatMatchesRequiredVersion(requiredVersion2);
         assertTrue(
                 versionHelper.checkIfExecutorIsMatchedRequiredVersion(
-                        new File(terraformPath2), operatorAndNumber2[0], operatorAndNumber2[1]));
+                        new File(terraformPath2),
+                        versionHelper.getVersionConstraint(requiredVersion2)));
 
         String requiredVersion3 = ">= v1.9.0";
-        String[] operatorAndNumber3 =
-                versionHelper.getOperatorAndNumberFromRequiredVersion(requiredVersion3);
         String terraformPath3 =
                 installer.getExecutorPathThatMatchesRequiredVersion(requiredVersion3);
         assertTrue(
                 versionHelper.checkIfExecutorIsMatchedRequiredVersion(
-                        new File(terraformPath3), operatorAndNumber3[0], operatorAndNumber3[1]));
+                        new File(terraformPath3),
+                        versionHelper.getVersionConstraint(requiredVersion3)));
 
         String requiredVersion4 = ">= 100.0.0";
         assertThrows(
@@ -0,0 +1,117 @@
+package org.eclipse.xpanse.terra.boot.terraform.tool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+import java.util.TreeSet;
+import org.eclipse.xpanse.terra.boot.models.exceptions.InvalidTerraformToolException;
+import org.junit.jupiter.api.Test;
+import org.semver4j.Semver;
+
+class TerraformVersionConstraintTest {
+
+    private static final Set<String> AVAILABLE_VERSIONS =
+            Set.of(
+                    "0.15.5", "1.6.0", "1.6.2", "1.6.6", "1.7.0", "1.8.5", "1.9.0", "1.9.8",
+                    "1.10.0-beta1", "1.10.0", "2.0.0");
+
+    private final TerraformVersionsHelper versionsHelper = new TerraformVersionsHelper();
+
+    @Test
+    void testFindBestVersionFromAllAvailableVersions() {
+        assertEquals("1.7.0", findBestVersion("= 1.7.0"));
+        assertEquals("1.7.0", findBestVersion("1.7.0"));
+        assertEquals("1.9.0", findBestVersion(">= 1.9.0"));
+        assertEquals("1.6.0", findBestVersion("<= v1.6.0"));
+        assertEquals("1.9.8", findBestVersion("> 1.9.0, < 1.10.0"));
+        assertEquals("1.6.6", findBestVersion("~> 1.6.1"));
+        assertEquals("1.10.0", findBestVersion("~> 1.6"));
+        assertEquals("1.9.0", findBestVersion(">= 1.9.0, != 1.9.8, < 1.10.0"));
+        assertEquals("0.15.5", findBestVersion("< 1.0.0"));
+        assertNull(findBestVersion("> 2.0.0"));
+        assertNull(findBestVersion("~> 1.10.1"));
+    }
+
+    @Test
+    void testFindBestVersionFromSortedSet() {
+        TreeSet<Semver> versions = new TreeSet<>();
+        AVAILABLE_VERSIONS.forEach(version -> versions.add(Semver.parse(version)));
+        assertEquals(
+                Semver.parse("1.8.5"),
+                TerraformVersionConstraint.parse(">= 1.7.1, < 1.9").findBestVersion(versions));
+        assertEquals(
+                Semver.parse("1.6.0"),
+                TerraformVersionConstraint.parse(">= 1.6.0").findBestVersion(versions));
+        assertNull(TerraformVersionConstraint.parse("= 1.7.1").findBestVersion(versions));
+    }
+
+    @Test
+    void testIsSatisfiedBy() {
+        TerraformVersionConstraint constraint = TerraformVersionConstraint.parse("~> 1.10.0");
+        assertTrue(constraint.isSatisfiedBy(Semver.parse("1.10.5")));
+        assertFalse(constraint.isSatisfiedBy(Semver.parse("1.11.0")));
+        assertFalse(constraint.isSatisfiedBy(Semver.parse("1.10.1-rc1")));
+    }
+
+    @Test
+    void testSingleConditionRequiredVersion() {
+        TerraformVersionConstraint equal = versionsHelper.getVersionConstraint("= 1.7.0");
+        assertTrue(equal.isSatisfiedBy(Semver.parse("1.7.0")));
+        assertFalse(equal.isSatisfiedBy(Semver.parse("1.7.1")));
+        assertTrue(versionsHelper.getVersionConstraint("1.7").isSatisfiedBy(Semver.parse("1.7.0")));
+
+        TerraformVersionConstraint atMost = versionsHelper.getVersionConstraint("<= v1.6.0");
+        assertTrue(atMost.isSatisfiedBy(Semver.parse("1.6.0")));
+        assertTrue(atMost.isSatisfiedBy(Semver.parse("0.15.5")));
+        assertFalse(atMost.isSatisfiedBy(Semver.parse("1.6.1")));
+
+        TerraformVersionConstraint atLeast = versionsHelper.getVersionConstraint(">= V1.9.0");
+        assertTrue(atLeast.isSatisfiedBy(Semver.parse("1.9.0")));
+        assertTrue(atLeast.isSatisfiedBy(Semver.parse("2.0.0")));
+        assertFalse(atLeast.isSatisfiedBy(Semver.parse("1.8.5")));
+
+        TerraformVersionConstraint notEqual = versionsHelper.getVersionConstraint("!=1.8.5");
+        assertFalse(notEqual.isSatisfiedBy(Semver.parse("1.8.5")));
+        assertTrue(notEqual.isSatisfiedBy(Semver.parse("1.9.0")));
+    }
+
+    @Test
+    void testInvalidRequiredVersion() {
+        for (String requiredVersion : new String[] {"", ">=", "=> 1.0.0", "1.x", ">= 1.0.0,"}) {
+            assertFalse(
+                    requiredVersion.matches(
+                            TerraformVersionsHelper.TERRAFORM_REQUIRED_VERSION_REGEX));
+            assertThrows(
+                    InvalidTerraformToolException.class,
+                    () -> versionsHelper.getVersionConstraint(requiredVersion));
+        }
+        assertTrue(
+                ">= 1.2.0, < 2.0.0"
+                        .matches(TerraformVersionsHelper.TERRAFORM_REQUIRED_VERSION_REGEX));
+    }
+
+    @Test
+    void testUnsatisfiableRequiredVersion() {
+        for (String requiredVersion :
+                new String[] {
+                    ">= 1.5.0, < 1.2.0", "> 1.5.0, <= 1.5.0", ">= 1.5, < 1.5", "= 1.5.0, != 1.5.0"
+                }) {
+            assertTrue(
+                    requiredVersion.matches(
+                            TerraformVersionsHelper.TERRAFORM_REQUIRED_VERSION_REGEX));
+            assertThrows(
+                    InvalidTerraformToolException.class,
+                    () -> versionsHelper.getVersionConstraint(requiredVersion));
+        }
+        assertEquals("1.7.0", findBestVersion(">= 1.7.0, <= 1.7.0"));
+    }
+
+    private String findBestVersion(String requiredVersion) {
+        return versionsHelper.findBestVersionFromAllAvailableVersions(
+                AVAILABLE_VERSIONS, versionsHelper.getVersionConstraint(requiredVersion));
+    }
+}
@@ -0,0 +1,122 @@
+package org.eclipse.xpanse.terra.boot.terraform.tool;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.semver4j.Semver;
+
+/**
+ * Compares the resolution of a required version against the available versions. The stream
+ * resolution is the implementation before the version constraints were precompiled, it parses
+ * every available version for each request and orders the matches as strings, so it picks 1.10.0
+ * over 1.9.0. Run it with the main method from the test classpath.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TerraformVersionResolutionBenchmark {
+
+    @Param({"20", "105", "1000"})
+    private int availableVersionCount;
+
+    @Param({"= 1.7.0", ">= 1.9.0", "<= 1.6.0"})
+    private String requiredVersion;
+
+    private Set<String> availableVersions;
+    private Semver[] sortedVersions;
+    private TerraformVersionsHelper versionsHelper;
+    private TerraformVersionConstraint versionConstraint;
+    private String requiredOperator;
+    private String requiredNumber;
+
+    /** Build the available versions 1.0.0, 1.0.1 and so on. */
+    @Setup
+    public void setUp() {
+        availableVersions = new HashSet<>();
+        for (int i = 0; i < availableVersionCount; i++) {
+            availableVersions.add(String.format("1.%d.%d", i / 10, i % 10));
+        }
+        sortedVersions =
+                availableVersions.stream().map(Semver::parse).sorted().toArray(Semver[]::new);
+        versionsHelper = new TerraformVersionsHelper();
+        versionConstraint = versionsHelper.getVersionConstraint(requiredVersion);
+        requiredOperator = StringUtils.substringBefore(requiredVersion, " ");
+        requiredNumber = StringUtils.substringAfter(requiredVersion, " ");
+    }
+
+    /** Resolution before the constraints were precompiled. */
+    @Benchmark
+    public String streamResolution() {
+        return findBestVersionWithStreams(availableVersions, requiredOperator, requiredNumber);
+    }
+
+    /** Resolution of a request, with the memoized constraint and the memoized best version. */
+    @Benchmark
+    public String memoizedResolution() {
+        return versionsHelper.findBestVersionFromAllAvailableVersions(
+                availableVersions, versionsHelper.getVersionConstraint(requiredVersion));
+    }
+
+    /** Binary search over the sorted versions without any memoization. */
+    @Benchmark
+    public int binarySearchResolution() {
+        return TerraformVersionConstraint.parse(requiredVersion)
+                .findBestVersionIndex(sortedVersions);
+    }
+
+    /** Check of a resolved version against the precompiled constraint. */
+    @Benchmark
+    public boolean constraintCheck() {
+        return versionConstraint.isSatisfiedBy(sortedVersions[sortedVersions.length / 2]);
+    }
+
+    private static String findBestVersionWithStreams(
+            Set<String> allAvailableVersions, String requiredOperator, String requiredNumber) {
+        Semver requiredSemver = new Semver(requiredNumber);
+        return switch (requiredOperator) {
+            case "=" ->
+                    allAvailableVersions.stream()
+                            .filter(v -> new Semver(v).isEqualTo(requiredSemver))
+                            .findAny()
+                            .orElse(null);
+            case ">=" ->
+                    allAvailableVersions.stream()
+                            .filter(v -> new Semver(v).isGreaterThanOrEqualTo(requiredSemver))
+                            .min(Comparator.naturalOrder())
+                            .orElse(null);
+            case "<=" ->
+                    allAvailableVersions.stream()
+                            .filter(v -> new Semver(v).isLowerThanOrEqualTo(requiredSemver))
+                            .max(Comparator.naturalOrder())
+                            .orElse(null);
+            default -> null;
+        };
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(
+                        new OptionsBuilder()
+                                .include(TerraformVersionResolutionBenchmark.class.getSimpleName())
+                                .build())
+                .run();
+    }
+}
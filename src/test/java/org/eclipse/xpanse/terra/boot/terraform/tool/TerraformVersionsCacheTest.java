@@ -0,0 +1,48 @@
+package org.eclipse.xpanse.terra.boot.terraform.tool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class TerraformVersionsCacheTest {
+
+    private final TerraformVersionsCache versionsCache = new TerraformVersionsCache();
+    private final TerraformVersionsFetcher versionsFetcher = mock(TerraformVersionsFetcher.class);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(versionsCache, "versionsFetcher", versionsFetcher);
+        ReflectionTestUtils.setField(versionsCache, "getDefaultVersionsOnly", false);
+        when(versionsFetcher.getDefaultVersionsFromConfig()).thenReturn(Set.of("1.6.0"));
+    }
+
+    @Test
+    void testPersistedCatalogIsUsedFirst() {
+        when(versionsFetcher.getPersistedVersions()).thenReturn(Set.of("1.6.0", "1.7.1"));
+
+        assertEquals(Set.of("1.6.0", "1.7.1"), versionsCache.getAvailableVersions());
+        verify(versionsFetcher, never()).getDefaultVersionsFromConfig();
+    }
+
+    @Test
+    void testDefaultVersionsAreUsedWithoutCatalog() {
+        when(versionsFetcher.getPersistedVersions()).thenReturn(Set.of());
+
+        assertEquals(Set.of("1.6.0"), versionsCache.getAvailableVersions());
+    }
+
+    @Test
+    void testDefaultVersionsOnlyIgnoresCatalog() {
+        ReflectionTestUtils.setField(versionsCache, "getDefaultVersionsOnly", true);
+
+        assertEquals(Set.of("1.6.0"), versionsCache.getAvailableVersions());
+        verify(versionsFetcher, never()).getPersistedVersions();
+    }
+}
@@ -0,0 +1,177 @@
+package org.eclipse.xpanse.terra.boot.terraform.tool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class TerraformVersionsFetcherTest {
+
+    private static final String ENTITY_TAG = "\"index-1\"";
+    private static final String LAST_MODIFIED = "Mon, 05 Oct 2026 10:00:00 GMT";
+    private static final String RELEASES_INDEX =
+            """
+            {
+              "name": "terraform",
+              "versions": {
+                "1.6.0": {"name": "terraform", "builds": [{"os": "linux"}]},
+                "1.7.1": {"name": "terraform", "builds": [{"os": "linux"}]},
+                "1.8.0-beta1": {"name": "terraform", "builds": []}
+              }
+            }
+            """;
+
+    @TempDir Path tempDir;
+
+    private final List<IndexRequest> requests = new CopyOnWriteArrayList<>();
+    private volatile boolean indexModified = true;
+    private volatile int responseCode = 200;
+    private HttpServer server;
+    private Path catalogFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        catalogFile = tempDir.resolve("catalog/versions-catalog.json");
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/index.json", this::handleIndexRequest);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void testVersionsAreFetchedAndPersisted() throws Exception {
+        TerraformVersionsFetcher versionsFetcher = buildVersionsFetcher();
+
+        Set<String> versions = versionsFetcher.fetchAvailableVersionsFromTerraformWebsite();
+
+        assertEquals(Set.of("1.6.0", "1.7.1"), versions);
+        assertNull(requests.getFirst().ifNoneMatch());
+        assertNull(requests.getFirst().ifModifiedSince());
+        String persistedCatalog = Files.readString(catalogFile);
+        assertTrue(persistedCatalog.contains("index-1"));
+        assertTrue(persistedCatalog.contains(LAST_MODIFIED));
+    }
+
+    @Test
+    void testNotModifiedIndexUsesPersistedCatalog() throws Exception {
+        buildVersionsFetcher().fetchAvailableVersionsFromTerraformWebsite();
+        indexModified = false;
+        // a restarted service only has the catalog persisted on disk.
+        TerraformVersionsFetcher restartedFetcher = buildVersionsFetcher();
+
+        Set<String> versions = restartedFetcher.fetchAvailableVersionsFromTerraformWebsite();
+
+        assertEquals(Set.of("1.6.0", "1.7.1"), versions);
+        assertEquals(2, requests.size());
+        IndexRequest conditionalRequest = requests.get(1);
+        assertEquals(ENTITY_TAG, conditionalRequest.ifNoneMatch());
+        assertEquals(LAST_MODIFIED, conditionalRequest.ifModifiedSince());
+    }
+
+    @Test
+    void testFailedFetchDoesNotChangePersistedCatalog() throws Exception {
+        buildVersionsFetcher().fetchAvailableVersionsFromTerraformWebsite();
+        String persistedCatalog = Files.readString(catalogFile);
+        responseCode = 503;
+        TerraformVersionsFetcher restartedFetcher = buildVersionsFetcher();
+
+        IOException e =
+                assertThrows(
+                        IOException.class,
+                        restartedFetcher::fetchAvailableVersionsFromTerraformWebsite);
+
+        assertTrue(e.getMessage().contains("response code 503"));
+        assertEquals(persistedCatalog, Files.readString(catalogFile));
+        assertEquals(Set.of("1.6.0", "1.7.1"), restartedFetcher.getPersistedVersions());
+    }
+
+    @Test
+    void testPersistedVersionsAreEmptyWithoutCatalog() {
+        TerraformVersionsFetcher versionsFetcher = buildVersionsFetcher();
+
+        assertTrue(versionsFetcher.getPersistedVersions().isEmpty());
+        assertTrue(requests.isEmpty());
+    }
+
+    @Test
+    void testCorruptedCatalogIsIgnored() throws Exception {
+        Files.createDirectories(catalogFile.getParent());
+        Files.writeString(catalogFile, "{\"versions\":");
+        TerraformVersionsFetcher versionsFetcher = buildVersionsFetcher();
+
+        assertTrue(versionsFetcher.getPersistedVersions().isEmpty());
+        // the index is downloaded without validators, and the catalog is written again.
+        assertEquals(
+                Set.of("1.6.0", "1.7.1"),
+                versionsFetcher.fetchAvailableVersionsFromTerraformWebsite());
+        assertNull(requests.getFirst().ifNoneMatch());
+        assertFalse(buildVersionsFetcher().getPersistedVersions().isEmpty());
+    }
+
+    @Test
+    void testGetDefaultVersionsFromConfig() {
+        TerraformVersionsFetcher versionsFetcher = buildVersionsFetcher();
+        ReflectionTestUtils.setField(
+                versionsFetcher, "defaultVersionsString", " 1.6.0,\t1.7.1 ,\n1.8.2");
+
+        assertEquals(
+                Set.of("1.6.0", "1.7.1", "1.8.2"), versionsFetcher.getDefaultVersionsFromConfig());
+    }
+
+    private TerraformVersionsFetcher buildVersionsFetcher() {
+        TerraformVersionsFetcher versionsFetcher = new TerraformVersionsFetcher();
+        ReflectionTestUtils.setField(
+                versionsFetcher,
+                "terraformDownloadBaseUrl",
+                "http://localhost:" + server.getAddress().getPort());
+        ReflectionTestUtils.setField(
+                versionsFetcher, "versionsCatalogFile", catalogFile.toString());
+        return versionsFetcher;
+    }
+
+    private void handleIndexRequest(HttpExchange exchange) throws IOException {
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+        String ifModifiedSince =
+                exchange.getRequestHeaders().getFirst(HttpHeaders.IF_MODIFIED_SINCE);
+        requests.add(new IndexRequest(ifNoneMatch, ifModifiedSince));
+        if (responseCode != 200) {
+            exchange.sendResponseHeaders(responseCode, -1);
+        } else if (!indexModified && ENTITY_TAG.equals(ifNoneMatch)) {
+            exchange.sendResponseHeaders(304, -1);
+        } else {
+            byte[] index = RELEASES_INDEX.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add(HttpHeaders.ETAG, ENTITY_TAG);
+            exchange.getResponseHeaders().add(HttpHeaders.LAST_MODIFIED, LAST_MODIFIED);
+            exchange.sendResponseHeaders(200, index.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(index);
+            }
+        }
+        exchange.close();
+    }
+
+    private record IndexRequest(String ifNoneMatch, String ifModifiedSince) {}
+}
@@ -0,0 +1,88 @@
+package org.eclipse.xpanse.terra.boot.terraform.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class SystemCmdTest {
+
+    @TempDir Path workspace;
+
+    private final SystemCmd systemCmd = new SystemCmd();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(systemCmd, "maxConcurrentExecutions", 1);
+        systemCmd.initProcessAdmissionLimit();
+    }
+
+    @Test
+    void testCommandOutputIsRead() {
+        SystemCmdResult result =
+                systemCmd.execute("echo terraform", workspace.toString(), false, new HashMap<>());
+
+        assertTrue(result.isCommandSuccessful());
+        assertEquals("terraform", result.getCommandStdOutput());
+    }
+
+    @Test
+    void testHelperCommandsAreNotLimited() throws Exception {
+        CompletableFuture<SystemCmdResult> longRunning = executeAdmittedAsync("sleep 2");
+        waitUntilNoPermitIsLeft();
+
+        long start = System.nanoTime();
+        SystemCmdResult helperResult =
+                systemCmd.execute("true", workspace.toString(), false, new HashMap<>());
+
+        assertTrue(helperResult.isCommandSuccessful());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+        assertFalse(longRunning.isDone());
+        assertTrue(longRunning.get(10, TimeUnit.SECONDS).isCommandSuccessful());
+    }
+
+    @Test
+    void testAdmittedCommandsWaitForFreePermit() throws Exception {
+        CompletableFuture<SystemCmdResult> longRunning = executeAdmittedAsync("sleep 1");
+        waitUntilNoPermitIsLeft();
+
+        long start = System.nanoTime();
+        SystemCmdResult waitingResult =
+                systemCmd.executeWithProcessAdmission(
+                        "true", workspace.toString(), false, new HashMap<>());
+
+        assertTrue(waitingResult.isCommandSuccessful());
+        // the waiting command is only started after the running command released its permit.
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 500);
+        assertTrue(longRunning.get(10, TimeUnit.SECONDS).isCommandSuccessful());
+    }
+
+    private CompletableFuture<SystemCmdResult> executeAdmittedAsync(String cmd) {
+        return CompletableFuture.supplyAsync(
+                () ->
+                        systemCmd.executeWithProcessAdmission(
+                                cmd, workspace.toString(), false, new HashMap<>()));
+    }
+
+    private void waitUntilNoPermitIsLeft() throws InterruptedException {
+        for (int i = 0; i < 100 && availablePermits() > 0; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(0, availablePermits());
+    }
+
+    private int availablePermits() {
+        Semaphore permits =
+                (Semaphore) ReflectionTestUtils.getField(systemCmd, "processAdmissionPermits");
+        return permits.availablePermits();
+    }
+}